@@ -0,0 +1,33 @@
+package com.github.zeger_tak.enversvalidationplugin;
+
+import java.sql.SQLException;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderRegistry;
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Closes the connections shared through the {@link ConnectionProviderRegistry} once the build has ended.
+ * Only active if the plugin is declared with extensions enabled, otherwise the shared connections are closed when the JVM shuts down.
+ */
+@Named("envers-validation")
+@Singleton
+public class ConnectionLifecycleParticipant extends AbstractMavenLifecycleParticipant
+{
+	@Override
+	public void afterSessionEnd(MavenSession session) throws MavenExecutionException
+	{
+		try
+		{
+			ConnectionProviderRegistry.closeAll();
+		}
+		catch (SQLException e)
+		{
+			throw new MavenExecutionException("Unable to close the shared database connections: " + e.getMessage(), e);
+		}
+	}
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.github.zeger_tak.enversvalidationplugin;
 
 import java.io.File;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -13,10 +14,16 @@ import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
 import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
 import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderRegistry;
+import com.github.zeger_tak.enversvalidationplugin.connection.SessionProfile;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
 import com.github.zeger_tak.enversvalidationplugin.entities.ValidationResults;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
 import com.github.zeger_tak.enversvalidationplugin.execution.SetupExecutor;
+import com.github.zeger_tak.enversvalidationplugin.report.StreamingValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
 import com.github.zeger_tak.enversvalidationplugin.utils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
@@ -27,16 +34,43 @@ import org.apache.maven.plugins.annotations.Parameter;
 @Mojo(name = "validate")
 public class EnversValidationMojo extends AbstractMojo
 {
-	private static final String PACKAGE_TO_ALWAYS_SCAN_FOR_EXECUTORS = "com.github.zeger_tak.enversvalidationplugin.validate";
-	private static final String USERNAME_PROPERTY_KEY = "username";
-	private static final String PASSWORD_PROPERTY_KEY = "password";
-	private static final String DRIVER_PROPERTY_KEY = "driver";
-	private static final String URL_PROPERTY_KEY = "url";
-	private static final String AUDIT_TABLE_INFORMATION_FILE_PROPERTY_KEY = "auditTableInformationFile";
+	static final String PACKAGE_TO_ALWAYS_SCAN_FOR_EXECUTORS = "com.github.zeger_tak.enversvalidationplugin.validate";
+	static final String USERNAME_PROPERTY_KEY = "username";
+	static final String PASSWORD_PROPERTY_KEY = "password";
+	static final String DRIVER_PROPERTY_KEY = "driver";
+	static final String URL_PROPERTY_KEY = "url";
+	static final String AUDIT_TABLE_INFORMATION_FILE_PROPERTY_KEY = "auditTableInformationFile";
 	private static final String CONNECTION_PROPERTY_FILE_PROPERTY_KEY = "connectionPropertyFile";
-	private static final String PACKAGE_TO_SCAN_FOR_VALIDATORS_PROPERTY_KEY = "packageToScanForValidators";
-	private static final String IGNORABLES_PROPERTY_KEY = "ignorables";
-	private static final String SCHEMA_PROPERTY_KEY = "schema";
+	static final String PACKAGE_TO_SCAN_FOR_VALIDATORS_PROPERTY_KEY = "packageToScanForValidators";
+	static final String IGNORABLES_PROPERTY_KEY = "ignorables";
+	static final String SCHEMA_PROPERTY_KEY = "schema";
+	static final String REPORT_DIRECTORY_PROPERTY_KEY = "reportDirectory";
+	static final String MAXIMUM_VIOLATION_EXAMPLES_PROPERTY_KEY = "maximumViolationExamples";
+	private static final String REUSE_CONNECTION_PROPERTY_KEY = "reuseConnection";
+	static final String FROM_REVISION_PROPERTY_KEY = "fromRevision";
+	static final String TO_REVISION_PROPERTY_KEY = "toRevision";
+	static final String SINCE_TIMESTAMP_PROPERTY_KEY = "sinceTimestamp";
+	static final String PARTITION_SCAN_PARALLELISM_PROPERTY_KEY = "partitionScanParallelism";
+	static final String DEFAULT_PARTITION_SCAN_PARALLELISM = "4";
+	static final String SESSION_PROFILE_PROPERTY_KEY = "sessionProfile";
+	static final String SESSION_INITIALISATION_STATEMENTS_PROPERTY_KEY = "sessionInitialisationStatements";
+	static final String BULK_SCAN_PARALLELISM_PROPERTY_KEY = "bulkScanParallelism";
+	static final String DEFAULT_BULK_SCAN_PARALLELISM = "4";
+	static final String SNAPSHOT_DIRECTORY_PROPERTY_KEY = "snapshotDirectory";
+	static final String CHANGE_STATISTICS_FILE_PROPERTY_KEY = "changeStatisticsFile";
+	static final String CONSISTENT_SNAPSHOT_PROPERTY_KEY = "consistentSnapshot";
+	static final String REPLICA_URL_PROPERTY_KEY = "replicaUrl";
+	static final String REPLICA_USERNAME_PROPERTY_KEY = "replicaUsername";
+	static final String REPLICA_PASSWORD_PROPERTY_KEY = "replicaPassword";
+	static final String MAXIMUM_REPLICA_LAG_SECONDS_PROPERTY_KEY = "maximumReplicaLagSeconds";
+	static final String MAXIMUM_ROWS_PER_SECOND_PER_CONNECTION_PROPERTY_KEY = "maximumRowsPerSecondPerConnection";
+	static final String MAXIMUM_MEGABYTES_PER_SECOND_PER_CONNECTION_PROPERTY_KEY = "maximumMegabytesPerSecondPerConnection";
+	static final String MAXIMUM_ROWS_PER_SECOND_PROPERTY_KEY = "maximumRowsPerSecond";
+	static final String MAXIMUM_MEGABYTES_PER_SECOND_PROPERTY_KEY = "maximumMegabytesPerSecond";
+	static final String BASELINE_ROUND_TRIP_MILLIS_PROPERTY_KEY = "baselineRoundTripMillis";
+	static final String STATEMENT_TIMEOUT_SECONDS_PROPERTY_KEY = "statementTimeoutSeconds";
+	static final String TABLE_TIME_LIMIT_SECONDS_PROPERTY_KEY = "tableTimeLimitSeconds";
+	static final String SHARE_PARENT_TABLE_SCANS_PROPERTY_KEY = "shareParentTableScans";
 
 	/**
 	 * Database username used to connect with the database.
@@ -109,22 +143,212 @@ public class EnversValidationMojo extends AbstractMojo
 	@Parameter(property = IGNORABLES_PROPERTY_KEY)
 	private List<String> ignorables;
 
+	/**
+	 * Directory to which each violation is written as soon as it is found (violations.jsonl),
+	 * together with a JUnit XML summary of all validations (TEST-envers-validation.xml).
+	 */
+	@Parameter(property = REPORT_DIRECTORY_PROPERTY_KEY, defaultValue = "${project.build.directory}/envers-validation")
+	private File reportDirectory;
+
+	/**
+	 * Maximum number of violations per validation that are kept in memory and included in the log.
+	 * All violations are still written to the report in the {@link #reportDirectory}.
+	 */
+	@Parameter(property = MAXIMUM_VIOLATION_EXAMPLES_PROPERTY_KEY, defaultValue = "100")
+	private int maximumViolationExamples;
+
+	/**
+	 * Share the database connection and the retrieved catalog metadata with other executions in the same build using the same connection, session, replica and fetch limit settings.
+	 * Executions of parallel modules sharing a connection are executed one at a time.
+	 * Shared connections are closed at the end of the build if the plugin is declared with extensions enabled, otherwise when the JVM shuts down.
+	 */
+	@Parameter(property = REUSE_CONNECTION_PROPERTY_KEY, defaultValue = "true")
+	private boolean reuseConnection;
+
+	/**
+	 * Only validate the content of records with at least one revision greater than or equal to this revision.
+	 * The complete history of these records is validated.
+	 */
+	@Parameter(property = FROM_REVISION_PROPERTY_KEY)
+	private Long fromRevision;
+
+	/**
+	 * Only validate the content of records with at least one revision less than or equal to this revision.
+	 * The complete history of these records is validated.
+	 */
+	@Parameter(property = TO_REVISION_PROPERTY_KEY)
+	private Long toRevision;
+
+	/**
+	 * Only validate the content of records with at least one revision created at or after this moment. (E.g. 2017-06-01 or 2017-06-01T12:00:00)
+	 * The complete history of these records is validated.
+	 */
+	@Parameter(property = SINCE_TIMESTAMP_PROPERTY_KEY)
+	private String sinceTimestamp;
+
+	/**
+	 * Maximum number of partitions of a partitioned audit table that are scanned concurrently, each partition scan uses its own connection.
+	 * Use 1 to scan the partitions one by one using the regular connection.
+	 */
+	@Parameter(property = PARTITION_SCAN_PARALLELISM_PROPERTY_KEY, defaultValue = DEFAULT_PARTITION_SCAN_PARALLELISM)
+	private int partitionScanParallelism;
+
+	/**
+	 * Database specific session settings applied to each connection, see {@link SessionProfile}.
+	 */
+	@Parameter(property = SESSION_PROFILE_PROPERTY_KEY, defaultValue = "DEFAULT")
+	private SessionProfile sessionProfile;
+
+	/**
+	 * Degree of parallelism requested for each query when the {@link #sessionProfile} is {@link SessionProfile#BULK_SCAN}.
+	 */
+	@Parameter(property = BULK_SCAN_PARALLELISM_PROPERTY_KEY, defaultValue = DEFAULT_BULK_SCAN_PARALLELISM)
+	private int bulkScanParallelism;
+
+	/**
+	 * Statements executed on each connection after those of the {@link #sessionProfile}. (E.g. 'set work_mem = '1GB'')
+	 */
+	@Parameter(property = SESSION_INITIALISATION_STATEMENTS_PROPERTY_KEY)
+	private List<String> sessionInitialisationStatements = new ArrayList<>();
+
+	/**
+	 * Directory in which the content and audit records of each table are cached, tables which are unchanged since the previous run are then read from this directory instead of the database.
+	 * A table is considered unchanged if its maximum revision and row counts are unchanged, records are not cached if absent.
+	 */
+	@Parameter(property = SNAPSHOT_DIRECTORY_PROPERTY_KEY)
+	private File snapshotDirectory;
+
+	/**
+	 * File in which the change counters of the tables of each audit table are recorded after its content was validated successfully. (E.g. pg_stat_user_tables or USER_TAB_MODIFICATIONS)
+	 * The content of audit tables of which the content, audit and parent tables are unchanged since then is not validated again, all audit tables are validated if absent.
+	 */
+	@Parameter(property = CHANGE_STATISTICS_FILE_PROPERTY_KEY)
+	private File changeStatisticsFile;
+
+	/**
+	 * Read all tables from a single snapshot of the database, shared by all connections, so transactions committed during the validation do not cause false violations.
+	 * Uses an exported repeatable read snapshot on Postgresql and flashback at a pinned SCN on Oracle, which requires execute privileges on DBMS_FLASHBACK.
+	 */
+	@Parameter(property = CONSISTENT_SNAPSHOT_PROPERTY_KEY, defaultValue = "false")
+	private boolean consistentSnapshot;
+
+	/**
+	 * JDBC connection string of a replica of the database, the content and audit tables are scanned on this replica instead of the database itself.
+	 * Catalog and constraint queries are still executed on the database itself. This parameter may also be provided in the {@link #connectionPropertyFile}.
+	 */
+	@Parameter(property = REPLICA_URL_PROPERTY_KEY)
+	private String replicaUrl;
+
+	/**
+	 * Database username used to connect with the replica, defaults to the {@link #username}.
+	 * This parameter may also be provided in the {@link #connectionPropertyFile}.
+	 */
+	@Parameter(property = REPLICA_USERNAME_PROPERTY_KEY)
+	private String replicaUsername;
+
+	/**
+	 * Database user password used to connect with the replica, defaults to the {@link #password}.
+	 * This parameter may also be provided in the {@link #connectionPropertyFile}.
+	 */
+	@Parameter(property = REPLICA_PASSWORD_PROPERTY_KEY)
+	private String replicaPassword;
+
+	/**
+	 * The validation fails if the replica lags more than this number of seconds behind at the start of the validation, the replication lag is not verified if absent.
+	 */
+	@Parameter(property = MAXIMUM_REPLICA_LAG_SECONDS_PROPERTY_KEY)
+	private Long maximumReplicaLagSeconds;
+
+	/**
+	 * Maximum number of rows fetched per second by each connection, unlimited if absent.
+	 * On Postgresql throttled queries are executed within a read only transaction, otherwise the driver fetches all rows at once regardless of the throttle.
+	 */
+	@Parameter(property = MAXIMUM_ROWS_PER_SECOND_PER_CONNECTION_PROPERTY_KEY)
+	private Double maximumRowsPerSecondPerConnection;
+
+	/**
+	 * Maximum number of megabytes fetched per second by each connection, based on an estimate of the size of each value. Unlimited if absent.
+	 */
+	@Parameter(property = MAXIMUM_MEGABYTES_PER_SECOND_PER_CONNECTION_PROPERTY_KEY)
+	private Double maximumMegabytesPerSecondPerConnection;
+
+	/**
+	 * Maximum number of rows fetched per second by all connections together, unlimited if absent.
+	 */
+	@Parameter(property = MAXIMUM_ROWS_PER_SECOND_PROPERTY_KEY)
+	private Double maximumRowsPerSecond;
+
+	/**
+	 * Maximum number of megabytes fetched per second by all connections together, unlimited if absent.
+	 */
+	@Parameter(property = MAXIMUM_MEGABYTES_PER_SECOND_PROPERTY_KEY)
+	private Double maximumMegabytesPerSecond;
+
+	/**
+	 * Usual round trip time to the database in milliseconds, fetching backs off while round trips take longer than this. Fetching does not back off if absent.
+	 */
+	@Parameter(property = BASELINE_ROUND_TRIP_MILLIS_PROPERTY_KEY)
+	private Long baselineRoundTripMillis;
+
+	/**
+	 * Number of seconds after which a single query is cancelled, queries are not limited if absent.
+	 */
+	@Parameter(property = STATEMENT_TIMEOUT_SECONDS_PROPERTY_KEY)
+	private Integer statementTimeoutSeconds;
+
+	/**
+	 * Number of seconds a single validation, or loading the data of a single table, may take before its queries are cancelled and it is reported as timed out.
+	 * Validations are not limited if absent.
+	 */
+	@Parameter(property = TABLE_TIME_LIMIT_SECONDS_PROPERTY_KEY)
+	private Long tableTimeLimitSeconds;
+
+	/**
+	 * Scan each parent table shared by several audit tables of an inheritance hierarchy only once, instead of joining it in the queries of each audit table.
+	 * The rows of these parent tables are kept in memory during the content validation.
+	 */
+	@Parameter(property = SHARE_PARENT_TABLE_SCANS_PROPERTY_KEY, defaultValue = "false")
+	private boolean shareParentTableScans;
+
 	@Override
 	public void execute() throws MojoFailureException
 	{
 		final ConnectionProviderInstance connectionProvider = createConnectionProvider(connectionPropertyFile);
-		final Map<String, AuditTableInformation> auditTableInformationMap = PropertyUtils.getAuditTableInformationMap(connectionProvider.getAuditTableInformationFile(), connectionProvider.getQueries().getAuditTablePostFix());
+		// Cancels the running queries when the build is interrupted, otherwise these keep running on the database after the JVM has exited.
+		final Thread cancellationHook = new Thread(connectionProvider::cancelRunningStatements);
+		Runtime.getRuntime().addShutdownHook(cancellationHook);
+		try
+		{
+			validate(connectionProvider);
+		}
+		finally
+		{
+			removeShutdownHook(cancellationHook);
+			releaseConnectionProvider(connectionProvider);
+		}
+	}
+
+	private void validate(@Nonnull ConnectionProviderInstance connectionProvider) throws MojoFailureException
+	{
+		final Map<String, AuditTableInformation> auditTableInformationMap = PropertyUtils.getAuditTableInformationMap(auditTableInformationFile, connectionProvider.getQueries().getAuditTablePostFix());
 
 		final ValidationResults validationResults = new ValidationResults();
 		packageToScanForValidators.add(PACKAGE_TO_ALWAYS_SCAN_FOR_EXECUTORS);
-		try
+		// A failure to close the report is added as suppressed exception, instead of replacing the exception thrown by the validations.
+		try (ValidationReport validationReport = new StreamingValidationReport(reportDirectory, maximumViolationExamples))
 		{
-			new SetupExecutor(getLog(), ignorables, connectionProvider).execute(packageToScanForValidators, auditTableInformationMap, validationResults);
+			final SetupExecutor setupExecutor = new SetupExecutor(getLog(), ignorables, connectionProvider, validationReport);
+			setupExecutor.setChangeStatisticsFile(changeStatisticsFile);
+			setupExecutor.execute(packageToScanForValidators, auditTableInformationMap, validationResults);
 		}
 		catch (RuntimeException e)
 		{
 			getLog().error(e);
-			throw new MojoFailureException("Exception occurred: " + e.getMessage());
+			throw new MojoFailureException("Exception occurred: " + e.getMessage(), e);
+		}
+		finally
+		{
+			getLog().info("Validation report written to " + reportDirectory.getAbsolutePath());
 		}
 
 		final List<Class> validatorClassesIgnored = validationResults.getValidatorClassesIgnored();
@@ -133,6 +357,12 @@ public class EnversValidationMojo extends AbstractMojo
 			getLog().info("The following validators were ignored: " + validatorClassesIgnored);
 		}
 
+		final List<String> timedOutExecutions = validationResults.getTimedOutExecutions();
+		if (!timedOutExecutions.isEmpty())
+		{
+			getLog().warn("The following validations timed out: " + timedOutExecutions);
+		}
+
 		final int executionsFailed = validationResults.getExecutionsFailed();
 		if (executionsFailed > 0)
 		{
@@ -146,7 +376,92 @@ public class EnversValidationMojo extends AbstractMojo
 		updatePropertiesFromPropertyFile(file);
 		validateAllRequiredPropertiesAreAvailable();
 
-		return new ConnectionProviderInstance(url, driver, username, password, schema, auditTableInformationFile);
+		final RevisionWindow revisionWindow = new RevisionWindow(fromRevision, toRevision, StringUtils.isBlank(sinceTimestamp) ? null : PropertyUtils.parseTimestamp(sinceTimestamp));
+		if (!revisionWindow.isUnbounded())
+		{
+			getLog().info("Only records with revisions within " + revisionWindow + " are validated.");
+		}
+
+		if (reuseConnection)
+		{
+			// Every setting which affects the state of the connections is part of the key, so an execution never inherits the session settings of another execution.
+			final String key = ConnectionProviderRegistry.createKey(url, driver, username, password, schema, revisionWindow, sessionProfile, bulkScanParallelism, sessionInitialisationStatements, replicaUrl, replicaUsername, replicaPassword, maximumRowsPerSecondPerConnection, maximumMegabytesPerSecondPerConnection, maximumRowsPerSecond, maximumMegabytesPerSecond, baselineRoundTripMillis);
+			return ConnectionProviderRegistry.acquire(key, () -> newConnectionProvider(revisionWindow), this::configureConnectionProvider);
+		}
+
+		final ConnectionProviderInstance connectionProvider = newConnectionProvider(revisionWindow);
+		try
+		{
+			configureConnectionProvider(connectionProvider);
+		}
+		catch (RuntimeException e)
+		{
+			releaseConnectionProvider(connectionProvider);
+			throw e;
+		}
+		return connectionProvider;
+	}
+
+	/**
+	 * Applies the settings of this execution, some of which already open a connection and may therefore fail.
+	 */
+	private void configureConnectionProvider(@Nonnull ConnectionProviderInstance connectionProvider)
+	{
+		connectionProvider.setLog(getLog());
+		connectionProvider.setPartitionScanParallelism(partitionScanParallelism);
+		connectionProvider.setSessionProfile(sessionProfile, bulkScanParallelism, sessionInitialisationStatements);
+		connectionProvider.setSnapshotDirectory(snapshotDirectory);
+		connectionProvider.setConsistentSnapshot(consistentSnapshot);
+		connectionProvider.setFetchLimits(new FetchLimits(maximumRowsPerSecondPerConnection, maximumMegabytesPerSecondPerConnection), new FetchLimits(maximumRowsPerSecond, maximumMegabytesPerSecond), baselineRoundTripMillis);
+		connectionProvider.setTimeouts(statementTimeoutSeconds, tableTimeLimitSeconds);
+		connectionProvider.setShareParentTableScans(shareParentTableScans);
+		try
+		{
+			connectionProvider.setReplica(StringUtils.isBlank(replicaUrl) ? null : replicaUrl, replicaUsername, replicaPassword, maximumReplicaLagSeconds);
+		}
+		catch (SQLException e)
+		{
+			getLog().warn("Unable to close the previous replica connection: " + e.getMessage());
+		}
+	}
+
+	@Nonnull
+	private ConnectionProviderInstance newConnectionProvider(@Nonnull RevisionWindow revisionWindow)
+	{
+		final ConnectionProviderInstance connectionProvider = new ConnectionProviderInstance(url, driver, username, password, schema);
+		connectionProvider.setRevisionWindow(revisionWindow);
+		return connectionProvider;
+	}
+
+	private static void removeShutdownHook(@Nonnull Thread shutdownHook)
+	{
+		try
+		{
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		}
+		catch (IllegalStateException e)
+		{
+			// The JVM is already shutting down, the hook is running or has run.
+		}
+	}
+
+	private void releaseConnectionProvider(@Nonnull ConnectionProviderInstance connectionProvider)
+	{
+		try
+		{
+			if (reuseConnection)
+			{
+				ConnectionProviderRegistry.release(connectionProvider);
+			}
+			else
+			{
+				connectionProvider.close();
+			}
+		}
+		catch (SQLException e)
+		{
+			getLog().warn("Unable to close the database connection: " + e.getMessage());
+		}
 	}
 
 	private void updatePropertiesFromPropertyFile(@Nullable File file) throws MojoFailureException
@@ -185,6 +500,18 @@ public class EnversValidationMojo extends AbstractMojo
 		{
 			schema = connectionPropertiesInFile.getProperty(SCHEMA_PROPERTY_KEY);
 		}
+		if (replicaUrl == null)
+		{
+			replicaUrl = connectionPropertiesInFile.getProperty(REPLICA_URL_PROPERTY_KEY);
+		}
+		if (replicaUsername == null)
+		{
+			replicaUsername = connectionPropertiesInFile.getProperty(REPLICA_USERNAME_PROPERTY_KEY);
+		}
+		if (replicaPassword == null)
+		{
+			replicaPassword = connectionPropertiesInFile.getProperty(REPLICA_PASSWORD_PROPERTY_KEY);
+		}
 	}
 
 	private void validateAllRequiredPropertiesAreAvailable() throws MojoFailureException
@@ -0,0 +1,300 @@
+package com.github.zeger_tak.enversvalidationplugin;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.SessionProfile;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import com.github.zeger_tak.enversvalidationplugin.entities.ValidationResults;
+import com.github.zeger_tak.enversvalidationplugin.execution.SetupExecutor;
+import com.github.zeger_tak.enversvalidationplugin.report.StreamingValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.utils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Standalone alternative to the {@link EnversValidationMojo}, which keeps the connection, the catalog and the validator descriptors warm between validation runs.
+ * A validation run is executed on startup, on a fixed interval and/or whenever the trigger file is created.
+ *
+ * Usage: java -cp [plugin, its dependencies and the jdbc driver] com.github.zeger_tak.enversvalidationplugin.ValidationDaemon daemon.properties
+ *
+ * The property file supports the same properties as the connection property file of the {@link EnversValidationMojo}, together with:
+ * - intervalSeconds: Delay in seconds between the end of a run and the start of the next scheduled run, no scheduled runs are executed if absent.
+ * - triggerFile: A run is executed whenever this file exists, the file is removed once the run is started.
+ */
+public final class ValidationDaemon
+{
+	static final String INTERVAL_SECONDS_PROPERTY_KEY = "intervalSeconds";
+	static final String TRIGGER_FILE_PROPERTY_KEY = "triggerFile";
+	private static final long TRIGGER_FILE_POLL_INTERVAL_MILLIS = 500;
+	private static final String DEFAULT_REPORT_DIRECTORY = "envers-validation";
+
+	private final Log log;
+	private final ConnectionProviderInstance connectionProvider;
+	private final String auditTableInformationFile;
+	private final List<String> packagesToScanForValidators;
+	private final List<String> ignorables;
+	private final File reportDirectory;
+	private final int maximumViolationExamples;
+	private final long intervalSeconds;
+	private final File triggerFile;
+	private final File changeStatisticsFile;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+	ValidationDaemon(@Nonnull Properties properties, @Nonnull Log log) throws MojoFailureException
+	{
+		this(properties, log, createConnectionProvider(properties, log));
+	}
+
+	ValidationDaemon(@Nonnull Properties properties, @Nonnull Log log, @Nonnull ConnectionProviderInstance connectionProvider) throws MojoFailureException
+	{
+		this.log = log;
+		this.connectionProvider = connectionProvider;
+		auditTableInformationFile = getRequiredProperty(properties, EnversValidationMojo.AUDIT_TABLE_INFORMATION_FILE_PROPERTY_KEY);
+
+		packagesToScanForValidators = new ArrayList<>(getListProperty(properties, EnversValidationMojo.PACKAGE_TO_SCAN_FOR_VALIDATORS_PROPERTY_KEY, ","));
+		packagesToScanForValidators.add(EnversValidationMojo.PACKAGE_TO_ALWAYS_SCAN_FOR_EXECUTORS);
+		ignorables = getListProperty(properties, EnversValidationMojo.IGNORABLES_PROPERTY_KEY, ",");
+		reportDirectory = new File(properties.getProperty(EnversValidationMojo.REPORT_DIRECTORY_PROPERTY_KEY, DEFAULT_REPORT_DIRECTORY));
+		maximumViolationExamples = Integer.parseInt(properties.getProperty(EnversValidationMojo.MAXIMUM_VIOLATION_EXAMPLES_PROPERTY_KEY, String.valueOf(ValidationReport.DEFAULT_MAXIMUM_EXAMPLES_PER_VALIDATION)));
+		intervalSeconds = Long.parseLong(properties.getProperty(INTERVAL_SECONDS_PROPERTY_KEY, "0"));
+
+		final String triggerFileName = properties.getProperty(TRIGGER_FILE_PROPERTY_KEY);
+		triggerFile = StringUtils.isBlank(triggerFileName) ? null : new File(triggerFileName);
+
+		final String changeStatisticsFileName = properties.getProperty(EnversValidationMojo.CHANGE_STATISTICS_FILE_PROPERTY_KEY);
+		changeStatisticsFile = StringUtils.isBlank(changeStatisticsFileName) ? null : new File(changeStatisticsFileName);
+	}
+
+	public static void main(String[] args) throws MojoFailureException, InterruptedException
+	{
+		if (args.length != 1)
+		{
+			System.err.println("Usage: " + ValidationDaemon.class.getName() + " <property file>");
+			System.exit(1);
+		}
+
+		final ValidationDaemon validationDaemon = new ValidationDaemon(PropertyUtils.getPropertiesFromFile(new File(args[0])), new SystemStreamLog());
+		Runtime.getRuntime().addShutdownHook(new Thread(validationDaemon::stop));
+		validationDaemon.start();
+		validationDaemon.awaitTermination();
+	}
+
+	void start()
+	{
+		scheduler.execute(() -> runLoggingFailures(this::validate));
+		if (intervalSeconds > 0)
+		{
+			scheduler.scheduleWithFixedDelay(() -> runLoggingFailures(this::validate), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+			log.info("Validating every " + intervalSeconds + " seconds.");
+		}
+		if (triggerFile != null)
+		{
+			scheduler.scheduleWithFixedDelay(() -> runLoggingFailures(this::validateIfTriggered), TRIGGER_FILE_POLL_INTERVAL_MILLIS, TRIGGER_FILE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+			log.info("Validating whenever " + triggerFile.getAbsolutePath() + " is created.");
+		}
+		if (intervalSeconds <= 0 && triggerFile == null)
+		{
+			scheduler.shutdown();
+		}
+	}
+
+	void stop()
+	{
+		scheduler.shutdownNow();
+		connectionProvider.cancelRunningStatements();
+		try
+		{
+			connectionProvider.close();
+		}
+		catch (SQLException e)
+		{
+			log.warn("Unable to close the database connection: " + e.getMessage());
+		}
+	}
+
+	private void awaitTermination() throws InterruptedException
+	{
+		while (!scheduler.awaitTermination(1, TimeUnit.HOURS))
+		{
+			log.debug("Validation daemon is still running.");
+		}
+		stop();
+	}
+
+	/**
+	 * A scheduled task which throws is never executed again, so every failure is logged instead.
+	 */
+	private void runLoggingFailures(@Nonnull Runnable task)
+	{
+		try
+		{
+			task.run();
+		}
+		catch (Throwable e)
+		{
+			log.error("Unexpected failure of the validation daemon, the next run is executed as scheduled.", e);
+		}
+	}
+
+	void validateIfTriggered()
+	{
+		if (triggerFile.exists())
+		{
+			if (!triggerFile.delete())
+			{
+				log.warn("Unable to remove trigger file " + triggerFile.getAbsolutePath() + ", validation is not started.");
+				return;
+			}
+			validate();
+		}
+	}
+
+	/**
+	 * Executes all validators once, all exceptions are logged so the next run is executed regardless.
+	 * Runs are executed by a single thread, so runs never overlap.
+	 * Broken connections are re-established at the start of a run, and after a run which could not be completed.
+	 * The catalog is retrieved again for each run, so tables and columns added by a migration since the previous run are validated.
+	 */
+	void validate()
+	{
+		final long start = System.currentTimeMillis();
+		final ValidationResults validationResults = new ValidationResults();
+		connectionProvider.closeBrokenConnections();
+		connectionProvider.clearCatalogCache();
+		// A failure to close the report is added as suppressed exception, instead of replacing the exception thrown by the validations.
+		try (ValidationReport validationReport = new StreamingValidationReport(reportDirectory, maximumViolationExamples))
+		{
+			final Map<String, AuditTableInformation> auditTableInformationMap = PropertyUtils.getAuditTableInformationMap(auditTableInformationFile, connectionProvider.getQueries().getAuditTablePostFix());
+			final SetupExecutor setupExecutor = new SetupExecutor(log, ignorables, connectionProvider, validationReport);
+			setupExecutor.setChangeStatisticsFile(changeStatisticsFile);
+			setupExecutor.execute(packagesToScanForValidators, auditTableInformationMap, validationResults);
+			log.info("Validation finished in " + (System.currentTimeMillis() - start) + " ms, " + validationResults.getExecutionsFailed() + " validations failed, " + validationResults.getTimedOutExecutions().size() + " of which timed out.");
+		}
+		catch (MojoFailureException | RuntimeException e)
+		{
+			log.error("Validation could not be completed, the connection is re-established for the next run.", e);
+			reconnect();
+		}
+	}
+
+	private void reconnect()
+	{
+		try
+		{
+			connectionProvider.close();
+		}
+		catch (SQLException e)
+		{
+			log.warn("Unable to close the database connection: " + e.getMessage());
+		}
+	}
+
+	@Nonnull
+	private static ConnectionProviderInstance createConnectionProvider(@Nonnull Properties properties, @Nonnull Log log) throws MojoFailureException
+	{
+		final ConnectionProviderInstance connectionProvider = new ConnectionProviderInstance(getRequiredProperty(properties, EnversValidationMojo.URL_PROPERTY_KEY), getRequiredProperty(properties, EnversValidationMojo.DRIVER_PROPERTY_KEY), getRequiredProperty(properties, EnversValidationMojo.USERNAME_PROPERTY_KEY), getRequiredProperty(properties, EnversValidationMojo.PASSWORD_PROPERTY_KEY), properties.getProperty(EnversValidationMojo.SCHEMA_PROPERTY_KEY));
+		connectionProvider.setLog(log);
+		connectionProvider.setRevisionWindow(getRevisionWindow(properties));
+		connectionProvider.setPartitionScanParallelism(Integer.parseInt(properties.getProperty(EnversValidationMojo.PARTITION_SCAN_PARALLELISM_PROPERTY_KEY, EnversValidationMojo.DEFAULT_PARTITION_SCAN_PARALLELISM)));
+		connectionProvider.setSessionProfile(SessionProfile.valueOf(properties.getProperty(EnversValidationMojo.SESSION_PROFILE_PROPERTY_KEY, SessionProfile.DEFAULT.name())), Integer.parseInt(properties.getProperty(EnversValidationMojo.BULK_SCAN_PARALLELISM_PROPERTY_KEY, EnversValidationMojo.DEFAULT_BULK_SCAN_PARALLELISM)), getListProperty(properties, EnversValidationMojo.SESSION_INITIALISATION_STATEMENTS_PROPERTY_KEY, ";"));
+		final String snapshotDirectory = properties.getProperty(EnversValidationMojo.SNAPSHOT_DIRECTORY_PROPERTY_KEY);
+		connectionProvider.setSnapshotDirectory(StringUtils.isBlank(snapshotDirectory) ? null : new File(snapshotDirectory));
+		connectionProvider.setConsistentSnapshot(Boolean.parseBoolean(properties.getProperty(EnversValidationMojo.CONSISTENT_SNAPSHOT_PROPERTY_KEY)));
+		setReplica(connectionProvider, properties);
+		connectionProvider.setFetchLimits(new FetchLimits(getDoubleProperty(properties, EnversValidationMojo.MAXIMUM_ROWS_PER_SECOND_PER_CONNECTION_PROPERTY_KEY), getDoubleProperty(properties, EnversValidationMojo.MAXIMUM_MEGABYTES_PER_SECOND_PER_CONNECTION_PROPERTY_KEY)), new FetchLimits(getDoubleProperty(properties, EnversValidationMojo.MAXIMUM_ROWS_PER_SECOND_PROPERTY_KEY), getDoubleProperty(properties, EnversValidationMojo.MAXIMUM_MEGABYTES_PER_SECOND_PROPERTY_KEY)), getLongProperty(properties, EnversValidationMojo.BASELINE_ROUND_TRIP_MILLIS_PROPERTY_KEY));
+		final Long statementTimeoutSeconds = getLongProperty(properties, EnversValidationMojo.STATEMENT_TIMEOUT_SECONDS_PROPERTY_KEY);
+		connectionProvider.setTimeouts(statementTimeoutSeconds == null ? null : Math.toIntExact(statementTimeoutSeconds), getLongProperty(properties, EnversValidationMojo.TABLE_TIME_LIMIT_SECONDS_PROPERTY_KEY));
+		connectionProvider.setShareParentTableScans(Boolean.parseBoolean(properties.getProperty(EnversValidationMojo.SHARE_PARENT_TABLE_SCANS_PROPERTY_KEY)));
+		return connectionProvider;
+	}
+
+	@Nonnull
+	private static String getRequiredProperty(@Nonnull Properties properties, @Nonnull String key) throws MojoFailureException
+	{
+		final String value = properties.getProperty(key);
+		if (StringUtils.isBlank(value))
+		{
+			throw new MojoFailureException("The required property " + key + " is missing from the property file.");
+		}
+		return value;
+	}
+
+	private static void setReplica(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull Properties properties) throws MojoFailureException
+	{
+		final String replicaUrl = properties.getProperty(EnversValidationMojo.REPLICA_URL_PROPERTY_KEY);
+		final String maximumReplicaLagSeconds = properties.getProperty(EnversValidationMojo.MAXIMUM_REPLICA_LAG_SECONDS_PROPERTY_KEY);
+		try
+		{
+			connectionProvider.setReplica(StringUtils.isBlank(replicaUrl) ? null : replicaUrl, properties.getProperty(EnversValidationMojo.REPLICA_USERNAME_PROPERTY_KEY), properties.getProperty(EnversValidationMojo.REPLICA_PASSWORD_PROPERTY_KEY), StringUtils.isBlank(maximumReplicaLagSeconds) ? null : Long.valueOf(maximumReplicaLagSeconds));
+		}
+		catch (SQLException e)
+		{
+			throw new MojoFailureException("Unable to configure the replica: " + e.getMessage());
+		}
+	}
+
+	@Nonnull
+	private static RevisionWindow getRevisionWindow(@Nonnull Properties properties) throws MojoFailureException
+	{
+		final String fromRevision = properties.getProperty(EnversValidationMojo.FROM_REVISION_PROPERTY_KEY);
+		final String toRevision = properties.getProperty(EnversValidationMojo.TO_REVISION_PROPERTY_KEY);
+		final String sinceTimestamp = properties.getProperty(EnversValidationMojo.SINCE_TIMESTAMP_PROPERTY_KEY);
+		return new RevisionWindow(StringUtils.isBlank(fromRevision) ? null : Long.valueOf(fromRevision), StringUtils.isBlank(toRevision) ? null : Long.valueOf(toRevision), StringUtils.isBlank(sinceTimestamp) ? null : PropertyUtils.parseTimestamp(sinceTimestamp));
+	}
+
+	@CheckForNull
+	private static Double getDoubleProperty(@Nonnull Properties properties, @Nonnull String key)
+	{
+		final String value = properties.getProperty(key);
+		return StringUtils.isBlank(value) ? null : Double.valueOf(value);
+	}
+
+	@CheckForNull
+	private static Long getLongProperty(@Nonnull Properties properties, @Nonnull String key)
+	{
+		final String value = properties.getProperty(key);
+		return StringUtils.isBlank(value) ? null : Long.valueOf(value);
+	}
+
+	/**
+	 * @return The values of the property separated by the separator, or an empty list if the property is absent.
+	 */
+	@Nonnull
+	private static List<String> getListProperty(@Nonnull Properties properties, @Nonnull String key, @Nonnull String separator)
+	{
+		final String value = properties.getProperty(key);
+		if (StringUtils.isBlank(value))
+		{
+			return Collections.emptyList();
+		}
+
+		final List<String> values = new ArrayList<>();
+		for (String part : value.split(Pattern.quote(separator)))
+		{
+			if (StringUtils.isNotBlank(part))
+			{
+				values.add(part.trim());
+			}
+		}
+		return values;
+	}
+}
\ No newline at end of file
@@ -1,15 +1,37 @@
 package com.github.zeger_tak.enversvalidationplugin.connection;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionConstants;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
 import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
 import org.apache.commons.lang3.StringUtils;
 import org.dbunit.database.CachedResultSetTable;
 import org.dbunit.database.IDatabaseConnection;
@@ -19,10 +41,48 @@ import org.dbunit.dataset.ITableMetaData;
 
 public abstract class AbstractQueries implements DatabaseQueries
 {
+	private static final String REVISION_WINDOW_AUDIT_TABLE_ALIAS = "window_aud";
+	private static final String REVISION_WINDOW_REVISION_TABLE_ALIAS = "window_revinfo";
+	private static final String CHAINED_REVISIONS_ALIAS = "chained";
+	private static final String FLAGGED_REVISIONS_ALIAS = "flagged";
+	private static final String CURRENT_VALUE_COLUMN_NAME_PREFIX = "CUR_";
+	private static final String CONTENT_TABLE_ALIAS = "content";
+	private static final String RELATED_AUDIT_TABLE_ALIAS = "related_aud";
+	private static final String REFERENCED_REVISIONS_ALIAS = "referenced";
+	private static final String REVISION_TABLE_ALIAS = "revision";
+	private static final String SAMPLED_REVISIONS_ALIAS = "sampled";
+	private static final String NUMBERED_REVISIONS_ALIAS = "numbered";
+	private static final String REVISION_NUMBER_COLUMN_NAME = "REVISION_NUMBER";
+	private static final String RANGED_REVISIONS_ALIAS = "ranged";
+	private static final String RANGE_IDENTIFIER_COLUMN_NAME = "RANGE_ID";
+	private static final String RANGE_POSITION_COLUMN_NAME = "RANGE_POSITION";
+	private static final String SAMPLE_COUNT_COLUMN_NAME = "SAMPLE_COUNT";
+	private static final String SAMPLE_NUMBER_COLUMN_NAME = "SAMPLE_NUMBER";
+	private static final String GROUPED_REVISIONS_ALIAS = "grouped";
+	private static final String AUDIT_GROUP_COLUMN_NAME = "AUDIT_GROUP";
+	private static final String NEXT_REVISION_TYPE_COLUMN_NAME = "NEXT_REVTYPE";
+
 	private final String auditTablePostFix = "_AUD";
 	private final String revTypeColumnName = "REVTYPE";
 	private final String revisionTableName = "REVINFO";
 	private final String revisionTableIdentifierColumnName = "REV";
+	private final String revisionTableTimestampColumnName = "REVTSTMP";
+	private final String revisionEndColumnName = "REVEND";
+	private final String revisionEndTimestampColumnName = "REVEND_TSTMP";
+	private final String modifiedFlagSuffix = "_MOD";
+	private final ConnectionProviderInstance connectionProvider;
+	private final ThreadLocal<SharedParentTableScans> sharedParentTableScans = new ThreadLocal<>();
+
+	protected AbstractQueries(@Nonnull ConnectionProviderInstance connectionProvider)
+	{
+		this.connectionProvider = connectionProvider;
+	}
+
+	@Nonnull
+	protected ConnectionProviderInstance getConnectionProvider()
+	{
+		return connectionProvider;
+	}
 
 	@Nonnull
 	@Override
@@ -52,54 +112,141 @@ public abstract class AbstractQueries implements DatabaseQueries
 		return revisionTableIdentifierColumnName; //TODO: replace with query that returns the foreign key column name that references the revision table (Database specific)
 	}
 
+	@Nonnull
+	@Override
+	public String getRevisionTableTimestampColumnName()
+	{
+		return revisionTableTimestampColumnName;
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndColumnName()
+	{
+		return revisionEndColumnName;
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndTimestampColumnName()
+	{
+		return revisionEndTimestampColumnName;
+	}
+
+	@Nonnull
+	@Override
+	public String getModifiedFlagSuffix()
+	{
+		return modifiedFlagSuffix;
+	}
+
+	/**
+	 * @return The literal with which a modified flag column is compared to check whether it is set, Envers maps the flags to a numeric column if the database has no boolean type.
+	 */
+	@Nonnull
+	protected String getBooleanTrueLiteral()
+	{
+		return "1";
+	}
+
 	@Nonnull
 	@Override
 	public Map<String, TableRow> getContentRecords(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
 	{
-		final CachedResultSetTable recordsInContentTable = selectAllRecordsFromTable(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
-		final List<String> columnNames = getColumnNames(recordsInContentTable);
+		final SharedParentTableScans parentTableScans = sharedParentTableScans.get();
+		final CachedResultSetTable recordsInContentTable = selectAllRecordsFromTable(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, parentTableScans);
+		final TableColumns tableColumns = getTableColumns(recordsInContentTable);
+		final int[] primaryIdentifierColumnIndexes = getColumnIndexes(tableColumns, primaryIdentifierColumnNames);
+		final SharedParentTableScans.Stitcher stitcher = createContentStitcher(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, tableColumns, parentTableScans);
 
 		final Map<String, TableRow> recordsInTableById = new HashMap<>();
 		for (int rowIndex = 0; rowIndex < recordsInContentTable.getRowCount(); rowIndex++)
 		{
-			final TableRow tableRow = new TableRow();
-			for (String columnName : columnNames)
+			final TableRow tableRow = stitch(createTableRow(recordsInContentTable, rowIndex, tableColumns), stitcher);
+			if (tableRow != null)
 			{
-				tableRow.addColumn(columnName, recordsInContentTable.getValue(rowIndex, columnName));
+				final String identifier = getPrimaryIdentifierAsString(tableRow, primaryIdentifierColumnIndexes);
+				recordsInTableById.put(identifier, tableRow);
 			}
-
-			final String identifier = getPrimaryIdentifierAsString(recordsInContentTable, rowIndex, primaryIdentifierColumnNames);
-			recordsInTableById.put(identifier, tableRow);
 		}
 
+		if (stitcher != null)
+		{
+			parentTableScans.contentRowsStitched(auditTableInformation);
+		}
 		return recordsInTableById;
 	}
 
+	/**
+	 * Only selects the primary identifier columns of the content table itself, the identifiers are added to the index row by row.
+	 * The parent content tables are neither joined nor scanned as the foreign key of a child table onto its parent already guarantees the parent record exists,
+	 * which allows the database to read the identifiers from the primary key index instead of scanning the content tables.
+	 */
+	@Nonnull
+	@Override
+	public ContentKeyIndex getContentKeyIndex(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final StringBuilder query = new StringBuilder("select ");
+		for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				query.append(", ");
+			}
+			query.append(auditTableInformation.getContentTableName());
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+		}
+		query.append(" from ");
+		query.append(auditTableInformation.getContentTableName());
+		query.append(" ");
+		query.append(auditTableInformation.getContentTableName());
+		appendContentRevisionWindowCondition(query, auditTableInformation.getAuditTableName(), auditTableInformation.getContentTableName(), primaryIdentifierColumnNames);
+
+		final CachedResultSetTable identifiersInContentTable = (CachedResultSetTable) databaseConnection.createQueryTable(auditTableInformation.getContentTableName(), query.toString());
+		final TableColumns tableColumns = getTableColumns(identifiersInContentTable);
+		final int[] primaryIdentifierColumnIndexes = getColumnIndexes(tableColumns, primaryIdentifierColumnNames);
+
+		final ContentKeyIndex.Builder contentKeyIndexBuilder = new ContentKeyIndex.Builder();
+		for (int rowIndex = 0; rowIndex < identifiersInContentTable.getRowCount(); rowIndex++)
+		{
+			contentKeyIndexBuilder.add(getPrimaryIdentifierAsString(createTableRow(identifiersInContentTable, rowIndex, tableColumns), primaryIdentifierColumnIndexes));
+		}
+		return contentKeyIndexBuilder.build();
+	}
+
 	@Nonnull
-	private CachedResultSetTable selectAllRecordsFromTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	private CachedResultSetTable selectAllRecordsFromTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, List<String> primaryIdentifierColumnNames, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
 	{
-		final String query = createContentTableSelectQuery(auditTableInformation, primaryIdentifierColumnNames);
+		final String query = createContentTableSelectQuery(auditTableInformation, primaryIdentifierColumnNames, "*", parentTableScans);
 		return (CachedResultSetTable) databaseConnection.createQueryTable(auditTableInformation.getContentTableName(), query);
 	}
 
+	/**
+	 * @param parentTableScans The parent tables which are scanned separately, these are not joined.
+	 */
 	@Nonnull
-	private String createContentTableSelectQuery(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames)
+	String createContentTableSelectQuery(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull String selectedColumns, @Nullable SharedParentTableScans parentTableScans)
 	{
-		final StringBuilder query = new StringBuilder("select * from ");
+		final StringBuilder query = new StringBuilder("select ");
+		query.append(selectedColumns);
+		query.append(" from ");
 		query.append(auditTableInformation.getContentTableName());
 		query.append(" ");
 		query.append(auditTableInformation.getContentTableName());
 		query.append(" ");
 
 		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
-		if (auditTableParent != null)
+		if (auditTableParent != null && !isSharedParent(auditTableParent, parentTableScans))
 		{
-			appendQueryWithJoinsOnParentContentTables(query, auditTableParent, auditTableInformation.getContentTableName(), primaryIdentifierColumnNames);
+			appendQueryWithJoinsOnParentContentTables(query, auditTableParent, auditTableInformation.getContentTableName(), primaryIdentifierColumnNames, parentTableScans);
 		}
+
+		appendContentRevisionWindowCondition(query, auditTableInformation.getAuditTableName(), auditTableInformation.getContentTableName(), primaryIdentifierColumnNames);
 		return query.toString();
 	}
 
-	private void appendQueryWithJoinsOnParentContentTables(@Nonnull StringBuilder query, @Nonnull AuditTableInformation auditTableInformation, @Nonnull String childAlias, @Nonnull List<String> primaryIdentifierColumnNames)
+	private void appendQueryWithJoinsOnParentContentTables(@Nonnull StringBuilder query, @Nonnull AuditTableInformation auditTableInformation, @Nonnull String childAlias, @Nonnull List<String> primaryIdentifierColumnNames, @Nullable SharedParentTableScans parentTableScans)
 	{
 		query.append("inner join ");
 		query.append(auditTableInformation.getContentTableName());
@@ -124,14 +271,14 @@ public abstract class AbstractQueries implements DatabaseQueries
 			query.append(" ");
 		}
 		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
-		if (auditTableParent != null)
+		if (auditTableParent != null && !isSharedParent(auditTableParent, parentTableScans))
 		{
-			appendQueryWithJoinsOnParentContentTables(query, auditTableParent, auditTableInformation.getContentTableName(), primaryIdentifierColumnNames);
+			appendQueryWithJoinsOnParentContentTables(query, auditTableParent, auditTableInformation.getContentTableName(), primaryIdentifierColumnNames, parentTableScans);
 		}
 	}
 
 	@Nonnull
-	private List<String> getColumnNames(@Nonnull CachedResultSetTable recordsInAuditTable) throws DataSetException
+	private TableColumns getTableColumns(@Nonnull CachedResultSetTable recordsInAuditTable) throws DataSetException
 	{
 		final ITableMetaData tableMetaData = recordsInAuditTable.getTableMetaData();
 		final Column[] columns = tableMetaData.getColumns();
@@ -142,61 +289,225 @@ public abstract class AbstractQueries implements DatabaseQueries
 			columnNames.add(column.getColumnName());
 		}
 
-		return columnNames;
+		return new TableColumns(columnNames);
+	}
+
+	@Nonnull
+	private static TableRow createTableRow(@Nonnull CachedResultSetTable recordsInTable, int rowIndex, @Nonnull TableColumns tableColumns) throws DataSetException
+	{
+		final TableRow tableRow = new TableRow(tableColumns);
+		for (int columnIndex = 0; columnIndex < tableColumns.size(); columnIndex++)
+		{
+			tableRow.setColumnValue(columnIndex, recordsInTable.getValue(rowIndex, tableColumns.getColumnName(columnIndex)));
+		}
+		return tableRow;
+	}
+
+	/**
+	 * Resolves the index of each column once per query result, so identifiers are determined per row without any column name lookups.
+	 */
+	@Nonnull
+	private static int[] getColumnIndexes(@Nonnull TableColumns tableColumns, @Nonnull List<String> columnNames) throws DataSetException
+	{
+		final int[] columnIndexes = new int[columnNames.size()];
+		for (int i = 0; i < columnNames.size(); i++)
+		{
+			columnIndexes[i] = tableColumns.getIndexIgnoringCase(columnNames.get(i));
+			if (columnIndexes[i] < 0)
+			{
+				throw new DataSetException("The column " + columnNames.get(i) + " is not present in the query result, which contains the columns " + tableColumns.getColumnNames() + ".");
+			}
+		}
+		return columnIndexes;
+	}
+
+	@Nonnull
+	static String getPrimaryIdentifierAsString(@Nonnull TableRow tableRow, @Nonnull int[] primaryIdentifierColumnIndexes)
+	{
+		final StringBuilder primaryIdentifier = new StringBuilder();
+		for (int i = 0; i < primaryIdentifierColumnIndexes.length; i++)
+		{
+			if (i > 0)
+			{
+				primaryIdentifier.append("-");
+			}
+
+			final Object identifierValue = tableRow.getColumnValue(primaryIdentifierColumnIndexes[i]);
+			if (identifierValue != null)
+			{
+				primaryIdentifier.append(identifierValue);
+			}
+		}
+		return primaryIdentifier.toString();
 	}
 
 	@Nonnull
 	@Override
 	public Map<String, List<TableRow>> getAuditRecordsGroupedByContentPrimaryKey(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
 	{
-		final CachedResultSetTable recordsInTable = selectAllRecordsFromTableOrderByRevAscending(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
-		final List<String> columnNames = getColumnNames(recordsInTable);
+		final List<String> partitionTableReferences = connectionProvider.getQueries().getPartitionTableReferences(auditTableInformation.getAuditTableName());
+		final SharedParentTableScans parentTableScans = sharedParentTableScans.get();
+		final Map<String, List<TableRow>> recordsInTableGroupedById;
+		if (partitionTableReferences.size() > 1)
+		{
+			recordsInTableGroupedById = getAuditRecordsGroupedByContentPrimaryKeyPerPartition(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, partitionTableReferences, parentTableScans);
+		}
+		else
+		{
+			recordsInTableGroupedById = new HashMap<>();
+			final CachedResultSetTable recordsInTable = selectAllRecordsFromTableOrderByRevAscending(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, auditTableInformation.getAuditTableName(), parentTableScans);
+			addRecordsGroupedById(recordsInTable, primaryIdentifierColumnNames, recordsInTableGroupedById, createAuditStitcher(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, getTableColumns(recordsInTable), parentTableScans));
+		}
+
+		if (parentTableScans != null)
+		{
+			parentTableScans.auditRowsStitched(auditTableInformation);
+		}
+		return recordsInTableGroupedById;
+	}
 
+	/**
+	 * Scans each partition of the audit table with a separate query, up to {@link ConnectionProviderInstance#getPartitionScanParallelism()} partitions are scanned concurrently by the executor of the connection provider, each with its own connection.
+	 * As the revisions of a single record may be spread over several partitions, the revisions of each record are sorted by revision after merging the results.
+	 */
+	@Nonnull
+	private Map<String, List<TableRow>> getAuditRecordsGroupedByContentPrimaryKeyPerPartition(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> partitionTableReferences, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
+	{
 		final Map<String, List<TableRow>> recordsInTableGroupedById = new HashMap<>();
+		final int parallelism = Math.min(connectionProvider.getPartitionScanParallelism(), partitionTableReferences.size());
+		if (parallelism <= 1)
+		{
+			for (String partitionTableReference : partitionTableReferences)
+			{
+				final CachedResultSetTable recordsInPartition = selectAllRecordsFromTableOrderByRevAscending(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, partitionTableReference, parentTableScans);
+				addRecordsGroupedById(recordsInPartition, primaryIdentifierColumnNames, recordsInTableGroupedById, createAuditStitcher(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, getTableColumns(recordsInPartition), parentTableScans));
+			}
+		}
+		else
+		{
+			final ExecutorService executorService = connectionProvider.getPartitionScanExecutor();
+			final List<Future<CachedResultSetTable>> partitionScans = new ArrayList<>(partitionTableReferences.size());
+			try
+			{
+				for (String partitionTableReference : partitionTableReferences)
+				{
+					partitionScans.add(executorService.submit(connectionProvider.withActiveTimeLimit(() -> selectAllRecordsFromPartitionWithNewConnection(auditTableInformation, primaryIdentifierColumnNames, partitionTableReference, parentTableScans))));
+				}
+
+				for (Future<CachedResultSetTable> partitionScan : partitionScans)
+				{
+					final CachedResultSetTable recordsInPartition = getPartitionScanResult(partitionScan);
+					addRecordsGroupedById(recordsInPartition, primaryIdentifierColumnNames, recordsInTableGroupedById, createAuditStitcher(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, getTableColumns(recordsInPartition), parentTableScans));
+				}
+			}
+			finally
+			{
+				for (Future<CachedResultSetTable> partitionScan : partitionScans)
+				{
+					partitionScan.cancel(true);
+				}
+			}
+		}
+
+		final Comparator<TableRow> revisionComparator = Comparator.comparingLong(tableRow -> ((Number) tableRow.getColumnValue(getRevisionTableIdentifierColumnName())).longValue());
+		for (List<TableRow> tableRows : recordsInTableGroupedById.values())
+		{
+			tableRows.sort(revisionComparator);
+		}
+		return recordsInTableGroupedById;
+	}
+
+	@Nonnull
+	private CachedResultSetTable selectAllRecordsFromPartitionWithNewConnection(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull String partitionTableReference, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
+	{
+		final IDatabaseConnection partitionConnection = connectionProvider.openScanConnection();
+		try
+		{
+			return selectAllRecordsFromTableOrderByRevAscending(partitionConnection, auditTableInformation, primaryIdentifierColumnNames, partitionTableReference, parentTableScans);
+		}
+		finally
+		{
+			partitionConnection.close();
+		}
+	}
+
+	@Nonnull
+	private static CachedResultSetTable getPartitionScanResult(@Nonnull Future<CachedResultSetTable> partitionScan) throws SQLException, DataSetException
+	{
+		try
+		{
+			return partitionScan.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while scanning the partitions of an audit table.", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof SQLException)
+			{
+				throw (SQLException) e.getCause();
+			}
+			if (e.getCause() instanceof DataSetException)
+			{
+				throw (DataSetException) e.getCause();
+			}
+			throw new SQLException("Unable to scan a partition of an audit table: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private void addRecordsGroupedById(@Nonnull CachedResultSetTable recordsInTable, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, List<TableRow>> recordsInTableGroupedById, @Nullable SharedParentTableScans.Stitcher stitcher) throws DataSetException
+	{
+		final TableColumns tableColumns = getTableColumns(recordsInTable);
+		final int[] primaryIdentifierColumnIndexes = getColumnIndexes(tableColumns, primaryIdentifierColumnNames);
 		for (int rowIndex = 0; rowIndex < recordsInTable.getRowCount(); rowIndex++)
 		{
-			final TableRow tableRow = new TableRow();
-			for (String columnName : columnNames)
+			final TableRow tableRow = stitch(createTableRow(recordsInTable, rowIndex, tableColumns), stitcher);
+			if (tableRow == null)
 			{
-				tableRow.addColumn(columnName, recordsInTable.getValue(rowIndex, columnName));
+				continue;
 			}
 
-			final String id = getPrimaryIdentifierAsString(recordsInTable, rowIndex, primaryIdentifierColumnNames);
+			final String id = getPrimaryIdentifierAsString(tableRow, primaryIdentifierColumnIndexes);
 			recordsInTableGroupedById.computeIfAbsent(id, k -> new ArrayList<>());
 
 			final List<TableRow> tableRows = recordsInTableGroupedById.get(id);
 			tableRows.add(tableRow);
 		}
-
-		return recordsInTableGroupedById;
 	}
 
 	@Nonnull
-	private CachedResultSetTable selectAllRecordsFromTableOrderByRevAscending(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformationMap, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	private CachedResultSetTable selectAllRecordsFromTableOrderByRevAscending(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformationMap, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull String tableReference, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
 	{
-		final String query = createAuditTableSelectQuery(auditTableInformationMap, primaryIdentifierColumnNames);
+		final String query = createAuditTableSelectQuery(auditTableInformationMap, primaryIdentifierColumnNames, tableReference, parentTableScans);
 		return (CachedResultSetTable) databaseConnection.createQueryTable(auditTableInformationMap.getAuditTableName(), query);
 	}
 
+	/**
+	 * @param tableReference Reference to the audit table, or one of its partitions, to select the records from.
+	 * @param parentTableScans The parent tables which are scanned separately, these are not joined.
+	 */
 	@Nonnull
-	private String createAuditTableSelectQuery(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames)
+	private String createAuditTableSelectQuery(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull String tableReference, @Nullable SharedParentTableScans parentTableScans)
 	{
 		final String revisionTableIdentifierColumnName = getRevisionTableIdentifierColumnName();
 		final List<String> primaryIdentifierColumnsAuditTable = new ArrayList<>(primaryIdentifierColumnNames);
 		primaryIdentifierColumnsAuditTable.add(revisionTableIdentifierColumnName);
 
 		final StringBuilder query = new StringBuilder("select * from ");
-		query.append(auditTableInformation.getAuditTableName());
+		query.append(tableReference);
 		query.append(" ");
 		query.append(auditTableInformation.getAuditTableName());
 		query.append(" ");
 
 		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
-		if (auditTableParent != null)
+		if (auditTableParent != null && !isSharedParent(auditTableParent, parentTableScans))
 		{
-			appendQueryWithJoinsOnParentAuditTables(query, auditTableParent, auditTableInformation.getAuditTableName(), primaryIdentifierColumnsAuditTable);
+			appendQueryWithJoinsOnParentAuditTables(query, auditTableParent, auditTableInformation.getAuditTableName(), primaryIdentifierColumnsAuditTable, parentTableScans);
 		}
 
+		appendRevisionWindowCondition(query, auditTableInformation.getAuditTableName(), auditTableInformation.getAuditTableName(), primaryIdentifierColumnNames);
 		query.append(" order by ");
 		query.append(auditTableInformation.getAuditTableName());
 		query.append(".");
@@ -205,7 +516,7 @@ public abstract class AbstractQueries implements DatabaseQueries
 		return query.toString();
 	}
 
-	private void appendQueryWithJoinsOnParentAuditTables(@Nonnull StringBuilder query, @Nonnull AuditTableInformation auditTableInformation, @Nonnull String childAlias, @Nonnull List<String> primaryIdentifierColumnNames)
+	private void appendQueryWithJoinsOnParentAuditTables(@Nonnull StringBuilder query, @Nonnull AuditTableInformation auditTableInformation, @Nonnull String childAlias, @Nonnull List<String> primaryIdentifierColumnNames, @Nullable SharedParentTableScans parentTableScans)
 	{
 		query.append("inner join ");
 		query.append(auditTableInformation.getAuditTableName());
@@ -230,29 +541,1208 @@ public abstract class AbstractQueries implements DatabaseQueries
 			query.append(" ");
 		}
 		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
-		if (auditTableParent != null)
+		if (auditTableParent != null && !isSharedParent(auditTableParent, parentTableScans))
 		{
-			appendQueryWithJoinsOnParentAuditTables(query, auditTableParent, auditTableInformation.getAuditTableName(), primaryIdentifierColumnNames);
+			appendQueryWithJoinsOnParentAuditTables(query, auditTableParent, auditTableInformation.getAuditTableName(), primaryIdentifierColumnNames, parentTableScans);
 		}
 	}
 
+	/**
+	 * Compares the revision end of each revision with the next revision of the same record using the lead window function, so only the violations are fetched.
+	 * A remove revision followed by an add revision may have no revision end, as Envers only fills it when identifier reuse is allowed.
+	 */
 	@Nonnull
 	@Override
-	public String getPrimaryIdentifierAsString(@Nonnull CachedResultSetTable recordsInContentTable, int rowIndex, @Nonnull List<String> primaryIdentifierColumnNames) throws DataSetException
+	public Map<String, TableRow> getRevisionEndChainViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
 	{
-		List<String> primaryIdentifierValue = new ArrayList<>(primaryIdentifierColumnNames.size());
-		for (String primaryIdentifierColumnName : primaryIdentifierColumnNames)
+		final String auditTableName = auditTableInformation.getAuditTableName();
+		final String revisionEndColumn = CHAINED_REVISIONS_ALIAS + "." + getRevisionEndColumnName();
+		final String nextRevisionColumn = CHAINED_REVISIONS_ALIAS + "." + NEXT_REVISION_COLUMN_NAME;
+
+		final StringBuilder query = new StringBuilder("select * from (select ");
+		query.append(auditTableName);
+		query.append(".*, ");
+		appendNextRevisionValue(query, auditTableName, getRevisionTableIdentifierColumnName(), primaryIdentifierColumnNames);
+		query.append(" ");
+		query.append(NEXT_REVISION_COLUMN_NAME);
+		query.append(", ");
+		appendNextRevisionValue(query, auditTableName, getRevTypeColumnName(), primaryIdentifierColumnNames);
+		query.append(" ");
+		query.append(NEXT_REVISION_TYPE_COLUMN_NAME);
+		query.append(" from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		appendRevisionWindowCondition(query, auditTableName, auditTableName, primaryIdentifierColumnNames);
+		query.append(") ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(" where (");
+		query.append(revisionEndColumn);
+		query.append(" is null and ");
+		query.append(nextRevisionColumn);
+		query.append(" is not null and not (");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(getRevTypeColumnName());
+		query.append(" = ");
+		query.append(RevisionConstants.REMOVE_REVISION);
+		query.append(" and ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(NEXT_REVISION_TYPE_COLUMN_NAME);
+		query.append(" = ");
+		query.append(RevisionConstants.ADD_REVISION);
+		query.append(")) or (");
+		query.append(revisionEndColumn);
+		query.append(" is not null and (");
+		query.append(nextRevisionColumn);
+		query.append(" is null or ");
+		query.append(revisionEndColumn);
+		query.append(" <> ");
+		query.append(nextRevisionColumn);
+		query.append("))");
+
+		return selectRowsByAuditIdentifier(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * Appends the lead window function selecting the value of the column in the next revision of the same record.
+	 */
+	private void appendNextRevisionValue(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull String columnName, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		query.append("lead(");
+		query.append(auditTableName);
+		query.append(".");
+		query.append(columnName);
+		query.append(") over (partition by ");
+		for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
 		{
-			final Object identifierValue = recordsInContentTable.getValue(rowIndex, StringUtils.upperCase(primaryIdentifierColumnName));
-			if (identifierValue == null)
+			if (i > 0)
 			{
-				primaryIdentifierValue.add(null);
+				query.append(", ");
 			}
-			else
+			query.append(auditTableName);
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+		}
+		query.append(" order by ");
+		query.append(auditTableName);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(")");
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionEndTimestampViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+		final String revisionEndColumn = auditTableName + "." + getRevisionEndColumnName();
+		final String revisionEndTimestampColumn = auditTableName + "." + getRevisionEndTimestampColumnName();
+
+		final StringBuilder query = new StringBuilder("select * from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		final List<String> conditions = createRevisionWindowConditions(auditTableName, auditTableName, primaryIdentifierColumnNames);
+		final StringBuilder condition = new StringBuilder("((");
+		condition.append(revisionEndColumn);
+		condition.append(" is null and ");
+		condition.append(revisionEndTimestampColumn);
+		condition.append(" is not null) or (");
+		condition.append(revisionEndColumn);
+		condition.append(" is not null and ");
+		condition.append(revisionEndTimestampColumn);
+		condition.append(" is null))");
+		conditions.add(condition.toString());
+		appendWhereConditions(query, conditions);
+
+		return selectRowsByAuditIdentifier(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * The previous value of each column is selected using the lag window function, so the history of each record is compared by the database and only the violations are fetched.
+	 * The values of the first revision of a record are compared to null, as are the values of a revision following a remove revision.
+	 * The database also reports which modified flags are invalid, so the comparison of the values follows the semantics of the database.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getModifiedFlagViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, String> modifiedFlagColumnNamesByColumnName) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+
+		final StringBuilder query = new StringBuilder("select * from (select ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".*");
+		int columnIndex = 0;
+		for (Map.Entry<String, String> modifiedFlagColumnName : modifiedFlagColumnNamesByColumnName.entrySet())
+		{
+			final String column = CHAINED_REVISIONS_ALIAS + "." + modifiedFlagColumnName.getKey();
+			final String previousColumn = CHAINED_REVISIONS_ALIAS + "." + PREVIOUS_VALUE_COLUMN_NAME_PREFIX + columnIndex;
+
+			query.append(", case when (case when ");
+			query.append(column);
+			query.append(" <> ");
+			query.append(previousColumn);
+			query.append(" or (");
+			query.append(column);
+			query.append(" is null and ");
+			query.append(previousColumn);
+			query.append(" is not null) or (");
+			query.append(column);
+			query.append(" is not null and ");
+			query.append(previousColumn);
+			query.append(" is null) then 1 else 0 end) <> (case when ");
+			query.append(CHAINED_REVISIONS_ALIAS);
+			query.append(".");
+			query.append(modifiedFlagColumnName.getValue());
+			query.append(" = ");
+			query.append(getBooleanTrueLiteral());
+			query.append(" then 1 else 0 end) then 1 else 0 end ");
+			query.append(INVALID_MODIFIED_FLAG_COLUMN_NAME_PREFIX);
+			query.append(columnIndex++);
+		}
+		query.append(" from ");
+		appendPreviousValuesSubquery(query, auditTableName, modifiedFlagColumnNamesByColumnName.keySet(), primaryIdentifierColumnNames);
+		query.append(") ");
+		query.append(FLAGGED_REVISIONS_ALIAS);
+
+		for (int i = 0; i < modifiedFlagColumnNamesByColumnName.size(); i++)
+		{
+			query.append(i == 0 ? " where " : " or ");
+			query.append(FLAGGED_REVISIONS_ALIAS);
+			query.append(".");
+			query.append(INVALID_MODIFIED_FLAG_COLUMN_NAME_PREFIX);
+			query.append(i);
+			query.append(" = 1");
+		}
+
+		return selectRowsByAuditIdentifier(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * Compares the data columns of each Modify revision with those of the previous revision using the lag window function, so only the identifiers of the no-op revisions are fetched.
+	 * The parent audit tables are joined, as the Modify revision of a child entity may only change the columns of its parent entity.
+	 * The revisions changing more than one group of audit tables are selected by a single uncorrelated subquery, instead of probing each audit table for each Modify revision.
+	 */
+	@Nonnull
+	@Override
+	public TableRowSample getNoOpModifyRevisions(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> dataColumnNames, @Nonnull Map<String, String> auditTableGroups, int maximumRevisions) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+		final List<String> comparedColumnNames = new ArrayList<>(dataColumnNames);
+		comparedColumnNames.add(auditTableName + "." + getRevTypeColumnName());
+		final List<String> primaryIdentifierColumnsAuditTable = new ArrayList<>(primaryIdentifierColumnNames);
+		primaryIdentifierColumnsAuditTable.add(getRevisionTableIdentifierColumnName());
+
+		final StringBuilder query = new StringBuilder("select ");
+		for (String primaryIdentifierColumnName : primaryIdentifierColumnsAuditTable)
+		{
+			query.append(CHAINED_REVISIONS_ALIAS);
+			query.append(".");
+			query.append(primaryIdentifierColumnName);
+			query.append(", ");
+		}
+		query.setLength(query.length() - 2);
+		query.append(" from (select ");
+		for (String primaryIdentifierColumnName : primaryIdentifierColumnsAuditTable)
+		{
+			query.append(auditTableName);
+			query.append(".");
+			query.append(primaryIdentifierColumnName);
+			query.append(", ");
+		}
+		for (int columnIndex = 0; columnIndex < comparedColumnNames.size(); columnIndex++)
+		{
+			query.append(comparedColumnNames.get(columnIndex));
+			query.append(" ");
+			query.append(CURRENT_VALUE_COLUMN_NAME_PREFIX);
+			query.append(columnIndex);
+			query.append(", ");
+			appendPreviousValue(query, auditTableName, comparedColumnNames.get(columnIndex), primaryIdentifierColumnNames);
+			query.append(" ");
+			query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+			query.append(columnIndex);
+			query.append(columnIndex < comparedColumnNames.size() - 1 ? ", " : "");
+		}
+		query.append(" from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		query.append(" ");
+		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
+		if (auditTableParent != null)
+		{
+			appendQueryWithJoinsOnParentAuditTables(query, auditTableParent, auditTableName, primaryIdentifierColumnsAuditTable, null);
+		}
+		appendRevisionWindowCondition(query, auditTableName, auditTableName, primaryIdentifierColumnNames);
+		query.append(") ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+
+		final int revTypeColumnIndex = dataColumnNames.size();
+		query.append(" where ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(CURRENT_VALUE_COLUMN_NAME_PREFIX);
+		query.append(revTypeColumnIndex);
+		query.append(" = ");
+		query.append(RevisionConstants.MODIFY_REVISION);
+		query.append(" and ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+		query.append(revTypeColumnIndex);
+		query.append(" <> ");
+		query.append(RevisionConstants.REMOVE_REVISION);
+		for (int i = 0; i < dataColumnNames.size(); i++)
+		{
+			final String column = CHAINED_REVISIONS_ALIAS + "." + CURRENT_VALUE_COLUMN_NAME_PREFIX + i;
+			final String previousColumn = CHAINED_REVISIONS_ALIAS + "." + PREVIOUS_VALUE_COLUMN_NAME_PREFIX + i;
+
+			query.append(" and (");
+			query.append(column);
+			query.append(" = ");
+			query.append(previousColumn);
+			query.append(" or (");
+			query.append(column);
+			query.append(" is null and ");
+			query.append(previousColumn);
+			query.append(" is null))");
+		}
+		if (new HashSet<>(auditTableGroups.values()).size() > 1)
+		{
+			query.append(" and ");
+			query.append(CHAINED_REVISIONS_ALIAS);
+			query.append(".");
+			query.append(getRevisionTableIdentifierColumnName());
+			query.append(" not in (");
+			appendRevisionsChangingMultipleAuditTableGroups(query, auditTableGroups);
+			query.append(")");
+		}
+
+		return selectRowSample(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnsAuditTable, maximumRevisions);
+	}
+
+	/**
+	 * Appends a query selecting the revisions present in the audit tables of more than one group.
+	 */
+	private void appendRevisionsChangingMultipleAuditTableGroups(@Nonnull StringBuilder query, @Nonnull Map<String, String> auditTableGroups)
+	{
+		final String revisionColumn = GROUPED_REVISIONS_ALIAS + "." + getRevisionTableIdentifierColumnName();
+
+		query.append("select ");
+		query.append(revisionColumn);
+		query.append(" from (");
+		boolean first = true;
+		for (Map.Entry<String, String> auditTableGroup : auditTableGroups.entrySet())
+		{
+			if (!first)
 			{
-				primaryIdentifierValue.add(identifierValue.toString());
+				query.append(" union all ");
 			}
+			first = false;
+			query.append("select ");
+			query.append(getRevisionTableIdentifierColumnName());
+			query.append(", '");
+			query.append(auditTableGroup.getValue());
+			query.append("' ");
+			query.append(AUDIT_GROUP_COLUMN_NAME);
+			query.append(" from ");
+			query.append(auditTableGroup.getKey());
+		}
+		query.append(") ");
+		query.append(GROUPED_REVISIONS_ALIAS);
+		query.append(" group by ");
+		query.append(revisionColumn);
+		query.append(" having count(distinct ");
+		query.append(GROUPED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(AUDIT_GROUP_COLUMN_NAME);
+		query.append(") > 1");
+	}
+
+	/**
+	 * Appends the lag window function selecting the value of the column in the previous revision of the same record.
+	 */
+	private void appendPreviousValue(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull String qualifiedColumnName, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		query.append("lag(");
+		query.append(qualifiedColumnName);
+		query.append(") over (partition by ");
+		for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				query.append(", ");
+			}
+			query.append(auditTableName);
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+		}
+		query.append(" order by ");
+		query.append(auditTableName);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(")");
+	}
+
+	/**
+	 * Uses an anti join on the parent audit table, so only the identifiers of the orphaned revisions are fetched.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionsWithoutParentRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+
+		final StringBuilder query = new StringBuilder();
+		appendSelectAuditIdentifier(query, auditTableName, primaryIdentifierColumnNames);
+		final List<String> conditions = createRevisionWindowConditions(auditTableName, auditTableName, primaryIdentifierColumnNames);
+		final StringBuilder condition = new StringBuilder("not exists (select 1 from ");
+		condition.append(auditTableParent.getAuditTableName());
+		condition.append(" ");
+		condition.append(RELATED_AUDIT_TABLE_ALIAS);
+		appendAuditIdentifierJoinCondition(condition, RELATED_AUDIT_TABLE_ALIAS, auditTableName, primaryIdentifierColumnNames);
+		condition.append(")");
+		conditions.add(condition.toString());
+		appendWhereConditions(query, conditions);
+
+		return selectRowsByAuditIdentifier(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * Uses a semi join and an anti join on the child audit table, so only the identifiers of the orphaned revisions are fetched.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getParentRevisionsWithoutChildRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String parentAuditTableName = auditTableParent.getAuditTableName();
+
+		final StringBuilder query = new StringBuilder();
+		appendSelectAuditIdentifier(query, parentAuditTableName, primaryIdentifierColumnNames);
+		final List<String> conditions = createRevisionWindowConditions(parentAuditTableName, parentAuditTableName, primaryIdentifierColumnNames);
+		final StringBuilder condition = new StringBuilder("exists (select 1 from ");
+		condition.append(auditTableInformation.getAuditTableName());
+		condition.append(" ");
+		condition.append(RELATED_AUDIT_TABLE_ALIAS);
+		appendIdentifierJoinCondition(condition, " where ", RELATED_AUDIT_TABLE_ALIAS, parentAuditTableName, primaryIdentifierColumnNames);
+		condition.append(") and not exists (select 1 from ");
+		condition.append(auditTableInformation.getAuditTableName());
+		condition.append(" ");
+		condition.append(RELATED_AUDIT_TABLE_ALIAS);
+		appendAuditIdentifierJoinCondition(condition, RELATED_AUDIT_TABLE_ALIAS, parentAuditTableName, primaryIdentifierColumnNames);
+		condition.append(")");
+		conditions.add(condition.toString());
+		appendWhereConditions(query, conditions);
+
+		return selectRowsByAuditIdentifier(databaseConnection, parentAuditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * Combines the distinct revisions of all audit tables using union all and anti joins the result with the revision table, so all audit tables are checked using a single query.
+	 * The revisions are counted by the database, only the first revisions are fetched.
+	 */
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsMissingFromRevisionTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		final String revisionColumn = REFERENCED_REVISIONS_ALIAS + "." + getRevisionTableIdentifierColumnName();
+
+		final StringBuilder query = new StringBuilder("select distinct ");
+		query.append(revisionColumn);
+		query.append(" from ");
+		appendReferencedRevisionsSubquery(query, auditTableNames);
+		query.append(" where not exists (select 1 from ");
+		query.append(getRevisionTableName());
+		query.append(" ");
+		query.append(REVISION_TABLE_ALIAS);
+		query.append(" where ");
+		query.append(REVISION_TABLE_ALIAS);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(" = ");
+		query.append(revisionColumn);
+		query.append(")");
+		appendRevisionRangeCondition(query, revisionColumn);
+
+		return selectRevisionSample(databaseConnection, query.toString(), maximumRevisions);
+	}
+
+	/**
+	 * Anti joins the revision table with the distinct revisions of all audit tables combined using union all, so all audit tables are checked using a single query.
+	 * The revisions are counted by the database, only the first revisions are fetched.
+	 */
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsNotReferencedByAuditTables(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		final String revisionColumn = REVISION_TABLE_ALIAS + "." + getRevisionTableIdentifierColumnName();
+
+		final StringBuilder query = new StringBuilder("select ");
+		query.append(revisionColumn);
+		query.append(" from ");
+		query.append(getRevisionTableName());
+		query.append(" ");
+		query.append(REVISION_TABLE_ALIAS);
+		query.append(" where not exists (select 1 from ");
+		appendReferencedRevisionsSubquery(query, auditTableNames);
+		query.append(" where ");
+		query.append(REFERENCED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(" = ");
+		query.append(revisionColumn);
+		query.append(")");
+		appendRevisionRangeCondition(query, revisionColumn);
+
+		final Long sinceTimestamp = connectionProvider.getRevisionWindow().getSinceTimestamp();
+		if (sinceTimestamp != null)
+		{
+			query.append(" and ");
+			query.append(REVISION_TABLE_ALIAS);
+			query.append(".");
+			query.append(getRevisionTableTimestampColumnName());
+			query.append(" >= ");
+			query.append(sinceTimestamp);
+		}
+
+		return selectRevisionSample(databaseConnection, query.toString(), maximumRevisions);
+	}
+
+	/**
+	 * Compares the timestamp of each revision with that of the previous revision using the lag window function.
+	 * Consecutive violations are collapsed into ranges by the database, numbering the violations both among all revisions and among the violations only, the difference of which is equal within a range.
+	 * Only the first revision of the first ranges is fetched, regardless of the number of violations.
+	 */
+	@Nonnull
+	@Override
+	public TableRowSample getRevisionsWithDecreasingTimestamp(@Nonnull IDatabaseConnection databaseConnection, int maximumRanges) throws SQLException, DataSetException
+	{
+		final String revisionColumn = REVISION_TABLE_ALIAS + "." + getRevisionTableIdentifierColumnName();
+		final String timestampColumn = REVISION_TABLE_ALIAS + "." + getRevisionTableTimestampColumnName();
+		final String chainedRevisionColumn = CHAINED_REVISIONS_ALIAS + "." + getRevisionTableIdentifierColumnName();
+		final String flaggedRevisionColumn = FLAGGED_REVISIONS_ALIAS + "." + getRevisionTableIdentifierColumnName();
+		final String flaggedRangeColumn = FLAGGED_REVISIONS_ALIAS + "." + RANGE_IDENTIFIER_COLUMN_NAME;
+
+		final StringBuilder query = new StringBuilder("select * from (select ");
+		query.append(FLAGGED_REVISIONS_ALIAS);
+		query.append(".*, max(");
+		query.append(flaggedRevisionColumn);
+		query.append(") over (partition by ");
+		query.append(flaggedRangeColumn);
+		query.append(") ");
+		query.append(LAST_REVISION_COLUMN_NAME);
+		query.append(", count(*) over (partition by ");
+		query.append(flaggedRangeColumn);
+		query.append(") ");
+		query.append(REVISION_COUNT_COLUMN_NAME);
+		query.append(", row_number() over (partition by ");
+		query.append(flaggedRangeColumn);
+		query.append(" order by ");
+		query.append(flaggedRevisionColumn);
+		query.append(") ");
+		query.append(RANGE_POSITION_COLUMN_NAME);
+		query.append(" from (select ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".*, ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(REVISION_NUMBER_COLUMN_NAME);
+		query.append(" - row_number() over (order by ");
+		query.append(chainedRevisionColumn);
+		query.append(") ");
+		query.append(RANGE_IDENTIFIER_COLUMN_NAME);
+		query.append(" from (select ");
+		query.append(revisionColumn);
+		query.append(", ");
+		query.append(timestampColumn);
+		query.append(", lag(");
+		query.append(revisionColumn);
+		query.append(") over (order by ");
+		query.append(revisionColumn);
+		query.append(") ");
+		query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+		query.append(0);
+		query.append(", lag(");
+		query.append(timestampColumn);
+		query.append(") over (order by ");
+		query.append(revisionColumn);
+		query.append(") ");
+		query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+		query.append(1);
+		query.append(", row_number() over (order by ");
+		query.append(revisionColumn);
+		query.append(") ");
+		query.append(REVISION_NUMBER_COLUMN_NAME);
+		query.append(" from ");
+		query.append(getRevisionTableName());
+		query.append(" ");
+		query.append(REVISION_TABLE_ALIAS);
+		query.append(") ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(" where ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(getRevisionTableTimestampColumnName());
+		query.append(" < ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+		query.append(1);
+		appendRevisionRangeCondition(query, chainedRevisionColumn);
+		query.append(") ");
+		query.append(FLAGGED_REVISIONS_ALIAS);
+		query.append(") ");
+		query.append(RANGED_REVISIONS_ALIAS);
+		query.append(" where ");
+		query.append(RANGED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(RANGE_POSITION_COLUMN_NAME);
+		query.append(" = 1");
+
+		return selectRowSample(databaseConnection, getRevisionTableName(), query.toString(), Collections.singletonList(getRevisionTableIdentifierColumnName()), maximumRanges);
+	}
+
+	/**
+	 * Uses an anti join on the content table, so only the open revisions without content are fetched.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getOpenRevisionsWithoutContent(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+
+		final StringBuilder query = new StringBuilder("select * from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		final List<String> conditions = createRevisionWindowConditions(auditTableName, auditTableName, primaryIdentifierColumnNames);
+		final StringBuilder condition = new StringBuilder();
+		appendOpenRevisionCondition(condition, auditTableName);
+		condition.append(" and not exists (select 1 from ");
+		condition.append(auditTableInformation.getContentTableName());
+		condition.append(" ");
+		condition.append(CONTENT_TABLE_ALIAS);
+		appendIdentifierJoinCondition(condition, " where ", CONTENT_TABLE_ALIAS, auditTableName, primaryIdentifierColumnNames);
+		condition.append(")");
+		conditions.add(condition.toString());
+		appendWhereConditions(query, conditions);
+
+		return selectRowsByAuditIdentifier(databaseConnection, auditTableName, query.toString(), primaryIdentifierColumnNames);
+	}
+
+	/**
+	 * Uses an anti join on the open revisions of the audit table, so only the identifiers of the content without an open revision are fetched.
+	 */
+	@Nonnull
+	@Override
+	public Set<String> getContentWithoutOpenRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+
+		final StringBuilder query = new StringBuilder("select ");
+		for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				query.append(", ");
+			}
+			query.append(CONTENT_TABLE_ALIAS);
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+		}
+		query.append(" from ");
+		query.append(auditTableInformation.getContentTableName());
+		query.append(" ");
+		query.append(CONTENT_TABLE_ALIAS);
+		query.append(" where not exists (select 1 from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		query.append(" where ");
+		appendOpenRevisionCondition(query, auditTableName);
+		appendIdentifierJoinCondition(query, " and ", auditTableName, CONTENT_TABLE_ALIAS, primaryIdentifierColumnNames);
+		query.append(")");
+
+		final CachedResultSetTable identifiersInContentTable = (CachedResultSetTable) databaseConnection.createQueryTable(auditTableInformation.getContentTableName(), query.toString());
+		final TableColumns tableColumns = getTableColumns(identifiersInContentTable);
+		final int[] primaryIdentifierColumnIndexes = getColumnIndexes(tableColumns, primaryIdentifierColumnNames);
+
+		final Set<String> identifiers = new LinkedHashSet<>();
+		for (int rowIndex = 0; rowIndex < identifiersInContentTable.getRowCount(); rowIndex++)
+		{
+			identifiers.add(getPrimaryIdentifierAsString(createTableRow(identifiersInContentTable, rowIndex, tableColumns), primaryIdentifierColumnIndexes));
+		}
+		return identifiers;
+	}
+
+	/**
+	 * Appends the condition selecting the latest revision of each record which is not a remove revision, according to the validity audit strategy.
+	 */
+	private void appendOpenRevisionCondition(@Nonnull StringBuilder query, @Nonnull String auditTableAlias)
+	{
+		query.append(auditTableAlias);
+		query.append(".");
+		query.append(getRevisionEndColumnName());
+		query.append(" is null and ");
+		query.append(auditTableAlias);
+		query.append(".");
+		query.append(getRevTypeColumnName());
+		query.append(" <> ");
+		query.append(RevisionConstants.REMOVE_REVISION);
+	}
+
+	private static void appendIdentifierJoinCondition(@Nonnull StringBuilder query, @Nonnull String firstConjunction, @Nonnull String alias, @Nonnull String otherAlias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
+		{
+			query.append(i == 0 ? firstConjunction : " and ");
+			query.append(alias);
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+			query.append(" = ");
+			query.append(otherAlias);
+			query.append(".");
+			query.append(primaryIdentifierColumnNames.get(i));
+		}
+	}
+
+	private void appendReferencedRevisionsSubquery(@Nonnull StringBuilder query, @Nonnull Collection<String> auditTableNames)
+	{
+		query.append("(");
+		boolean first = true;
+		for (String auditTableName : auditTableNames)
+		{
+			if (!first)
+			{
+				query.append(" union all ");
+			}
+			first = false;
+
+			query.append("select distinct ");
+			query.append(getRevisionTableIdentifierColumnName());
+			query.append(" from ");
+			query.append(auditTableName);
+		}
+		query.append(") ");
+		query.append(REFERENCED_REVISIONS_ALIAS);
+	}
+
+	/**
+	 * Restricts the given revision column to the revisions within the revision window, the timestamp of the revision window is not taken into account.
+	 */
+	private void appendRevisionRangeCondition(@Nonnull StringBuilder query, @Nonnull String revisionColumn)
+	{
+		final RevisionWindow revisionWindow = connectionProvider.getRevisionWindow();
+		if (revisionWindow.getFromRevision() != null)
+		{
+			query.append(" and ");
+			query.append(revisionColumn);
+			query.append(" >= ");
+			query.append(revisionWindow.getFromRevision());
+		}
+		if (revisionWindow.getToRevision() != null)
+		{
+			query.append(" and ");
+			query.append(revisionColumn);
+			query.append(" <= ");
+			query.append(revisionWindow.getToRevision());
+		}
+	}
+
+	/**
+	 * Counts the revisions selected by the query using the count window function, so only the first revisions are fetched regardless of the number of revisions selected.
+	 */
+	@Nonnull
+	private RevisionSample selectRevisionSample(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String revisionsQuery, int maximumRevisions) throws SQLException, DataSetException
+	{
+		final String revisionColumn = SAMPLED_REVISIONS_ALIAS + "." + getRevisionTableIdentifierColumnName();
+
+		final StringBuilder query = new StringBuilder("select * from (select ");
+		query.append(revisionColumn);
+		query.append(", count(*) over () ");
+		query.append(REVISION_COUNT_COLUMN_NAME);
+		query.append(", row_number() over (order by ");
+		query.append(revisionColumn);
+		query.append(") ");
+		query.append(REVISION_NUMBER_COLUMN_NAME);
+		query.append(" from (");
+		query.append(revisionsQuery);
+		query.append(") ");
+		query.append(SAMPLED_REVISIONS_ALIAS);
+		query.append(") ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(" where ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(REVISION_NUMBER_COLUMN_NAME);
+		query.append(" <= ");
+		query.append(maximumRevisions);
+		query.append(" order by ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(REVISION_NUMBER_COLUMN_NAME);
+
+		final CachedResultSetTable revisions = (CachedResultSetTable) databaseConnection.createQueryTable(getRevisionTableName(), query.toString());
+		if (revisions.getRowCount() == 0)
+		{
+			return new RevisionSample(0, Collections.emptySet());
+		}
+
+		final Set<String> revisionIdentifiers = new LinkedHashSet<>();
+		for (int rowIndex = 0; rowIndex < revisions.getRowCount(); rowIndex++)
+		{
+			revisionIdentifiers.add(String.valueOf(revisions.getValue(rowIndex, getRevisionTableIdentifierColumnName())));
+		}
+		return new RevisionSample(((Number) revisions.getValue(0, REVISION_COUNT_COLUMN_NAME)).longValue(), revisionIdentifiers);
+	}
+
+	/**
+	 * Counts the rows selected by the query using the count window function, so only the first rows are fetched regardless of the number of rows selected.
+	 *
+	 * @param identifierColumnNames Columns identifying each row, the rows are ordered by these columns.
+	 */
+	@Nonnull
+	private TableRowSample selectRowSample(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String tableName, @Nonnull String rowsQuery, @Nonnull List<String> identifierColumnNames, int maximumRows) throws SQLException, DataSetException
+	{
+		final StringBuilder query = new StringBuilder("select * from (select ");
+		query.append(SAMPLED_REVISIONS_ALIAS);
+		query.append(".*, count(*) over () ");
+		query.append(SAMPLE_COUNT_COLUMN_NAME);
+		query.append(", row_number() over (order by ");
+		for (int i = 0; i < identifierColumnNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				query.append(", ");
+			}
+			query.append(SAMPLED_REVISIONS_ALIAS);
+			query.append(".");
+			query.append(identifierColumnNames.get(i));
+		}
+		query.append(") ");
+		query.append(SAMPLE_NUMBER_COLUMN_NAME);
+		query.append(" from (");
+		query.append(rowsQuery);
+		query.append(") ");
+		query.append(SAMPLED_REVISIONS_ALIAS);
+		query.append(") ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(" where ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(SAMPLE_NUMBER_COLUMN_NAME);
+		query.append(" <= ");
+		query.append(maximumRows);
+		query.append(" order by ");
+		query.append(NUMBERED_REVISIONS_ALIAS);
+		query.append(".");
+		query.append(SAMPLE_NUMBER_COLUMN_NAME);
+
+		final CachedResultSetTable rows = (CachedResultSetTable) databaseConnection.createQueryTable(tableName, query.toString());
+		if (rows.getRowCount() == 0)
+		{
+			return new TableRowSample(0, Collections.emptyMap());
+		}
+
+		final TableColumns tableColumns = getTableColumns(rows);
+		final int[] identifierColumnIndexes = getColumnIndexes(tableColumns, identifierColumnNames);
+
+		final Map<String, TableRow> rowsByIdentifier = new LinkedHashMap<>();
+		for (int rowIndex = 0; rowIndex < rows.getRowCount(); rowIndex++)
+		{
+			final TableRow tableRow = createTableRow(rows, rowIndex, tableColumns);
+			rowsByIdentifier.put(getPrimaryIdentifierAsString(tableRow, identifierColumnIndexes), tableRow);
+		}
+		return new TableRowSample(((Number) rows.getValue(0, SAMPLE_COUNT_COLUMN_NAME)).longValue(), rowsByIdentifier);
+	}
+
+	private void appendSelectAuditIdentifier(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		query.append("select ");
+		for (String primaryIdentifierColumnName : primaryIdentifierColumnNames)
+		{
+			query.append(auditTableName);
+			query.append(".");
+			query.append(primaryIdentifierColumnName);
+			query.append(", ");
+		}
+		query.append(auditTableName);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(" from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+	}
+
+	private void appendAuditIdentifierJoinCondition(@Nonnull StringBuilder query, @Nonnull String alias, @Nonnull String otherAlias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		appendIdentifierJoinCondition(query, " where ", alias, otherAlias, primaryIdentifierColumnNames);
+		query.append(" and ");
+		query.append(alias);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		query.append(" = ");
+		query.append(otherAlias);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+	}
+
+	/**
+	 * Appends a subquery selecting the rows of the audit table, together with the value of each of the given columns in the previous revision of the same record.
+	 * The previous values are named after {@link #PREVIOUS_VALUE_COLUMN_NAME_PREFIX} followed by the position of the column.
+	 */
+	private void appendPreviousValuesSubquery(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull Collection<String> columnNames, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		query.append("(select ");
+		query.append(auditTableName);
+		query.append(".*");
+		int columnIndex = 0;
+		for (String columnName : columnNames)
+		{
+			query.append(", lag(");
+			query.append(auditTableName);
+			query.append(".");
+			query.append(columnName);
+			query.append(") over (partition by ");
+			for (int i = 0; i < primaryIdentifierColumnNames.size(); i++)
+			{
+				if (i > 0)
+				{
+					query.append(", ");
+				}
+				query.append(auditTableName);
+				query.append(".");
+				query.append(primaryIdentifierColumnNames.get(i));
+			}
+			query.append(" order by ");
+			query.append(auditTableName);
+			query.append(".");
+			query.append(getRevisionTableIdentifierColumnName());
+			query.append(") ");
+			query.append(PREVIOUS_VALUE_COLUMN_NAME_PREFIX);
+			query.append(columnIndex++);
+		}
+		query.append(" from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(auditTableName);
+		appendRevisionWindowCondition(query, auditTableName, auditTableName, primaryIdentifierColumnNames);
+		query.append(") ");
+		query.append(CHAINED_REVISIONS_ALIAS);
+	}
+
+	/**
+	 * @return The selected audit rows, identified by their primary identifier and revision.
+	 */
+	@Nonnull
+	private Map<String, TableRow> selectRowsByAuditIdentifier(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String auditTableName, @Nonnull String query, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final List<String> identifierColumnNames = new ArrayList<>(primaryIdentifierColumnNames);
+		identifierColumnNames.add(getRevisionTableIdentifierColumnName());
+
+		final CachedResultSetTable recordsInTable = (CachedResultSetTable) databaseConnection.createQueryTable(auditTableName, query);
+		final TableColumns tableColumns = getTableColumns(recordsInTable);
+		final int[] identifierColumnIndexes = getColumnIndexes(tableColumns, identifierColumnNames);
+
+		final Map<String, TableRow> rowsByIdentifier = new LinkedHashMap<>();
+		for (int rowIndex = 0; rowIndex < recordsInTable.getRowCount(); rowIndex++)
+		{
+			final TableRow tableRow = createTableRow(recordsInTable, rowIndex, tableColumns);
+			rowsByIdentifier.put(getPrimaryIdentifierAsString(tableRow, identifierColumnIndexes), tableRow);
+		}
+		return rowsByIdentifier;
+	}
+
+	@Override
+	public void startSharingParentTableScans(@Nonnull Collection<AuditTableInformation> auditTableInformations)
+	{
+		sharedParentTableScans.set(new SharedParentTableScans(auditTableInformations));
+	}
+
+	@Override
+	public void stopSharingParentTableScans()
+	{
+		sharedParentTableScans.remove();
+	}
+
+	private static boolean isSharedParent(@Nonnull AuditTableInformation parent, @Nullable SharedParentTableScans parentTableScans)
+	{
+		return parentTableScans != null && parentTableScans.isShared(parent);
+	}
+
+	@CheckForNull
+	private static TableRow stitch(@Nonnull TableRow tableRow, @Nullable SharedParentTableScans.Stitcher stitcher)
+	{
+		return stitcher == null ? tableRow : stitcher.stitch(tableRow);
+	}
+
+	/**
+	 * @return Stitcher adding the columns of the shared parent content tables to the rows of the content table, null if none of its parents is shared.
+	 */
+	@CheckForNull
+	private SharedParentTableScans.Stitcher createContentStitcher(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull TableColumns tableColumns, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
+	{
+		if (parentTableScans == null || parentTableScans.getSharedParents(auditTableInformation).isEmpty())
+		{
+			return null;
+		}
+
+		final List<SharedParentTableScans.ParentTableRows> parentTableRows = new ArrayList<>();
+		for (AuditTableInformation parent : parentTableScans.getSharedParents(auditTableInformation))
+		{
+			parentTableRows.add(parentTableScans.getContentRows(parent, () -> {
+				final StringBuilder query = new StringBuilder("select * from ");
+				query.append(parent.getContentTableName());
+				query.append(" ");
+				query.append(parent.getContentTableName());
+				appendContentRevisionWindowCondition(query, parent.getAuditTableName(), parent.getContentTableName(), primaryIdentifierColumnNames);
+				return scanParentTable(databaseConnection, parent.getContentTableName(), query.toString(), primaryIdentifierColumnNames);
+			}));
+		}
+		return new SharedParentTableScans.Stitcher(tableColumns, parentTableRows, getColumnIndexes(tableColumns, primaryIdentifierColumnNames));
+	}
+
+	/**
+	 * @return Stitcher adding the columns of the shared parent audit tables to the rows of the audit table, null if none of its parents is shared.
+	 */
+	@CheckForNull
+	private SharedParentTableScans.Stitcher createAuditStitcher(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull TableColumns tableColumns, @Nullable SharedParentTableScans parentTableScans) throws SQLException, DataSetException
+	{
+		if (parentTableScans == null || parentTableScans.getSharedParents(auditTableInformation).isEmpty())
+		{
+			return null;
+		}
+
+		final List<String> primaryIdentifierColumnsAuditTable = new ArrayList<>(primaryIdentifierColumnNames);
+		primaryIdentifierColumnsAuditTable.add(getRevisionTableIdentifierColumnName());
+
+		final List<SharedParentTableScans.ParentTableRows> parentTableRows = new ArrayList<>();
+		for (AuditTableInformation parent : parentTableScans.getSharedParents(auditTableInformation))
+		{
+			parentTableRows.add(parentTableScans.getAuditRows(parent, () -> {
+				final StringBuilder query = new StringBuilder("select * from ");
+				query.append(parent.getAuditTableName());
+				query.append(" ");
+				query.append(parent.getAuditTableName());
+				appendRevisionWindowCondition(query, parent.getAuditTableName(), parent.getAuditTableName(), primaryIdentifierColumnNames);
+				return scanParentTable(databaseConnection, parent.getAuditTableName(), query.toString(), primaryIdentifierColumnsAuditTable);
+			}));
+		}
+		return new SharedParentTableScans.Stitcher(tableColumns, parentTableRows, getColumnIndexes(tableColumns, primaryIdentifierColumnsAuditTable));
+	}
+
+	@Nonnull
+	private SharedParentTableScans.ParentTableRows scanParentTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String tableName, @Nonnull String query, @Nonnull List<String> identifierColumnNames) throws SQLException, DataSetException
+	{
+		final CachedResultSetTable recordsInTable = (CachedResultSetTable) databaseConnection.createQueryTable(tableName, query);
+		final TableColumns tableColumns = getTableColumns(recordsInTable);
+		final int[] identifierColumnIndexes = getColumnIndexes(tableColumns, identifierColumnNames);
+
+		final Map<String, TableRow> rowsByIdentifier = new HashMap<>();
+		for (int rowIndex = 0; rowIndex < recordsInTable.getRowCount(); rowIndex++)
+		{
+			final TableRow tableRow = createTableRow(recordsInTable, rowIndex, tableColumns);
+			rowsByIdentifier.put(getPrimaryIdentifierAsString(tableRow, identifierColumnIndexes), tableRow);
+		}
+		return new SharedParentTableScans.ParentTableRows(tableColumns, rowsByIdentifier);
+	}
+
+	/**
+	 * Limits the query to the records of which at least one revision falls within the {@link RevisionWindow} of the connection provider.
+	 * A semi join on the audit table is used, so all revisions of these records are still selected.
+	 */
+	private void appendRevisionWindowCondition(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull String alias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		appendWhereConditions(query, createRevisionWindowConditions(auditTableName, alias, primaryIdentifierColumnNames));
+	}
+
+	/**
+	 * @return The conditions of {@link #appendRevisionWindowCondition(StringBuilder, String, String, List)}, to which the caller may add its own conditions. Empty if the revision window is unbounded.
+	 */
+	@Nonnull
+	private List<String> createRevisionWindowConditions(@Nonnull String auditTableName, @Nonnull String alias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		final List<String> conditions = new ArrayList<>();
+		if (!connectionProvider.getRevisionWindow().isUnbounded())
+		{
+			final StringBuilder condition = new StringBuilder();
+			appendRevisionWithinWindowCondition(condition, auditTableName, alias, primaryIdentifierColumnNames);
+			conditions.add(condition.toString());
+		}
+		return conditions;
+	}
+
+	/**
+	 * Appends the where clause combining the conditions, nothing is appended without conditions.
+	 */
+	private static void appendWhereConditions(@Nonnull StringBuilder query, @Nonnull List<String> conditions)
+	{
+		if (!conditions.isEmpty())
+		{
+			query.append(" where ");
+			query.append(String.join(" and ", conditions));
+		}
+	}
+
+	/**
+	 * Limits the query on a content table to the records of which at least one revision falls within the {@link RevisionWindow} of the connection provider, see {@link #appendRevisionWindowCondition(StringBuilder, String, String, List)}.
+	 * Records without any revision are selected as well, as these are violations regardless of the revision window.
+	 */
+	private void appendContentRevisionWindowCondition(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull String alias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		final List<String> conditions = new ArrayList<>();
+		if (!connectionProvider.getRevisionWindow().isUnbounded())
+		{
+			final StringBuilder condition = new StringBuilder("(");
+			appendRevisionWithinWindowCondition(condition, auditTableName, alias, primaryIdentifierColumnNames);
+			condition.append(" or not exists (select 1 from ");
+			condition.append(auditTableName);
+			condition.append(" ");
+			condition.append(REVISION_WINDOW_AUDIT_TABLE_ALIAS);
+			appendIdentifierJoinCondition(condition, " where ", REVISION_WINDOW_AUDIT_TABLE_ALIAS, alias, primaryIdentifierColumnNames);
+			condition.append("))");
+			conditions.add(condition.toString());
+		}
+		appendWhereConditions(query, conditions);
+	}
+
+	private void appendRevisionWithinWindowCondition(@Nonnull StringBuilder query, @Nonnull String auditTableName, @Nonnull String alias, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		final RevisionWindow revisionWindow = connectionProvider.getRevisionWindow();
+		final String revisionColumn = REVISION_WINDOW_REVISION_TABLE_ALIAS + "." + getRevisionTableIdentifierColumnName();
+		query.append("exists (select 1 from ");
+		query.append(auditTableName);
+		query.append(" ");
+		query.append(REVISION_WINDOW_AUDIT_TABLE_ALIAS);
+		query.append(" inner join ");
+		query.append(getRevisionTableName());
+		query.append(" ");
+		query.append(REVISION_WINDOW_REVISION_TABLE_ALIAS);
+		query.append(" on ");
+		query.append(revisionColumn);
+		query.append(" = ");
+		query.append(REVISION_WINDOW_AUDIT_TABLE_ALIAS);
+		query.append(".");
+		query.append(getRevisionTableIdentifierColumnName());
+		for (String primaryIdentifierColumnName : primaryIdentifierColumnNames)
+		{
+			query.append(" and ");
+			query.append(REVISION_WINDOW_AUDIT_TABLE_ALIAS);
+			query.append(".");
+			query.append(primaryIdentifierColumnName);
+			query.append(" = ");
+			query.append(alias);
+			query.append(".");
+			query.append(primaryIdentifierColumnName);
+		}
+		if (revisionWindow.getFromRevision() != null)
+		{
+			query.append(" and ");
+			query.append(revisionColumn);
+			query.append(" >= ");
+			query.append(revisionWindow.getFromRevision());
+		}
+		if (revisionWindow.getToRevision() != null)
+		{
+			query.append(" and ");
+			query.append(revisionColumn);
+			query.append(" <= ");
+			query.append(revisionWindow.getToRevision());
+		}
+		if (revisionWindow.getSinceTimestamp() != null)
+		{
+			query.append(" and ");
+			query.append(REVISION_WINDOW_REVISION_TABLE_ALIAS);
+			query.append(".");
+			query.append(getRevisionTableTimestampColumnName());
+			query.append(" >= ");
+			query.append(revisionWindow.getSinceTimestamp());
+		}
+		query.append(")");
+	}
+
+	@Nonnull
+	@Override
+	public String getPrimaryIdentifierAsString(@Nonnull CachedResultSetTable recordsInContentTable, int rowIndex, @Nonnull List<String> primaryIdentifierColumnNames) throws DataSetException
+	{
+		List<String> primaryIdentifierValue = new ArrayList<>(primaryIdentifierColumnNames.size());
+		for (String primaryIdentifierColumnName : primaryIdentifierColumnNames)
+		{
+			final Object identifierValue = recordsInContentTable.getValue(rowIndex, StringUtils.upperCase(primaryIdentifierColumnName));
+			if (identifierValue == null)
+			{
+				primaryIdentifierValue.add(null);
+			}
+			else
+			{
+				primaryIdentifierValue.add(identifierValue.toString());
+			}
+		}
+		return StringUtils.join(primaryIdentifierValue, "-");
+	}
+
+	/**
+	 * Executes a query returning a TABLE_NAME column together with the given counter columns, the counters of each table are joined into a single value.
+	 */
+	@Nonnull
+	protected Map<String, String> queryChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String query, @Nonnull String... counterColumnNames) throws SQLException, DataSetException
+	{
+		final CachedResultSetTable changeCounters = (CachedResultSetTable) databaseConnection.createQueryTable("change_counters", query);
+		final Map<String, String> changeCountersByTableName = new HashMap<>(changeCounters.getRowCount());
+		for (int rowIndex = 0; rowIndex < changeCounters.getRowCount(); rowIndex++)
+		{
+			final StringBuilder counters = new StringBuilder();
+			for (String counterColumnName : counterColumnNames)
+			{
+				counters.append(changeCounters.getValue(rowIndex, counterColumnName));
+				counters.append("/");
+			}
+			changeCountersByTableName.merge(StringUtils.upperCase((String) changeCounters.getValue(rowIndex, "TABLE_NAME")), counters.toString(), String::concat);
+		}
+		return changeCountersByTableName;
+	}
+
+	/**
+	 * @return A condition matching the column against the upper case table names, split into several in clauses of at most the given number of table names each.
+	 */
+	@Nonnull
+	protected static String toUpperCaseInCondition(@Nonnull String columnReference, @Nonnull Set<String> tableNames, int maximumInListSize)
+	{
+		final List<String> inClauses = new ArrayList<>();
+		final List<String> quotedTableNames = new ArrayList<>(Math.min(tableNames.size(), maximumInListSize));
+		for (String tableName : new TreeSet<>(tableNames))
+		{
+			quotedTableNames.add("'" + StringUtils.upperCase(tableName) + "'");
+			if (quotedTableNames.size() == maximumInListSize)
+			{
+				inClauses.add(columnReference + " in (" + StringUtils.join(quotedTableNames, ", ") + ")");
+				quotedTableNames.clear();
+			}
+		}
+		if (!quotedTableNames.isEmpty())
+		{
+			inClauses.add(columnReference + " in (" + StringUtils.join(quotedTableNames, ", ") + ")");
+		}
+		return "(" + StringUtils.join(inClauses, " or ") + ")";
+	}
+
+	/**
+	 * Executes a query returning the replication lag in seconds as its only column, null if the query does not return a value.
+	 */
+	@CheckForNull
+	protected static Long queryReplicationLagSeconds(@Nonnull Connection connection, @Nonnull String query) throws SQLException
+	{
+		try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query))
+		{
+			if (!resultSet.next())
+			{
+				return null;
+			}
+			final long replicationLagSeconds = resultSet.getLong(1);
+			return resultSet.wasNull() ? null : replicationLagSeconds;
 		}
-		return StringUtils.join(primaryIdentifierValue, "-");
 	}
 }
\ No newline at end of file
@@ -0,0 +1,392 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Keeps the results of the catalog (metadata) queries for as long as the connection is in use, so executions sharing a {@link ConnectionProviderInstance} only query the catalog once.
+ * Content and audit records are never cached.
+ */
+class CatalogCachingQueries implements DatabaseQueries
+{
+	private final DatabaseQueries delegate;
+
+	private final Map<String, CachedResultSetTable> tablesByName = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> tablesByNameEndingWith = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> primaryKeyColumnNames = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> allColumns = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> allNonnullColumns = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> fixedWidthCharacterColumnNames = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> nonComparableColumnNames = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> partitionTableReferences = new ConcurrentHashMap<>();
+	private volatile Set<String> tablesWithForeignKeysToRevisionTable;
+
+	CatalogCachingQueries(@Nonnull DatabaseQueries delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Forgets all cached catalog information, so tables and columns added or removed since, for example by a migration, are retrieved again.
+	 */
+	void clear()
+	{
+		tablesByName.clear();
+		tablesByNameEndingWith.clear();
+		primaryKeyColumnNames.clear();
+		allColumns.clear();
+		allNonnullColumns.clear();
+		fixedWidthCharacterColumnNames.clear();
+		nonComparableColumnNames.clear();
+		partitionTableReferences.clear();
+		tablesWithForeignKeysToRevisionTable = null;
+	}
+
+	@Nonnull
+	@Override
+	public String getAuditTablePostFix()
+	{
+		return delegate.getAuditTablePostFix();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevTypeColumnName()
+	{
+		return delegate.getRevTypeColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableIdentifierColumnName()
+	{
+		return delegate.getRevisionTableIdentifierColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableName()
+	{
+		return delegate.getRevisionTableName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableTimestampColumnName()
+	{
+		return delegate.getRevisionTableTimestampColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndColumnName()
+	{
+		return delegate.getRevisionEndColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndTimestampColumnName()
+	{
+		return delegate.getRevisionEndTimestampColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getModifiedFlagSuffix()
+	{
+		return delegate.getModifiedFlagSuffix();
+	}
+
+	@Nonnull
+	@Override
+	public CachedResultSetTable getTableByName(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		CachedResultSetTable table = tablesByName.get(tableName);
+		if (table == null)
+		{
+			table = delegate.getTableByName(tableName);
+			tablesByName.put(tableName, table);
+		}
+		return table;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getTablesByNameEndingWith(@Nonnull String postFix) throws SQLException, DataSetException
+	{
+		Set<String> tables = tablesByNameEndingWith.get(postFix);
+		if (tables == null)
+		{
+			tables = Collections.unmodifiableSet(delegate.getTablesByNameEndingWith(postFix));
+			tablesByNameEndingWith.put(postFix, tables);
+		}
+		return tables;
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getPrimaryKeyColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		List<String> columnNames = primaryKeyColumnNames.get(tableName);
+		if (columnNames == null)
+		{
+			columnNames = Collections.unmodifiableList(delegate.getPrimaryKeyColumnNames(tableName));
+			primaryKeyColumnNames.put(tableName, columnNames);
+		}
+		return columnNames;
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getContentRecords(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getContentRecords(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public ContentKeyIndex getContentKeyIndex(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getContentKeyIndex(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, List<TableRow>> getAuditRecordsGroupedByContentPrimaryKey(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getAuditRecordsGroupedByContentPrimaryKey(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getListOfTablesWithForeignKeysToRevisionTable() throws SQLException, DataSetException
+	{
+		Set<String> tables = tablesWithForeignKeysToRevisionTable;
+		if (tables == null)
+		{
+			tables = Collections.unmodifiableSet(delegate.getListOfTablesWithForeignKeysToRevisionTable());
+			tablesWithForeignKeysToRevisionTable = tables;
+		}
+		return tables;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAllColumns(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		Set<String> columns = allColumns.get(tableName);
+		if (columns == null)
+		{
+			columns = Collections.unmodifiableSet(delegate.getAllColumns(tableName));
+			allColumns.put(tableName, columns);
+		}
+		return columns;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAllNonnullColumns(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		Set<String> columns = allNonnullColumns.get(tableName);
+		if (columns == null)
+		{
+			columns = Collections.unmodifiableSet(delegate.getAllNonnullColumns(tableName));
+			allNonnullColumns.put(tableName, columns);
+		}
+		return columns;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getFixedWidthCharacterColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		Set<String> columnNames = fixedWidthCharacterColumnNames.get(tableName);
+		if (columnNames == null)
+		{
+			columnNames = Collections.unmodifiableSet(delegate.getFixedWidthCharacterColumnNames(tableName));
+			fixedWidthCharacterColumnNames.put(tableName, columnNames);
+		}
+		return columnNames;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getNonComparableColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		Set<String> columnNames = nonComparableColumnNames.get(tableName);
+		if (columnNames == null)
+		{
+			columnNames = Collections.unmodifiableSet(delegate.getNonComparableColumnNames(tableName));
+			nonComparableColumnNames.put(tableName, columnNames);
+		}
+		return columnNames;
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getSessionInitialisationStatements(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism)
+	{
+		return delegate.getSessionInitialisationStatements(sessionProfile, bulkScanParallelism);
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getPartitionTableReferences(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		List<String> partitions = partitionTableReferences.get(tableName);
+		if (partitions == null)
+		{
+			partitions = Collections.unmodifiableList(delegate.getPartitionTableReferences(tableName));
+			partitionTableReferences.put(tableName, partitions);
+		}
+		return partitions;
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, String> getChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Set<String> tableNames) throws SQLException, DataSetException
+	{
+		return delegate.getChangeCounters(databaseConnection, tableNames);
+	}
+
+	@Nonnull
+	@Override
+	public String exportSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		return delegate.exportSnapshot(connection);
+	}
+
+	@Override
+	public void importSnapshot(@Nonnull Connection connection, @Nonnull String snapshotIdentifier) throws SQLException
+	{
+		delegate.importSnapshot(connection, snapshotIdentifier);
+	}
+
+	@Override
+	public void releaseSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		delegate.releaseSnapshot(connection);
+	}
+
+	@CheckForNull
+	@Override
+	public Long getReplicationLagSeconds(@Nonnull Connection connection) throws SQLException
+	{
+		return delegate.getReplicationLagSeconds(connection);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionEndChainViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionEndChainViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionEndTimestampViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionEndTimestampViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getModifiedFlagViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, String> modifiedFlagColumnNamesByColumnName) throws SQLException, DataSetException
+	{
+		return delegate.getModifiedFlagViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, modifiedFlagColumnNamesByColumnName);
+	}
+
+	@Nonnull
+	@Override
+	public TableRowSample getNoOpModifyRevisions(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> dataColumnNames, @Nonnull Map<String, String> auditTableGroups, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getNoOpModifyRevisions(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, dataColumnNames, auditTableGroups, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionsWithoutParentRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsWithoutParentRevision(databaseConnection, auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getParentRevisionsWithoutChildRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getParentRevisionsWithoutChildRevision(databaseConnection, auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsMissingFromRevisionTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsMissingFromRevisionTable(databaseConnection, auditTableNames, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsNotReferencedByAuditTables(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsNotReferencedByAuditTables(databaseConnection, auditTableNames, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public TableRowSample getRevisionsWithDecreasingTimestamp(@Nonnull IDatabaseConnection databaseConnection, int maximumRanges) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsWithDecreasingTimestamp(databaseConnection, maximumRanges);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getOpenRevisionsWithoutContent(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getOpenRevisionsWithoutContent(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getContentWithoutOpenRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getContentWithoutOpenRevision(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Override
+	public void startSharingParentTableScans(@Nonnull Collection<AuditTableInformation> auditTableInformations)
+	{
+		delegate.startSharingParentTableScans(auditTableInformations);
+	}
+
+	@Override
+	public void stopSharingParentTableScans()
+	{
+		delegate.stopSharingParentTableScans();
+	}
+
+	@Nonnull
+	@Override
+	public String getPrimaryIdentifierAsString(@Nonnull CachedResultSetTable recordsInContentTable, int rowIndex, @Nonnull List<String> primaryIdentifierColumnNames) throws DataSetException
+	{
+		return delegate.getPrimaryIdentifierAsString(recordsInContentTable, rowIndex, primaryIdentifierColumnNames);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,538 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+
+/**
+ * Stores the rows of a single query result column by column, each column is read back through its own memory mapped region.
+ *
+ * Layout: header block, identifier block, one block per column, block directory (offset and length of each block), offset of the block directory.
+ * The header block contains the format version, the fingerprint, the number of rows and the column names.
+ *
+ * The validators operate on {@link TableRow}s, so the mapped blocks are decoded into rows on the heap when read instead of being validated straight from the mapped file.
+ * Mapping the blocks only avoids reading the file through an additional buffer on the heap.
+ * A single block can be mapped up to {@link Integer#MAX_VALUE} bytes, rows of which a column block would exceed this size are not written.
+ */
+class ColumnarSnapshotFile
+{
+	private static final int MAGIC = 0x45565343;
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte BIG_DECIMAL = 2;
+	private static final byte BIG_INTEGER = 3;
+	private static final byte LONG = 4;
+	private static final byte INTEGER = 5;
+	private static final byte SHORT = 6;
+	private static final byte BYTE = 7;
+	private static final byte DOUBLE = 8;
+	private static final byte FLOAT = 9;
+	private static final byte BOOLEAN = 10;
+	private static final byte TIMESTAMP = 11;
+	private static final byte SQL_DATE = 12;
+	private static final byte TIME = 13;
+	private static final byte DATE = 14;
+	private static final byte BYTES = 15;
+
+	private static final long MAXIMUM_BLOCK_SIZE = Integer.MAX_VALUE;
+
+	private final File file;
+	private final long maximumBlockSize;
+
+	ColumnarSnapshotFile(@Nonnull File file)
+	{
+		this(file, MAXIMUM_BLOCK_SIZE);
+	}
+
+	/**
+	 * @param maximumBlockSize Maximum size of the identifier block and each column block in bytes, at most {@link Integer#MAX_VALUE} as larger blocks can not be mapped.
+	 */
+	ColumnarSnapshotFile(@Nonnull File file, long maximumBlockSize)
+	{
+		this.file = file;
+		this.maximumBlockSize = maximumBlockSize;
+	}
+
+	@Override
+	public String toString()
+	{
+		return file.getAbsolutePath();
+	}
+
+	/**
+	 * Writes the rows to a temporary file which replaces the snapshot once complete, so an interrupted write never leaves a partial snapshot behind.
+	 *
+	 * @param identifiers The identifier of each row, in the same order as the rows.
+	 * @throws IOException If the rows have different columns, contain a value of an unsupported type or would require a block which is too large to be mapped, no snapshot is written.
+	 */
+	void write(@Nonnull String fingerprint, @Nonnull List<String> identifiers, @Nonnull List<TableRow> rows) throws IOException
+	{
+		final TableColumns tableColumns = rows.isEmpty() ? new TableColumns(Collections.emptyList()) : rows.get(0).getTableColumns();
+		for (TableRow row : rows)
+		{
+			if (!tableColumns.equals(row.getTableColumns()))
+			{
+				throw new IOException("Rows with different columns can not be stored in a single snapshot.");
+			}
+		}
+		verifyBlockSizes(identifiers, rows, tableColumns);
+
+		final File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Unable to create snapshot directory " + directory.getAbsolutePath());
+		}
+
+		final File temporaryFile = new File(directory, file.getName() + ".tmp");
+		try
+		{
+			try (FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile); DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutputStream)))
+			{
+				final List<Long> blockOffsets = new ArrayList<>();
+
+				blockOffsets.add(getPosition(fileOutputStream, output));
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				writeString(output, fingerprint);
+				output.writeInt(rows.size());
+				output.writeInt(tableColumns.size());
+				for (int columnIndex = 0; columnIndex < tableColumns.size(); columnIndex++)
+				{
+					writeString(output, tableColumns.getColumnName(columnIndex));
+				}
+
+				blockOffsets.add(getPosition(fileOutputStream, output));
+				for (String identifier : identifiers)
+				{
+					writeString(output, identifier);
+				}
+
+				for (int columnIndex = 0; columnIndex < tableColumns.size(); columnIndex++)
+				{
+					blockOffsets.add(getPosition(fileOutputStream, output));
+					for (TableRow row : rows)
+					{
+						writeValue(output, row.getColumnValue(columnIndex));
+					}
+				}
+
+				final long directoryOffset = getPosition(fileOutputStream, output);
+				blockOffsets.add(directoryOffset);
+				output.writeInt(blockOffsets.size() - 1);
+				for (int blockIndex = 0; blockIndex < blockOffsets.size() - 1; blockIndex++)
+				{
+					output.writeLong(blockOffsets.get(blockIndex));
+					output.writeLong(blockOffsets.get(blockIndex + 1) - blockOffsets.get(blockIndex));
+				}
+				output.writeLong(directoryOffset);
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+
+	/**
+	 * @return The snapshot if it exists and was written with the given fingerprint, null otherwise.
+	 * @throws IOException If the snapshot is corrupt or a block is too large to be mapped.
+	 */
+	@CheckForNull
+	Snapshot read(@Nonnull String fingerprint) throws IOException
+	{
+		if (!file.isFile())
+		{
+			return null;
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			final long size = channel.size();
+			if (size < Long.BYTES)
+			{
+				throw new IOException("Snapshot " + file.getAbsolutePath() + " is truncated.");
+			}
+			final long directoryOffset = map(channel, size - Long.BYTES, Long.BYTES).getLong();
+			final MappedByteBuffer directory = map(channel, directoryOffset, size - Long.BYTES - directoryOffset);
+			final int blockCount = directory.getInt();
+
+			final ByteBuffer header = map(channel, directory.getLong(), directory.getLong());
+			if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION || !fingerprint.equals(readString(header)))
+			{
+				return null;
+			}
+
+			final int rowCount = header.getInt();
+			final int columnCount = header.getInt();
+			if (blockCount != columnCount + 2)
+			{
+				throw new IOException("Snapshot " + file.getAbsolutePath() + " does not contain a block for each column.");
+			}
+			final List<String> columnNames = new ArrayList<>(columnCount);
+			for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+			{
+				columnNames.add(readString(header));
+			}
+
+			final ByteBuffer identifierBlock = map(channel, directory.getLong(), directory.getLong());
+			final List<String> identifiers = new ArrayList<>(rowCount);
+			final List<TableRow> rows = new ArrayList<>(rowCount);
+			final TableColumns tableColumns = new TableColumns(columnNames);
+			for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+			{
+				identifiers.add(readString(identifierBlock));
+				rows.add(new TableRow(tableColumns));
+			}
+
+			for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+			{
+				final ByteBuffer columnBlock = map(channel, directory.getLong(), directory.getLong());
+				for (TableRow row : rows)
+				{
+					row.setColumnValue(columnIndex, readValue(columnBlock));
+				}
+			}
+			return new Snapshot(identifiers, rows);
+		}
+		catch (RuntimeException e)
+		{
+			throw new IOException("Snapshot " + file.getAbsolutePath() + " is corrupt: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Computes the size of each block before anything is written, so rows which can not be read back are not written to disk during every run.
+	 */
+	private void verifyBlockSizes(@Nonnull List<String> identifiers, @Nonnull List<TableRow> rows, @Nonnull TableColumns tableColumns) throws IOException
+	{
+		long identifierBlockSize = 0;
+		for (String identifier : identifiers)
+		{
+			identifierBlockSize += Integer.BYTES + getEncodedLength(identifier);
+		}
+		verifyBlockSize("identifier", identifierBlockSize);
+
+		for (int columnIndex = 0; columnIndex < tableColumns.size(); columnIndex++)
+		{
+			long columnBlockSize = 0;
+			for (TableRow row : rows)
+			{
+				columnBlockSize += getEncodedLength(row.getColumnValue(columnIndex));
+			}
+			verifyBlockSize("column " + tableColumns.getColumnName(columnIndex), columnBlockSize);
+		}
+	}
+
+	private void verifyBlockSize(@Nonnull String blockName, long blockSize) throws IOException
+	{
+		if (blockSize > maximumBlockSize)
+		{
+			throw new IOException("The " + blockName + " block requires " + blockSize + " bytes, which exceeds the maximum of " + maximumBlockSize + " bytes that can be mapped. The records are not cached.");
+		}
+	}
+
+	@Nonnull
+	private static MappedByteBuffer map(@Nonnull FileChannel channel, long offset, long length) throws IOException
+	{
+		if (offset < 0 || length < 0 || length > Integer.MAX_VALUE || offset + length > channel.size())
+		{
+			throw new IOException("Unable to map a block of " + length + " bytes at offset " + offset + ".");
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+	}
+
+	private static long getPosition(@Nonnull FileOutputStream fileOutputStream, @Nonnull DataOutputStream output) throws IOException
+	{
+		output.flush();
+		return fileOutputStream.getChannel().position();
+	}
+
+	private static void writeString(@Nonnull DataOutputStream output, @Nonnull String value) throws IOException
+	{
+		writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBytes(@Nonnull DataOutputStream output, @Nonnull byte[] value) throws IOException
+	{
+		output.writeInt(value.length);
+		output.write(value);
+	}
+
+	@Nonnull
+	private static String readString(@Nonnull ByteBuffer buffer)
+	{
+		return new String(readBytes(buffer), StandardCharsets.UTF_8);
+	}
+
+	@Nonnull
+	private static byte[] readBytes(@Nonnull ByteBuffer buffer)
+	{
+		final byte[] value = new byte[buffer.getInt()];
+		buffer.get(value);
+		return value;
+	}
+
+	private static void writeValue(@Nonnull DataOutputStream output, @Nullable Object value) throws IOException
+	{
+		if (value == null)
+		{
+			output.writeByte(NULL);
+		}
+		else if (value instanceof String)
+		{
+			output.writeByte(STRING);
+			writeString(output, (String) value);
+		}
+		else if (value instanceof BigDecimal)
+		{
+			output.writeByte(BIG_DECIMAL);
+			output.writeInt(((BigDecimal) value).scale());
+			writeBytes(output, ((BigDecimal) value).unscaledValue().toByteArray());
+		}
+		else if (value instanceof BigInteger)
+		{
+			output.writeByte(BIG_INTEGER);
+			writeBytes(output, ((BigInteger) value).toByteArray());
+		}
+		else if (value instanceof Long)
+		{
+			output.writeByte(LONG);
+			output.writeLong((Long) value);
+		}
+		else if (value instanceof Integer)
+		{
+			output.writeByte(INTEGER);
+			output.writeInt((Integer) value);
+		}
+		else if (value instanceof Short)
+		{
+			output.writeByte(SHORT);
+			output.writeShort((Short) value);
+		}
+		else if (value instanceof Byte)
+		{
+			output.writeByte(BYTE);
+			output.writeByte((Byte) value);
+		}
+		else if (value instanceof Double)
+		{
+			output.writeByte(DOUBLE);
+			output.writeDouble((Double) value);
+		}
+		else if (value instanceof Float)
+		{
+			output.writeByte(FLOAT);
+			output.writeFloat((Float) value);
+		}
+		else if (value instanceof Boolean)
+		{
+			output.writeByte(BOOLEAN);
+			output.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Timestamp)
+		{
+			output.writeByte(TIMESTAMP);
+			output.writeLong(((Timestamp) value).getTime());
+			output.writeInt(((Timestamp) value).getNanos());
+		}
+		else if (value instanceof java.sql.Date)
+		{
+			output.writeByte(SQL_DATE);
+			output.writeLong(((java.sql.Date) value).getTime());
+		}
+		else if (value instanceof Time)
+		{
+			output.writeByte(TIME);
+			output.writeLong(((Time) value).getTime());
+		}
+		else if (value.getClass() == Date.class)
+		{
+			output.writeByte(DATE);
+			output.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof byte[])
+		{
+			output.writeByte(BYTES);
+			writeBytes(output, (byte[]) value);
+		}
+		else
+		{
+			throw new IOException("Values of type " + value.getClass().getName() + " can not be stored in a snapshot.");
+		}
+	}
+
+	/**
+	 * @return The number of bytes written by {@link #writeValue(DataOutputStream, Object)} for the value.
+	 */
+	private static long getEncodedLength(@Nullable Object value) throws IOException
+	{
+		if (value == null)
+		{
+			return Byte.BYTES;
+		}
+		else if (value instanceof String)
+		{
+			return Byte.BYTES + Integer.BYTES + getEncodedLength((String) value);
+		}
+		else if (value instanceof BigDecimal)
+		{
+			return Byte.BYTES + Integer.BYTES + Integer.BYTES + ((BigDecimal) value).unscaledValue().bitLength() / Byte.SIZE + 1;
+		}
+		else if (value instanceof BigInteger)
+		{
+			return Byte.BYTES + Integer.BYTES + ((BigInteger) value).bitLength() / Byte.SIZE + 1;
+		}
+		else if (value instanceof Long || value instanceof Double || value instanceof java.sql.Date || value instanceof Time || value.getClass() == Date.class)
+		{
+			return Byte.BYTES + Long.BYTES;
+		}
+		else if (value instanceof Integer || value instanceof Float)
+		{
+			return Byte.BYTES + Integer.BYTES;
+		}
+		else if (value instanceof Short)
+		{
+			return Byte.BYTES + Short.BYTES;
+		}
+		else if (value instanceof Byte || value instanceof Boolean)
+		{
+			return Byte.BYTES + Byte.BYTES;
+		}
+		else if (value instanceof Timestamp)
+		{
+			return Byte.BYTES + Long.BYTES + Integer.BYTES;
+		}
+		else if (value instanceof byte[])
+		{
+			return Byte.BYTES + Integer.BYTES + ((byte[]) value).length;
+		}
+		throw new IOException("Values of type " + value.getClass().getName() + " can not be stored in a snapshot.");
+	}
+
+	/**
+	 * @return The number of bytes of the value encoded as UTF-8, without encoding it.
+	 */
+	private static long getEncodedLength(@Nonnull String value)
+	{
+		long length = 0;
+		for (int index = 0; index < value.length(); index++)
+		{
+			final char character = value.charAt(index);
+			if (character < 0x80)
+			{
+				length += 1;
+			}
+			else if (character < 0x800)
+			{
+				length += 2;
+			}
+			else if (Character.isHighSurrogate(character) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1)))
+			{
+				length += 4;
+				index++;
+			}
+			else
+			{
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	@CheckForNull
+	private static Object readValue(@Nonnull ByteBuffer buffer) throws IOException
+	{
+		final byte type = buffer.get();
+		switch (type)
+		{
+			case NULL:
+				return null;
+			case STRING:
+				return readString(buffer);
+			case BIG_DECIMAL:
+				final int scale = buffer.getInt();
+				return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+			case BIG_INTEGER:
+				return new BigInteger(readBytes(buffer));
+			case LONG:
+				return buffer.getLong();
+			case INTEGER:
+				return buffer.getInt();
+			case SHORT:
+				return buffer.getShort();
+			case BYTE:
+				return buffer.get();
+			case DOUBLE:
+				return buffer.getDouble();
+			case FLOAT:
+				return buffer.getFloat();
+			case BOOLEAN:
+				return buffer.get() != 0;
+			case TIMESTAMP:
+				final Timestamp timestamp = new Timestamp(buffer.getLong());
+				timestamp.setNanos(buffer.getInt());
+				return timestamp;
+			case SQL_DATE:
+				return new java.sql.Date(buffer.getLong());
+			case TIME:
+				return new Time(buffer.getLong());
+			case DATE:
+				return new Date(buffer.getLong());
+			case BYTES:
+				return readBytes(buffer);
+			default:
+				throw new IOException("Unknown value type " + type + ".");
+		}
+	}
+
+	static class Snapshot
+	{
+		private final List<String> identifiers;
+		private final List<TableRow> rows;
+
+		private Snapshot(@Nonnull List<String> identifiers, @Nonnull List<TableRow> rows)
+		{
+			this.identifiers = identifiers;
+			this.rows = rows;
+		}
+
+		@Nonnull
+		List<String> getIdentifiers()
+		{
+			return identifiers;
+		}
+
+		@Nonnull
+		List<TableRow> getRows()
+		{
+			return rows;
+		}
+	}
+}
\ No newline at end of file
@@ -1,9 +1,30 @@
 package com.github.zeger_tak.enversvalidationplugin.connection;
 
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.DatabaseNotSupportedException;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.dbunit.IDatabaseTester;
 import org.dbunit.JdbcDatabaseTester;
 import org.dbunit.database.DatabaseConfig;
@@ -15,26 +36,54 @@ public class ConnectionProviderInstance
 {
 	static final String ORACLE_DRIVER = "oracle.jdbc.OracleDriver";
 	static final String POSTGRESQL_DRIVER = "org.postgresql.Driver";
+	private static final int CONNECTION_VALIDATION_TIMEOUT_SECONDS = 5;
+
+	private static final ScheduledExecutorService TIME_LIMIT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "envers-validation-time-limit");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private final String driverClass;
 	private final String connectionUrl;
 	private final String username;
 	private final String password;
 	private final String schema;
-	private final String auditTableInformationFile;
 	private final IDatabaseTester databaseTester;
 
 	private IDatabaseConnection databaseConnection;
 	private DatabaseQueries databaseQueries;
+	private RevisionWindow revisionWindow = RevisionWindow.UNBOUNDED;
+	private int partitionScanParallelism = 1;
+	private ExecutorService partitionScanExecutor;
+	private SessionProfile sessionProfile = SessionProfile.DEFAULT;
+	private int bulkScanParallelism;
+	private List<String> sessionInitialisationStatements = Collections.emptyList();
+	private File snapshotDirectory;
+	private DatabaseQueries snapshotCachingQueries;
+	private Log log = new SystemStreamLog();
+	private boolean consistentSnapshot;
+	private String snapshotIdentifier;
+	private IDatabaseTester replicaDatabaseTester;
+	private IDatabaseConnection replicaDatabaseConnection;
+	private String replicaDescription;
+	private Long maximumReplicaLagSeconds;
+	private FetchLimits connectionFetchLimits = FetchLimits.UNLIMITED;
+	private Long baselineRoundTripMillis;
+	private FetchThrottle sharedFetchThrottle;
+	private Integer statementTimeoutSeconds;
+	private Long tableTimeLimitSeconds;
+	private final ThreadLocal<TimeLimit> activeTimeLimit = new ThreadLocal<>();
+	private boolean shareParentTableScans;
+	private final Set<Statement> runningStatements = ConcurrentHashMap.newKeySet();
 
-	public ConnectionProviderInstance(@Nonnull String connectionUrl, @Nonnull String driverClass, @Nonnull String username, @Nonnull String password, @Nullable String schema, @Nonnull String auditTableInformationFile)
+	public ConnectionProviderInstance(@Nonnull String connectionUrl, @Nonnull String driverClass, @Nonnull String username, @Nonnull String password, @Nullable String schema)
 	{
 		this.driverClass = driverClass;
 		this.connectionUrl = connectionUrl;
 		this.password = password;
 		this.username = username;
 		this.schema = schema;
-		this.auditTableInformationFile = auditTableInformationFile;
 		databaseTester = newDatabaseTester();
 	}
 
@@ -44,19 +93,16 @@ public class ConnectionProviderInstance
 		try
 		{
 			final JdbcDatabaseTester jdbcDatabaseTester = new JdbcDatabaseTester(driverClass, connectionUrl, username, password, schema);
-			databaseConnection = jdbcDatabaseTester.getConnection();
 			if (driverClass.equals(ORACLE_DRIVER))
 			{
-				// For Oracle, provide the schema name. Otherwise, metadata for ALL objects is retrieved.
-				getDatabaseConnection().getConfig().setProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, new OracleDataTypeFactory());
-				databaseQueries = new OracleQueries(this);
+				databaseQueries = new CatalogCachingQueries(new OracleQueries(this));
+				databaseConnection = configureConnection(jdbcDatabaseTester.getConnection());
 				return jdbcDatabaseTester;
 			}
 			else if (driverClass.equals(POSTGRESQL_DRIVER))
 			{
-				// For Postgresql
-				getDatabaseConnection().getConfig().setProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, new PostgresqlDataTypeFactory());
-				databaseQueries = new PostgresQueries(this);
+				databaseQueries = new CatalogCachingQueries(new PostgresQueries(this));
+				databaseConnection = configureConnection(jdbcDatabaseTester.getConnection());
 				return jdbcDatabaseTester;
 			}
 		}
@@ -68,21 +114,491 @@ public class ConnectionProviderInstance
 		throw new DatabaseNotSupportedException("Unable to determine database type.");
 	}
 
+	@Nonnull
+	private IDatabaseConnection configureConnection(@Nonnull IDatabaseConnection connection)
+	{
+		if (driverClass.equals(ORACLE_DRIVER))
+		{
+			// For Oracle, provide the schema name. Otherwise, metadata for ALL objects is retrieved.
+			connection.getConfig().setProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, new OracleDataTypeFactory());
+		}
+		else if (driverClass.equals(POSTGRESQL_DRIVER))
+		{
+			// For Postgresql
+			connection.getConfig().setProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, new PostgresqlDataTypeFactory());
+		}
+		initialiseSession(connection);
+		configureFetchThrottle(connection);
+		return connection;
+	}
+
+	private void configureFetchThrottle(@Nonnull IDatabaseConnection connection)
+	{
+		final boolean unthrottled = connectionFetchLimits.isUnlimited() && sharedFetchThrottle == null && baselineRoundTripMillis == null;
+		connection.getConfig().setProperty(DatabaseConfig.PROPERTY_RESULTSET_TABLE_FACTORY, new ControlledResultSetTableFactory(this, unthrottled ? null : new FetchThrottle(connectionFetchLimits, sharedFetchThrottle, baselineRoundTripMillis), driverClass.equals(POSTGRESQL_DRIVER)));
+	}
+
+	/**
+	 * Limits the rate at which rows are fetched, changed limits are applied immediately to the connections which are already open.
+	 *
+	 * @param connectionFetchLimits Limits of each connection.
+	 * @param sharedFetchLimits Limits of all connections with the database together, see {@link FetchThrottle#shared(String, FetchLimits)}.
+	 * @param baselineRoundTripMillis Fetching backs off when round trips to the database take longer than this number of milliseconds, see {@link FetchThrottle}. Fetching does not back off if null.
+	 */
+	public void setFetchLimits(@Nonnull FetchLimits connectionFetchLimits, @Nonnull FetchLimits sharedFetchLimits, @Nullable Long baselineRoundTripMillis)
+	{
+		final FetchThrottle newSharedFetchThrottle = sharedFetchLimits.isUnlimited() ? null : FetchThrottle.shared(connectionUrl, sharedFetchLimits);
+		if (this.connectionFetchLimits.equals(connectionFetchLimits) && sharedFetchThrottle == newSharedFetchThrottle && Objects.equals(this.baselineRoundTripMillis, baselineRoundTripMillis))
+		{
+			return;
+		}
+
+		this.connectionFetchLimits = connectionFetchLimits;
+		this.baselineRoundTripMillis = baselineRoundTripMillis;
+		sharedFetchThrottle = newSharedFetchThrottle;
+		if (databaseConnection != null)
+		{
+			configureFetchThrottle(databaseConnection);
+		}
+		if (replicaDatabaseConnection != null)
+		{
+			configureFetchThrottle(replicaDatabaseConnection);
+		}
+	}
+
+	/**
+	 * @param statementTimeoutSeconds Number of seconds after which a single query is cancelled by the database driver, queries are not limited if null.
+	 * @param tableTimeLimitSeconds Number of seconds a time limit started through {@link #startTimeLimit(String)} lasts, time limits are not enforced if null.
+	 */
+	public void setTimeouts(@Nullable Integer statementTimeoutSeconds, @Nullable Long tableTimeLimitSeconds)
+	{
+		this.statementTimeoutSeconds = statementTimeoutSeconds;
+		this.tableTimeLimitSeconds = tableTimeLimitSeconds;
+	}
+
+	@CheckForNull
+	Integer getStatementTimeoutSeconds()
+	{
+		return statementTimeoutSeconds;
+	}
+
+	/**
+	 * Starts the time limit of a validation or of loading the data of a single table, which must be closed once the work is done.
+	 * The time limit is active for the calling thread only. Once the limit is exceeded, the queries running within it are cancelled and new queries fail until the time limit is closed.
+	 * Time limits may be nested, the enclosing time limit becomes active again once the nested time limit is closed.
+	 */
+	@Nonnull
+	public TimeLimit startTimeLimit(@Nonnull String description)
+	{
+		final TimeLimit timeLimit = new TimeLimit(this, description, tableTimeLimitSeconds, activeTimeLimit.get(), TIME_LIMIT_SCHEDULER);
+		activeTimeLimit.set(timeLimit);
+		return timeLimit;
+	}
+
+	void timeLimitClosed(@Nonnull TimeLimit timeLimit)
+	{
+		if (activeTimeLimit.get() == timeLimit)
+		{
+			setActiveTimeLimit(timeLimit.getPreviousTimeLimit());
+		}
+	}
+
+	private void setActiveTimeLimit(@Nullable TimeLimit timeLimit)
+	{
+		if (timeLimit == null)
+		{
+			activeTimeLimit.remove();
+		}
+		else
+		{
+			activeTimeLimit.set(timeLimit);
+		}
+	}
+
+	/**
+	 * @return The task, which executes its queries within the time limit active for the calling thread when it is executed by another thread.
+	 */
+	@Nonnull
+	<T> Callable<T> withActiveTimeLimit(@Nonnull Callable<T> task)
+	{
+		final TimeLimit timeLimit = activeTimeLimit.get();
+		return () -> {
+			final TimeLimit previousTimeLimit = activeTimeLimit.get();
+			setActiveTimeLimit(timeLimit);
+			try
+			{
+				return task.call();
+			}
+			finally
+			{
+				setActiveTimeLimit(previousTimeLimit);
+			}
+		};
+	}
+
+	/**
+	 * @return The active time limit or one of the time limits enclosing it which has been exceeded, null if none of these time limits has been exceeded.
+	 */
+	@CheckForNull
+	TimeLimit getExceededTimeLimit()
+	{
+		for (TimeLimit timeLimit = activeTimeLimit.get(); timeLimit != null; timeLimit = timeLimit.getPreviousTimeLimit())
+		{
+			if (timeLimit.isExpired())
+			{
+				return timeLimit;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Registers the statement with this provider and with the time limits active for the calling thread, so these can cancel it.
+	 */
+	void statementStarted(@Nonnull Statement statement)
+	{
+		runningStatements.add(statement);
+		for (TimeLimit timeLimit = activeTimeLimit.get(); timeLimit != null; timeLimit = timeLimit.getPreviousTimeLimit())
+		{
+			timeLimit.statementStarted(statement);
+		}
+	}
+
+	void statementFinished(@Nonnull Statement statement)
+	{
+		runningStatements.remove(statement);
+		for (TimeLimit timeLimit = activeTimeLimit.get(); timeLimit != null; timeLimit = timeLimit.getPreviousTimeLimit())
+		{
+			timeLimit.statementFinished(statement);
+		}
+	}
+
+	/**
+	 * Cancels the queries which are running on any of the connections of this provider, for example when the validation is interrupted.
+	 * The cancelled queries fail with an {@link SQLException}, the connections themselves remain usable.
+	 */
+	public void cancelRunningStatements()
+	{
+		for (Statement statement : runningStatements)
+		{
+			try
+			{
+				statement.cancel();
+			}
+			catch (SQLException e)
+			{
+				// The statement has already finished or the driver does not support cancellation.
+			}
+		}
+	}
+
+	private void initialiseSession(@Nonnull IDatabaseConnection connection)
+	{
+		final List<String> statements = new ArrayList<>(databaseQueries.getSessionInitialisationStatements(sessionProfile, bulkScanParallelism));
+		statements.addAll(sessionInitialisationStatements);
+		for (String statement : statements)
+		{
+			try (Statement sessionStatement = connection.getConnection().createStatement())
+			{
+				sessionStatement.execute(statement);
+			}
+			catch (SQLException e)
+			{
+				throw new DatabaseNotSupportedException("Unable to initialise the database session with statement '" + statement + "': " + e.getMessage(), e);
+			}
+		}
+	}
+
 	@Nonnull
 	public IDatabaseConnection getDatabaseConnection()
 	{
 		if (databaseConnection == null)
+		{
+			databaseConnection = openDatabaseConnection();
+		}
+		return databaseConnection;
+	}
+
+	/**
+	 * Opens a new connection, independent of the connection returned by {@link #getDatabaseConnection()}.
+	 * Used to execute queries concurrently, the caller is responsible for closing the connection.
+	 */
+	@Nonnull
+	public IDatabaseConnection openDatabaseConnection()
+	{
+		try
+		{
+			final IDatabaseConnection connection = configureConnection(databaseTester.getConnection());
+			if (snapshotIdentifier != null && replicaDatabaseTester == null)
+			{
+				databaseQueries.importSnapshot(connection.getConnection(), snapshotIdentifier);
+			}
+			return connection;
+		}
+		catch (Exception e)
+		{
+			throw new DatabaseNotSupportedException("Database connection could not be established.", e);
+		}
+	}
+
+	/**
+	 * @return The connection used to scan the content and audit tables, which is the connection to the replica if configured. Otherwise the connection returned by {@link #getDatabaseConnection()}.
+	 */
+	@Nonnull
+	public IDatabaseConnection getScanConnection()
+	{
+		if (replicaDatabaseTester == null)
+		{
+			return getDatabaseConnection();
+		}
+
+		if (replicaDatabaseConnection == null)
+		{
+			replicaDatabaseConnection = openScanConnection();
+		}
+		return replicaDatabaseConnection;
+	}
+
+	/**
+	 * Opens a new connection to scan the content and audit tables concurrently, independent of the connection returned by {@link #getScanConnection()}.
+	 * The caller is responsible for closing the connection.
+	 */
+	@Nonnull
+	public IDatabaseConnection openScanConnection()
+	{
+		if (replicaDatabaseTester == null)
+		{
+			return openDatabaseConnection();
+		}
+
+		try
+		{
+			final IDatabaseConnection connection = configureConnection(replicaDatabaseTester.getConnection());
+			if (snapshotIdentifier != null)
+			{
+				databaseQueries.importSnapshot(connection.getConnection(), snapshotIdentifier);
+			}
+			return connection;
+		}
+		catch (Exception e)
+		{
+			throw new DatabaseNotSupportedException("Replica connection could not be established.", e);
+		}
+	}
+
+	/**
+	 * Routes the scans of the content and audit tables to a replica, all other queries are still executed on the database itself.
+	 *
+	 * @param replicaUrl JDBC connection string of the replica, the tables are scanned on the database itself if null.
+	 * @param replicaUsername Username used to connect with the replica, the username of the database itself is used if null.
+	 * @param replicaPassword Password used to connect with the replica, the password of the database itself is used if null.
+	 * @param maximumReplicaLagSeconds Maximum replication lag of the replica at the start of each validation run, see {@link #verifyReplicaLag()}. The replication lag is not verified if null.
+	 */
+	public void setReplica(@Nullable String replicaUrl, @Nullable String replicaUsername, @Nullable String replicaPassword, @Nullable Long maximumReplicaLagSeconds) throws SQLException
+	{
+		this.maximumReplicaLagSeconds = maximumReplicaLagSeconds;
+
+		final String effectiveReplicaUsername = replicaUsername == null ? username : replicaUsername;
+		final String effectiveReplicaPassword = replicaPassword == null ? password : replicaPassword;
+		final String newReplicaDescription = replicaUrl == null ? null : replicaUrl + "|" + effectiveReplicaUsername + "|" + effectiveReplicaPassword;
+		if (Objects.equals(replicaDescription, newReplicaDescription))
+		{
+			return;
+		}
+
+		closeReplicaConnection();
+		replicaDescription = newReplicaDescription;
+		if (replicaUrl == null)
+		{
+			replicaDatabaseTester = null;
+			return;
+		}
+
+		try
+		{
+			replicaDatabaseTester = new JdbcDatabaseTester(driverClass, replicaUrl, effectiveReplicaUsername, effectiveReplicaPassword, schema);
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new DatabaseNotSupportedException("Unable to initialise the replica connection provider: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Verifies the replication lag of the replica is within the configured maximum, so the scanned records can be trusted.
+	 * Does nothing if no replica or no maximum replication lag is configured.
+	 *
+	 * @throws ValidationException If the replication lag exceeds the maximum or can not be determined.
+	 */
+	public void verifyReplicaLag()
+	{
+		if (replicaDatabaseTester == null || maximumReplicaLagSeconds == null)
+		{
+			return;
+		}
+
+		final Long replicaLagSeconds;
+		try
+		{
+			replicaLagSeconds = getQueries().getReplicationLagSeconds(getScanConnection().getConnection());
+		}
+		catch (SQLException e)
+		{
+			throw new ValidationException("Unable to determine the replication lag of the replica: " + e.getMessage(), e);
+		}
+
+		if (replicaLagSeconds == null)
+		{
+			throw new ValidationException("Unable to determine the replication lag of the replica, the replica may not be replicating.");
+		}
+		if (replicaLagSeconds > maximumReplicaLagSeconds)
+		{
+			throw new ValidationException("The replica lags " + replicaLagSeconds + " seconds behind, which exceeds the maximum replication lag of " + maximumReplicaLagSeconds + " seconds.");
+		}
+	}
+
+	/**
+	 * @param consistentSnapshot True to read all records of a validation run from a single snapshot of the database, shared by all connections. See {@link #beginConsistentSnapshot()}.
+	 */
+	public void setConsistentSnapshot(boolean consistentSnapshot)
+	{
+		this.consistentSnapshot = consistentSnapshot;
+	}
+
+	/**
+	 * Pins the snapshot read by the connection returned by {@link #getScanConnection()}, connections opened by {@link #openScanConnection()} read the same snapshot until {@link #endConsistentSnapshot()} is called.
+	 * Does nothing if consistent snapshots are disabled or a snapshot is already pinned.
+	 */
+	public void beginConsistentSnapshot()
+	{
+		if (!consistentSnapshot || snapshotIdentifier != null)
+		{
+			return;
+		}
+
+		try
+		{
+			snapshotIdentifier = getQueries().exportSnapshot(getScanConnection().getConnection());
+		}
+		catch (SQLException e)
+		{
+			throw new DatabaseNotSupportedException("Unable to start reading from a consistent snapshot: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Sets a savepoint in the transaction reading the consistent snapshot, to which is rolled back if a validation fails.
+	 *
+	 * @return The savepoint, which does nothing if no consistent snapshot is pinned or the snapshot is not read within a transaction.
+	 */
+	@Nonnull
+	public SnapshotSavepoint startSnapshotSavepoint()
+	{
+		if (snapshotIdentifier == null)
+		{
+			return SnapshotSavepoint.NONE;
+		}
+
+		try
+		{
+			final Connection connection = getScanConnection().getConnection();
+			if (connection.getAutoCommit())
+			{
+				return SnapshotSavepoint.NONE;
+			}
+			return new SnapshotSavepoint(connection, connection.setSavepoint());
+		}
+		catch (SQLException e)
+		{
+			throw new DatabaseNotSupportedException("Unable to set a savepoint in the consistent snapshot: " + e.getMessage(), e);
+		}
+	}
+
+	public void endConsistentSnapshot()
+	{
+		if (snapshotIdentifier == null)
+		{
+			return;
+		}
+
+		snapshotIdentifier = null;
+		final IDatabaseConnection scanConnection = replicaDatabaseTester == null ? databaseConnection : replicaDatabaseConnection;
+		if (scanConnection != null)
 		{
 			try
 			{
-				databaseConnection = databaseTester.getConnection();
+				getQueries().releaseSnapshot(scanConnection.getConnection());
 			}
-			catch (Exception e)
+			catch (SQLException e)
 			{
-				throw new DatabaseNotSupportedException("Database connection could not be established.", e);
+				// A new connection, which does not read the snapshot, is established when the connection is requested again.
+				try
+				{
+					close();
+				}
+				catch (SQLException closeException)
+				{
+					e.addSuppressed(closeException);
+				}
+				log.warn("Unable to release the consistent snapshot, the connection is closed: " + e.getMessage(), e);
 			}
 		}
-		return databaseConnection;
+	}
+
+	public boolean isShareParentTableScans()
+	{
+		return shareParentTableScans;
+	}
+
+	/**
+	 * @param shareParentTableScans True to scan each parent table shared by several audit tables of an inheritance hierarchy only once during the content validation, see {@link DatabaseQueries#startSharingParentTableScans(java.util.Collection)}.
+	 */
+	public void setShareParentTableScans(boolean shareParentTableScans)
+	{
+		this.shareParentTableScans = shareParentTableScans;
+	}
+
+	/**
+	 * @return Maximum number of partitions of a single audit table which are scanned concurrently.
+	 */
+	public int getPartitionScanParallelism()
+	{
+		return partitionScanParallelism;
+	}
+
+	public synchronized void setPartitionScanParallelism(int partitionScanParallelism)
+	{
+		if (partitionScanParallelism != this.partitionScanParallelism)
+		{
+			shutdownPartitionScanExecutor();
+		}
+		this.partitionScanParallelism = partitionScanParallelism;
+	}
+
+	/**
+	 * @return Executor shared by the partition scans of all audit tables, running up to {@link #getPartitionScanParallelism()} scans concurrently.
+	 */
+	@Nonnull
+	synchronized ExecutorService getPartitionScanExecutor()
+	{
+		if (partitionScanExecutor == null)
+		{
+			partitionScanExecutor = Executors.newFixedThreadPool(partitionScanParallelism, runnable -> {
+				final Thread thread = new Thread(runnable, "envers-validation-partition-scan");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return partitionScanExecutor;
+	}
+
+	private synchronized void shutdownPartitionScanExecutor()
+	{
+		if (partitionScanExecutor != null)
+		{
+			partitionScanExecutor.shutdown();
+			partitionScanExecutor = null;
+		}
 	}
 
 	@Nonnull
@@ -93,13 +609,166 @@ public class ConnectionProviderInstance
 			newDatabaseTester();
 		}
 
+		if (snapshotDirectory != null)
+		{
+			if (snapshotCachingQueries == null)
+			{
+				snapshotCachingQueries = new SnapshotCachingQueries(databaseQueries, snapshotDirectory, revisionWindow, log);
+			}
+			return snapshotCachingQueries;
+		}
 		return databaseQueries;
 	}
 
+	/**
+	 * @param log Log to which problems which do not fail the validation are reported, for example a snapshot which could not be read.
+	 */
+	public void setLog(@Nonnull Log log)
+	{
+		this.log = log;
+		snapshotCachingQueries = null;
+	}
+
 	@Nonnull
-	public String getAuditTableInformationFile()
+	public Log getLog()
+	{
+		return log;
+	}
+
+	/**
+	 * @param snapshotDirectory Directory in which the content and audit records are cached between runs, see {@link SnapshotCachingQueries}. Records are not cached if null.
+	 */
+	public void setSnapshotDirectory(@Nullable File snapshotDirectory)
 	{
-		return auditTableInformationFile;
+		this.snapshotDirectory = snapshotDirectory;
+		snapshotCachingQueries = null;
+	}
+
+	@Nonnull
+	public RevisionWindow getRevisionWindow()
+	{
+		return revisionWindow;
+	}
+
+	public void setRevisionWindow(@Nonnull RevisionWindow revisionWindow)
+	{
+		this.revisionWindow = revisionWindow;
+		snapshotCachingQueries = null;
+	}
+
+	/**
+	 * Sets the session settings for all connections, the settings are applied immediately to the connection if it is already open.
+	 *
+	 * @param bulkScanParallelism Degree of parallelism requested for each query by the {@link SessionProfile#BULK_SCAN} profile.
+	 * @param sessionInitialisationStatements Statements executed after the statements of the profile, for example to override one of the settings of the profile.
+	 */
+	public void setSessionProfile(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism, @Nonnull List<String> sessionInitialisationStatements)
+	{
+		this.sessionProfile = sessionProfile;
+		this.bulkScanParallelism = bulkScanParallelism;
+		this.sessionInitialisationStatements = new ArrayList<>(sessionInitialisationStatements);
+		if (databaseConnection != null)
+		{
+			initialiseSession(databaseConnection);
+		}
+	}
+
+	/**
+	 * Closes the database connection, a new connection is established when the connection is requested again.
+	 */
+	public void close() throws SQLException
+	{
+		shutdownPartitionScanExecutor();
+		try
+		{
+			closeReplicaConnection();
+		}
+		finally
+		{
+			if (databaseConnection != null)
+			{
+				try
+				{
+					databaseConnection.close();
+				}
+				finally
+				{
+					databaseConnection = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets the cached catalog information, so a long running process notices tables and columns which were added or removed in the meantime.
+	 */
+	public void clearCatalogCache()
+	{
+		if (databaseQueries instanceof CatalogCachingQueries)
+		{
+			((CatalogCachingQueries) databaseQueries).clear();
+		}
+	}
+
+	/**
+	 * Closes the connections which are no longer valid, for example after a restart of the database, so new connections are established when these are requested again.
+	 */
+	public void closeBrokenConnections()
+	{
+		if (isBroken(replicaDatabaseConnection))
+		{
+			closeQuietly(replicaDatabaseConnection);
+			replicaDatabaseConnection = null;
+		}
+		if (isBroken(databaseConnection))
+		{
+			closeQuietly(databaseConnection);
+			databaseConnection = null;
+		}
+	}
+
+	private static boolean isBroken(@Nullable IDatabaseConnection connection)
+	{
+		if (connection == null)
+		{
+			return false;
+		}
+
+		try
+		{
+			return !connection.getConnection().isValid(CONNECTION_VALIDATION_TIMEOUT_SECONDS);
+		}
+		catch (SQLException e)
+		{
+			return true;
+		}
+	}
+
+	private static void closeQuietly(@Nonnull IDatabaseConnection connection)
+	{
+		try
+		{
+			connection.close();
+		}
+		catch (SQLException e)
+		{
+			// The connection is broken already, the database cleans up its session.
+		}
+	}
+
+	private void closeReplicaConnection() throws SQLException
+	{
+		if (replicaDatabaseConnection != null)
+		{
+			try
+			{
+				replicaDatabaseConnection.close();
+			}
+			finally
+			{
+				replicaDatabaseConnection = null;
+			}
+		}
 	}
 
 	@Override
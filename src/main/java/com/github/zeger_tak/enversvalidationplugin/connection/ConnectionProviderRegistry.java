@@ -0,0 +1,238 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+
+/**
+ * Shares {@link ConnectionProviderInstance}s, and thereby their connection and catalog, between the executions of a single build.
+ * Connection providers are identified by a key containing every setting which affects the state of their connections, see {@link #createKey(Object...)}.
+ * A connection provider is used by one execution at a time, executions of parallel modules requiring the same connection provider wait until it is released.
+ * Once the end of the build is signalled through {@link #closeAll()}, each connection provider is closed as soon as it is no longer in use.
+ */
+public final class ConnectionProviderRegistry
+{
+	private static final String KEY_SEPARATOR = "|";
+
+	private static final Map<String, RegisteredConnectionProvider> CONNECTION_PROVIDERS = new HashMap<>();
+	private static boolean closeWhenReleased;
+	private static boolean shutdownHookRegistered;
+
+	private ConnectionProviderRegistry()
+	{
+	}
+
+	/**
+	 * @param settings All settings which affect the state of the connections of a connection provider, such as the url, credentials, session settings, replica and fetch limits.
+	 * @return The key identifying the connection provider for these settings.
+	 */
+	@Nonnull
+	public static String createKey(@Nonnull Object... settings)
+	{
+		final StringBuilder key = new StringBuilder();
+		for (Object setting : settings)
+		{
+			key.append(setting);
+			key.append(KEY_SEPARATOR);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Waits until the connection provider registered for the given key is no longer used by another execution, a new connection provider is created and registered if none is available yet.
+	 *
+	 * @param connectionProviderFactory Creates the connection provider if none is registered for the key.
+	 * @throws ValidationException If the thread is interrupted while waiting for the connection provider.
+	 */
+	@Nonnull
+	public static synchronized ConnectionProviderInstance acquire(@Nonnull String key, @Nonnull Supplier<ConnectionProviderInstance> connectionProviderFactory)
+	{
+		registerShutdownHook();
+		closeWhenReleased = false;
+
+		RegisteredConnectionProvider registeredConnectionProvider = CONNECTION_PROVIDERS.get(key);
+		while (registeredConnectionProvider != null && registeredConnectionProvider.inUse)
+		{
+			try
+			{
+				ConnectionProviderRegistry.class.wait();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new ValidationException("Interrupted while waiting for the database connection used by another module.", e);
+			}
+			registeredConnectionProvider = CONNECTION_PROVIDERS.get(key);
+		}
+
+		if (registeredConnectionProvider == null)
+		{
+			registeredConnectionProvider = new RegisteredConnectionProvider(connectionProviderFactory.get());
+			CONNECTION_PROVIDERS.put(key, registeredConnectionProvider);
+		}
+		registeredConnectionProvider.inUse = true;
+		return registeredConnectionProvider.connectionProvider;
+	}
+
+	/**
+	 * Acquires the connection provider as {@link #acquire(String, Supplier)} does, and configures it before returning it.
+	 * If the configuration fails the connection provider is unregistered and closed, as its connections may be left half configured, and other executions waiting for it are released.
+	 *
+	 * @param configuration Applies the settings of the execution to the connection provider.
+	 */
+	@Nonnull
+	public static ConnectionProviderInstance acquire(@Nonnull String key, @Nonnull Supplier<ConnectionProviderInstance> connectionProviderFactory, @Nonnull Consumer<ConnectionProviderInstance> configuration)
+	{
+		final ConnectionProviderInstance connectionProvider = acquire(key, connectionProviderFactory);
+		try
+		{
+			configuration.accept(connectionProvider);
+		}
+		catch (RuntimeException | Error e)
+		{
+			discard(connectionProvider, e);
+			throw e;
+		}
+		return connectionProvider;
+	}
+
+	/**
+	 * Releases a connection provider previously acquired through {@link #acquire(String, Supplier)}, so other executions can use it.
+	 * The connection provider is closed if the end of the build has been signalled already.
+	 *
+	 * @throws SQLException If a connection could not be closed, the connection provider is unregistered regardless.
+	 */
+	public static synchronized void release(@Nonnull ConnectionProviderInstance connectionProvider) throws SQLException
+	{
+		for (RegisteredConnectionProvider registeredConnectionProvider : CONNECTION_PROVIDERS.values())
+		{
+			if (registeredConnectionProvider.connectionProvider == connectionProvider)
+			{
+				registeredConnectionProvider.inUse = false;
+			}
+		}
+		ConnectionProviderRegistry.class.notifyAll();
+
+		if (closeWhenReleased)
+		{
+			closeUnused(false);
+		}
+	}
+
+	/**
+	 * Unregisters and closes the connection provider, a failure to close it is added to the exception which caused it to be discarded.
+	 */
+	private static synchronized void discard(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull Throwable cause)
+	{
+		CONNECTION_PROVIDERS.values().removeIf(registeredConnectionProvider -> registeredConnectionProvider.connectionProvider == connectionProvider);
+		ConnectionProviderRegistry.class.notifyAll();
+
+		final SQLException closeException = close(connectionProvider, null);
+		if (closeException != null)
+		{
+			cause.addSuppressed(closeException);
+		}
+	}
+
+	/**
+	 * Signals the end of the build, connection providers which are not in use are closed immediately, the others once they are released.
+	 *
+	 * @throws SQLException If a connection could not be closed, the connection providers are unregistered regardless.
+	 */
+	public static synchronized void closeAll() throws SQLException
+	{
+		closeWhenReleased = true;
+		closeUnused(false);
+	}
+
+	private static void closeUnused(boolean includingConnectionsInUse) throws SQLException
+	{
+		SQLException closeException = null;
+		final Iterator<RegisteredConnectionProvider> iterator = CONNECTION_PROVIDERS.values().iterator();
+		while (iterator.hasNext())
+		{
+			final RegisteredConnectionProvider registeredConnectionProvider = iterator.next();
+			if (includingConnectionsInUse || !registeredConnectionProvider.inUse)
+			{
+				iterator.remove();
+				closeException = close(registeredConnectionProvider.connectionProvider, closeException);
+			}
+		}
+
+		if (closeException != null)
+		{
+			throw closeException;
+		}
+	}
+
+	@CheckForNull
+	private static SQLException close(@Nonnull ConnectionProviderInstance connectionProvider, @Nullable SQLException previousException)
+	{
+		try
+		{
+			connectionProvider.close();
+			return previousException;
+		}
+		catch (SQLException e)
+		{
+			if (previousException == null)
+			{
+				return e;
+			}
+			previousException.addSuppressed(e);
+			return previousException;
+		}
+	}
+
+	/**
+	 * Connections left open, for example because the last module of the build does not execute the plugin, are closed when the JVM shuts down.
+	 * Queries which are still running, for example because the build was interrupted, are cancelled first.
+	 */
+	private static void registerShutdownHook()
+	{
+		if (shutdownHookRegistered)
+		{
+			return;
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			synchronized (ConnectionProviderRegistry.class)
+			{
+				for (RegisteredConnectionProvider registeredConnectionProvider : CONNECTION_PROVIDERS.values())
+				{
+					registeredConnectionProvider.connectionProvider.cancelRunningStatements();
+				}
+
+				try
+				{
+					closeUnused(true);
+				}
+				catch (SQLException e)
+				{
+					// The JVM is shutting down, the database will clean up the connection.
+				}
+			}
+		}));
+		shutdownHookRegistered = true;
+	}
+
+	private static class RegisteredConnectionProvider
+	{
+		private final ConnectionProviderInstance connectionProvider;
+		private boolean inUse;
+
+		private RegisteredConnectionProvider(@Nonnull ConnectionProviderInstance connectionProvider)
+		{
+			this.connectionProvider = connectionProvider;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.CachedResultSetTableFactory;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.ForwardOnlyResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.IResultSetTable;
+import org.dbunit.database.ResultSetTableMetaData;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITableMetaData;
+
+/**
+ * Creates the tables returned by {@link IDatabaseConnection#createQueryTable(String, String)}, which are cached like those of the default factory.
+ * The statements are created by this factory so they are subject to the statement timeout and can be cancelled by the {@link ConnectionProviderInstance}.
+ * If a {@link FetchThrottle} is given, the rows are fetched through that throttle, one connection shares a single throttle for all its queries.
+ * Postgresql ignores the fetch size in auto commit mode and returns all rows at once, so throttled queries on Postgresql are executed within a read only transaction if no transaction is active.
+ */
+class ControlledResultSetTableFactory extends CachedResultSetTableFactory
+{
+	private static final int DEFAULT_FETCH_SIZE = 100;
+
+	private final ConnectionProviderInstance connectionProvider;
+	private final FetchThrottle fetchThrottle;
+	private final boolean fetchSizeRequiresTransaction;
+
+	ControlledResultSetTableFactory(@Nonnull ConnectionProviderInstance connectionProvider, @Nullable FetchThrottle fetchThrottle, boolean fetchSizeRequiresTransaction)
+	{
+		this.connectionProvider = connectionProvider;
+		this.fetchThrottle = fetchThrottle;
+		this.fetchSizeRequiresTransaction = fetchSizeRequiresTransaction;
+	}
+
+	@Override
+	public IResultSetTable createTable(String tableName, String selectStatement, IDatabaseConnection connection) throws SQLException, DataSetException
+	{
+		final TimeLimit timeLimit = connectionProvider.getExceededTimeLimit();
+		if (timeLimit != null)
+		{
+			throw new SQLTimeoutException("The time limit of " + timeLimit.getLimitSeconds() + " seconds for " + timeLimit.getDescription() + " has been exceeded.");
+		}
+
+		final Object configuredFetchSize = connection.getConfig().getProperty(DatabaseConfig.PROPERTY_FETCH_SIZE);
+		final int fetchSize = configuredFetchSize instanceof Integer ? (Integer) configuredFetchSize : DEFAULT_FETCH_SIZE;
+		final Connection jdbcConnection = connection.getConnection();
+		final boolean readOnlyTransaction = fetchThrottle != null && fetchSizeRequiresTransaction && jdbcConnection.getAutoCommit();
+		if (readOnlyTransaction)
+		{
+			jdbcConnection.setReadOnly(true);
+			jdbcConnection.setAutoCommit(false);
+		}
+
+		try
+		{
+			return createTable(tableName, selectStatement, connection, fetchSize);
+		}
+		finally
+		{
+			if (readOnlyTransaction)
+			{
+				endReadOnlyTransaction(jdbcConnection);
+			}
+		}
+	}
+
+	@Nonnull
+	private IResultSetTable createTable(@Nonnull String tableName, @Nonnull String selectStatement, @Nonnull IDatabaseConnection connection, int fetchSize) throws SQLException, DataSetException
+	{
+		final Statement statement = connection.getConnection().createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		connectionProvider.statementStarted(statement);
+		try
+		{
+			statement.setFetchSize(fetchSize);
+			if (connectionProvider.getStatementTimeoutSeconds() != null)
+			{
+				statement.setQueryTimeout(connectionProvider.getStatementTimeoutSeconds());
+			}
+
+			final ResultSet resultSet = statement.executeQuery(selectStatement);
+			final boolean caseSensitiveTableNames = Boolean.TRUE.equals(connection.getConfig().getProperty(DatabaseConfig.FEATURE_CASE_SENSITIVE_TABLE_NAMES));
+			final IResultSetTable table = new ForwardOnlyResultSetTable(new ResultSetTableMetaData(tableName, resultSet, connection, caseSensitiveTableNames), resultSet);
+			return new CachedResultSetTable(fetchThrottle == null ? table : new ThrottledResultSetTable(table, fetchThrottle, fetchSize));
+		}
+		finally
+		{
+			connectionProvider.statementFinished(statement);
+			statement.close();
+		}
+	}
+
+	/**
+	 * The rows have all been fetched by the {@link CachedResultSetTable}, the transaction only read data so it is rolled back.
+	 */
+	private static void endReadOnlyTransaction(@Nonnull Connection connection) throws SQLException
+	{
+		try
+		{
+			connection.rollback();
+		}
+		finally
+		{
+			connection.setAutoCommit(true);
+			connection.setReadOnly(false);
+		}
+	}
+
+	/**
+	 * Acquires a permit from the throttle before each row is fetched, for the estimated size of the previous row.
+	 * The first row of each batch of rows requires a round trip to the database, the time it takes to fetch these rows is reported to the throttle.
+	 */
+	private static final class ThrottledResultSetTable implements IResultSetTable
+	{
+		private final IResultSetTable delegate;
+		private final FetchThrottle fetchThrottle;
+		private final int fetchSize;
+		private int currentRow = -1;
+		private long currentRowBytes;
+
+		private ThrottledResultSetTable(@Nonnull IResultSetTable delegate, @Nonnull FetchThrottle fetchThrottle, int fetchSize)
+		{
+			this.delegate = delegate;
+			this.fetchThrottle = fetchThrottle;
+			this.fetchSize = Math.max(1, fetchSize);
+		}
+
+		@Override
+		public ITableMetaData getTableMetaData()
+		{
+			return delegate.getTableMetaData();
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return delegate.getRowCount();
+		}
+
+		@Override
+		public Object getValue(int row, String column) throws DataSetException
+		{
+			if (row == currentRow)
+			{
+				return countBytes(delegate.getValue(row, column));
+			}
+
+			if (currentRow >= 0)
+			{
+				fetchThrottle.acquire(1, currentRowBytes);
+			}
+
+			final long start = System.nanoTime();
+			final Object value = delegate.getValue(row, column);
+			if (row > 0 && row % fetchSize == 0)
+			{
+				fetchThrottle.roundTripMeasured(System.nanoTime() - start);
+			}
+
+			currentRow = row;
+			currentRowBytes = 0;
+			return countBytes(value);
+		}
+
+		@Override
+		public void close() throws DataSetException
+		{
+			delegate.close();
+		}
+
+		private Object countBytes(Object value)
+		{
+			if (value == null)
+			{
+				currentRowBytes++;
+			}
+			else if (value instanceof String)
+			{
+				currentRowBytes += ((String) value).length();
+			}
+			else if (value instanceof byte[])
+			{
+				currentRowBytes += ((byte[]) value).length;
+			}
+			else
+			{
+				currentRowBytes += 8;
+			}
+			return value;
+		}
+	}
+}
\ No newline at end of file
@@ -1,20 +1,51 @@
 package com.github.zeger_tak.enversvalidationplugin.connection;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
 import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
 import org.dbunit.database.CachedResultSetTable;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.DataSetException;
 
 public interface DatabaseQueries
 {
+	/**
+	 * Column holding the next revision of the same record in the rows returned by {@link #getRevisionEndChainViolations(IDatabaseConnection, AuditTableInformation, List)}.
+	 */
+	String NEXT_REVISION_COLUMN_NAME = "NEXT_REV";
+
+	/**
+	 * Prefix of the columns holding the previous value of each audited column in the rows returned by {@link #getModifiedFlagViolations(IDatabaseConnection, AuditTableInformation, List, Map)}, followed by the position of the column.
+	 */
+	String PREVIOUS_VALUE_COLUMN_NAME_PREFIX = "PREV_";
+
+	/**
+	 * Prefix of the columns holding 1 if the modified flag of an audited column does not match the comparison of its value with the previous value, and 0 otherwise, in the rows returned by {@link #getModifiedFlagViolations(IDatabaseConnection, AuditTableInformation, List, Map)}, followed by the position of the column.
+	 */
+	String INVALID_MODIFIED_FLAG_COLUMN_NAME_PREFIX = "INVALID_MOD_";
+
+	/**
+	 * Column holding the last revision of each range of consecutive revisions in the rows returned by {@link #getRevisionsWithDecreasingTimestamp(IDatabaseConnection, int)}.
+	 */
+	String LAST_REVISION_COLUMN_NAME = "LAST_REV";
+
+	/**
+	 * Column holding the number of revisions of each range of consecutive revisions in the rows returned by {@link #getRevisionsWithDecreasingTimestamp(IDatabaseConnection, int)}.
+	 */
+	String REVISION_COUNT_COLUMN_NAME = "REVISION_COUNT";
+
 	@Nonnull
 	String getAuditTablePostFix();
 
@@ -27,6 +58,24 @@ public interface DatabaseQueries
 	@Nonnull
 	String getRevisionTableName();
 
+	@Nonnull
+	String getRevisionTableTimestampColumnName();
+
+	/**
+	 * @return The column in which the validity audit strategy stores the revision replacing each revision, null for the latest revision of each record.
+	 */
+	@Nonnull
+	String getRevisionEndColumnName();
+
+	@Nonnull
+	String getRevisionEndTimestampColumnName();
+
+	/**
+	 * @return The suffix of the columns in which Envers stores whether the audited column with the same name was modified in a revision, only present if the modified flags are enabled.
+	 */
+	@Nonnull
+	String getModifiedFlagSuffix();
+
 	@Nonnull
 	CachedResultSetTable getTableByName(@Nonnull String tableName) throws SQLException, DataSetException;
 
@@ -39,9 +88,90 @@ public interface DatabaseQueries
 	@Nonnull
 	Map<String, TableRow> getContentRecords(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
 
+	/**
+	 * @return Index of the primary identifiers of the records returned by {@link #getContentRecords(IDatabaseConnection, AuditTableInformation, List)}, without their content.
+	 */
+	@Nonnull
+	ContentKeyIndex getContentKeyIndex(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
 	@Nonnull
 	Map<String, List<TableRow>> getAuditRecordsGroupedByContentPrimaryKey(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
 
+	/**
+	 * @return The rows of an audit table using the validity audit strategy of which the revision end is not the next revision of the same record, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getRevisionEndChainViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @return The rows of an audit table using the validity audit strategy of which only one of the revision end and the revision end timestamp is filled, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getRevisionEndTimestampViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @return The open (latest) Add/Modify revisions of an audit table using the validity audit strategy without a record in the content table, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getOpenRevisionsWithoutContent(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @return The primary identifiers of the records in the content table without an open (latest) Add/Modify revision in an audit table using the validity audit strategy.
+	 */
+	@Nonnull
+	Set<String> getContentWithoutOpenRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @param modifiedFlagColumnNamesByColumnName The modified flag column of each audited column to validate.
+	 * @return The rows of an audit table of which a modified flag does not match whether the value of its column differs from the previous revision of the same record, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getModifiedFlagViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, String> modifiedFlagColumnNamesByColumnName) throws SQLException, DataSetException;
+
+	/**
+	 * @param dataColumnNames The columns to compare, excluding the primary identifier and the revision columns, qualified by the name of the audit table or the parent audit table they belong to.
+	 * @param auditTableGroups All audit tables by name, mapped to the group they belong to, such as the root of their inheritance hierarchy. A Modify revision of which the revision is present in audit tables of more than one group is not selected as it may have been written for a changed collection or relation.
+	 * @param maximumRevisions Maximum number of revisions fetched, the remaining revisions are only counted.
+	 * @return The identifiers of the Modify revisions of which the data columns are identical to those of the previous Add/Modify revision of the same record, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	TableRowSample getNoOpModifyRevisions(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> dataColumnNames, @Nonnull Map<String, String> auditTableGroups, int maximumRevisions) throws SQLException, DataSetException;
+
+	/**
+	 * @return The identifiers of the revisions in an audit table without a revision of the same record in the audit table of its parent entity, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getRevisionsWithoutParentRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @return The identifiers of the revisions in the audit table of the parent entity of records present in the given audit table, but without a revision of the same record in the given audit table, identified by primary identifier and revision.
+	 */
+	@Nonnull
+	Map<String, TableRow> getParentRevisionsWithoutChildRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException;
+
+	/**
+	 * @param maximumRevisions The maximum number of revisions to fetch, the revisions exceeding this number are only counted.
+	 * @return The revisions referenced by any of the given audit tables which are not present in the revision table.
+	 */
+	@Nonnull
+	RevisionSample getRevisionsMissingFromRevisionTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException;
+
+	/**
+	 * @param maximumRevisions The maximum number of revisions to fetch, the revisions exceeding this number are only counted.
+	 * @return The revisions in the revision table which are not referenced by any of the given audit tables.
+	 */
+	@Nonnull
+	RevisionSample getRevisionsNotReferencedByAuditTables(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException;
+
+	/**
+	 * @param maximumRanges Maximum number of ranges fetched, the remaining ranges are only counted.
+	 * @return The rows of the revision table of which the timestamp precedes the timestamp of the previous revision, collapsed into ranges of consecutive revisions and identified by the first revision of the range.
+	 * The previous revision and its timestamp of the first revision are held by the columns {@link #PREVIOUS_VALUE_COLUMN_NAME_PREFIX} followed by 0 and 1.
+	 * The last revision and the number of revisions of the range are held by the columns {@link #LAST_REVISION_COLUMN_NAME} and {@link #REVISION_COUNT_COLUMN_NAME}.
+	 */
+	@Nonnull
+	TableRowSample getRevisionsWithDecreasingTimestamp(@Nonnull IDatabaseConnection databaseConnection, int maximumRanges) throws SQLException, DataSetException;
+
 	@Nonnull
 	Set<String> getListOfTablesWithForeignKeysToRevisionTable() throws SQLException, DataSetException;
 
@@ -51,6 +181,66 @@ public interface DatabaseQueries
 	@Nonnull
 	Set<String> getAllNonnullColumns(@Nonnull String tableName) throws SQLException, DataSetException;
 
+	/**
+	 * @return The upper case names of the fixed width character columns (CHAR and NCHAR) of the table, of which the values are padded with spaces.
+	 */
+	@Nonnull
+	Set<String> getFixedWidthCharacterColumnNames(@Nonnull String tableName) throws SQLException, DataSetException;
+
+	/**
+	 * @return The upper case names of the columns of the table of which the values cannot be compared using = or &lt;&gt; by the database, such as large objects and json.
+	 */
+	@Nonnull
+	Set<String> getNonComparableColumnNames(@Nonnull String tableName) throws SQLException, DataSetException;
+
+	/**
+	 * @param bulkScanParallelism Degree of parallelism requested for each query by the {@link SessionProfile#BULK_SCAN} profile.
+	 * @return Statements to execute on each new connection for the given profile, the statements of {@link SessionProfile#DEFAULT} reset the settings changed by the other profiles.
+	 */
+	@Nonnull
+	List<String> getSessionInitialisationStatements(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism);
+
+	/**
+	 * @return References to each partition of the table, which can be used in the from clause of a query instead of the table name. Empty if the table is not partitioned.
+	 */
+	@Nonnull
+	List<String> getPartitionTableReferences(@Nonnull String tableName) throws SQLException, DataSetException;
+
+	/**
+	 * @param databaseConnection The connection on which the tables are scanned, so the counters match the data which is validated.
+	 * @return Change counters of each of the given tables keyed by the upper case table name, which differ from the previous counters as soon as a record is inserted, updated or deleted.
+	 * Tables for which the database does not keep any counters are absent.
+	 */
+	@Nonnull
+	Map<String, String> getChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Set<String> tableNames) throws SQLException, DataSetException;
+
+	/**
+	 * Starts reading from a snapshot of the database on the given connection, all subsequent queries on this connection read the same snapshot until {@link #releaseSnapshot(Connection)} is called.
+	 *
+	 * @return Identifier of the snapshot, used to read the same snapshot on other connections using {@link #importSnapshot(Connection, String)}.
+	 */
+	@Nonnull
+	String exportSnapshot(@Nonnull Connection connection) throws SQLException;
+
+	void importSnapshot(@Nonnull Connection connection, @Nonnull String snapshotIdentifier) throws SQLException;
+
+	void releaseSnapshot(@Nonnull Connection connection) throws SQLException;
+
+	/**
+	 * @return The number of seconds the database of the given connection lags behind its primary database, 0 if it is not a replica and null if the lag is unknown.
+	 */
+	@CheckForNull
+	Long getReplicationLagSeconds(@Nonnull Connection connection) throws SQLException;
+
+	/**
+	 * Scans each parent table shared by several of the given audit tables only once, until {@link #stopSharingParentTableScans()} is called by the same thread.
+	 * The rows of these parent tables are added to the records of their child tables by identifier instead of joining the parent tables in the query of each child table.
+	 * The rows of the shared parent tables are kept in memory in the meantime.
+	 */
+	void startSharingParentTableScans(@Nonnull Collection<AuditTableInformation> auditTableInformations);
+
+	void stopSharingParentTableScans();
+
 	@Nonnull
 	String getPrimaryIdentifierAsString(@Nonnull CachedResultSetTable recordsInContentTable, int rowIndex, @Nonnull List<String> primaryIdentifierColumnNames) throws DataSetException;
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Delays the fetching of rows to keep the fetch rate within the {@link FetchLimits} of a single connection and within those shared by all connections.
+ *
+ * If a baseline round trip time is configured, fetching also backs off when the round trips to the database take longer than the baseline.
+ * After a round trip of r milliseconds with a baseline of b milliseconds, fetching pauses for r * (r / b - 1) milliseconds.
+ * The share of time spent fetching is thereby reduced to b / r, as long as the database responds slower than usual.
+ */
+class FetchThrottle
+{
+	private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+	private static final long MAXIMUM_BACK_OFF_NANOS = TimeUnit.SECONDS.toNanos(10);
+	private static final Map<String, FetchThrottle> SHARED_THROTTLES = new ConcurrentHashMap<>();
+
+	private final RateLimiter rowLimiter;
+	private final RateLimiter byteLimiter;
+	private final FetchThrottle sharedThrottle;
+	private final long baselineRoundTripNanos;
+
+	/**
+	 * @param sharedThrottle Throttle shared by all connections, which is applied after this throttle.
+	 * @param baselineRoundTripMillis Round trip time above which fetching backs off, fetching does not back off if null.
+	 */
+	FetchThrottle(@Nonnull FetchLimits fetchLimits, @Nullable FetchThrottle sharedThrottle, @Nullable Long baselineRoundTripMillis)
+	{
+		rowLimiter = RateLimiter.create(fetchLimits.getMaximumRowsPerSecond());
+		byteLimiter = RateLimiter.create(fetchLimits.getMaximumMegabytesPerSecond() == null ? null : fetchLimits.getMaximumMegabytesPerSecond() * BYTES_PER_MEGABYTE);
+		this.sharedThrottle = sharedThrottle;
+		baselineRoundTripNanos = baselineRoundTripMillis == null ? 0 : TimeUnit.MILLISECONDS.toNanos(baselineRoundTripMillis);
+	}
+
+	/**
+	 * @param databaseKey Identifies the database the connections connect with.
+	 * @return The throttle shared by all connections with the database which are limited by the same fetch limits, regardless of the validation run they belong to.
+	 * Runs with other fetch limits use their own throttle, so the limits of one run are never replaced by those of another run.
+	 */
+	@Nonnull
+	static FetchThrottle shared(@Nonnull String databaseKey, @Nonnull FetchLimits fetchLimits)
+	{
+		return SHARED_THROTTLES.computeIfAbsent(databaseKey + "|" + fetchLimits, key -> new FetchThrottle(fetchLimits, null, null));
+	}
+
+	/**
+	 * Waits until the given number of rows and bytes may be fetched.
+	 */
+	void acquire(long rows, long bytes) throws DataSetException
+	{
+		long waitNanos = 0;
+		if (rowLimiter != null)
+		{
+			waitNanos = Math.max(waitNanos, rowLimiter.reserve(rows));
+		}
+		if (byteLimiter != null)
+		{
+			waitNanos = Math.max(waitNanos, byteLimiter.reserve(bytes));
+		}
+		sleep(waitNanos);
+
+		if (sharedThrottle != null)
+		{
+			sharedThrottle.acquire(rows, bytes);
+		}
+	}
+
+	/**
+	 * Backs off if the round trip took longer than the baseline round trip time.
+	 */
+	void roundTripMeasured(long roundTripNanos) throws DataSetException
+	{
+		if (baselineRoundTripNanos > 0 && roundTripNanos > baselineRoundTripNanos)
+		{
+			final double slowdown = (double) roundTripNanos / baselineRoundTripNanos;
+			sleep(Math.min(MAXIMUM_BACK_OFF_NANOS, (long) (roundTripNanos * (slowdown - 1))));
+		}
+	}
+
+	private static void sleep(long nanos) throws DataSetException
+	{
+		if (nanos <= 0)
+		{
+			return;
+		}
+
+		try
+		{
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException("Interrupted while throttling the fetching of rows.", e);
+		}
+	}
+
+	/**
+	 * Hands out permits at a fixed rate, permits which were not used are not saved up for bursts.
+	 */
+	static final class RateLimiter
+	{
+		private final double nanosPerPermit;
+		private long nextFreeNanos = System.nanoTime();
+
+		private RateLimiter(double permitsPerSecond)
+		{
+			nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+		}
+
+		@CheckForNull
+		static RateLimiter create(@Nullable Double permitsPerSecond)
+		{
+			return permitsPerSecond == null || permitsPerSecond <= 0 ? null : new RateLimiter(permitsPerSecond);
+		}
+
+		/**
+		 * @return The number of nanoseconds to wait before the reserved permits may be used.
+		 */
+		synchronized long reserve(long permits)
+		{
+			final long now = System.nanoTime();
+			final long start = Math.max(now, nextFreeNanos);
+			nextFreeNanos = start + (long) (permits * nanosPerPermit);
+			return start - now;
+		}
+	}
+}
\ No newline at end of file
@@ -1,23 +1,33 @@
 package com.github.zeger_tak.enversvalidationplugin.connection;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
 import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.DataSetException;
 
 public class OracleQueries extends AbstractQueries
 {
-	private final ConnectionProviderInstance connectionProvider;
+	/**
+	 * Oracle rejects in lists with more than 1000 expressions, ORA-01795.
+	 */
+	static final int MAXIMUM_IN_LIST_SIZE = 1000;
 
 	public OracleQueries(@Nonnull ConnectionProviderInstance connectionProvider)
 	{
-		this.connectionProvider = connectionProvider;
+		super(connectionProvider);
 	}
 
 	@Nonnull
@@ -25,15 +35,15 @@ public class OracleQueries extends AbstractQueries
 	public CachedResultSetTable getTableByName(@Nonnull String tableName) throws SQLException, DataSetException
 	{
 		final String query = "select TABLE_NAME from USER_TABLES where UPPER(TABLE_NAME) = UPPER('" + tableName + "')";
-		return (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("USER_TABLES", query);
+		return (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TABLES", query);
 	}
 
 	@Nonnull
 	@Override
 	public Set<String> getTablesByNameEndingWith(@Nonnull String postFix) throws SQLException, DataSetException
 	{
-		final String query = "select TABLE_NAME from USER_TABLES where TABLE_NAME like '%" + connectionProvider.getQueries().getAuditTablePostFix() + "'";
-		final CachedResultSetTable allKnownTablesEndingWithPostFix = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("USER_TABLES", query);
+		final String query = "select TABLE_NAME from USER_TABLES where TABLE_NAME like '%" + getConnectionProvider().getQueries().getAuditTablePostFix() + "'";
+		final CachedResultSetTable allKnownTablesEndingWithPostFix = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TABLES", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(allKnownTablesEndingWithPostFix.getRowCount());
 		for (int i = 0; i < allKnownTablesEndingWithPostFix.getRowCount(); i++)
@@ -49,7 +59,7 @@ public class OracleQueries extends AbstractQueries
 	public List<String> getPrimaryKeyColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
 	{
 		final String query = "SELECT COLUMN_NAME FROM all_cons_columns WHERE constraint_name = (" + " SELECT constraint_name FROM user_constraints" + " WHERE UPPER(table_name) = UPPER('" + tableName + "') AND CONSTRAINT_TYPE = 'P'" + ")";
-		final CachedResultSetTable result = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable(tableName, query);
+		final CachedResultSetTable result = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable(tableName, query);
 
 		final List<String> primaryIdentifiers = new ArrayList<>();
 		for (int i = 0; i < result.getRowCount(); i++)
@@ -72,7 +82,7 @@ public class OracleQueries extends AbstractQueries
 				+ "and c2.constraint_type = 'P' and c2.table_name = '" + getRevisionTableName() + "'";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("USER_CONSTRAINTS", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_CONSTRAINTS", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -94,7 +104,7 @@ public class OracleQueries extends AbstractQueries
 				+ "where table_name = '" + tableName + "'";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("user_tab_columns", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("user_tab_columns", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -117,7 +127,7 @@ public class OracleQueries extends AbstractQueries
 				+ "and nullable = 'N'";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("user_tab_columns", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("user_tab_columns", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -127,4 +137,154 @@ public class OracleQueries extends AbstractQueries
 
 		return auditTablesInDatabase;
 	}
+
+	@Nonnull
+	@Override
+	public Set<String> getFixedWidthCharacterColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query = "select COLUMN_NAME from USER_TAB_COLUMNS where TABLE_NAME = UPPER('" + tableName + "') and DATA_TYPE in ('CHAR', 'NCHAR')";
+		final CachedResultSetTable columns = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TAB_COLUMNS", query);
+
+		final Set<String> columnNames = new HashSet<>(columns.getRowCount());
+		for (int i = 0; i < columns.getRowCount(); i++)
+		{
+			columnNames.add(((String) columns.getValue(i, "COLUMN_NAME")).toUpperCase());
+		}
+		return columnNames;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getNonComparableColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query = "select COLUMN_NAME from USER_TAB_COLUMNS where TABLE_NAME = UPPER('" + tableName + "') and DATA_TYPE in ('CLOB', 'NCLOB', 'BLOB', 'BFILE', 'LONG', 'LONG RAW', 'XMLTYPE')";
+		final CachedResultSetTable columns = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TAB_COLUMNS", query);
+
+		final Set<String> columnNames = new HashSet<>(columns.getRowCount());
+		for (int i = 0; i < columns.getRowCount(); i++)
+		{
+			columnNames.add(((String) columns.getValue(i, "COLUMN_NAME")).toUpperCase());
+		}
+		return columnNames;
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getPartitionTableReferences(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query = "select PARTITION_NAME from USER_TAB_PARTITIONS where TABLE_NAME = UPPER('" + tableName + "') order by PARTITION_POSITION";
+		final CachedResultSetTable partitions = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TAB_PARTITIONS", query);
+
+		final List<String> partitionTableReferences = new ArrayList<>(partitions.getRowCount());
+		for (int i = 0; i < partitions.getRowCount(); i++)
+		{
+			partitionTableReferences.add(tableName + " partition (" + partitions.getValue(i, "PARTITION_NAME") + ")");
+		}
+		return partitionTableReferences;
+	}
+
+	/**
+	 * The modifications are only flushed to USER_TAB_MODIFICATIONS periodically, so they are flushed first.
+	 * If the flush fails no counters are returned, so no audit table is skipped because of modifications which were not flushed yet.
+	 * Gathering statistics resets the modifications, so the moment the statistics were last gathered is part of the counters.
+	 * The data object id changes when the table is truncated or recreated.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, String> getChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Set<String> tableNames) throws SQLException, DataSetException
+	{
+		if (tableNames.isEmpty())
+		{
+			return Collections.emptyMap();
+		}
+
+		try (Statement statement = databaseConnection.getConnection().createStatement())
+		{
+			statement.execute("begin dbms_stats.flush_database_monitoring_info; end;");
+		}
+		catch (SQLException e)
+		{
+			getConnectionProvider().getLog().warn("Unable to flush the database monitoring info, the change counters are not used during this run: " + e.getMessage());
+			return Collections.emptyMap();
+		}
+
+		final String query =
+		//@formatter:off
+				"select t.TABLE_NAME, o.OBJECT_ID, o.DATA_OBJECT_ID, t.LAST_ANALYZED, m.INSERTS, m.UPDATES, m.DELETES, m.TRUNCATED from USER_TABLES t "
+				+ "inner join USER_OBJECTS o on o.OBJECT_NAME = t.TABLE_NAME and o.OBJECT_TYPE = 'TABLE' "
+				+ "left join USER_TAB_MODIFICATIONS m on m.TABLE_NAME = t.TABLE_NAME and m.PARTITION_NAME is null "
+				+ "where " + toUpperCaseInCondition("t.TABLE_NAME", tableNames, MAXIMUM_IN_LIST_SIZE);
+				//@formatter:on
+
+		return queryChangeCounters(databaseConnection, query, "OBJECT_ID", "DATA_OBJECT_ID", "LAST_ANALYZED", "INSERTS", "UPDATES", "DELETES", "TRUNCATED");
+	}
+
+	/**
+	 * Pins the current system change number, all queries of the session then read the database as of this SCN using flashback.
+	 * Flashback is enabled for the session instead of adding an AS OF SCN clause to each table in each query, so queries of custom validators read the same snapshot.
+	 */
+	@Nonnull
+	@Override
+	public String exportSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		final String systemChangeNumber;
+		try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("select dbms_flashback.get_system_change_number from dual"))
+		{
+			resultSet.next();
+			systemChangeNumber = resultSet.getString(1);
+		}
+		importSnapshot(connection, systemChangeNumber);
+		return systemChangeNumber;
+	}
+
+	@Override
+	public void importSnapshot(@Nonnull Connection connection, @Nonnull String snapshotIdentifier) throws SQLException
+	{
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("begin dbms_flashback.enable_at_system_change_number(" + Long.parseLong(snapshotIdentifier) + "); end;");
+		}
+	}
+
+	@Override
+	public void releaseSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("begin dbms_flashback.disable; end;");
+		}
+	}
+
+	/**
+	 * The apply lag of a Data Guard standby database, a primary database is not lagging.
+	 */
+	@CheckForNull
+	@Override
+	public Long getReplicationLagSeconds(@Nonnull Connection connection) throws SQLException
+	{
+		final String query =
+		//@formatter:off
+				"select case when d.DATABASE_ROLE = 'PRIMARY' then 0 else ("
+				+ "select ceil(extract(day from to_dsinterval(s.VALUE)) * 86400 + extract(hour from to_dsinterval(s.VALUE)) * 3600 + extract(minute from to_dsinterval(s.VALUE)) * 60 + extract(second from to_dsinterval(s.VALUE))) "
+				+ "from V$DATAGUARD_STATS s where s.NAME = 'apply lag') end from V$DATABASE d";
+				//@formatter:on
+
+		return queryReplicationLagSeconds(connection, query);
+	}
+
+	/**
+	 * The multiblock read count is left to the database, as a session value for it can not be reset once it is set.
+	 */
+	@Nonnull
+	@Override
+	public List<String> getSessionInitialisationStatements(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism)
+	{
+		switch (sessionProfile)
+		{
+			case BULK_SCAN:
+				return Collections.singletonList("alter session force parallel query parallel " + bulkScanParallelism);
+			default:
+				return Collections.singletonList("alter session enable parallel query");
+		}
+	}
 }
\ No newline at end of file
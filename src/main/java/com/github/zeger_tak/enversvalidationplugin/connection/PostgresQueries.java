@@ -1,23 +1,33 @@
 package com.github.zeger_tak.enversvalidationplugin.connection;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import org.apache.commons.lang3.StringUtils;
 import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.DataSetException;
 
 public class PostgresQueries extends AbstractQueries
 {
-	private final ConnectionProviderInstance connectionProvider;
+	private static final String PARTITIONED_TABLE_KIND = "p";
 
 	public PostgresQueries(@Nonnull ConnectionProviderInstance connectionProvider)
 	{
-		this.connectionProvider = connectionProvider;
+		super(connectionProvider);
 	}
 
 	@Nonnull
@@ -41,21 +51,56 @@ public class PostgresQueries extends AbstractQueries
 		return super.getRevisionTableIdentifierColumnName().toLowerCase();
 	}
 
+	@Nonnull
+	@Override
+	public String getRevisionTableTimestampColumnName()
+	{
+		return super.getRevisionTableTimestampColumnName().toLowerCase();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndColumnName()
+	{
+		return super.getRevisionEndColumnName().toLowerCase();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndTimestampColumnName()
+	{
+		return super.getRevisionEndTimestampColumnName().toLowerCase();
+	}
+
+	@Nonnull
+	@Override
+	public String getModifiedFlagSuffix()
+	{
+		return super.getModifiedFlagSuffix().toLowerCase();
+	}
+
+	@Nonnull
+	@Override
+	protected String getBooleanTrueLiteral()
+	{
+		return "true";
+	}
+
 	@Nonnull
 	@Override
 	public CachedResultSetTable getTableByName(@Nonnull String tableName) throws SQLException, DataSetException
 	{
 		final String query = "select upper(table_name) table_name from information_schema.tables where UPPER(TABLE_NAME) = UPPER('" + tableName + "')";
-		return (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("tables", query);
+		return (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("tables", query);
 	}
 
 	@Nonnull
 	@Override
 	public Set<String> getTablesByNameEndingWith(@Nonnull String postFix) throws SQLException, DataSetException
 	{
-		final String query = "select table_name from information_schema.tables where UPPER(TABLE_NAME) like '%" + connectionProvider.getQueries().getAuditTablePostFix() + "'";
+		final String query = "select table_name from information_schema.tables where UPPER(TABLE_NAME) like '%" + getConnectionProvider().getQueries().getAuditTablePostFix() + "'";
 
-		final CachedResultSetTable allKnownTablesEndingWithPostFix = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("tables", query);
+		final CachedResultSetTable allKnownTablesEndingWithPostFix = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("tables", query);
 		final Set<String> auditTablesInDatabase = new HashSet<>(allKnownTablesEndingWithPostFix.getRowCount());
 		for (int i = 0; i < allKnownTablesEndingWithPostFix.getRowCount(); i++)
 		{
@@ -70,7 +115,7 @@ public class PostgresQueries extends AbstractQueries
 	public List<String> getPrimaryKeyColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
 	{
 		final String query = "select kcu.column_name from information_schema.table_constraints tc inner join information_schema.key_column_usage kcu on tc.constraint_name = kcu.constraint_name where tc.constraint_type= 'PRIMARY KEY'" + " and UPPER(tc.table_name) = UPPER('" + tableName + "')";
-		final CachedResultSetTable result = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable(tableName, query);
+		final CachedResultSetTable result = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable(tableName, query);
 
 		final List<String> primaryIdentifiers = new ArrayList<>();
 		for (int i = 0; i < result.getRowCount(); i++)
@@ -92,7 +137,7 @@ public class PostgresQueries extends AbstractQueries
 				+ "where tc2.constraint_type = 'PRIMARY KEY' and tc2.table_name = '" + getRevisionTableName() + "'";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("USER_TABLES", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("USER_TABLES", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -113,7 +158,7 @@ public class PostgresQueries extends AbstractQueries
 				+ "where upper(table_name) = upper('" + tableName + "');";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("columns", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("columns", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -135,7 +180,7 @@ public class PostgresQueries extends AbstractQueries
 				+ "and is_nullable = 'NO';";
 				//@formatter:on
 
-		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) connectionProvider.getDatabaseConnection().createQueryTable("columns", query);
+		final CachedResultSetTable tablesInDatabaseWithForeignKeyToRevisionTable = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("columns", query);
 
 		final Set<String> auditTablesInDatabase = new HashSet<>(tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount());
 		for (int i = 0; i < tablesInDatabaseWithForeignKeyToRevisionTable.getRowCount(); i++)
@@ -145,4 +190,206 @@ public class PostgresQueries extends AbstractQueries
 
 		return auditTablesInDatabase;
 	}
+
+	/**
+	 * The type character is the standard name of the blank padded char type (bpchar).
+	 */
+	@Nonnull
+	@Override
+	public Set<String> getFixedWidthCharacterColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query = "select column_name from information_schema.columns where upper(table_name) = upper('" + tableName + "') and data_type = 'character'";
+		final CachedResultSetTable columns = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("columns", query);
+
+		final Set<String> columnNames = new HashSet<>(columns.getRowCount());
+		for (int i = 0; i < columns.getRowCount(); i++)
+		{
+			columnNames.add(((String) columns.getValue(i, "column_name")).toUpperCase());
+		}
+		return columnNames;
+	}
+
+	/**
+	 * Unlike jsonb, the json and xml types have no equality operator.
+	 */
+	@Nonnull
+	@Override
+	public Set<String> getNonComparableColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query = "select column_name from information_schema.columns where upper(table_name) = upper('" + tableName + "') and data_type in ('json', 'xml')";
+		final CachedResultSetTable columns = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("columns", query);
+
+		final Set<String> columnNames = new HashSet<>(columns.getRowCount());
+		for (int i = 0; i < columns.getRowCount(); i++)
+		{
+			columnNames.add(((String) columns.getValue(i, "column_name")).toUpperCase());
+		}
+		return columnNames;
+	}
+
+	/**
+	 * The table is resolved the same way as in the other queries, through the search path of the connection, and its children are referenced by their possibly schema qualified name.
+	 * Unlike a partitioned table, a parent table of plain inheritance may contain records itself, these are scanned with an only reference to the parent table.
+	 */
+	@Nonnull
+	@Override
+	public List<String> getPartitionTableReferences(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		final String query =
+		//@formatter:off
+				"select i.inhrelid::regclass::text partition_name, parent.relkind parent_kind from pg_inherits i "
+				+ "inner join pg_class parent on parent.oid = i.inhparent "
+				+ "where i.inhparent = to_regclass('" + tableName + "') "
+				+ "order by 1";
+				//@formatter:on
+
+		final CachedResultSetTable partitions = (CachedResultSetTable) getConnectionProvider().getDatabaseConnection().createQueryTable("pg_inherits", query);
+
+		final List<String> partitionTableReferences = new ArrayList<>(partitions.getRowCount() + 1);
+		if (partitions.getRowCount() > 0 && !PARTITIONED_TABLE_KIND.equals(String.valueOf(partitions.getValue(0, "parent_kind"))))
+		{
+			partitionTableReferences.add("only " + tableName);
+		}
+		for (int i = 0; i < partitions.getRowCount(); i++)
+		{
+			partitionTableReferences.add((String) partitions.getValue(i, "partition_name"));
+		}
+		return partitionTableReferences;
+	}
+
+	/**
+	 * The statistics collector counts the inserted, updated and deleted records, the file node of the table changes when the table is truncated.
+	 * The tables are resolved through the search path, so equally named tables in other schemas are ignored.
+	 * A standby does not count the changes it replays, so no counters are returned when connected to a standby.
+	 */
+	@Nonnull
+	@Override
+	public Map<String, String> getChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Set<String> tableNames) throws SQLException, DataSetException
+	{
+		if (tableNames.isEmpty())
+		{
+			return Collections.emptyMap();
+		}
+
+		final String query =
+		//@formatter:off
+				"select upper(relname) table_name, relid, pg_relation_filenode(relid) file_node, n_tup_ins, n_tup_upd, n_tup_del from pg_stat_user_tables "
+				+ "where relid in (" + toRegclassList(tableNames) + ") "
+				+ "and not pg_is_in_recovery() "
+				+ "order by relid";
+				//@formatter:on
+
+		return queryChangeCounters(databaseConnection, query, "relid", "file_node", "n_tup_ins", "n_tup_upd", "n_tup_del");
+	}
+
+	/**
+	 * @return The tables resolved through the search path, separated by a comma, to be used in an in clause.
+	 */
+	@Nonnull
+	private static String toRegclassList(@Nonnull Set<String> tableNames)
+	{
+		final List<String> regclasses = new ArrayList<>(tableNames.size());
+		for (String tableName : tableNames)
+		{
+			regclasses.add("to_regclass('" + tableName + "')");
+		}
+		return StringUtils.join(regclasses, ", ");
+	}
+
+	/**
+	 * Opens a repeatable read transaction and exports its snapshot, the snapshot can only be imported while this transaction is open.
+	 */
+	@Nonnull
+	@Override
+	public String exportSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("select pg_export_snapshot()"))
+		{
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+
+	@Override
+	public void importSnapshot(@Nonnull Connection connection, @Nonnull String snapshotIdentifier) throws SQLException
+	{
+		connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("set transaction snapshot '" + snapshotIdentifier + "'");
+		}
+	}
+
+	@Override
+	public void releaseSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		connection.rollback();
+		connection.setAutoCommit(true);
+		connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	/**
+	 * A standby which replayed all changes received while streaming from the primary database is not lagging, even if the last replayed transaction is old because the primary database is idle.
+	 * A standby which is not streaming may not have received recent changes, its lag is the time since the last replayed transaction.
+	 */
+	@CheckForNull
+	@Override
+	public Long getReplicationLagSeconds(@Nonnull Connection connection) throws SQLException
+	{
+		final String query =
+		//@formatter:off
+				"select pg_is_in_recovery(), "
+				+ "exists (select 1 from pg_stat_wal_receiver where status = 'streaming'), "
+				+ "pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn(), "
+				+ "ceil(extract(epoch from now() - pg_last_xact_replay_timestamp()))";
+				//@formatter:on
+
+		try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query))
+		{
+			resultSet.next();
+			final boolean inRecovery = resultSet.getBoolean(1);
+			final boolean streaming = resultSet.getBoolean(2);
+			final boolean replayedAllReceivedChanges = resultSet.getBoolean(3);
+			final long secondsSinceLastReplay = resultSet.getLong(4);
+			return determineReplicationLagSeconds(inRecovery, streaming, replayedAllReceivedChanges, resultSet.wasNull() ? null : secondsSinceLastReplay);
+		}
+	}
+
+	/**
+	 * @param secondsSinceLastReplay Seconds since the last transaction was replayed, null if no transaction was replayed yet.
+	 * @return The replication lag in seconds, null if it is unknown.
+	 */
+	@CheckForNull
+	static Long determineReplicationLagSeconds(boolean inRecovery, boolean streaming, boolean replayedAllReceivedChanges, @Nullable Long secondsSinceLastReplay)
+	{
+		if (!inRecovery || (streaming && replayedAllReceivedChanges))
+		{
+			return 0L;
+		}
+		return secondsSinceLastReplay;
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getSessionInitialisationStatements(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism)
+	{
+		switch (sessionProfile)
+		{
+			case BULK_SCAN:
+				//@formatter:off
+				return Arrays.asList(
+						"set work_mem = '256MB'",
+						"set max_parallel_workers_per_gather = " + bulkScanParallelism);
+				//@formatter:on
+			default:
+				//@formatter:off
+				return Arrays.asList(
+						"reset work_mem",
+						"reset max_parallel_workers_per_gather");
+				//@formatter:on
+		}
+	}
 }
\ No newline at end of file
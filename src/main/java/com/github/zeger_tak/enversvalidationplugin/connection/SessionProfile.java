@@ -0,0 +1,19 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+/**
+ * Session settings applied to each connection before it is used for validation queries, the statements of each profile are database specific.
+ *
+ * @see DatabaseQueries#getSessionInitialisationStatements(SessionProfile, int)
+ */
+public enum SessionProfile
+{
+	/**
+	 * Keep the session settings of the database.
+	 */
+	DEFAULT,
+
+	/**
+	 * Allow the database to use parallel execution and more memory for the large scans of the content and audit tables.
+	 */
+	BULK_SCAN
+}
\ No newline at end of file
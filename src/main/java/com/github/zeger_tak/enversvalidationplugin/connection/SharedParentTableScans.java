@@ -0,0 +1,238 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * The parent tables shared by several audit tables of an inheritance hierarchy, see {@link DatabaseQueries#startSharingParentTableScans(Collection)}.
+ * Each shared parent table is scanned once, its rows are added to the rows of each child table by identifier instead of joining the parent table in the query of each child table.
+ * The rows of a parent table are released once the rows of all its descendants have been stitched.
+ */
+class SharedParentTableScans
+{
+	private final Set<String> sharedParentAuditTableNames = new HashSet<>();
+	private final Map<String, ParentTableRows> contentRowsByTableName = new HashMap<>();
+	private final Map<String, ParentTableRows> auditRowsByTableName = new HashMap<>();
+	private final Map<String, Integer> remainingContentReadersByParentName = new HashMap<>();
+	private final Map<String, Integer> remainingAuditReadersByParentName = new HashMap<>();
+
+	SharedParentTableScans(@Nonnull Collection<AuditTableInformation> auditTableInformations)
+	{
+		final Map<String, Integer> descendantCounts = new HashMap<>();
+		for (AuditTableInformation auditTableInformation : auditTableInformations)
+		{
+			for (AuditTableInformation parent = auditTableInformation.getAuditTableParent(); parent != null; parent = parent.getAuditTableParent())
+			{
+				descendantCounts.merge(parent.getAuditTableName(), 1, Integer::sum);
+			}
+		}
+
+		for (Map.Entry<String, Integer> descendantCount : descendantCounts.entrySet())
+		{
+			if (descendantCount.getValue() > 1)
+			{
+				sharedParentAuditTableNames.add(descendantCount.getKey());
+				remainingContentReadersByParentName.put(descendantCount.getKey(), descendantCount.getValue());
+				remainingAuditReadersByParentName.put(descendantCount.getKey(), descendantCount.getValue());
+			}
+		}
+	}
+
+	boolean isShared(@Nonnull AuditTableInformation parent)
+	{
+		return sharedParentAuditTableNames.contains(parent.getAuditTableName());
+	}
+
+	/**
+	 * As each parent has at least as many descendants as its children, the nearest parents which are not shared are followed by the shared parents up to the root.
+	 *
+	 * @return The shared parents of the audit table, from the nearest parent to the root.
+	 */
+	@Nonnull
+	List<AuditTableInformation> getSharedParents(@Nonnull AuditTableInformation auditTableInformation)
+	{
+		final List<AuditTableInformation> sharedParents = new ArrayList<>();
+		for (AuditTableInformation parent = auditTableInformation.getAuditTableParent(); parent != null; parent = parent.getAuditTableParent())
+		{
+			if (isShared(parent))
+			{
+				sharedParents.add(parent);
+			}
+		}
+		return sharedParents;
+	}
+
+	@Nonnull
+	synchronized ParentTableRows getContentRows(@Nonnull AuditTableInformation parent, @Nonnull ParentTableScan parentTableScan) throws SQLException, DataSetException
+	{
+		ParentTableRows parentTableRows = contentRowsByTableName.get(parent.getContentTableName());
+		if (parentTableRows == null)
+		{
+			parentTableRows = parentTableScan.scan();
+			contentRowsByTableName.put(parent.getContentTableName(), parentTableRows);
+		}
+		return parentTableRows;
+	}
+
+	@Nonnull
+	synchronized ParentTableRows getAuditRows(@Nonnull AuditTableInformation parent, @Nonnull ParentTableScan parentTableScan) throws SQLException, DataSetException
+	{
+		ParentTableRows parentTableRows = auditRowsByTableName.get(parent.getAuditTableName());
+		if (parentTableRows == null)
+		{
+			parentTableRows = parentTableScan.scan();
+			auditRowsByTableName.put(parent.getAuditTableName(), parentTableRows);
+		}
+		return parentTableRows;
+	}
+
+	/**
+	 * Releases the content rows of the shared parents of which the content rows of all descendants have been stitched.
+	 */
+	synchronized void contentRowsStitched(@Nonnull AuditTableInformation auditTableInformation)
+	{
+		for (AuditTableInformation parent : getSharedParents(auditTableInformation))
+		{
+			if (isLastReader(remainingContentReadersByParentName, parent))
+			{
+				contentRowsByTableName.remove(parent.getContentTableName());
+			}
+		}
+	}
+
+	/**
+	 * Releases the audit rows of the shared parents of which the audit rows of all descendants have been stitched.
+	 */
+	synchronized void auditRowsStitched(@Nonnull AuditTableInformation auditTableInformation)
+	{
+		for (AuditTableInformation parent : getSharedParents(auditTableInformation))
+		{
+			if (isLastReader(remainingAuditReadersByParentName, parent))
+			{
+				auditRowsByTableName.remove(parent.getAuditTableName());
+			}
+		}
+	}
+
+	/**
+	 * A descendant read more than once after the rows were released causes the parent table to be scanned again, its rows are released after each of these reads.
+	 */
+	private static boolean isLastReader(@Nonnull Map<String, Integer> remainingReadersByParentName, @Nonnull AuditTableInformation parent)
+	{
+		final Integer remainingReaders = remainingReadersByParentName.merge(parent.getAuditTableName(), -1, Integer::sum);
+		return remainingReaders <= 0;
+	}
+
+	interface ParentTableScan
+	{
+		@Nonnull
+		ParentTableRows scan() throws SQLException, DataSetException;
+	}
+
+	/**
+	 * The rows of a single parent table, identified by the values of the columns on which the child tables would be joined.
+	 */
+	static final class ParentTableRows
+	{
+		private final TableColumns tableColumns;
+		private final Map<String, TableRow> rowsByIdentifier;
+
+		ParentTableRows(@Nonnull TableColumns tableColumns, @Nonnull Map<String, TableRow> rowsByIdentifier)
+		{
+			this.tableColumns = tableColumns;
+			this.rowsByIdentifier = Collections.unmodifiableMap(rowsByIdentifier);
+		}
+	}
+
+	/**
+	 * Adds the columns of the shared parent tables to the rows of a single query result of a child table.
+	 * A column present in both the child and a parent table takes the value of the parent, like the last of the duplicate columns of the joined query.
+	 */
+	static final class Stitcher
+	{
+		private final TableColumns stitchedColumns;
+		private final List<ParentTableRows> parentTableRows;
+		private final int[] childColumnIndexes;
+		private final int[][] stitchedColumnIndexesPerParent;
+		private final int[] identifierColumnIndexes;
+
+		Stitcher(@Nonnull TableColumns childColumns, @Nonnull List<ParentTableRows> parentTableRows, @Nonnull int[] identifierColumnIndexes)
+		{
+			this.parentTableRows = parentTableRows;
+			this.identifierColumnIndexes = identifierColumnIndexes;
+
+			final List<String> columnNames = new ArrayList<>(childColumns.getColumnNames());
+			final Map<String, Integer> stitchedIndexesByColumnName = new HashMap<>();
+			childColumnIndexes = new int[columnNames.size()];
+			for (int index = 0; index < columnNames.size(); index++)
+			{
+				stitchedIndexesByColumnName.put(columnNames.get(index), index);
+				childColumnIndexes[index] = childColumns.getIndex(columnNames.get(index));
+			}
+
+			stitchedColumnIndexesPerParent = new int[parentTableRows.size()][];
+			for (int parentIndex = 0; parentIndex < parentTableRows.size(); parentIndex++)
+			{
+				final TableColumns parentColumns = parentTableRows.get(parentIndex).tableColumns;
+				stitchedColumnIndexesPerParent[parentIndex] = new int[parentColumns.size()];
+				for (int columnIndex = 0; columnIndex < parentColumns.size(); columnIndex++)
+				{
+					final String columnName = parentColumns.getColumnName(columnIndex);
+					Integer stitchedIndex = stitchedIndexesByColumnName.get(columnName);
+					if (stitchedIndex == null)
+					{
+						stitchedIndex = columnNames.size();
+						columnNames.add(columnName);
+						stitchedIndexesByColumnName.put(columnName, stitchedIndex);
+					}
+					stitchedColumnIndexesPerParent[parentIndex][columnIndex] = stitchedIndex;
+				}
+			}
+			stitchedColumns = new TableColumns(columnNames);
+		}
+
+		/**
+		 * @return The row including the columns of the parent tables, or null if one of the parent tables has no row with the same identifier.
+		 */
+		@CheckForNull
+		TableRow stitch(@Nonnull TableRow childRow)
+		{
+			final String identifier = AbstractQueries.getPrimaryIdentifierAsString(childRow, identifierColumnIndexes);
+			final TableRow stitchedRow = new TableRow(stitchedColumns);
+			for (int index = 0; index < childColumnIndexes.length; index++)
+			{
+				stitchedRow.setColumnValue(index, childRow.getColumnValue(childColumnIndexes[index]));
+			}
+
+			for (int parentIndex = 0; parentIndex < parentTableRows.size(); parentIndex++)
+			{
+				final TableRow parentRow = parentTableRows.get(parentIndex).rowsByIdentifier.get(identifier);
+				if (parentRow == null)
+				{
+					return null;
+				}
+				final int[] stitchedColumnIndexes = stitchedColumnIndexesPerParent[parentIndex];
+				for (int columnIndex = 0; columnIndex < stitchedColumnIndexes.length; columnIndex++)
+				{
+					stitchedRow.setColumnValue(stitchedColumnIndexes[columnIndex], parentRow.getColumnValue(columnIndex));
+				}
+			}
+			return stitchedRow;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,478 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import org.apache.maven.plugin.logging.Log;
+import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Stores the fetched content and audit records of each table in a {@link ColumnarSnapshotFile}, so later runs read unchanged tables from disk instead of the database.
+ * A snapshot is tagged with a fingerprint consisting of the query (tables, primary key columns and revision window), the maximum revision and the row count of each audit table involved,
+ * the row count of each content table involved and the {@link DatabaseQueries#getChangeCounters(IDatabaseConnection, Set) change counters} of all these tables, including the parent tables of an inheritance hierarchy.
+ * The snapshot is only used if its fingerprint matches the current fingerprint.
+ *
+ * Changes to a table for which the database does not keep change counters and which keep its row count intact are not detected, remove the snapshot directory to force a complete reload.
+ * Snapshots which can not be read or written are ignored with a warning, the records are then retrieved from the database.
+ */
+class SnapshotCachingQueries implements DatabaseQueries
+{
+	private static final String CONTENT_SNAPSHOT_POSTFIX = ".content.snapshot";
+	private static final String AUDIT_SNAPSHOT_POSTFIX = ".audit.snapshot";
+
+	private final DatabaseQueries delegate;
+	private final File snapshotDirectory;
+	private final RevisionWindow revisionWindow;
+	private final Log log;
+
+	SnapshotCachingQueries(@Nonnull DatabaseQueries delegate, @Nonnull File snapshotDirectory, @Nonnull RevisionWindow revisionWindow, @Nonnull Log log)
+	{
+		this.delegate = delegate;
+		this.snapshotDirectory = snapshotDirectory;
+		this.revisionWindow = revisionWindow;
+		this.log = log;
+	}
+
+	@Nonnull
+	@Override
+	public String getAuditTablePostFix()
+	{
+		return delegate.getAuditTablePostFix();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevTypeColumnName()
+	{
+		return delegate.getRevTypeColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableIdentifierColumnName()
+	{
+		return delegate.getRevisionTableIdentifierColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableName()
+	{
+		return delegate.getRevisionTableName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionTableTimestampColumnName()
+	{
+		return delegate.getRevisionTableTimestampColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndColumnName()
+	{
+		return delegate.getRevisionEndColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getRevisionEndTimestampColumnName()
+	{
+		return delegate.getRevisionEndTimestampColumnName();
+	}
+
+	@Nonnull
+	@Override
+	public String getModifiedFlagSuffix()
+	{
+		return delegate.getModifiedFlagSuffix();
+	}
+
+	@Nonnull
+	@Override
+	public CachedResultSetTable getTableByName(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getTableByName(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getTablesByNameEndingWith(@Nonnull String postFix) throws SQLException, DataSetException
+	{
+		return delegate.getTablesByNameEndingWith(postFix);
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getPrimaryKeyColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getPrimaryKeyColumnNames(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getContentRecords(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String fingerprint = determineFingerprint(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+		final ColumnarSnapshotFile snapshotFile = getSnapshotFile(auditTableInformation, primaryIdentifierColumnNames, CONTENT_SNAPSHOT_POSTFIX);
+
+		final ColumnarSnapshotFile.Snapshot snapshot = readSnapshot(snapshotFile, fingerprint);
+		if (snapshot != null)
+		{
+			final Map<String, TableRow> recordsInTableById = new HashMap<>();
+			for (int rowIndex = 0; rowIndex < snapshot.getRows().size(); rowIndex++)
+			{
+				recordsInTableById.put(snapshot.getIdentifiers().get(rowIndex), snapshot.getRows().get(rowIndex));
+			}
+			return recordsInTableById;
+		}
+
+		final Map<String, TableRow> recordsInTableById = delegate.getContentRecords(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+		writeSnapshot(snapshotFile, fingerprint, new ArrayList<>(recordsInTableById.keySet()), new ArrayList<>(recordsInTableById.values()));
+		return recordsInTableById;
+	}
+
+	/**
+	 * Builds the index from the identifiers of the content snapshot if it is still valid, the content table is not read at all in that case.
+	 */
+	@Nonnull
+	@Override
+	public ContentKeyIndex getContentKeyIndex(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String fingerprint = determineFingerprint(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+		final ColumnarSnapshotFile snapshotFile = getSnapshotFile(auditTableInformation, primaryIdentifierColumnNames, CONTENT_SNAPSHOT_POSTFIX);
+
+		final ColumnarSnapshotFile.Snapshot snapshot = readSnapshot(snapshotFile, fingerprint);
+		if (snapshot != null)
+		{
+			return ContentKeyIndex.of(snapshot.getIdentifiers());
+		}
+		return delegate.getContentKeyIndex(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, List<TableRow>> getAuditRecordsGroupedByContentPrimaryKey(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final String fingerprint = determineFingerprint(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+		final ColumnarSnapshotFile snapshotFile = getSnapshotFile(auditTableInformation, primaryIdentifierColumnNames, AUDIT_SNAPSHOT_POSTFIX);
+
+		final ColumnarSnapshotFile.Snapshot snapshot = readSnapshot(snapshotFile, fingerprint);
+		if (snapshot != null)
+		{
+			final Map<String, List<TableRow>> recordsInTableGroupedById = new HashMap<>();
+			for (int rowIndex = 0; rowIndex < snapshot.getRows().size(); rowIndex++)
+			{
+				recordsInTableGroupedById.computeIfAbsent(snapshot.getIdentifiers().get(rowIndex), k -> new ArrayList<>()).add(snapshot.getRows().get(rowIndex));
+			}
+			return recordsInTableGroupedById;
+		}
+
+		final Map<String, List<TableRow>> recordsInTableGroupedById = delegate.getAuditRecordsGroupedByContentPrimaryKey(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+		final List<String> identifiers = new ArrayList<>();
+		final List<TableRow> rows = new ArrayList<>();
+		for (Map.Entry<String, List<TableRow>> recordsPerIdentifier : recordsInTableGroupedById.entrySet())
+		{
+			for (TableRow row : recordsPerIdentifier.getValue())
+			{
+				identifiers.add(recordsPerIdentifier.getKey());
+				rows.add(row);
+			}
+		}
+		writeSnapshot(snapshotFile, fingerprint, identifiers, rows);
+		return recordsInTableGroupedById;
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getListOfTablesWithForeignKeysToRevisionTable() throws SQLException, DataSetException
+	{
+		return delegate.getListOfTablesWithForeignKeysToRevisionTable();
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAllColumns(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getAllColumns(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAllNonnullColumns(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getAllNonnullColumns(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getFixedWidthCharacterColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getFixedWidthCharacterColumnNames(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getNonComparableColumnNames(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getNonComparableColumnNames(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getSessionInitialisationStatements(@Nonnull SessionProfile sessionProfile, int bulkScanParallelism)
+	{
+		return delegate.getSessionInitialisationStatements(sessionProfile, bulkScanParallelism);
+	}
+
+	@Nonnull
+	@Override
+	public List<String> getPartitionTableReferences(@Nonnull String tableName) throws SQLException, DataSetException
+	{
+		return delegate.getPartitionTableReferences(tableName);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, String> getChangeCounters(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Set<String> tableNames) throws SQLException, DataSetException
+	{
+		return delegate.getChangeCounters(databaseConnection, tableNames);
+	}
+
+	@Nonnull
+	@Override
+	public String exportSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		return delegate.exportSnapshot(connection);
+	}
+
+	@Override
+	public void importSnapshot(@Nonnull Connection connection, @Nonnull String snapshotIdentifier) throws SQLException
+	{
+		delegate.importSnapshot(connection, snapshotIdentifier);
+	}
+
+	@Override
+	public void releaseSnapshot(@Nonnull Connection connection) throws SQLException
+	{
+		delegate.releaseSnapshot(connection);
+	}
+
+	@CheckForNull
+	@Override
+	public Long getReplicationLagSeconds(@Nonnull Connection connection) throws SQLException
+	{
+		return delegate.getReplicationLagSeconds(connection);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionEndChainViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionEndChainViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionEndTimestampViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionEndTimestampViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getModifiedFlagViolations(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, String> modifiedFlagColumnNamesByColumnName) throws SQLException, DataSetException
+	{
+		return delegate.getModifiedFlagViolations(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, modifiedFlagColumnNamesByColumnName);
+	}
+
+	@Nonnull
+	@Override
+	public TableRowSample getNoOpModifyRevisions(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> dataColumnNames, @Nonnull Map<String, String> auditTableGroups, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getNoOpModifyRevisions(databaseConnection, auditTableInformation, primaryIdentifierColumnNames, dataColumnNames, auditTableGroups, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getRevisionsWithoutParentRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsWithoutParentRevision(databaseConnection, auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getParentRevisionsWithoutChildRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull AuditTableInformation auditTableParent, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getParentRevisionsWithoutChildRevision(databaseConnection, auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsMissingFromRevisionTable(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsMissingFromRevisionTable(databaseConnection, auditTableNames, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public RevisionSample getRevisionsNotReferencedByAuditTables(@Nonnull IDatabaseConnection databaseConnection, @Nonnull Collection<String> auditTableNames, int maximumRevisions) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsNotReferencedByAuditTables(databaseConnection, auditTableNames, maximumRevisions);
+	}
+
+	@Nonnull
+	@Override
+	public TableRowSample getRevisionsWithDecreasingTimestamp(@Nonnull IDatabaseConnection databaseConnection, int maximumRanges) throws SQLException, DataSetException
+	{
+		return delegate.getRevisionsWithDecreasingTimestamp(databaseConnection, maximumRanges);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, TableRow> getOpenRevisionsWithoutContent(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getOpenRevisionsWithoutContent(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	@Override
+	public Set<String> getContentWithoutOpenRevision(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		return delegate.getContentWithoutOpenRevision(databaseConnection, auditTableInformation, primaryIdentifierColumnNames);
+	}
+
+	@Override
+	public void startSharingParentTableScans(@Nonnull Collection<AuditTableInformation> auditTableInformations)
+	{
+		delegate.startSharingParentTableScans(auditTableInformations);
+	}
+
+	@Override
+	public void stopSharingParentTableScans()
+	{
+		delegate.stopSharingParentTableScans();
+	}
+
+	@Nonnull
+	@Override
+	public String getPrimaryIdentifierAsString(@Nonnull CachedResultSetTable recordsInContentTable, int rowIndex, @Nonnull List<String> primaryIdentifierColumnNames) throws DataSetException
+	{
+		return delegate.getPrimaryIdentifierAsString(recordsInContentTable, rowIndex, primaryIdentifierColumnNames);
+	}
+
+	@Nonnull
+	private ColumnarSnapshotFile getSnapshotFile(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull String postFix)
+	{
+		final String fileName = auditTableInformation.getAuditTableName().replaceAll("[^A-Za-z0-9_.-]", "_") + "-" + Integer.toHexString(describeQuery(auditTableInformation, primaryIdentifierColumnNames).hashCode()) + postFix;
+		return new ColumnarSnapshotFile(new File(snapshotDirectory, fileName));
+	}
+
+	@Nonnull
+	private String describeQuery(@Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		return auditTableInformation + "|" + primaryIdentifierColumnNames + "|" + revisionWindow;
+	}
+
+	@Nonnull
+	String determineFingerprint(@Nonnull IDatabaseConnection databaseConnection, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames) throws SQLException, DataSetException
+	{
+		final StringBuilder fingerprint = new StringBuilder(describeQuery(auditTableInformation, primaryIdentifierColumnNames));
+		final Set<String> tableNames = new HashSet<>();
+		for (AuditTableInformation auditTable = auditTableInformation; auditTable != null; auditTable = auditTable.getAuditTableParent())
+		{
+			final StringBuilder query = new StringBuilder("select max(");
+			query.append(getRevisionTableIdentifierColumnName());
+			query.append("), count(*) from ");
+			query.append(auditTable.getAuditTableName());
+			fingerprint.append("|");
+			fingerprint.append(auditTable.getAuditTableName());
+			fingerprint.append(":");
+			fingerprint.append(executeAggregateQuery(databaseConnection, query.toString()));
+
+			fingerprint.append("|");
+			fingerprint.append(auditTable.getContentTableName());
+			fingerprint.append(":");
+			fingerprint.append(executeAggregateQuery(databaseConnection, "select count(*) from " + auditTable.getContentTableName()));
+
+			tableNames.add(auditTable.getAuditTableName());
+			tableNames.add(auditTable.getContentTableName());
+		}
+
+		fingerprint.append("|");
+		fingerprint.append(new TreeMap<>(delegate.getChangeCounters(databaseConnection, tableNames)));
+		return fingerprint.toString();
+	}
+
+	@Nonnull
+	private static String executeAggregateQuery(@Nonnull IDatabaseConnection databaseConnection, @Nonnull String query) throws SQLException
+	{
+		try (Statement statement = databaseConnection.getConnection().createStatement(); ResultSet resultSet = statement.executeQuery(query))
+		{
+			final StringBuilder result = new StringBuilder();
+			if (resultSet.next())
+			{
+				for (int columnIndex = 1; columnIndex <= resultSet.getMetaData().getColumnCount(); columnIndex++)
+				{
+					if (columnIndex > 1)
+					{
+						result.append("/");
+					}
+					result.append(resultSet.getString(columnIndex));
+				}
+			}
+			return result.toString();
+		}
+	}
+
+	@CheckForNull
+	private ColumnarSnapshotFile.Snapshot readSnapshot(@Nonnull ColumnarSnapshotFile snapshotFile, @Nonnull String fingerprint)
+	{
+		try
+		{
+			return snapshotFile.read(fingerprint);
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to read snapshot " + snapshotFile + ", the records are retrieved from the database: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeSnapshot(@Nonnull ColumnarSnapshotFile snapshotFile, @Nonnull String fingerprint, @Nonnull List<String> identifiers, @Nonnull List<TableRow> rows)
+	{
+		try
+		{
+			snapshotFile.write(fingerprint, identifiers, rows);
+		}
+		catch (IOException e)
+		{
+			// The records are retrieved from the database again during the next run.
+			log.warn("Unable to write snapshot " + snapshotFile + ": " + e.getMessage());
+		}
+	}
+}
\ No newline at end of file
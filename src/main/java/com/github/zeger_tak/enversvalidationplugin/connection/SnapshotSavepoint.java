@@ -0,0 +1,45 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+import javax.annotation.Nullable;
+
+/**
+ * Savepoint within the transaction reading the consistent snapshot, started through {@link ConnectionProviderInstance#startSnapshotSavepoint()}.
+ * A failing statement aborts the whole transaction on Postgresql, rolling back to the savepoint keeps the snapshot readable for the next validations.
+ */
+public class SnapshotSavepoint implements AutoCloseable
+{
+	static final SnapshotSavepoint NONE = new SnapshotSavepoint(null, null);
+
+	private final Connection connection;
+	private final Savepoint savepoint;
+
+	SnapshotSavepoint(@Nullable Connection connection, @Nullable Savepoint savepoint)
+	{
+		this.connection = connection;
+		this.savepoint = savepoint;
+	}
+
+	/**
+	 * Discards the effects of the statements executed since the savepoint was set, including an aborted state of the transaction.
+	 */
+	public void rollback() throws SQLException
+	{
+		if (savepoint != null)
+		{
+			connection.rollback(savepoint);
+		}
+	}
+
+	@Override
+	public void close() throws SQLException
+	{
+		if (savepoint != null)
+		{
+			connection.releaseSavepoint(savepoint);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Wall-clock limit of a single validation, started through {@link ConnectionProviderInstance#startTimeLimit(String)}.
+ * The time limit applies to the statements executed by the thread which started it, and by the threads the work is handed to using {@link ConnectionProviderInstance#withActiveTimeLimit(java.util.concurrent.Callable)}.
+ * Once the limit is exceeded, these running statements are cancelled and new statements are refused until the time limit is closed.
+ * Statements of other validation runs are not affected.
+ */
+public class TimeLimit implements AutoCloseable
+{
+	private final ConnectionProviderInstance connectionProvider;
+	private final String description;
+	private final Long limitSeconds;
+	private final TimeLimit previousTimeLimit;
+	private final ScheduledFuture<?> expiry;
+	private final Set<Statement> runningStatements = ConcurrentHashMap.newKeySet();
+	private volatile boolean expired;
+
+	TimeLimit(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull String description, @Nullable Long limitSeconds, @Nullable TimeLimit previousTimeLimit, @Nonnull ScheduledExecutorService scheduler)
+	{
+		this.connectionProvider = connectionProvider;
+		this.description = description;
+		this.limitSeconds = limitSeconds;
+		this.previousTimeLimit = previousTimeLimit;
+		expiry = limitSeconds == null ? null : scheduler.schedule(this::expire, limitSeconds, TimeUnit.SECONDS);
+	}
+
+	void expire()
+	{
+		expired = true;
+		for (Statement statement : runningStatements)
+		{
+			try
+			{
+				statement.cancel();
+			}
+			catch (SQLException e)
+			{
+				// The statement has already finished or the driver does not support cancellation.
+			}
+		}
+	}
+
+	/**
+	 * Registers a statement executed within this time limit or within a time limit nested in it.
+	 */
+	void statementStarted(@Nonnull Statement statement)
+	{
+		runningStatements.add(statement);
+	}
+
+	void statementFinished(@Nonnull Statement statement)
+	{
+		runningStatements.remove(statement);
+	}
+
+	public boolean isExpired()
+	{
+		return expired;
+	}
+
+	@Nonnull
+	public String getDescription()
+	{
+		return description;
+	}
+
+	@CheckForNull
+	public Long getLimitSeconds()
+	{
+		return limitSeconds;
+	}
+
+	@CheckForNull
+	TimeLimit getPreviousTimeLimit()
+	{
+		return previousTimeLimit;
+	}
+
+	@Override
+	public void close()
+	{
+		if (expiry != null)
+		{
+			expiry.cancel(false);
+		}
+		connectionProvider.timeLimitClosed(this);
+	}
+}
\ No newline at end of file
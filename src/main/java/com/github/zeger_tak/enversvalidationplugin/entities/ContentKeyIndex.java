@@ -0,0 +1,263 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Compact index of the primary identifiers present in a content table, used to check whether a record exists without keeping its content in memory.
+ *
+ * Identifiers consisting of a single integer are stored in a bitmap split into containers of 65536 values, sparse containers are stored as a sorted array.
+ * Other identifiers, such as composite identifiers, are stored as a sorted array which is searched for an exact match, so these take about as much memory as the identifiers themselves.
+ */
+public final class ContentKeyIndex
+{
+	private static final int CONTAINER_BITS = 16;
+	private static final int CONTAINER_SIZE = 1 << CONTAINER_BITS;
+	private static final int MAXIMUM_ARRAY_CONTAINER_SIZE = 4096;
+
+	private final Map<Long, Container> integerContainers;
+	private final String[] sortedIdentifiers;
+	private final int size;
+
+	private ContentKeyIndex(@Nullable Map<Long, Container> integerContainers, @Nonnull String[] sortedIdentifiers, int size)
+	{
+		this.integerContainers = integerContainers;
+		this.sortedIdentifiers = sortedIdentifiers;
+		this.size = size;
+	}
+
+	@Nonnull
+	public static ContentKeyIndex of(@Nonnull Collection<String> identifiers)
+	{
+		final Builder builder = new Builder();
+		for (String identifier : identifiers)
+		{
+			builder.add(identifier);
+		}
+		return builder.build();
+	}
+
+	public boolean contains(@Nonnull String identifier)
+	{
+		if (integerContainers != null)
+		{
+			final Long value = parseCanonicalLong(identifier);
+			if (value == null)
+			{
+				return false;
+			}
+			final Container container = integerContainers.get(value >> CONTAINER_BITS);
+			return container != null && container.contains((int) (value & (CONTAINER_SIZE - 1)));
+		}
+
+		return Arrays.binarySearch(sortedIdentifiers, identifier) >= 0;
+	}
+
+	/**
+	 * Passes each identifier to the consumer, integer identifiers in ascending order and other identifiers in lexicographic order.
+	 */
+	public void forEach(@Nonnull Consumer<String> consumer)
+	{
+		if (integerContainers != null)
+		{
+			for (Map.Entry<Long, Container> container : new TreeMap<>(integerContainers).entrySet())
+			{
+				final long containerStart = container.getKey() << CONTAINER_BITS;
+				container.getValue().forEach(lowBits -> consumer.accept(Long.toString(containerStart + lowBits)));
+			}
+			return;
+		}
+
+		for (String identifier : sortedIdentifiers)
+		{
+			consumer.accept(identifier);
+		}
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return The value of the identifier, or null if the identifier is not the canonical representation of a long. (E.g. '007' or '1.0')
+	 */
+	private static Long parseCanonicalLong(@Nonnull String identifier)
+	{
+		final int length = identifier.length();
+		if (length == 0 || length > 20)
+		{
+			return null;
+		}
+
+		final int firstDigit = identifier.charAt(0) == '-' ? 1 : 0;
+		if (firstDigit == length || (identifier.charAt(firstDigit) == '0' && length > firstDigit + 1) || (firstDigit == 1 && "-0".equals(identifier)))
+		{
+			return null;
+		}
+		for (int i = firstDigit; i < length; i++)
+		{
+			if (identifier.charAt(i) < '0' || identifier.charAt(i) > '9')
+			{
+				return null;
+			}
+		}
+
+		try
+		{
+			return Long.parseLong(identifier);
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Builds the index while the identifiers are streamed from the content table, only identifiers which are not a single integer are retained.
+	 */
+	public static final class Builder
+	{
+		private Map<Long, Container> integerContainers = new HashMap<>();
+		private final List<String> identifiers = new ArrayList<>();
+		private int integerCount;
+
+		public void add(@Nonnull String identifier)
+		{
+			if (integerContainers != null)
+			{
+				final Long value = parseCanonicalLong(identifier);
+				if (value != null)
+				{
+					final Container container = integerContainers.computeIfAbsent(value >> CONTAINER_BITS, k -> new Container());
+					if (container.add((int) (value & (CONTAINER_SIZE - 1))))
+					{
+						integerCount++;
+					}
+					return;
+				}
+				switchToIdentifiers();
+			}
+			identifiers.add(identifier);
+		}
+
+		@Nonnull
+		public ContentKeyIndex build()
+		{
+			if (integerContainers != null)
+			{
+				return new ContentKeyIndex(integerContainers, new String[0], integerCount);
+			}
+
+			final String[] sortedIdentifiers = identifiers.toArray(new String[0]);
+			Arrays.sort(sortedIdentifiers);
+			int distinctIdentifierCount = 0;
+			for (int i = 0; i < sortedIdentifiers.length; i++)
+			{
+				if (i == 0 || !sortedIdentifiers[i].equals(sortedIdentifiers[i - 1]))
+				{
+					sortedIdentifiers[distinctIdentifierCount++] = sortedIdentifiers[i];
+				}
+			}
+			return new ContentKeyIndex(null, Arrays.copyOf(sortedIdentifiers, distinctIdentifierCount), distinctIdentifierCount);
+		}
+
+		/**
+		 * Called on the first identifier which is not a single integer, all integer identifiers added so far are converted to their string representation.
+		 */
+		private void switchToIdentifiers()
+		{
+			final Map<Long, Container> containers = integerContainers;
+			integerContainers = null;
+			for (Map.Entry<Long, Container> container : containers.entrySet())
+			{
+				final long containerStart = container.getKey() << CONTAINER_BITS;
+				container.getValue().forEach(lowBits -> identifiers.add(Long.toString(containerStart + lowBits)));
+			}
+		}
+	}
+
+	/**
+	 * The lower 16 bits of the values sharing the same upper bits, stored as a sorted array until the bitmap is more compact.
+	 */
+	private static final class Container
+	{
+		private char[] sortedValues = new char[4];
+		private int valueCount;
+		private BitSet bitmap;
+
+		/**
+		 * @return True if the value was not present yet.
+		 */
+		private boolean add(int value)
+		{
+			if (bitmap != null)
+			{
+				final boolean added = !bitmap.get(value);
+				bitmap.set(value);
+				return added;
+			}
+
+			final int index = Arrays.binarySearch(sortedValues, 0, valueCount, (char) value);
+			if (index >= 0)
+			{
+				return false;
+			}
+
+			if (valueCount == MAXIMUM_ARRAY_CONTAINER_SIZE)
+			{
+				bitmap = new BitSet(CONTAINER_SIZE);
+				for (int i = 0; i < valueCount; i++)
+				{
+					bitmap.set(sortedValues[i]);
+				}
+				bitmap.set(value);
+				sortedValues = null;
+				return true;
+			}
+
+			if (valueCount == sortedValues.length)
+			{
+				sortedValues = Arrays.copyOf(sortedValues, Math.min(MAXIMUM_ARRAY_CONTAINER_SIZE, valueCount * 2));
+			}
+			final int insertionPoint = -index - 1;
+			System.arraycopy(sortedValues, insertionPoint, sortedValues, insertionPoint + 1, valueCount - insertionPoint);
+			sortedValues[insertionPoint] = (char) value;
+			valueCount++;
+			return true;
+		}
+
+		private boolean contains(int value)
+		{
+			if (bitmap != null)
+			{
+				return bitmap.get(value);
+			}
+			return Arrays.binarySearch(sortedValues, 0, valueCount, (char) value) >= 0;
+		}
+
+		private void forEach(@Nonnull IntConsumer consumer)
+		{
+			if (bitmap != null)
+			{
+				bitmap.stream().forEach(consumer);
+				return;
+			}
+			for (int i = 0; i < valueCount; i++)
+			{
+				consumer.accept(sortedValues[i]);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * Limits the rate at which records are fetched from the database, to reduce the load the validation puts on the database.
+ */
+public class FetchLimits
+{
+	public static final FetchLimits UNLIMITED = new FetchLimits(null, null);
+
+	private final Double maximumRowsPerSecond;
+	private final Double maximumMegabytesPerSecond;
+
+	/**
+	 * @param maximumRowsPerSecond Maximum number of rows fetched per second, unlimited if null.
+	 * @param maximumMegabytesPerSecond Maximum number of megabytes fetched per second, based on an estimate of the size of each value. Unlimited if null.
+	 */
+	public FetchLimits(@Nullable Double maximumRowsPerSecond, @Nullable Double maximumMegabytesPerSecond)
+	{
+		this.maximumRowsPerSecond = maximumRowsPerSecond;
+		this.maximumMegabytesPerSecond = maximumMegabytesPerSecond;
+	}
+
+	@CheckForNull
+	public Double getMaximumRowsPerSecond()
+	{
+		return maximumRowsPerSecond;
+	}
+
+	@CheckForNull
+	public Double getMaximumMegabytesPerSecond()
+	{
+		return maximumMegabytesPerSecond;
+	}
+
+	public boolean isUnlimited()
+	{
+		return maximumRowsPerSecond == null && maximumMegabytesPerSecond == null;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		FetchLimits that = (FetchLimits) o;
+		return Objects.equals(maximumRowsPerSecond, that.maximumRowsPerSecond) && Objects.equals(maximumMegabytesPerSecond, that.maximumMegabytesPerSecond);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(maximumRowsPerSecond, maximumMegabytesPerSecond);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FetchLimits{" + "maximumRowsPerSecond=" + maximumRowsPerSecond + ", maximumMegabytesPerSecond=" + maximumMegabytesPerSecond + '}';
+	}
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The number of revisions matching a query, together with the first of these revisions.
+ * Used if the number of matching revisions may be too large to fetch them all.
+ */
+public class RevisionSample
+{
+	private final long count;
+	private final Set<String> revisions;
+
+	/**
+	 * @param count Total number of matching revisions, including those not part of the sample.
+	 * @param revisions The first matching revisions, in ascending order.
+	 */
+	public RevisionSample(long count, @Nonnull Set<String> revisions)
+	{
+		this.count = count;
+		this.revisions = Collections.unmodifiableSet(revisions);
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	@Nonnull
+	public Set<String> getRevisions()
+	{
+		return revisions;
+	}
+}
\ No newline at end of file
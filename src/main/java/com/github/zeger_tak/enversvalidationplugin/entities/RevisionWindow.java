@@ -0,0 +1,58 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * Limits the content validations to records which have at least one revision within the window.
+ * The complete history of these records is still validated.
+ */
+public class RevisionWindow
+{
+	public static final RevisionWindow UNBOUNDED = new RevisionWindow(null, null, null);
+
+	private final Long fromRevision;
+	private final Long toRevision;
+	private final Long sinceTimestamp;
+
+	/**
+	 * @param fromRevision First revision within the window, inclusive.
+	 * @param toRevision Last revision within the window, inclusive.
+	 * @param sinceTimestamp Revision timestamp (milliseconds since the epoch, as stored by Envers) from which revisions are within the window, inclusive.
+	 */
+	public RevisionWindow(@Nullable Long fromRevision, @Nullable Long toRevision, @Nullable Long sinceTimestamp)
+	{
+		this.fromRevision = fromRevision;
+		this.toRevision = toRevision;
+		this.sinceTimestamp = sinceTimestamp;
+	}
+
+	@CheckForNull
+	public Long getFromRevision()
+	{
+		return fromRevision;
+	}
+
+	@CheckForNull
+	public Long getToRevision()
+	{
+		return toRevision;
+	}
+
+	@CheckForNull
+	public Long getSinceTimestamp()
+	{
+		return sinceTimestamp;
+	}
+
+	public boolean isUnbounded()
+	{
+		return fromRevision == null && toRevision == null && sinceTimestamp == null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RevisionWindow{" + "fromRevision=" + fromRevision + ", toRevision=" + toRevision + ", sinceTimestamp=" + sinceTimestamp + '}';
+	}
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The ordered column names of a query result, shared by all {@link TableRow}s of that result so values can be accessed by index.
+ */
+public final class TableColumns
+{
+	static final TableColumns NONE = new TableColumns(Collections.emptyList());
+
+	private final List<String> columnNames;
+	private final Set<String> columnNameSet;
+	private final Map<String, Integer> indexesByColumnName;
+	private final int hashCode;
+
+	public TableColumns(@Nonnull List<String> columnNames)
+	{
+		this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+		columnNameSet = Collections.unmodifiableSet(new LinkedHashSet<>(columnNames));
+		indexesByColumnName = new HashMap<>(columnNames.size() * 2);
+		for (int index = 0; index < columnNames.size(); index++)
+		{
+			indexesByColumnName.put(columnNames.get(index), index);
+		}
+		hashCode = this.columnNames.hashCode();
+	}
+
+	public int size()
+	{
+		return columnNames.size();
+	}
+
+	@Nonnull
+	public String getColumnName(int index)
+	{
+		return columnNames.get(index);
+	}
+
+	@Nonnull
+	public Set<String> getColumnNames()
+	{
+		return columnNameSet;
+	}
+
+	/**
+	 * @return The index of the column, or -1 if the column is not present.
+	 */
+	public int getIndex(@Nonnull String columnName)
+	{
+		final Integer index = indexesByColumnName.get(columnName);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @return The index of the first column with the given name ignoring case, or -1 if the column is not present.
+	 */
+	public int getIndexIgnoringCase(@Nonnull String columnName)
+	{
+		final int index = getIndex(columnName);
+		if (index >= 0)
+		{
+			return index;
+		}
+
+		for (int i = 0; i < columnNames.size(); i++)
+		{
+			if (columnNames.get(i).equalsIgnoreCase(columnName))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Nonnull
+	TableColumns withColumn(@Nonnull String columnName)
+	{
+		final List<String> extendedColumnNames = new ArrayList<>(columnNames);
+		extendedColumnNames.add(columnName);
+		return new TableColumns(extendedColumnNames);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		final TableColumns that = (TableColumns) o;
+		return hashCode == that.hashCode && columnNames.equals(that.columnNames);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return hashCode;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TableColumns[" + columnNames + ']';
+	}
+}
\ No newline at end of file
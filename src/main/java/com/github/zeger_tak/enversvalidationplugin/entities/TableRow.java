@@ -1,6 +1,7 @@
 package com.github.zeger_tak.enversvalidationplugin.entities;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -10,28 +11,73 @@ import javax.annotation.Nullable;
 
 public class TableRow
 {
-	private final Map<String, Object> columns = new HashMap<>();
+	private TableColumns tableColumns;
+	private Object[] values;
+
+	public TableRow()
+	{
+		this(TableColumns.NONE);
+	}
+
+	/**
+	 * @param tableColumns The columns of the query result this row belongs to, shared with all other rows of that result.
+	 */
+	public TableRow(@Nonnull TableColumns tableColumns)
+	{
+		this.tableColumns = tableColumns;
+		values = new Object[tableColumns.size()];
+	}
 
 	public void addColumn(@Nonnull String columnName, @Nullable Object value)
 	{
-		columns.put(columnName, value);
+		int index = tableColumns.getIndex(columnName);
+		if (index < 0)
+		{
+			tableColumns = tableColumns.withColumn(columnName);
+			values = Arrays.copyOf(values, tableColumns.size());
+			index = tableColumns.size() - 1;
+		}
+		values[index] = value;
+	}
+
+	public void setColumnValue(int index, @Nullable Object value)
+	{
+		values[index] = value;
 	}
 
 	@CheckForNull
 	public Object getColumnValue(@Nonnull String columnName)
 	{
-		return columns.get(columnName);
+		final int index = tableColumns.getIndex(columnName);
+		return index < 0 ? null : values[index];
+	}
+
+	@CheckForNull
+	public Object getColumnValue(int index)
+	{
+		return values[index];
 	}
 
 	@Nonnull
 	public Set<String> getColumnNames()
 	{
-		return columns.keySet();
+		return tableColumns.getColumnNames();
+	}
+
+	@Nonnull
+	public TableColumns getTableColumns()
+	{
+		return tableColumns;
 	}
 
 	@Override
 	public String toString()
 	{
+		final Map<String, Object> columns = new LinkedHashMap<>();
+		for (int index = 0; index < values.length; index++)
+		{
+			columns.put(tableColumns.getColumnName(index), values[index]);
+		}
 		return "TableRow[" + "columns=" + columns + ']';
 	}
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The number of rows matching a query, together with the first of these rows.
+ * Used if the number of matching rows may be too large to fetch them all.
+ */
+public class TableRowSample
+{
+	private final long count;
+	private final Map<String, TableRow> rows;
+
+	/**
+	 * @param count Total number of matching rows, including those not part of the sample.
+	 * @param rows The first matching rows by their identifier, in ascending order.
+	 */
+	public TableRowSample(long count, @Nonnull Map<String, TableRow> rows)
+	{
+		this.count = count;
+		this.rows = Collections.unmodifiableMap(rows);
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	@Nonnull
+	public Map<String, TableRow> getRows()
+	{
+		return rows;
+	}
+}
\ No newline at end of file
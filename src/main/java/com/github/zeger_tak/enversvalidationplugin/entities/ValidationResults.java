@@ -3,7 +3,9 @@ package com.github.zeger_tak.enversvalidationplugin.entities;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
@@ -11,6 +13,8 @@ public class ValidationResults
 {
 	private final List<Class> validatorClassesIgnored = new ArrayList<>();
 	private final List<Method> validatorMethodsIgnored = new ArrayList<>();
+	private final Set<String> auditTablesWithFailedExecutions = new HashSet<>();
+	private final List<String> timedOutExecutions = new ArrayList<>();
 	private int executionsFailed;
 
 	public void addClassToIgnored(@Nonnull Class<?> validatorClass)
@@ -24,8 +28,25 @@ public class ValidationResults
 	}
 
 	public void addFailedExecution()
+	{
+		addFailedExecution(Collections.emptySet());
+	}
+
+	/**
+	 * @param auditTableNames The audit tables validated by the failed execution, empty if unknown.
+	 */
+	public void addFailedExecution(@Nonnull Set<String> auditTableNames)
 	{
 		executionsFailed++;
+		auditTablesWithFailedExecutions.addAll(auditTableNames);
+	}
+
+	/**
+	 * Registers an execution which was cancelled because it exceeded its time limit, the execution must also be registered as failed.
+	 */
+	public void addTimedOutExecution(@Nonnull String validationName)
+	{
+		timedOutExecutions.add(validationName);
 	}
 
 	@Nonnull
@@ -44,4 +65,16 @@ public class ValidationResults
 	{
 		return executionsFailed;
 	}
+
+	@Nonnull
+	public Set<String> getAuditTablesWithFailedExecutions()
+	{
+		return Collections.unmodifiableSet(auditTablesWithFailedExecutions);
+	}
+
+	@Nonnull
+	public List<String> getTimedOutExecutions()
+	{
+		return Collections.unmodifiableList(timedOutExecutions);
+	}
 }
\ No newline at end of file
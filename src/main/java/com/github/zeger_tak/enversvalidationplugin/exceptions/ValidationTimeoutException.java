@@ -0,0 +1,14 @@
+package com.github.zeger_tak.enversvalidationplugin.exceptions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Thrown by a validation which can not be completed because loading its data exceeded the time limit.
+ */
+public class ValidationTimeoutException extends ValidationException
+{
+	public ValidationTimeoutException(@Nonnull String message)
+	{
+		super(message);
+	}
+}
\ No newline at end of file
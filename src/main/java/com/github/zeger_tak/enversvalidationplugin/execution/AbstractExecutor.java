@@ -1,10 +1,10 @@
 package com.github.zeger_tak.enversvalidationplugin.execution;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -18,77 +18,64 @@ import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformat
 import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
 import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
 import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
-import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.SnapshotSavepoint;
+import com.github.zeger_tak.enversvalidationplugin.connection.TimeLimit;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
 import com.github.zeger_tak.enversvalidationplugin.entities.ValidationResults;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.SetupValidationForSpecificAuditTableInformationException;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationTimeoutException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
 import com.github.zeger_tak.enversvalidationplugin.utils.IgnoreUtils;
-import com.github.zeger_tak.enversvalidationplugin.utils.ReflectionUtils;
 import org.apache.maven.plugin.logging.Log;
 
 abstract class AbstractExecutor
 {
-	private final ConnectionProviderInstance connectionProvider;
-	private final Log log;
-	private final List<String> ignorables;
+	protected final ConnectionProviderInstance connectionProvider;
+	protected final Log log;
+	protected final List<String> ignorables;
+	protected final ValidationReport validationReport;
 
-	AbstractExecutor(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull Log log, @Nonnull List<String> ignorables)
+	AbstractExecutor(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull Log log, @Nonnull List<String> ignorables, @Nonnull ValidationReport validationReport)
 	{
 		this.connectionProvider = connectionProvider;
 		this.log = log;
 		this.ignorables = ignorables;
+		this.validationReport = validationReport;
 	}
 
+	/**
+	 * @param parameterizedAuditTableInformationMap The audit tables for which the {@link Parameterized} method generates the validator instances.
+	 */
 	@Nonnull
-	private List<ValidatorWrapper> createValidatorInstances(@Nonnull Class<?> validatorClass, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap, @Nonnull ValidationResults validationResults)
+	private List<ValidatorWrapper> createValidatorInstances(@Nonnull Class<?> validatorClass, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap, @Nonnull Map<String, AuditTableInformation> parameterizedAuditTableInformationMap, @Nonnull ValidationResults validationResults)
 	{
+		Method parameterizedMethod = null;
 		try
 		{
-			final List<Method> validateMethods = new ArrayList<>();
-			Method parameterizedMethod = null;
-
-			for (Method method : validatorClass.getMethods())
-			{
-				final Validate validate = method.getAnnotation(Validate.class);
-				if (validate != null)
-				{
-					validateMethods.add(method);
-					continue;
-				}
-
-				final Parameterized parameterized = method.getAnnotation(Parameterized.class);
-				if (parameterized != null && Modifier.isStatic(method.getModifiers()))
-				{
-					if (parameterizedMethod == null)
-					{
-						parameterizedMethod = method;
-					}
-					else
-					{
-						throw new ValidationException(validatorClass.getCanonicalName() + " could not be used for validating, as the class defines more than one " + Parameterized.class.getSimpleName() + " annotated methods.");
-					}
-				}
-			}
+			final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(validatorClass);
+			final List<ValidateMethod> validateMethods = descriptor.getValidateMethods();
+			parameterizedMethod = descriptor.getParameterizedMethod();
 
 			if (parameterizedMethod == null)
 			{
 				final Object[] constructorArguments = {};
-				final Object validatorInstance = createValidatorInstance(validatorClass, constructorArguments, auditTableInformationMap);
+				final Object validatorInstance = createValidatorInstance(descriptor, constructorArguments, auditTableInformationMap);
 				return Collections.singletonList(new SingleValidatorWrapper(validatorInstance, validateMethods));
 			}
 			else
 			{
 				try
 				{
-					final List<Object[]> generatedData = generateDataForConstructorArguments(parameterizedMethod, auditTableInformationMap);
+					final List<Object[]> generatedData = generateDataForConstructorArguments(descriptor, parameterizedAuditTableInformationMap);
+					final Parameterized parameterized = parameterizedMethod.getAnnotation(Parameterized.class);
 					final List<ValidatorWrapper> validatorInstances = new ArrayList<>(generatedData.size());
 					for (int index = 0; index < generatedData.size(); index++)
 					{
 						final Object[] constructorArguments = generatedData.get(index);
-						final Object validatorInstance = createValidatorInstance(validatorClass, constructorArguments, auditTableInformationMap);
-						validatorInstances.add(new ParameterizedValidatorWrapper(validatorInstance, constructorArguments, validateMethods, index));
+						final Object validatorInstance = createValidatorInstance(descriptor, constructorArguments, auditTableInformationMap);
+						validatorInstances.add(new ParameterizedValidatorWrapper(validatorInstance, constructorArguments, validateMethods, parameterized, index));
 					}
 					return validatorInstances;
 				}
@@ -96,79 +83,69 @@ abstract class AbstractExecutor
 				{
 					throw new ValidationException("Unable to create " + validatorClass.getCanonicalName() + " test, because parameterized method " + parameterizedMethod.getName() + " has an invalid return type");
 				}
-				catch (IllegalAccessException | InvocationTargetException e)
+				catch (InvocationTargetException e)
 				{
 					throw new ValidationException("Unable to create " + validatorClass.getCanonicalName() + " test, because parameterized method " + parameterizedMethod.getName() + " could not be invoked ", e);
 				}
 			}
 		}
-		catch (IllegalAccessException | InstantiationException | InvocationTargetException e)
+		catch (IllegalAccessException | InvocationTargetException e)
 		{
 			log.error(TargetPhase.class.getSimpleName() + " " + TargetPhase.SETUP + " could not be instantiated.");
-			validationResults.addFailedExecution();
+			validationResults.addFailedExecution(parameterizedMethod == null ? Collections.emptySet() : parameterizedAuditTableInformationMap.keySet());
 			return Collections.emptyList();
 		}
 	}
 
 	@Nonnull
-	@SuppressWarnings("unchecked")
-	private List<Object[]> generateDataForConstructorArguments(@Nonnull Method parameterizedMethod, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap) throws IllegalAccessException, InvocationTargetException
+	private List<Object[]> generateDataForConstructorArguments(@Nonnull ValidatorDescriptor descriptor, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap) throws InvocationTargetException
 	{
-		final List<Object> constructorParameters = createParametersForParameterizedMethod(parameterizedMethod, auditTableInformationMap);
-		return (List<Object[]>) parameterizedMethod.invoke(null, constructorParameters.toArray());
+		final List<Class<? extends Annotation>> parameterizedMethodArguments = descriptor.getParameterizedMethodArguments();
+		final Object[] methodParameters = new Object[parameterizedMethodArguments.size()];
+		for (int i = 0; i < methodParameters.length; i++)
+		{
+			methodParameters[i] = determineInjectableValue(parameterizedMethodArguments.get(i), auditTableInformationMap);
+		}
+		return descriptor.generateData(methodParameters);
 	}
 
 	@Nonnull
-	private List<Object> createParametersForParameterizedMethod(@Nonnull Method method, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap)
+	private Object createValidatorInstance(@Nonnull ValidatorDescriptor descriptor, @Nonnull Object[] constructorArguments, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap) throws IllegalAccessException, InvocationTargetException
 	{
-		final List<Object> methodParameters = new ArrayList<>(method.getParameterCount());
-		for (Parameter parameter : method.getParameters())
+		final Object newInstance = descriptor.newInstance(constructorArguments);
+		for (Map.Entry<Field, Class<? extends Annotation>> injectableField : descriptor.getInjectableFields().entrySet())
 		{
-			final ConnectionProvider connectionProviderAnnotation = parameter.getAnnotation(ConnectionProvider.class);
-			if (connectionProviderAnnotation != null)
-			{
-				methodParameters.add(connectionProvider);
-				continue;
-			}
-
-			final AuditTableInformationMap auditTableInformationMapAnnotation = parameter.getAnnotation(AuditTableInformationMap.class);
-			if (auditTableInformationMapAnnotation != null)
-			{
-				methodParameters.add(auditTableInformationMap);
-			}
+			injectableField.getKey().set(newInstance, determineInjectableValue(injectableField.getValue(), auditTableInformationMap));
 		}
-		return methodParameters;
+
+		return newInstance;
 	}
 
 	@Nonnull
-	private Object createValidatorInstance(@Nonnull Class<?> validatorClass, @Nonnull Object[] constructorArguments, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap) throws InstantiationException, IllegalAccessException, InvocationTargetException
+	private Object determineInjectableValue(@Nonnull Class<? extends Annotation> injectableAnnotation, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap)
 	{
-		final Object newInstance = validatorClass.getConstructors()[0].newInstance(constructorArguments);
-
-		final List<Field> declaredFields = ReflectionUtils.getAllDeclaredFields(validatorClass);
-		for (Field declaredField : declaredFields)
+		if (injectableAnnotation == ConnectionProvider.class)
 		{
-			declaredField.setAccessible(true);
-
-			final ConnectionProvider connectionProviderAnnotation = declaredField.getAnnotation(ConnectionProvider.class);
-			if (connectionProviderAnnotation != null)
-			{
-				declaredField.set(newInstance, connectionProvider);
-				continue;
-			}
-
-			final AuditTableInformationMap auditTableInformationMapAnnotation = declaredField.getAnnotation(AuditTableInformationMap.class);
-			if (auditTableInformationMapAnnotation != null)
-			{
-				declaredField.set(newInstance, auditTableInformationMap);
-			}
+			return connectionProvider;
 		}
-
-		return newInstance;
+		if (injectableAnnotation == AuditTableInformationMap.class)
+		{
+			return auditTableInformationMap;
+		}
+		return validationReport;
 	}
 
 	@Nonnull
 	Map<String, AuditTableInformation> executeValidators(@Nonnull Map<TargetPhase, Set<Class<?>>> validators, @Nonnull TargetPhase targetPhase, @Nonnull Map<String, AuditTableInformation> providedAuditTableInformationMap, @Nonnull ValidationResults validationResults)
+	{
+		return executeValidators(validators, targetPhase, providedAuditTableInformationMap, providedAuditTableInformationMap, validationResults);
+	}
+
+	/**
+	 * @param parameterizedAuditTableInformationMap The audit tables for which the {@link Parameterized} validators are executed, validators without a {@link Parameterized} method are given all provided audit tables.
+	 */
+	@Nonnull
+	Map<String, AuditTableInformation> executeValidators(@Nonnull Map<TargetPhase, Set<Class<?>>> validators, @Nonnull TargetPhase targetPhase, @Nonnull Map<String, AuditTableInformation> providedAuditTableInformationMap, @Nonnull Map<String, AuditTableInformation> parameterizedAuditTableInformationMap, @Nonnull ValidationResults validationResults)
 	{
 		final Map<String, AuditTableInformation> result = new HashMap<>(providedAuditTableInformationMap);
 		final Set<Class<?>> valdidatorsForTargetPhase = validators.getOrDefault(targetPhase, Collections.emptySet());
@@ -180,33 +157,50 @@ abstract class AbstractExecutor
 				continue;
 			}
 
-			final List<ValidatorWrapper> validatorInstances = createValidatorInstances(validator, result, validationResults);
+			final List<ValidatorWrapper> validatorInstances = createValidatorInstances(validator, result, parameterizedAuditTableInformationMap, validationResults);
 
 			for (ValidatorWrapper wrapper : validatorInstances)
 			{
 				final Object validatorInstance = wrapper.getValidator();
-				for (Method method : wrapper.getValidateMethods())
+				for (ValidateMethod validateMethod : wrapper.getValidateMethods())
 				{
+					final Method method = validateMethod.getMethod();
 					if (IgnoreUtils.validationShouldBeIgnored(ignorables, wrapper, method))
 					{
-						log.info("Ignored validation method " + wrapper.getValidationName(method));
+						final String validationName = wrapper.getValidationName(method);
+						log.info("Ignored validation method " + validationName);
 						validationResults.addMethodToIgnored(method);
+						validationReport.validationIgnored(validationName);
 						continue;
 					}
 
-					log.debug("Started with " + wrapper.getValidationName(method));
 					final String validationName = wrapper.getValidationName(method);
+					log.debug("Started with " + validationName);
+					validationReport.validationStarted(validationName);
+					final TimeLimit timeLimit = connectionProvider.startTimeLimit(validationName);
+					final SnapshotSavepoint savepoint = connectionProvider.startSnapshotSavepoint();
 					try
 					{
-						method.invoke(validatorInstance);
+						validateMethod.invoke(validatorInstance);
+						if (timeLimit.isExpired())
+						{
+							// A cancelled statement may have aborted the transaction reading the snapshot, even though the validator handled the cancellation.
+							rollbackToSnapshotSavepoint(savepoint, validationName);
+						}
 						log.debug(validationName + " executed successfully.");
+						validationReport.validationSucceeded();
 					}
-					catch (IllegalAccessException | InvocationTargetException e)
+					catch (InvocationTargetException e)
 					{
-						validationResults.addFailedExecution();
+						rollbackToSnapshotSavepoint(savepoint, validationName);
+						validationResults.addFailedExecution(wrapper.getAuditTableNames());
 
 						final String errorMessage;
-						if (e.getCause() instanceof ValidationException)
+						if (timeLimit.isExpired())
+						{
+							errorMessage = "Exceeded the time limit of " + timeLimit.getLimitSeconds() + " seconds, the remaining queries were cancelled.";
+						}
+						else if (e.getCause() instanceof ValidationException)
 						{
 							errorMessage = e.getCause().getMessage();
 							if (e.getCause() instanceof SetupValidationForSpecificAuditTableInformationException)
@@ -218,11 +212,53 @@ abstract class AbstractExecutor
 						{
 							errorMessage = e.getMessage();
 						}
-						log.error(validationName + " failed, with the following message: " + errorMessage);
+
+						if (timeLimit.isExpired() || e.getCause() instanceof ValidationTimeoutException)
+						{
+							validationResults.addTimedOutExecution(validationName);
+							log.error(validationName + " timed out: " + errorMessage);
+						}
+						else
+						{
+							log.error(validationName + " failed, with the following message: " + errorMessage);
+						}
+						validationReport.validationFailed(String.valueOf(errorMessage));
+					}
+					finally
+					{
+						timeLimit.close();
+						releaseSnapshotSavepoint(savepoint, validationName);
 					}
 				}
 			}
 		}
 		return result;
 	}
+
+	/**
+	 * Keeps the consistent snapshot readable for the next validations, as a failed statement may have aborted the transaction reading the snapshot.
+	 */
+	private void rollbackToSnapshotSavepoint(@Nonnull SnapshotSavepoint savepoint, @Nonnull String validationName)
+	{
+		try
+		{
+			savepoint.rollback();
+		}
+		catch (SQLException e)
+		{
+			log.warn("Unable to roll back the consistent snapshot after " + validationName + " failed, the next validations may fail as well: " + e.getMessage());
+		}
+	}
+
+	private void releaseSnapshotSavepoint(@Nonnull SnapshotSavepoint savepoint, @Nonnull String validationName)
+	{
+		try
+		{
+			savepoint.close();
+		}
+		catch (SQLException e)
+		{
+			log.warn("Unable to release the savepoint of the consistent snapshot set for " + validationName + ": " + e.getMessage());
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.github.zeger_tak.enversvalidationplugin.execution;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Property file holding the change counters of the tables involved in the content validation of each audit table, as determined before the last successful content validation of that audit table.
+ * The counters are only used if the file was written using the same configuration, e.g. the same revision window and ignorables.
+ */
+class ChangeStatisticsFile
+{
+	private static final String CONFIGURATION_PROPERTY_KEY = "configuration";
+	private static final String AUDIT_TABLE_PROPERTY_KEY_PREFIX = "auditTable.";
+
+	private final File file;
+	private final String configuration;
+	private final Properties recordedChangeCounters = new Properties();
+
+	/**
+	 * Reads the counters recorded in the file, a file which is absent or can not be read is treated as a file without any counters.
+	 */
+	ChangeStatisticsFile(@Nonnull File file, @Nonnull String configuration)
+	{
+		this.file = file;
+		this.configuration = configuration;
+
+		if (file.isFile())
+		{
+			try (InputStream input = new FileInputStream(file))
+			{
+				final Properties properties = new Properties();
+				properties.load(input);
+				if (configuration.equals(properties.getProperty(CONFIGURATION_PROPERTY_KEY)))
+				{
+					recordedChangeCounters.putAll(properties);
+				}
+			}
+			catch (IOException e)
+			{
+				// All audit tables are validated.
+			}
+		}
+	}
+
+	@Nonnull
+	File getFile()
+	{
+		return file;
+	}
+
+	@CheckForNull
+	String getRecordedChangeCounters(@Nonnull String auditTableName)
+	{
+		return recordedChangeCounters.getProperty(AUDIT_TABLE_PROPERTY_KEY_PREFIX + auditTableName);
+	}
+
+	/**
+	 * Replaces the content of the file with the given counters, audit tables which are absent are validated during the next run.
+	 */
+	void write(@Nonnull Map<String, String> changeCountersByAuditTableName) throws IOException
+	{
+		final Properties properties = new Properties();
+		properties.setProperty(CONFIGURATION_PROPERTY_KEY, configuration);
+		for (Map.Entry<String, String> changeCounters : changeCountersByAuditTableName.entrySet())
+		{
+			properties.setProperty(AUDIT_TABLE_PROPERTY_KEY_PREFIX + changeCounters.getKey(), changeCounters.getValue());
+		}
+
+		final File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+		}
+
+		final File temporaryFile = new File(directory, file.getName() + ".tmp");
+		try
+		{
+			try (OutputStream output = new FileOutputStream(temporaryFile))
+			{
+				properties.store(output, "Change counters per audit table, remove this file to validate all audit tables");
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+}
\ No newline at end of file
@@ -1,27 +1,57 @@
 package com.github.zeger_tak.enversvalidationplugin.execution;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
 import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
 
+/**
+ * Wraps a validator instance created with data generated by a {@link Parameterized} method.
+ * The validation names and unique identifiers are formatted once per instance, instead of on every lookup.
+ */
 public class ParameterizedValidatorWrapper implements ValidatorWrapper
 {
 	private final Object validator;
-	private final Object[] constructorArguments;
-	private final List<Method> validateMethods;
-	private final int index;
+	private final List<ValidateMethod> validateMethods;
+	private final String nameSuffix;
+	private final String uniqueIdentifierSuffix;
+	private final Map<Method, String> validationNames;
+	private final Map<Method, String> uniqueIdentifiers;
+	private final Set<String> auditTableNames = new HashSet<>();
 
-	public ParameterizedValidatorWrapper(@Nonnull Object validator, @Nonnull Object[] constructorArguments, @Nonnull List<Method> validateMethods, int index)
+	public ParameterizedValidatorWrapper(@Nonnull Object validator, @Nonnull Object[] constructorArguments, @Nonnull List<ValidateMethod> validateMethods, @Nonnull Parameterized parameterized, int index)
 	{
 		this.validator = validator;
-		this.constructorArguments = constructorArguments;
 		this.validateMethods = validateMethods;
-		this.index = index;
+
+		final String indexValue = Integer.toString(index);
+		nameSuffix = "." + MessageFormat.format(parameterized.name().replaceAll("\\{index\\}", indexValue), constructorArguments);
+		uniqueIdentifierSuffix = "." + MessageFormat.format(parameterized.uniqueIdentifier().replaceAll("\\{index\\}", indexValue), constructorArguments);
+
+		validationNames = new HashMap<>(validateMethods.size());
+		uniqueIdentifiers = new HashMap<>(validateMethods.size());
+		for (ValidateMethod validateMethod : validateMethods)
+		{
+			final String methodName = determineMethodName(validateMethod.getMethod());
+			validationNames.put(validateMethod.getMethod(), methodName + nameSuffix);
+			uniqueIdentifiers.put(validateMethod.getMethod(), methodName + uniqueIdentifierSuffix);
+		}
+
+		for (Object constructorArgument : constructorArguments)
+		{
+			if (constructorArgument instanceof AuditTableInformation)
+			{
+				auditTableNames.add(((AuditTableInformation) constructorArgument).getAuditTableName());
+			}
+		}
 	}
 
 	@Nonnull
@@ -35,40 +65,16 @@ public class ParameterizedValidatorWrapper implements ValidatorWrapper
 	@Override
 	public String getValidationName(@Nonnull Method method)
 	{
-		String methodBeingExecuted = determineMethodName(method);
-
-		for (Method staticMethod : validator.getClass().getMethods())
-		{
-			final Parameterized parameterized = staticMethod.getAnnotation(Parameterized.class);
-			if (parameterized != null && Modifier.isStatic(staticMethod.getModifiers()))
-			{
-				final String name = parameterized.name().replaceAll("\\{index\\}", Integer.toString(index));
-				methodBeingExecuted = methodBeingExecuted + "." + name;
-				methodBeingExecuted = MessageFormat.format(methodBeingExecuted, constructorArguments);
-				break;
-			}
-		}
-
-		return methodBeingExecuted;
+		final String validationName = validationNames.get(method);
+		return validationName == null ? determineMethodName(method) + nameSuffix : validationName;
 	}
 
 	@Nonnull
 	@Override
 	public String getUniqueIdentifier(@Nonnull Method method)
 	{
-		String methodBeingExecuted = determineMethodName(method);
-
-		for (Method staticMethod : validator.getClass().getMethods())
-		{
-			final Parameterized parameterized = staticMethod.getAnnotation(Parameterized.class);
-			if (parameterized != null && Modifier.isStatic(staticMethod.getModifiers()))
-			{
-				methodBeingExecuted = methodBeingExecuted + "." + parameterized.uniqueIdentifier();
-				methodBeingExecuted = MessageFormat.format(methodBeingExecuted, constructorArguments);
-				break;
-			}
-		}
-		return methodBeingExecuted;
+		final String uniqueIdentifier = uniqueIdentifiers.get(method);
+		return uniqueIdentifier == null ? determineMethodName(method) + uniqueIdentifierSuffix : uniqueIdentifier;
 	}
 
 	@Nonnull
@@ -79,8 +85,15 @@ public class ParameterizedValidatorWrapper implements ValidatorWrapper
 
 	@Nonnull
 	@Override
-	public List<Method> getValidateMethods()
+	public List<ValidateMethod> getValidateMethods()
 	{
 		return validateMethods;
 	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAuditTableNames()
+	{
+		return auditTableNames;
+	}
 }
\ No newline at end of file
@@ -1,20 +1,34 @@
 package com.github.zeger_tak.enversvalidationplugin.execution;
 
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
 import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
 import com.github.zeger_tak.enversvalidationplugin.entities.ValidationResults;
+import com.github.zeger_tak.enversvalidationplugin.index.ValidatorIndex;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
 import com.github.zeger_tak.enversvalidationplugin.utils.ReflectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.logging.Log;
+import org.dbunit.dataset.DataSetException;
 import org.reflections.Reflections;
 import org.reflections.scanners.FieldAnnotationsScanner;
 import org.reflections.scanners.SubTypesScanner;
@@ -23,21 +37,244 @@ import org.reflections.util.ConfigurationBuilder;
 
 public class SetupExecutor extends AbstractExecutor
 {
-	public SetupExecutor(@Nonnull Log log, @Nonnull List<String> ignorables, @Nonnull ConnectionProviderInstance connectionProvider)
+	private static final Map<List<String>, Set<Class<?>>> VALIDATORS_PER_PACKAGES = new ConcurrentHashMap<>();
+
+	private File changeStatisticsFile;
+
+	public SetupExecutor(@Nonnull Log log, @Nonnull List<String> ignorables, @Nonnull ConnectionProviderInstance connectionProvider, @Nonnull ValidationReport validationReport)
 	{
-		super(connectionProvider, log, ignorables);
+		super(connectionProvider, log, ignorables, validationReport);
 	}
 
+	/**
+	 * All phases read the same consistent snapshot of the database, if enabled for the {@link ConnectionProviderInstance}.
+	 * The replication lag of the replica, if configured, is verified before any validator is executed.
+	 */
 	public void execute(@Nonnull List<String> packagesToScanForValidators, @Nonnull Map<String, AuditTableInformation> providedAuditTableInformationMap, @Nonnull ValidationResults validationResults)
 	{
-		final Reflections reflections = new Reflections(new ConfigurationBuilder().setUrls(ReflectionUtils.getPackages(packagesToScanForValidators)).setScanners(new SubTypesScanner(), new FieldAnnotationsScanner(), new TypeAnnotationsScanner()));
-		final Set<Class<?>> allValidators = reflections.getTypesAnnotatedWith(ValidationType.class);
+		final Set<Class<?>> allValidators = VALIDATORS_PER_PACKAGES.computeIfAbsent(new ArrayList<>(packagesToScanForValidators), this::findValidators);
 
 		final Map<TargetPhase, Set<Class<?>>> validatorsGroupedByTargetPhase = groupByTargetPhase(allValidators);
-		Map<String, AuditTableInformation> auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.SETUP, providedAuditTableInformationMap, validationResults);
-		auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.TABLE_STRUCTURE, auditTableInformationMap, validationResults);
-		auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.CONSTRAINTS, auditTableInformationMap, validationResults);
-		auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.CONTENT, auditTableInformationMap, validationResults);
+		connectionProvider.verifyReplicaLag();
+		connectionProvider.beginConsistentSnapshot();
+		try
+		{
+			Map<String, AuditTableInformation> auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.SETUP, providedAuditTableInformationMap, validationResults);
+			auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.TABLE_STRUCTURE, auditTableInformationMap, validationResults);
+			auditTableInformationMap = executeValidators(validatorsGroupedByTargetPhase, TargetPhase.CONSTRAINTS, auditTableInformationMap, validationResults);
+			if (changeStatisticsFile == null)
+			{
+				executeContentValidators(validatorsGroupedByTargetPhase, auditTableInformationMap, auditTableInformationMap, validationResults);
+			}
+			else
+			{
+				executeContentValidatorsForChangedAuditTables(validatorsGroupedByTargetPhase, auditTableInformationMap, validationResults);
+			}
+		}
+		finally
+		{
+			connectionProvider.endConsistentSnapshot();
+		}
+	}
+
+	/**
+	 * @param changeStatisticsFile File in which the change counters of each successfully validated audit table are recorded, the content of audit tables with unchanged counters is not validated again. All audit tables are validated if null.
+	 */
+	public void setChangeStatisticsFile(@Nullable File changeStatisticsFile)
+	{
+		this.changeStatisticsFile = changeStatisticsFile;
+	}
+
+	/**
+	 * The parent tables shared by several of the audit tables are scanned once for all {@link TargetPhase#CONTENT} validators, if enabled for the {@link ConnectionProviderInstance}.
+	 *
+	 * @param parameterizedAuditTableInformationMap The audit tables for which the parameterized validators are executed.
+	 */
+	private void executeContentValidators(@Nonnull Map<TargetPhase, Set<Class<?>>> validatorsGroupedByTargetPhase, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap, @Nonnull Map<String, AuditTableInformation> parameterizedAuditTableInformationMap, @Nonnull ValidationResults validationResults)
+	{
+		if (!connectionProvider.isShareParentTableScans())
+		{
+			executeValidators(validatorsGroupedByTargetPhase, TargetPhase.CONTENT, auditTableInformationMap, parameterizedAuditTableInformationMap, validationResults);
+			return;
+		}
+
+		connectionProvider.getQueries().startSharingParentTableScans(parameterizedAuditTableInformationMap.values());
+		try
+		{
+			executeValidators(validatorsGroupedByTargetPhase, TargetPhase.CONTENT, auditTableInformationMap, parameterizedAuditTableInformationMap, validationResults);
+		}
+		finally
+		{
+			connectionProvider.getQueries().stopSharingParentTableScans();
+		}
+	}
+
+	/**
+	 * Executes the parameterized {@link TargetPhase#CONTENT} validators only for the audit tables of which the content, audit or parent tables changed since the last successful content validation of that audit table.
+	 * Validators which are not parameterized validate all audit tables at once, so these are always executed for all audit tables and their results do not affect the recorded counters.
+	 * The counters are determined before the validators are executed, so changes made during the validation are validated during the next run.
+	 */
+	private void executeContentValidatorsForChangedAuditTables(@Nonnull Map<TargetPhase, Set<Class<?>>> validatorsGroupedByTargetPhase, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap, @Nonnull ValidationResults validationResults)
+	{
+		final ChangeStatisticsFile statisticsFile = new ChangeStatisticsFile(changeStatisticsFile, determineConfiguration(validatorsGroupedByTargetPhase));
+		final Map<String, String> changeCountersByAuditTableName = determineChangeCounters(auditTableInformationMap.values());
+
+		final Map<String, AuditTableInformation> changedAuditTableInformationMap = new HashMap<>();
+		final Map<String, String> changeCountersToRecord = new HashMap<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			final String auditTableName = auditTableInformation.getValue().getAuditTableName();
+			final String changeCounters = changeCountersByAuditTableName.get(auditTableName);
+			if (changeCounters != null && changeCounters.equals(statisticsFile.getRecordedChangeCounters(auditTableName)))
+			{
+				log.info("Content of " + auditTableName + " is not validated, because it is unchanged since last validation.");
+				validationReport.validationIgnored(auditTableName + " unchanged since last validation");
+				changeCountersToRecord.put(auditTableName, changeCounters);
+			}
+			else
+			{
+				changedAuditTableInformationMap.put(auditTableInformation.getKey(), auditTableInformation.getValue());
+			}
+		}
+
+		executeContentValidators(validatorsGroupedByTargetPhase, auditTableInformationMap, changedAuditTableInformationMap, validationResults);
+
+		for (AuditTableInformation auditTableInformation : changedAuditTableInformationMap.values())
+		{
+			final String auditTableName = auditTableInformation.getAuditTableName();
+			final String changeCounters = changeCountersByAuditTableName.get(auditTableName);
+			if (changeCounters != null && !validationResults.getAuditTablesWithFailedExecutions().contains(auditTableName))
+			{
+				changeCountersToRecord.put(auditTableName, changeCounters);
+			}
+		}
+
+		try
+		{
+			statisticsFile.write(changeCountersToRecord);
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to write the change statistics to " + statisticsFile.getFile().getAbsolutePath() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * The recorded counters are only valid for the same revision window, ignorables and content validators.
+	 */
+	@Nonnull
+	private String determineConfiguration(@Nonnull Map<TargetPhase, Set<Class<?>>> validatorsGroupedByTargetPhase)
+	{
+		final List<String> contentValidatorNames = new ArrayList<>();
+		for (Class<?> validatorClass : validatorsGroupedByTargetPhase.getOrDefault(TargetPhase.CONTENT, Collections.emptySet()))
+		{
+			contentValidatorNames.add(validatorClass.getName());
+		}
+		Collections.sort(contentValidatorNames);
+		return connectionProvider.getRevisionWindow() + "|" + ignorables + "|" + contentValidatorNames;
+	}
+
+	/**
+	 * @return The change counters of the content and audit tables of each audit table and its parents, keyed by audit table name. Audit tables are absent if the counters of any of these tables are unknown.
+	 */
+	@Nonnull
+	private Map<String, String> determineChangeCounters(@Nonnull Collection<AuditTableInformation> auditTableInformations)
+	{
+		final Set<String> tableNames = new HashSet<>();
+		for (AuditTableInformation auditTableInformation : auditTableInformations)
+		{
+			for (AuditTableInformation auditTable = auditTableInformation; auditTable != null; auditTable = auditTable.getAuditTableParent())
+			{
+				tableNames.add(auditTable.getContentTableName());
+				tableNames.add(auditTable.getAuditTableName());
+			}
+		}
+
+		final Map<String, String> changeCountersByTableName;
+		try
+		{
+			changeCountersByTableName = connectionProvider.getQueries().getChangeCounters(connectionProvider.getScanConnection(), tableNames);
+		}
+		catch (SQLException | DataSetException e)
+		{
+			log.warn("Unable to determine the change statistics, all audit tables are validated: " + e.getMessage());
+			return Collections.emptyMap();
+		}
+
+		final Map<String, String> changeCountersByAuditTableName = new HashMap<>();
+		for (AuditTableInformation auditTableInformation : auditTableInformations)
+		{
+			final String changeCounters = determineChangeCounters(auditTableInformation, changeCountersByTableName);
+			if (changeCounters != null)
+			{
+				changeCountersByAuditTableName.put(auditTableInformation.getAuditTableName(), changeCounters);
+			}
+		}
+		return changeCountersByAuditTableName;
+	}
+
+	@CheckForNull
+	private static String determineChangeCounters(@Nonnull AuditTableInformation auditTableInformation, @Nonnull Map<String, String> changeCountersByTableName)
+	{
+		final StringBuilder changeCounters = new StringBuilder();
+		for (AuditTableInformation auditTable = auditTableInformation; auditTable != null; auditTable = auditTable.getAuditTableParent())
+		{
+			for (String tableName : Arrays.asList(auditTable.getContentTableName(), auditTable.getAuditTableName()))
+			{
+				final String changeCountersOfTable = changeCountersByTableName.get(StringUtils.upperCase(tableName));
+				if (changeCountersOfTable == null)
+				{
+					return null;
+				}
+				changeCounters.append(tableName);
+				changeCounters.append("=");
+				changeCounters.append(changeCountersOfTable);
+				changeCounters.append(";");
+			}
+		}
+		return changeCounters.toString();
+	}
+
+	/**
+	 * Looks up the validators in the {@link ValidatorIndex} written at compile time.
+	 * Only packages without any indexed validator are scanned for validators on the classpath.
+	 * The result is cached, so repeated executions for the same packages do not repeat the lookup.
+	 */
+	@Nonnull
+	private Set<Class<?>> findValidators(@Nonnull List<String> packagesToScanForValidators)
+	{
+		final ClassLoader classLoader = SetupExecutor.class.getClassLoader();
+		final ValidatorIndex validatorIndex = ValidatorIndex.load(classLoader);
+
+		for (String invalidIndexFile : validatorIndex.getInvalidIndexFiles())
+		{
+			log.warn("Ignoring invalid validator index " + invalidIndexFile);
+		}
+
+		final Set<Class<?>> allValidators = new HashSet<>();
+		final List<String> packagesNotIndexed = new ArrayList<>();
+		for (String packageToScan : packagesToScanForValidators)
+		{
+			if (!validatorIndex.isPackageIndexed(packageToScan, classLoader))
+			{
+				packagesNotIndexed.add(packageToScan);
+				continue;
+			}
+
+			for (Map.Entry<Class<?>, ValidatorIndex.Entry> indexedValidator : validatorIndex.getValidatorsInPackage(packageToScan, classLoader).entrySet())
+			{
+				ValidatorDescriptor.registerIndexEntry(indexedValidator.getKey(), indexedValidator.getValue());
+				allValidators.add(indexedValidator.getKey());
+			}
+		}
+
+		if (!packagesNotIndexed.isEmpty())
+		{
+			log.debug("Validators in " + packagesNotIndexed + " are not or only partly indexed, scanning the classpath instead.");
+			final Reflections reflections = new Reflections(new ConfigurationBuilder().setUrls(ReflectionUtils.getPackages(packagesNotIndexed)).setScanners(new SubTypesScanner(), new FieldAnnotationsScanner(), new TypeAnnotationsScanner()));
+			allValidators.addAll(reflections.getTypesAnnotatedWith(ValidationType.class));
+		}
+		return allValidators;
 	}
 
 	@Nonnull
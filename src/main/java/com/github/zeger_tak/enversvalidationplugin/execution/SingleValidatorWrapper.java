@@ -1,19 +1,30 @@
 package com.github.zeger_tak.enversvalidationplugin.execution;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
 public class SingleValidatorWrapper implements ValidatorWrapper
 {
 	private final Object validator;
-	private final List<Method> validateMethods;
+	private final List<ValidateMethod> validateMethods;
+	private final Map<Method, String> validationNames;
 
-	public SingleValidatorWrapper(@Nonnull Object validator, @Nonnull List<Method> validateMethods)
+	public SingleValidatorWrapper(@Nonnull Object validator, @Nonnull List<ValidateMethod> validateMethods)
 	{
 		this.validator = validator;
 		this.validateMethods = validateMethods;
+
+		validationNames = new HashMap<>(validateMethods.size());
+		for (ValidateMethod validateMethod : validateMethods)
+		{
+			validationNames.put(validateMethod.getMethod(), validator.getClass().getSimpleName() + "." + validateMethod.getMethod().getName());
+		}
 	}
 
 	@Nonnull
@@ -25,7 +36,7 @@ public class SingleValidatorWrapper implements ValidatorWrapper
 
 	@Nonnull
 	@Override
-	public List<Method> getValidateMethods()
+	public List<ValidateMethod> getValidateMethods()
 	{
 		return validateMethods;
 	}
@@ -34,7 +45,8 @@ public class SingleValidatorWrapper implements ValidatorWrapper
 	@Override
 	public String getValidationName(@Nonnull Method method)
 	{
-		return validator.getClass().getSimpleName() + "." + method.getName();
+		final String validationName = validationNames.get(method);
+		return validationName == null ? validator.getClass().getSimpleName() + "." + method.getName() : validationName;
 	}
 
 	@Nonnull
@@ -43,4 +55,11 @@ public class SingleValidatorWrapper implements ValidatorWrapper
 	{
 		return getValidationName(method);
 	}
+
+	@Nonnull
+	@Override
+	public Set<String> getAuditTableNames()
+	{
+		return Collections.emptySet();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.github.zeger_tak.enversvalidationplugin.execution;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+
+/**
+ * A {@link Validate} annotated method together with a {@link MethodHandle} used to invoke it, so no reflective lookup or access check is needed per invocation.
+ */
+public class ValidateMethod
+{
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private final Method method;
+	private final MethodHandle invoker;
+
+	ValidateMethod(@Nonnull Method method) throws IllegalAccessException
+	{
+		this.method = method;
+		invoker = MethodHandles.publicLookup().unreflect(method).asType(INVOKER_TYPE);
+	}
+
+	@Nonnull
+	public Method getMethod()
+	{
+		return method;
+	}
+
+	/**
+	 * @throws InvocationTargetException Wrapping any exception thrown by the validate method, similar to {@link Method#invoke(Object, Object...)}.
+	 */
+	public void invoke(@Nonnull Object validator) throws InvocationTargetException
+	{
+		try
+		{
+			invoker.invokeExact(validator);
+		}
+		catch (Throwable e)
+		{
+			throw new InvocationTargetException(e);
+		}
+	}
+}
\ No newline at end of file
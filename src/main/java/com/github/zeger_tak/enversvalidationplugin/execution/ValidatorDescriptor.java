@@ -0,0 +1,284 @@
+package com.github.zeger_tak.enversvalidationplugin.execution;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.index.ValidatorIndex;
+import com.github.zeger_tak.enversvalidationplugin.utils.ReflectionUtils;
+
+/**
+ * Everything needed to instantiate and execute a validator class, resolved once per class.
+ * Descriptors are cached, so repeated runs with the same validator classes do not repeat the reflective lookups.
+ * Methods of classes registered with their {@link ValidatorIndex.Entry} are looked up by name, other classes are scanned.
+ */
+public final class ValidatorDescriptor
+{
+	private static final List<Class<? extends Annotation>> INJECTABLE_ANNOTATIONS = Arrays.asList(ConnectionProvider.class, AuditTableInformationMap.class, Report.class);
+	private static final Map<Class<?>, ValidatorDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, ValidatorIndex.Entry> INDEX_ENTRIES = new ConcurrentHashMap<>();
+
+	private final Class<?> validatorClass;
+	private final MethodHandle constructor;
+	private final List<ValidateMethod> validateMethods;
+	private final Method parameterizedMethod;
+	private final MethodHandle parameterizedInvoker;
+	private final List<Class<? extends Annotation>> parameterizedMethodArguments;
+	private final Map<Field, Class<? extends Annotation>> injectableFields;
+
+	private ValidatorDescriptor(@Nonnull Class<?> validatorClass, @Nonnull List<Method> validateMethodsFound, @CheckForNull Method parameterizedMethodFound) throws IllegalAccessException
+	{
+		this.validatorClass = validatorClass;
+
+		final List<ValidateMethod> validateMethodHandles = new ArrayList<>(validateMethodsFound.size());
+		for (Method method : validateMethodsFound)
+		{
+			validateMethodHandles.add(new ValidateMethod(method));
+		}
+		validateMethods = Collections.unmodifiableList(validateMethodHandles);
+		parameterizedMethod = parameterizedMethodFound;
+
+		if (parameterizedMethod == null)
+		{
+			parameterizedInvoker = null;
+			parameterizedMethodArguments = Collections.emptyList();
+		}
+		else
+		{
+			parameterizedMethodArguments = determineParameterizedMethodArguments(parameterizedMethod);
+			parameterizedInvoker = spread(MethodHandles.publicLookup().unreflect(parameterizedMethod), parameterizedMethod.getParameterCount());
+		}
+
+		final Constructor<?> validatorConstructor = validatorClass.getConstructors()[0];
+		constructor = spread(MethodHandles.publicLookup().unreflectConstructor(validatorConstructor), validatorConstructor.getParameterCount());
+		injectableFields = determineInjectableFields(validatorClass);
+	}
+
+	/**
+	 * @return The cached descriptor for the given class, the descriptor is created if the class was not described before.
+	 */
+	@Nonnull
+	public static ValidatorDescriptor forClass(@Nonnull Class<?> validatorClass) throws IllegalAccessException
+	{
+		final ValidatorDescriptor cachedDescriptor = DESCRIPTORS.get(validatorClass);
+		if (cachedDescriptor != null)
+		{
+			return cachedDescriptor;
+		}
+
+		final ValidatorIndex.Entry indexEntry = INDEX_ENTRIES.get(validatorClass);
+		ValidatorDescriptor descriptor = indexEntry == null ? null : describeIndexedClass(validatorClass, indexEntry);
+		if (descriptor == null)
+		{
+			descriptor = describeByScanning(validatorClass);
+		}
+		DESCRIPTORS.putIfAbsent(validatorClass, descriptor);
+		return descriptor;
+	}
+
+	/**
+	 * Registers the index entry of the given class, so its descriptor is created from the indexed method names instead of scanning all methods of the class.
+	 */
+	public static void registerIndexEntry(@Nonnull Class<?> validatorClass, @Nonnull ValidatorIndex.Entry indexEntry)
+	{
+		INDEX_ENTRIES.putIfAbsent(validatorClass, indexEntry);
+	}
+
+	/**
+	 * @return The descriptor based on the method names of the index entry, or null if a method named in the index does not exist, in which case the index is out of date.
+	 */
+	@CheckForNull
+	private static ValidatorDescriptor describeIndexedClass(@Nonnull Class<?> validatorClass, @Nonnull ValidatorIndex.Entry indexEntry) throws IllegalAccessException
+	{
+		try
+		{
+			final List<Method> validateMethodsFound = new ArrayList<>(indexEntry.getValidateMethodNames().size());
+			for (String validateMethodName : indexEntry.getValidateMethodNames())
+			{
+				validateMethodsFound.add(validatorClass.getMethod(validateMethodName));
+			}
+
+			Method parameterizedMethodFound = null;
+			if (indexEntry.getParameterizedMethodName() != null)
+			{
+				final List<String> parameterTypeNames = indexEntry.getParameterizedMethodParameterTypes();
+				final Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.size()];
+				for (int i = 0; i < parameterTypes.length; i++)
+				{
+					parameterTypes[i] = Class.forName(parameterTypeNames.get(i), false, validatorClass.getClassLoader());
+				}
+				parameterizedMethodFound = validatorClass.getMethod(indexEntry.getParameterizedMethodName(), parameterTypes);
+			}
+			return new ValidatorDescriptor(validatorClass, validateMethodsFound, parameterizedMethodFound);
+		}
+		catch (NoSuchMethodException | ClassNotFoundException e)
+		{
+			return null;
+		}
+	}
+
+	@Nonnull
+	private static ValidatorDescriptor describeByScanning(@Nonnull Class<?> validatorClass) throws IllegalAccessException
+	{
+		final List<Method> validateMethodsFound = new ArrayList<>();
+		Method parameterizedMethodFound = null;
+		for (Method method : validatorClass.getMethods())
+		{
+			if (method.getAnnotation(Validate.class) != null)
+			{
+				validateMethodsFound.add(method);
+				continue;
+			}
+
+			if (method.getAnnotation(Parameterized.class) != null && Modifier.isStatic(method.getModifiers()))
+			{
+				if (parameterizedMethodFound != null)
+				{
+					throw new ValidationException(validatorClass.getCanonicalName() + " could not be used for validating, as the class defines more than one " + Parameterized.class.getSimpleName() + " annotated methods.");
+				}
+				parameterizedMethodFound = method;
+			}
+		}
+		return new ValidatorDescriptor(validatorClass, validateMethodsFound, parameterizedMethodFound);
+	}
+
+	@Nonnull
+	private static MethodHandle spread(@Nonnull MethodHandle methodHandle, int parameterCount)
+	{
+		return methodHandle.asSpreader(Object[].class, parameterCount).asType(MethodType.methodType(Object.class, Object[].class));
+	}
+
+	@Nonnull
+	private static List<Class<? extends Annotation>> determineParameterizedMethodArguments(@Nonnull Method method)
+	{
+		final List<Class<? extends Annotation>> arguments = new ArrayList<>(method.getParameterCount());
+		for (Parameter parameter : method.getParameters())
+		{
+			for (Class<? extends Annotation> injectableAnnotation : INJECTABLE_ANNOTATIONS)
+			{
+				if (parameter.getAnnotation(injectableAnnotation) != null)
+				{
+					arguments.add(injectableAnnotation);
+					break;
+				}
+			}
+		}
+		return Collections.unmodifiableList(arguments);
+	}
+
+	@Nonnull
+	private static Map<Field, Class<? extends Annotation>> determineInjectableFields(@Nonnull Class<?> validatorClass)
+	{
+		final Map<Field, Class<? extends Annotation>> fields = new LinkedHashMap<>();
+		for (Field declaredField : ReflectionUtils.getAllDeclaredFields(validatorClass))
+		{
+			for (Class<? extends Annotation> injectableAnnotation : INJECTABLE_ANNOTATIONS)
+			{
+				if (declaredField.getAnnotation(injectableAnnotation) != null)
+				{
+					declaredField.setAccessible(true);
+					fields.put(declaredField, injectableAnnotation);
+					break;
+				}
+			}
+		}
+		return Collections.unmodifiableMap(fields);
+	}
+
+	@Nonnull
+	public Class<?> getValidatorClass()
+	{
+		return validatorClass;
+	}
+
+	@Nonnull
+	public List<ValidateMethod> getValidateMethods()
+	{
+		return validateMethods;
+	}
+
+	@CheckForNull
+	public Method getParameterizedMethod()
+	{
+		return parameterizedMethod;
+	}
+
+	/**
+	 * @return The injectable annotations of the parameters of the {@link Parameterized} method, in order of the parameters.
+	 */
+	@Nonnull
+	public List<Class<? extends Annotation>> getParameterizedMethodArguments()
+	{
+		return parameterizedMethodArguments;
+	}
+
+	/**
+	 * @return Accessible fields of the validator class which should be injected, mapped to the injectable annotation present on the field.
+	 */
+	@Nonnull
+	public Map<Field, Class<? extends Annotation>> getInjectableFields()
+	{
+		return injectableFields;
+	}
+
+	/**
+	 * @return The result of the {@link Parameterized} method.
+	 * @throws ClassCastException If the {@link Parameterized} method does not return a List.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public List<Object[]> generateData(@Nonnull Object[] arguments) throws InvocationTargetException
+	{
+		if (parameterizedInvoker == null)
+		{
+			throw new IllegalStateException(validatorClass.getCanonicalName() + " does not have a " + Parameterized.class.getSimpleName() + " method.");
+		}
+
+		final Object generatedData;
+		try
+		{
+			generatedData = parameterizedInvoker.invokeExact(arguments);
+		}
+		catch (Throwable e)
+		{
+			throw new InvocationTargetException(e);
+		}
+		return (List<Object[]>) generatedData;
+	}
+
+	@Nonnull
+	public Object newInstance(@Nonnull Object[] constructorArguments) throws InvocationTargetException
+	{
+		try
+		{
+			return constructor.invokeExact(constructorArguments);
+		}
+		catch (Throwable e)
+		{
+			throw new InvocationTargetException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.github.zeger_tak.enversvalidationplugin.execution;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
@@ -17,5 +18,11 @@ public interface ValidatorWrapper
 	String getUniqueIdentifier(@Nonnull Method method);
 
 	@Nonnull
-	List<Method> getValidateMethods();
+	List<ValidateMethod> getValidateMethods();
+
+	/**
+	 * @return The names of the audit tables validated by this validator instance, empty if the validator is not specific to any audit table.
+	 */
+	@Nonnull
+	Set<String> getAuditTableNames();
 }
\ No newline at end of file
@@ -0,0 +1,350 @@
+package com.github.zeger_tak.enversvalidationplugin.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+
+/**
+ * Index of {@link ValidationType} annotated classes, written at compile time by the {@link ValidatorIndexProcessor}.
+ * Each line of an index file describes one validator class:
+ *
+ * com.example.ExampleValidator CONTENT validate=validateA,validateB parameterized=generateTestData(java.util.Map)
+ *
+ * A package is only considered indexed if every classpath root containing the package provides an index file.
+ */
+public final class ValidatorIndex
+{
+	public static final String INDEX_RESOURCE_NAME = "META-INF/envers-validation/validators.index";
+
+	private static final String VALIDATE_PREFIX = "validate=";
+	private static final String PARAMETERIZED_PREFIX = "parameterized=";
+
+	private final Map<String, Entry> entries;
+	private final Set<String> indexedRoots;
+	private final List<String> invalidIndexFiles;
+
+	private ValidatorIndex(@Nonnull Map<String, Entry> entries, @Nonnull Set<String> indexedRoots, @Nonnull List<String> invalidIndexFiles)
+	{
+		this.entries = entries;
+		this.indexedRoots = indexedRoots;
+		this.invalidIndexFiles = invalidIndexFiles;
+	}
+
+	/**
+	 * Reads and merges all index files available to the given class loader.
+	 * Index files that can not be parsed are ignored, the classpath roots providing them are treated as not indexed.
+	 */
+	@Nonnull
+	public static ValidatorIndex load(@Nonnull ClassLoader classLoader)
+	{
+		final Map<String, Entry> entries = new LinkedHashMap<>();
+		final Set<String> indexedRoots = new HashSet<>();
+		final List<String> invalidIndexFiles = new ArrayList<>();
+		try
+		{
+			final Enumeration<URL> indexFiles = classLoader.getResources(INDEX_RESOURCE_NAME);
+			while (indexFiles.hasMoreElements())
+			{
+				final URL indexFile = indexFiles.nextElement();
+				try (Reader reader = new InputStreamReader(indexFile.openStream(), StandardCharsets.UTF_8))
+				{
+					for (Entry entry : read(reader))
+					{
+						entries.put(entry.getClassName(), entry);
+					}
+					indexedRoots.add(determineRoot(indexFile, INDEX_RESOURCE_NAME));
+				}
+				catch (ValidationException e)
+				{
+					invalidIndexFiles.add(indexFile + ": " + e.getMessage());
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new ValidationException("Unable to read validator index " + INDEX_RESOURCE_NAME, e);
+		}
+		return new ValidatorIndex(entries, indexedRoots, invalidIndexFiles);
+	}
+
+	/**
+	 * @return The classpath root the given resource was loaded from.
+	 */
+	@Nonnull
+	private static String determineRoot(@Nonnull URL resource, @Nonnull String resourceName)
+	{
+		String location = resource.toString();
+		if (location.endsWith("/"))
+		{
+			location = location.substring(0, location.length() - 1);
+		}
+		return location.endsWith(resourceName) ? location.substring(0, location.length() - resourceName.length()) : location;
+	}
+
+	@Nonnull
+	static List<Entry> read(@Nonnull Reader reader) throws IOException
+	{
+		final List<Entry> entries = new ArrayList<>();
+		final BufferedReader bufferedReader = new BufferedReader(reader);
+		String line;
+		while ((line = bufferedReader.readLine()) != null)
+		{
+			final Entry entry = Entry.parse(line);
+			if (entry != null)
+			{
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	public boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @return Descriptions of the index files which could not be parsed and were ignored.
+	 */
+	@Nonnull
+	public List<String> getInvalidIndexFiles()
+	{
+		return invalidIndexFiles;
+	}
+
+	/**
+	 * @return True if every classpath root containing the given package also provides an index file, so no validator in the package can be missing from the index.
+	 */
+	public boolean isPackageIndexed(@Nonnull String packageName, @Nonnull ClassLoader classLoader)
+	{
+		if (indexedRoots.isEmpty())
+		{
+			return false;
+		}
+
+		final String packagePath = packageName.replace('.', '/');
+		try
+		{
+			final Enumeration<URL> packageLocations = classLoader.getResources(packagePath);
+			while (packageLocations.hasMoreElements())
+			{
+				if (!indexedRoots.contains(determineRoot(packageLocations.nextElement(), packagePath)))
+				{
+					return false;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+		return !getEntriesInPackage(packageName).isEmpty();
+	}
+
+	/**
+	 * @return All indexed entries for classes in the given package or one of its sub packages.
+	 */
+	@Nonnull
+	public List<Entry> getEntriesInPackage(@Nonnull String packageName)
+	{
+		final String prefix = packageName + ".";
+		final List<Entry> entriesInPackage = new ArrayList<>();
+		for (Entry entry : entries.values())
+		{
+			if (entry.getClassName().startsWith(prefix))
+			{
+				entriesInPackage.add(entry);
+			}
+		}
+		return entriesInPackage;
+	}
+
+	/**
+	 * @return The validator classes in the given package or one of its sub packages, mapped to their index entry.
+	 * @throws ValidationException If an indexed class can not be loaded, which indicates a stale index.
+	 */
+	@Nonnull
+	public Map<Class<?>, Entry> getValidatorsInPackage(@Nonnull String packageName, @Nonnull ClassLoader classLoader)
+	{
+		final Map<Class<?>, Entry> validators = new HashMap<>();
+		for (Entry entry : getEntriesInPackage(packageName))
+		{
+			try
+			{
+				validators.put(Class.forName(entry.getClassName(), false, classLoader), entry);
+			}
+			catch (ClassNotFoundException e)
+			{
+				throw new ValidationException("Validator " + entry.getClassName() + " is present in " + INDEX_RESOURCE_NAME + " but could not be loaded, the index is out of date.", e);
+			}
+		}
+		return validators;
+	}
+
+	public static final class Entry
+	{
+		private final String className;
+		private final TargetPhase targetPhase;
+		private final List<String> validateMethodNames;
+		private final String parameterizedMethodName;
+		private final List<String> parameterizedMethodParameterTypes;
+
+		public Entry(@Nonnull String className, @Nonnull TargetPhase targetPhase, @Nonnull List<String> validateMethodNames, @CheckForNull String parameterizedMethodName, @Nonnull List<String> parameterizedMethodParameterTypes)
+		{
+			this.className = className;
+			this.targetPhase = targetPhase;
+			this.validateMethodNames = Collections.unmodifiableList(validateMethodNames);
+			this.parameterizedMethodName = parameterizedMethodName;
+			this.parameterizedMethodParameterTypes = Collections.unmodifiableList(parameterizedMethodParameterTypes);
+		}
+
+		/**
+		 * @throws ValidationException If the line is not a valid index entry.
+		 */
+		@CheckForNull
+		static Entry parse(@Nonnull String line)
+		{
+			final String trimmedLine = line.trim();
+			if (trimmedLine.isEmpty() || trimmedLine.startsWith("#"))
+			{
+				return null;
+			}
+
+			final String[] parts = trimmedLine.split("\\s+");
+			if (parts.length < 2)
+			{
+				throw new ValidationException("Invalid line in validator index " + INDEX_RESOURCE_NAME + ": " + line);
+			}
+
+			final List<String> validateMethodNames = new ArrayList<>();
+			final List<String> parameterizedMethodParameterTypes = new ArrayList<>();
+			String parameterizedMethodName = null;
+			for (int i = 2; i < parts.length; i++)
+			{
+				if (parts[i].startsWith(VALIDATE_PREFIX))
+				{
+					for (String methodName : parts[i].substring(VALIDATE_PREFIX.length()).split(","))
+					{
+						if (!methodName.isEmpty())
+						{
+							validateMethodNames.add(methodName);
+						}
+					}
+				}
+				else if (parts[i].startsWith(PARAMETERIZED_PREFIX))
+				{
+					parameterizedMethodName = parts[i].substring(PARAMETERIZED_PREFIX.length());
+					final int parametersStart = parameterizedMethodName.indexOf('(');
+					if (parametersStart >= 0)
+					{
+						if (!parameterizedMethodName.endsWith(")"))
+						{
+							throw new ValidationException("Invalid line in validator index " + INDEX_RESOURCE_NAME + ": " + line);
+						}
+
+						for (String parameterType : parameterizedMethodName.substring(parametersStart + 1, parameterizedMethodName.length() - 1).split(","))
+						{
+							if (!parameterType.isEmpty())
+							{
+								parameterizedMethodParameterTypes.add(parameterType);
+							}
+						}
+						parameterizedMethodName = parameterizedMethodName.substring(0, parametersStart);
+					}
+				}
+			}
+
+			final TargetPhase targetPhase;
+			try
+			{
+				targetPhase = TargetPhase.valueOf(parts[1]);
+			}
+			catch (IllegalArgumentException e)
+			{
+				throw new ValidationException("Invalid target phase in validator index " + INDEX_RESOURCE_NAME + ": " + line, e);
+			}
+			return new Entry(parts[0], targetPhase, validateMethodNames, parameterizedMethodName, parameterizedMethodParameterTypes);
+		}
+
+		@Nonnull
+		String format()
+		{
+			final StringBuilder line = new StringBuilder(className);
+			line.append(" ");
+			line.append(targetPhase.name());
+			line.append(" ");
+			line.append(VALIDATE_PREFIX);
+			line.append(String.join(",", validateMethodNames));
+			if (parameterizedMethodName != null)
+			{
+				line.append(" ");
+				line.append(PARAMETERIZED_PREFIX);
+				line.append(parameterizedMethodName);
+				line.append("(");
+				line.append(String.join(",", parameterizedMethodParameterTypes));
+				line.append(")");
+			}
+			return line.toString();
+		}
+
+		@Nonnull
+		public String getClassName()
+		{
+			return className;
+		}
+
+		@Nonnull
+		public TargetPhase getTargetPhase()
+		{
+			return targetPhase;
+		}
+
+		/**
+		 * @return Names of the {@link Validate} annotated methods.
+		 */
+		@Nonnull
+		public List<String> getValidateMethodNames()
+		{
+			return validateMethodNames;
+		}
+
+		/**
+		 * @return Name of the {@link Parameterized} annotated method, if any.
+		 */
+		@CheckForNull
+		public String getParameterizedMethodName()
+		{
+			return parameterizedMethodName;
+		}
+
+		/**
+		 * @return Binary names of the erased parameter types of the {@link Parameterized} annotated method.
+		 */
+		@Nonnull
+		public List<String> getParameterizedMethodParameterTypes()
+		{
+			return parameterizedMethodParameterTypes;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.github.zeger_tak.enversvalidationplugin.index;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+
+/**
+ * Writes the {@link ValidatorIndex} for all {@link ValidationType} annotated classes being compiled.
+ * Entries of a previously written index are kept as long as their class still exists, so incremental compilation does not drop validators.
+ */
+@SupportedAnnotationTypes("com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType")
+public class ValidatorIndexProcessor extends AbstractProcessor
+{
+	private final Map<String, ValidatorIndex.Entry> entries = new LinkedHashMap<>();
+	private boolean previousIndexRead;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if (!previousIndexRead)
+		{
+			readPreviousIndex();
+			previousIndexRead = true;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(ValidationType.class))
+		{
+			if (element.getKind() == ElementKind.CLASS)
+			{
+				final TypeElement typeElement = (TypeElement) element;
+				entries.put(typeElement.getQualifiedName().toString(), createEntry(typeElement));
+			}
+		}
+
+		if (roundEnv.processingOver() && !entries.isEmpty())
+		{
+			writeIndex();
+		}
+		return false;
+	}
+
+	@Nonnull
+	private ValidatorIndex.Entry createEntry(@Nonnull TypeElement typeElement)
+	{
+		final List<String> validateMethodNames = new ArrayList<>();
+		final List<String> parameterizedMethodParameterTypes = new ArrayList<>();
+		String parameterizedMethodName = null;
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(typeElement)))
+		{
+			if (!method.getModifiers().contains(Modifier.PUBLIC))
+			{
+				continue;
+			}
+
+			if (method.getAnnotation(Validate.class) != null)
+			{
+				validateMethodNames.add(method.getSimpleName().toString());
+			}
+			else if (method.getAnnotation(Parameterized.class) != null && method.getModifiers().contains(Modifier.STATIC))
+			{
+				parameterizedMethodName = method.getSimpleName().toString();
+				for (VariableElement parameter : method.getParameters())
+				{
+					parameterizedMethodParameterTypes.add(determineBinaryName(parameter.asType()));
+				}
+			}
+		}
+		Collections.sort(validateMethodNames);
+
+		final ValidationType validationType = typeElement.getAnnotation(ValidationType.class);
+		return new ValidatorIndex.Entry(typeElement.getQualifiedName().toString(), validationType.value(), validateMethodNames, parameterizedMethodName, parameterizedMethodParameterTypes);
+	}
+
+	/**
+	 * @return The name of the erased type as used by {@link Class#forName(String)}, so nested classes are separated by a $.
+	 */
+	@Nonnull
+	private String determineBinaryName(@Nonnull TypeMirror type)
+	{
+		final TypeMirror erasedType = processingEnv.getTypeUtils().erasure(type);
+		if (erasedType.getKind() == TypeKind.DECLARED)
+		{
+			return processingEnv.getElementUtils().getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(erasedType)).toString();
+		}
+		return erasedType.toString();
+	}
+
+	private void readPreviousIndex()
+	{
+		try
+		{
+			final FileObject previousIndex = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ValidatorIndex.INDEX_RESOURCE_NAME);
+			try (Reader reader = new InputStreamReader(previousIndex.openInputStream(), StandardCharsets.UTF_8))
+			{
+				for (ValidatorIndex.Entry entry : ValidatorIndex.read(reader))
+				{
+					if (processingEnv.getElementUtils().getTypeElement(entry.getClassName()) != null)
+					{
+						entries.put(entry.getClassName(), entry);
+					}
+				}
+			}
+		}
+		catch (IOException | ValidationException e)
+		{
+			// No previous index available, or it can not be read, all validators will be indexed from scratch.
+		}
+	}
+
+	private void writeIndex()
+	{
+		try
+		{
+			final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ValidatorIndex.INDEX_RESOURCE_NAME);
+			try (Writer writer = index.openWriter())
+			{
+				writer.write("# Generated by " + ValidatorIndexProcessor.class.getSimpleName() + ", do not edit.\n");
+				for (ValidatorIndex.Entry entry : entries.values())
+				{
+					writer.write(entry.format());
+					writer.write("\n");
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + ValidatorIndex.INDEX_RESOURCE_NAME + ": " + e.getMessage());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Used when no report should be written, only the examples kept by a {@link ViolationCollector} will end up in the log.
+ */
+public class NoOpValidationReport implements ValidationReport
+{
+	private final int maximumExamplesPerValidation;
+
+	public NoOpValidationReport(int maximumExamplesPerValidation)
+	{
+		this.maximumExamplesPerValidation = maximumExamplesPerValidation;
+	}
+
+	@Override
+	public int getMaximumExamplesPerValidation()
+	{
+		return maximumExamplesPerValidation;
+	}
+
+	@Override
+	public boolean isRecordingViolations()
+	{
+		return false;
+	}
+
+	@Override
+	public void validationStarted(@Nonnull String validationName)
+	{
+	}
+
+	@Override
+	public void violationFound(@Nonnull String identifier, @Nonnull String message)
+	{
+	}
+
+	@Override
+	public void validationSucceeded()
+	{
+	}
+
+	@Override
+	public void validationFailed(@Nonnull String message)
+	{
+	}
+
+	@Override
+	public void validationIgnored(@Nonnull String validationName)
+	{
+	}
+
+	@Override
+	public void close()
+	{
+	}
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+/**
+ * Writes each violation to a JSON lines file as soon as it is found and writes a JUnit XML summary once all validations have been executed.
+ * The summary is built up in a temporary file, as the totals are required in the root element, so no validation results are kept in memory.
+ */
+public class StreamingValidationReport implements ValidationReport
+{
+	static final String VIOLATIONS_FILE_NAME = "violations.jsonl";
+	static final String SUMMARY_FILE_NAME = "TEST-envers-validation.xml";
+	private static final String TEST_SUITE_NAME = "envers-validation";
+
+	private final File reportDirectory;
+	private final int maximumExamplesPerValidation;
+	private final File testCasesFile;
+	private final Writer violationsWriter;
+	private final Writer testCasesWriter;
+	private final long suiteStartTime = System.nanoTime();
+
+	private String currentValidationName;
+	private long currentValidationStartTime;
+	private long currentValidationViolations;
+
+	private int tests;
+	private int failures;
+	private int skipped;
+
+	public StreamingValidationReport(@Nonnull File reportDirectory, int maximumExamplesPerValidation)
+	{
+		this.reportDirectory = reportDirectory;
+		this.maximumExamplesPerValidation = maximumExamplesPerValidation;
+
+		if (!reportDirectory.isDirectory() && !reportDirectory.mkdirs())
+		{
+			throw new ValidationException("Unable to create report directory " + reportDirectory.getAbsolutePath());
+		}
+
+		testCasesFile = new File(reportDirectory, SUMMARY_FILE_NAME + ".tmp");
+		try
+		{
+			violationsWriter = newWriter(new File(reportDirectory, VIOLATIONS_FILE_NAME));
+			testCasesWriter = newWriter(testCasesFile);
+		}
+		catch (IOException e)
+		{
+			throw new ValidationException("Unable to create the validation report in " + reportDirectory.getAbsolutePath(), e);
+		}
+	}
+
+	@Nonnull
+	private static Writer newWriter(@Nonnull File file) throws IOException
+	{
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public int getMaximumExamplesPerValidation()
+	{
+		return maximumExamplesPerValidation;
+	}
+
+	@Override
+	public boolean isRecordingViolations()
+	{
+		return true;
+	}
+
+	@Override
+	public void validationStarted(@Nonnull String validationName)
+	{
+		currentValidationName = validationName;
+		currentValidationStartTime = System.nanoTime();
+		currentValidationViolations = 0;
+	}
+
+	@Override
+	public void violationFound(@Nonnull String identifier, @Nonnull String message)
+	{
+		currentValidationViolations++;
+		write(violationsWriter, "{\"validation\":\"" + StringEscapeUtils.escapeJson(currentValidationName) + "\",\"identifier\":\"" + StringEscapeUtils.escapeJson(identifier) + "\",\"message\":\"" + StringEscapeUtils.escapeJson(message) + "\"}\n");
+	}
+
+	@Override
+	public void validationSucceeded()
+	{
+		tests++;
+		write(testCasesWriter, "\t<testcase " + testCaseAttributes(currentValidationName) + " time=\"" + secondsSince(currentValidationStartTime) + "\"/>\n");
+	}
+
+	@Override
+	public void validationFailed(@Nonnull String message)
+	{
+		tests++;
+		failures++;
+
+		final String firstLine = message.contains("\n") ? message.substring(0, message.indexOf('\n')) : message;
+		//@formatter:off
+		write(testCasesWriter, "\t<testcase " + testCaseAttributes(currentValidationName) + " time=\"" + secondsSince(currentValidationStartTime) + "\">\n"
+				+ "\t\t<failure message=\"" + StringEscapeUtils.escapeXml10(firstLine) + "\">"
+				+ StringEscapeUtils.escapeXml10(currentValidationViolations + " violations written to " + VIOLATIONS_FILE_NAME + "\n" + message)
+				+ "</failure>\n"
+				+ "\t</testcase>\n");
+		//@formatter:on
+	}
+
+	@Override
+	public void validationIgnored(@Nonnull String validationName)
+	{
+		tests++;
+		skipped++;
+		write(testCasesWriter, "\t<testcase " + testCaseAttributes(validationName) + " time=\"0\">\n\t\t<skipped/>\n\t</testcase>\n");
+	}
+
+	@Override
+	public void close()
+	{
+		final File summaryFile = new File(reportDirectory, SUMMARY_FILE_NAME);
+		try
+		{
+			violationsWriter.close();
+			testCasesWriter.close();
+
+			try (Writer summaryWriter = newWriter(summaryFile); BufferedReader testCasesReader = new BufferedReader(new InputStreamReader(new FileInputStream(testCasesFile), StandardCharsets.UTF_8)))
+			{
+				summaryWriter.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+				summaryWriter.write("<testsuite name=\"" + TEST_SUITE_NAME + "\" tests=\"" + tests + "\" failures=\"" + failures + "\" errors=\"0\" skipped=\"" + skipped + "\" time=\"" + secondsSince(suiteStartTime) + "\">\n");
+
+				final char[] buffer = new char[8192];
+				int read;
+				while ((read = testCasesReader.read(buffer)) != -1)
+				{
+					summaryWriter.write(buffer, 0, read);
+				}
+				summaryWriter.write("</testsuite>\n");
+			}
+		}
+		catch (IOException e)
+		{
+			throw new ValidationException("Unable to write the validation report summary " + summaryFile.getAbsolutePath(), e);
+		}
+		finally
+		{
+			testCasesFile.delete();
+		}
+	}
+
+	@Nonnull
+	private static String testCaseAttributes(@Nonnull String validationName)
+	{
+		final int separatorIndex = validationName.indexOf('.');
+		final String className = separatorIndex < 0 ? TEST_SUITE_NAME : validationName.substring(0, separatorIndex);
+		final String testName = separatorIndex < 0 ? validationName : validationName.substring(separatorIndex + 1);
+		return "classname=\"" + StringEscapeUtils.escapeXml10(className) + "\" name=\"" + StringEscapeUtils.escapeXml10(testName) + "\"";
+	}
+
+	@Nonnull
+	private static String secondsSince(long startTime)
+	{
+		return String.format(Locale.ROOT, "%.3f", (System.nanoTime() - startTime) / 1_000_000_000d);
+	}
+
+	private void write(@Nonnull Writer writer, @Nonnull String value)
+	{
+		try
+		{
+			writer.write(value);
+		}
+		catch (IOException e)
+		{
+			throw new ValidationException("Unable to write to the validation report in " + reportDirectory.getAbsolutePath(), e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the outcome of every validation run and every violation found during that run.
+ * Violations are reported one by one as soon as they are found, so an implementation is able to stream them instead of keeping them in memory.
+ */
+public interface ValidationReport extends AutoCloseable
+{
+	int DEFAULT_MAXIMUM_EXAMPLES_PER_VALIDATION = 100;
+
+	ValidationReport NONE = new NoOpValidationReport(DEFAULT_MAXIMUM_EXAMPLES_PER_VALIDATION);
+
+	/**
+	 * @return The maximum number of violations per validation that may be kept in memory, e.g. to be included in the error message.
+	 */
+	int getMaximumExamplesPerValidation();
+
+	/**
+	 * @return True if {@link #violationFound(String, String)} does something with the provided violation, false if the message does not need to be constructed at all.
+	 */
+	boolean isRecordingViolations();
+
+	void validationStarted(@Nonnull String validationName);
+
+	void violationFound(@Nonnull String identifier, @Nonnull String message);
+
+	void validationSucceeded();
+
+	void validationFailed(@Nonnull String message);
+
+	void validationIgnored(@Nonnull String validationName);
+
+	@Override
+	void close();
+}
\ No newline at end of file
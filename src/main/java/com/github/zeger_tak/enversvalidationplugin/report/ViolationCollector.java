@@ -0,0 +1,113 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Collects the violations found by a single validation run.
+ * Every violation is forwarded to the {@link ValidationReport}, but only the first {@link ValidationReport#getMaximumExamplesPerValidation()} violations are kept in memory.
+ * This keeps the memory usage and the size of the error message flat regardless of the number of violations found.
+ *
+ * @param <T> Type of the details kept for each example, use {@link Void} if only the identifier is of interest.
+ */
+public class ViolationCollector<T>
+{
+	private final ValidationReport validationReport;
+	private final Map<String, T> examples = new LinkedHashMap<>();
+	private long count;
+	private long kept;
+	private long unfetched;
+
+	public ViolationCollector(@Nonnull ValidationReport validationReport)
+	{
+		this.validationReport = validationReport;
+	}
+
+	public void add(@Nonnull String identifier, @Nonnull Supplier<String> message)
+	{
+		add(identifier, null, message);
+	}
+
+	/**
+	 * @param message Only evaluated if the {@link ValidationReport} actually records the violation.
+	 */
+	public void add(@Nonnull String identifier, @Nullable T details, @Nonnull Supplier<String> message)
+	{
+		count++;
+		if (examples.containsKey(identifier))
+		{
+			// The details of the first violation of an identifier are kept, the identifier is only listed once.
+			kept++;
+		}
+		else if (examples.size() < validationReport.getMaximumExamplesPerValidation())
+		{
+			examples.put(identifier, details);
+			kept++;
+		}
+
+		if (validationReport.isRecordingViolations())
+		{
+			validationReport.violationFound(identifier, message.get());
+		}
+	}
+
+	/**
+	 * Counts violations which were only counted by the database, these are neither kept as example nor forwarded to the {@link ValidationReport}.
+	 */
+	public void addUnfetched(long unfetchedCount)
+	{
+		count += unfetchedCount;
+		unfetched += unfetchedCount;
+	}
+
+	public boolean isEmpty()
+	{
+		return count == 0;
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * @return The identifiers and details of the first violations found, in the order in which they were found.
+	 */
+	@Nonnull
+	public Map<String, T> getExamples()
+	{
+		return Collections.unmodifiableMap(examples);
+	}
+
+	/**
+	 * @return The identifiers kept as example, formatted as a list. (E.g. [1, 2, 3])
+	 */
+	@Nonnull
+	public String getExampleIdentifiers()
+	{
+		return examples.keySet().toString();
+	}
+
+	/**
+	 * @return A remark on the number of violations not kept as example, or an empty String if all violations were kept.
+	 */
+	@Nonnull
+	public String getOmittedViolationsRemark()
+	{
+		final long omitted = count - kept;
+		if (omitted <= 0)
+		{
+			return "";
+		}
+		if (!validationReport.isRecordingViolations() || unfetched > 0)
+		{
+			return " (" + omitted + " more violations were omitted, " + count + " in total)";
+		}
+		return " (" + omitted + " more violations were omitted, " + count + " in total, see the validation report for the complete list)";
+	}
+}
\ No newline at end of file
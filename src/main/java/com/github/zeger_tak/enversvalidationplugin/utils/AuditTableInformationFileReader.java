@@ -0,0 +1,188 @@
+package com.github.zeger_tak.enversvalidationplugin.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * Streaming reader for audit table information files, as described by src/main/resources/xsd/configuration-1.0.xsd.
+ * Each auditTableInformation element is converted as soon as it is read, parents are linked within the same pass, regardless of the order in which they are configured.
+ */
+final class AuditTableInformationFileReader
+{
+	static final String NAMESPACE = "http://zeger-tak.github.com/envers-validation/configuration_1-0";
+
+	private static final String CONFIGURATION_FILE = "configurationFile";
+	private static final String AUDIT_TABLE_INFORMATION = "auditTableInformation";
+	private static final String AUDIT_TABLE_NAME = "auditTableName";
+	private static final String AUDIT_TABLE_PARENT_NAME = "auditTableParentName";
+	private static final String CONTENT_TABLE_NAME = "contentTableName";
+	private static final String COLUMN_NAME_PRESENT_IN_CONTENT_TABLE_BUT_NOT_IN_AUDIT_TABLE = "columnNamePresentInContentTableButNotInAuditTable";
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+	private final String auditTablePostFix;
+	private final Map<String, AuditTableInformation> auditTableInformationMap = new HashMap<>();
+	private final Map<String, List<AuditTableInformation>> childrenWaitingForParent = new HashMap<>();
+
+	private AuditTableInformationFileReader(@Nonnull String auditTablePostFix)
+	{
+		this.auditTablePostFix = auditTablePostFix;
+	}
+
+	@Nonnull
+	private static XMLInputFactory createXmlInputFactory()
+	{
+		final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+		xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		return xmlInputFactory;
+	}
+
+	@Nonnull
+	static Map<String, AuditTableInformation> read(@Nonnull File file, @Nonnull String auditTablePostFix) throws MojoFailureException
+	{
+		final AuditTableInformationFileReader reader = new AuditTableInformationFileReader(auditTablePostFix);
+		try (InputStream inputStream = new FileInputStream(file))
+		{
+			final XMLStreamReader xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+			try
+			{
+				reader.readConfigurationFile(xmlStreamReader);
+			}
+			finally
+			{
+				xmlStreamReader.close();
+			}
+		}
+		catch (IOException | XMLStreamException e)
+		{
+			throw new MojoFailureException("Unable to retrieve audit table information, errormessage: " + e.getMessage(), e);
+		}
+		return reader.getAuditTableInformationMap();
+	}
+
+	private void readConfigurationFile(@Nonnull XMLStreamReader xmlStreamReader) throws XMLStreamException, MojoFailureException
+	{
+		xmlStreamReader.nextTag();
+		requireElement(xmlStreamReader, CONFIGURATION_FILE);
+
+		while (xmlStreamReader.nextTag() == XMLStreamConstants.START_ELEMENT)
+		{
+			requireElement(xmlStreamReader, AUDIT_TABLE_INFORMATION);
+			readAuditTableInformation(xmlStreamReader);
+		}
+	}
+
+	private void readAuditTableInformation(@Nonnull XMLStreamReader xmlStreamReader) throws XMLStreamException, MojoFailureException
+	{
+		String auditTableName = null;
+		String auditTableParentName = null;
+		String contentTableName = null;
+		final Set<String> columnNamesPresentInContentTableButNotInAuditTable = new HashSet<>();
+
+		while (xmlStreamReader.nextTag() == XMLStreamConstants.START_ELEMENT)
+		{
+			final String elementName = xmlStreamReader.getLocalName();
+			final String elementText = xmlStreamReader.getElementText();
+			switch (elementName)
+			{
+				case AUDIT_TABLE_NAME:
+					auditTableName = elementText;
+					break;
+				case AUDIT_TABLE_PARENT_NAME:
+					auditTableParentName = elementText;
+					break;
+				case CONTENT_TABLE_NAME:
+					contentTableName = elementText;
+					break;
+				case COLUMN_NAME_PRESENT_IN_CONTENT_TABLE_BUT_NOT_IN_AUDIT_TABLE:
+					columnNamesPresentInContentTableButNotInAuditTable.add(elementText);
+					break;
+				default:
+					throw new MojoFailureException("Unable to retrieve audit table information, unexpected element " + elementName + " at line " + xmlStreamReader.getLocation().getLineNumber() + ".");
+			}
+		}
+
+		if (StringUtils.isBlank(auditTableName))
+		{
+			throw new MojoFailureException("Unable to retrieve audit table information, an " + AUDIT_TABLE_INFORMATION + " element without " + AUDIT_TABLE_NAME + " was found at line " + xmlStreamReader.getLocation().getLineNumber() + ".");
+		}
+		addAuditTableInformation(new AuditTableInformation(auditTableName, parseContentTableName(auditTableName, contentTableName), columnNamesPresentInContentTableButNotInAuditTable), auditTableParentName);
+	}
+
+	private void addAuditTableInformation(@Nonnull AuditTableInformation auditTableInformation, @CheckForNull String auditTableParentName) throws MojoFailureException
+	{
+		final String auditTableName = auditTableInformation.getAuditTableName();
+		if (auditTableInformationMap.putIfAbsent(auditTableName, auditTableInformation) != null)
+		{
+			throw new MojoFailureException("Unable to retrieve audit table information, " + auditTableName + " is configured more than once.");
+		}
+
+		final List<AuditTableInformation> children = childrenWaitingForParent.remove(auditTableName);
+		if (children != null)
+		{
+			for (AuditTableInformation child : children)
+			{
+				child.setAuditTableParent(auditTableInformation);
+			}
+		}
+
+		if (StringUtils.isNotBlank(auditTableParentName))
+		{
+			final AuditTableInformation parentAuditTableInformation = auditTableInformationMap.get(auditTableParentName);
+			if (parentAuditTableInformation == null)
+			{
+				childrenWaitingForParent.computeIfAbsent(auditTableParentName, parentName -> new ArrayList<>()).add(auditTableInformation);
+			}
+			else
+			{
+				auditTableInformation.setAuditTableParent(parentAuditTableInformation);
+			}
+		}
+	}
+
+	@Nonnull
+	private Map<String, AuditTableInformation> getAuditTableInformationMap() throws MojoFailureException
+	{
+		if (!childrenWaitingForParent.isEmpty())
+		{
+			final Map.Entry<String, List<AuditTableInformation>> missingParent = childrenWaitingForParent.entrySet().iterator().next();
+			throw new MojoFailureException("Unable to construct the audit table information tree as " + missingParent.getValue().get(0).getAuditTableName() + " has a parent audit table " + missingParent.getKey() + " for which no " + AUDIT_TABLE_INFORMATION + " was configured.");
+		}
+		return auditTableInformationMap;
+	}
+
+	@Nonnull
+	private String parseContentTableName(@Nonnull String auditTableName, @CheckForNull String contentTableName)
+	{
+		return StringUtils.isBlank(contentTableName) ? auditTableName.replaceAll(auditTablePostFix, "") : contentTableName;
+	}
+
+	private static void requireElement(@Nonnull XMLStreamReader xmlStreamReader, @Nonnull String expectedElementName) throws MojoFailureException
+	{
+		if (!NAMESPACE.equals(xmlStreamReader.getNamespaceURI()) || !expectedElementName.equals(xmlStreamReader.getLocalName()))
+		{
+			throw new MojoFailureException("Unable to retrieve audit table information, expected element {" + NAMESPACE + "}" + expectedElementName + " but found " + xmlStreamReader.getName() + " at line " + xmlStreamReader.getLocation().getLineNumber() + ".");
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.github.zeger_tak.enversvalidationplugin.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Compares a value in the content table with the corresponding value in the audit table.
+ * A comparator is resolved once per column, as the types of the values returned by the jdbc driver do not differ between rows.
+ * Each comparator falls back to {@link #GENERIC} if it encounters values of an unexpected type.
+ */
+public enum ColumnValueComparator
+{
+	/**
+	 * Compares numbers by value, regardless of their type or scale. (E.g. BigDecimal 1.0 equals Long 1)
+	 */
+	NUMERIC
+	{
+		@Override
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			if (!(contentValue instanceof Number) || !(auditValue instanceof Number))
+			{
+				return GENERIC.isEqual(contentValue, auditValue);
+			}
+
+			if (isIntegral(contentValue) && isIntegral(auditValue))
+			{
+				return ((Number) contentValue).longValue() == ((Number) auditValue).longValue();
+			}
+
+			final BigDecimal contentNumber = toBigDecimal((Number) contentValue);
+			final BigDecimal auditNumber = toBigDecimal((Number) auditValue);
+			if (contentNumber == null || auditNumber == null)
+			{
+				return contentValue.equals(auditValue);
+			}
+			return contentNumber.compareTo(auditNumber) == 0;
+		}
+	},
+
+	/**
+	 * Compares dates and timestamps after truncating both values to the lower precision of the two.
+	 * A date is compared by day, a timestamp by nanosecond and any other date by millisecond.
+	 */
+	TEMPORAL
+	{
+		@Override
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			if (!(contentValue instanceof Date) || !(auditValue instanceof Date))
+			{
+				return GENERIC.isEqual(contentValue, auditValue);
+			}
+
+			if (contentValue instanceof java.sql.Date || auditValue instanceof java.sql.Date)
+			{
+				return toLocalDate((Date) contentValue).equals(toLocalDate((Date) auditValue));
+			}
+			if (((Date) contentValue).getTime() != ((Date) auditValue).getTime())
+			{
+				return false;
+			}
+			return !(contentValue instanceof Timestamp) || !(auditValue instanceof Timestamp) || ((Timestamp) contentValue).getNanos() == ((Timestamp) auditValue).getNanos();
+		}
+	},
+
+	/**
+	 * Compares text exactly, trailing spaces are significant in variable width columns.
+	 */
+	CHARACTER
+	{
+		@Override
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			return contentValue.equals(auditValue);
+		}
+	},
+
+	/**
+	 * Compares text while ignoring trailing spaces, as fixed width columns (CHAR and NCHAR) are padded with spaces up to their length.
+	 */
+	FIXED_WIDTH_CHARACTER
+	{
+		@Override
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			if (!(contentValue instanceof String) || !(auditValue instanceof String))
+			{
+				return GENERIC.isEqual(contentValue, auditValue);
+			}
+
+			final String contentText = (String) contentValue;
+			final String auditText = (String) auditValue;
+			final int length = lengthWithoutTrailingSpaces(contentText);
+			return length == lengthWithoutTrailingSpaces(auditText) && contentText.regionMatches(0, auditText, 0, length);
+		}
+	},
+
+	BINARY
+	{
+		@Override
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			if (!(contentValue instanceof byte[]) || !(auditValue instanceof byte[]))
+			{
+				return GENERIC.isEqual(contentValue, auditValue);
+			}
+			return Arrays.equals((byte[]) contentValue, (byte[]) auditValue);
+		}
+	},
+
+	/**
+	 * Values of the same type are compared using {@link Comparable#compareTo(Object)} if possible, values of a different type are never equal.
+	 */
+	GENERIC
+	{
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue)
+		{
+			if (contentValue.equals(auditValue))
+			{
+				return true;
+			}
+			return contentValue.getClass() == auditValue.getClass() && contentValue instanceof Comparable && ((Comparable<Object>) contentValue).compareTo(auditValue) == 0;
+		}
+	};
+
+	public abstract boolean isEqual(@Nonnull Object contentValue, @Nonnull Object auditValue);
+
+	/**
+	 * @param fixedWidthCharacter True if the values belong to a fixed width character column.
+	 * @return The comparator suitable for both values.
+	 */
+	@Nonnull
+	public static ColumnValueComparator forValues(@Nonnull Object contentValue, @Nonnull Object auditValue, boolean fixedWidthCharacter)
+	{
+		if (contentValue instanceof Number && auditValue instanceof Number)
+		{
+			return NUMERIC;
+		}
+		if (contentValue instanceof Date && auditValue instanceof Date)
+		{
+			return TEMPORAL;
+		}
+		if (contentValue instanceof String && auditValue instanceof String)
+		{
+			return fixedWidthCharacter ? FIXED_WIDTH_CHARACTER : CHARACTER;
+		}
+		if (contentValue instanceof byte[] && auditValue instanceof byte[])
+		{
+			return BINARY;
+		}
+		return GENERIC;
+	}
+
+	private static boolean isIntegral(@Nonnull Object value)
+	{
+		return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+	}
+
+	private static BigDecimal toBigDecimal(@Nonnull Number number)
+	{
+		if (number instanceof BigDecimal)
+		{
+			return (BigDecimal) number;
+		}
+		if (number instanceof BigInteger)
+		{
+			return new BigDecimal((BigInteger) number);
+		}
+		if (isIntegral(number))
+		{
+			return BigDecimal.valueOf(number.longValue());
+		}
+
+		final double value = number.doubleValue();
+		if (Double.isNaN(value) || Double.isInfinite(value))
+		{
+			return null;
+		}
+		return BigDecimal.valueOf(value);
+	}
+
+	@Nonnull
+	private static LocalDate toLocalDate(@Nonnull Date value)
+	{
+		return value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate() : new java.sql.Date(value.getTime()).toLocalDate();
+	}
+
+	private static int lengthWithoutTrailingSpaces(@Nonnull String text)
+	{
+		int length = text.length();
+		while (length > 0 && text.charAt(length - 1) == ' ')
+		{
+			length--;
+		}
+		return length;
+	}
+}
\ No newline at end of file
@@ -3,25 +3,17 @@ package com.github.zeger_tak.enversvalidationplugin.utils;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.Properties;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.MojoFailureException;
-import org.tak.zeger.enversvalidationplugin.configuration.AuditTableInformationType;
-import org.tak.zeger.enversvalidationplugin.configuration.ConfigurationFile;
-import org.tak.zeger.enversvalidationplugin.configuration.ObjectFactory;
 
 public final class PropertyUtils
 {
@@ -29,57 +21,30 @@ public final class PropertyUtils
 	{
 	}
 
+	/**
+	 * Reads the audit table information file in a single streaming pass, see {@link AuditTableInformationFileReader}.
+	 */
 	@Nonnull
 	public static Map<String, AuditTableInformation> getAuditTableInformationMap(@Nonnull String fileName, @Nonnull String auditTablePostFix) throws MojoFailureException
 	{
-		final File file = new File(fileName);
-		try
-		{
-			final JAXBContext jaxbContext = JAXBContext.newInstance(ObjectFactory.class);
-			final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-			final ConfigurationFile configurationFile = (ConfigurationFile) unmarshaller.unmarshal(file);
-			return createAuditTableInformationMap(configurationFile, auditTablePostFix);
-		}
-		catch (JAXBException | RuntimeException e)
-		{
-			throw new MojoFailureException("Unable to retrieve audit table information, errormessage: " + e.getMessage(), e);
-		}
+		return AuditTableInformationFileReader.read(new File(fileName), auditTablePostFix);
 	}
 
-	@Nonnull
-	private static Map<String, AuditTableInformation> createAuditTableInformationMap(@Nonnull ConfigurationFile auditTableInformationFile, @Nonnull String auditTablePostFix) throws MojoFailureException
+	/**
+	 * @param timestamp ISO-8601 date (2017-06-01) or date time (2017-06-01T12:00:00), interpreted in the default time zone.
+	 * @return The timestamp in milliseconds since the epoch, as stored in the revision table by Envers.
+	 */
+	public static long parseTimestamp(@Nonnull String timestamp) throws MojoFailureException
 	{
-		final Map<String, AuditTableInformationType> auditTableInformationTypes = convertToMap(auditTableInformationFile.getAuditTableInformation());
-		final Map<String, AuditTableInformation> auditTableInformationMap = new HashMap<>();
-
-		for (AuditTableInformationType auditTableInformationType : auditTableInformationTypes.values())
+		try
 		{
-			final String auditTableName = auditTableInformationType.getAuditTableName();
-			final String contentTableName = parseContentTableName(auditTableInformationType, auditTablePostFix);
-			auditTableInformationMap.putIfAbsent(auditTableName, new AuditTableInformation(auditTableName, contentTableName, new HashSet<>(auditTableInformationType.getColumnNamePresentInContentTableButNotInAuditTable())));
-			final AuditTableInformation auditTableInformation = auditTableInformationMap.get(auditTableName);
-
-			final String auditTableParentName = auditTableInformationType.getAuditTableParentName();
-			if (StringUtils.isNotBlank(auditTableParentName))
-			{
-				final AuditTableInformationType parentAuditTableInformationType = auditTableInformationTypes.get(auditTableParentName);
-				if (parentAuditTableInformationType == null)
-				{
-					throw new MojoFailureException("Unable to construct the audit table information tree as " + auditTableInformationType + " has a parent audit table for which no " + AuditTableInformationType.class.getSimpleName() + " was configured.");
-				}
-
-				auditTableInformationMap.putIfAbsent(parentAuditTableInformationType.getAuditTableName(), new AuditTableInformation(parentAuditTableInformationType.getAuditTableName(), parseContentTableName(parentAuditTableInformationType, auditTablePostFix), new HashSet<>(parentAuditTableInformationType.getColumnNamePresentInContentTableButNotInAuditTable())));
-				final AuditTableInformation parentAuditTableInformation = auditTableInformationMap.get(auditTableParentName);
-				auditTableInformation.setAuditTableParent(parentAuditTableInformation);
-			}
+			final LocalDateTime localDateTime = timestamp.contains("T") ? LocalDateTime.parse(timestamp) : LocalDate.parse(timestamp).atStartOfDay();
+			return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		}
+		catch (DateTimeParseException e)
+		{
+			throw new MojoFailureException("Unable to parse timestamp " + timestamp + ", expected a date (2017-06-01) or date time (2017-06-01T12:00:00).", e);
 		}
-		return auditTableInformationMap;
-	}
-
-	@Nonnull
-	private static String parseContentTableName(@Nonnull AuditTableInformationType auditTableInformationType, @Nonnull String auditTablePostFix)
-	{
-		return StringUtils.isBlank(auditTableInformationType.getContentTableName()) ? auditTableInformationType.getAuditTableName().replaceAll(auditTablePostFix, "") : auditTableInformationType.getContentTableName();
 	}
 
 	@Nonnull
@@ -97,10 +62,4 @@ public final class PropertyUtils
 		}
 		return connectionPropertiesInFile;
 	}
-
-	@Nonnull
-	private static Map<String, AuditTableInformationType> convertToMap(@Nonnull List<AuditTableInformationType> list)
-	{
-		return list.stream().collect(Collectors.toMap(AuditTableInformationType::getAuditTableName, Function.identity()));
-	}
 }
\ No newline at end of file
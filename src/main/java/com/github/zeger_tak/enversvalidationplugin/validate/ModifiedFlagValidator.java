@@ -0,0 +1,147 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Validates the modified flags Envers stores for each audited column when the modified flags are enabled.
+ * Only columns of which both the column and its modified flag column are present in the audit table are validated, the flags of relations and collections are named after the property instead of a column.
+ * Columns of which the database cannot compare the values, such as large objects and json, are not validated either.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class ModifiedFlagValidator
+{
+	private final ConnectionProviderInstance connectionProvider;
+	private final AuditTableInformation auditTableInformation;
+	private final List<String> primaryIdentifierColumnNames;
+	private final Map<String, String> modifiedFlagColumnNamesByColumnName;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	public ModifiedFlagValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Map<String, String> modifiedFlagColumnNamesByColumnName)
+	{
+		this.connectionProvider = connectionProvider;
+		this.auditTableInformation = auditTableInformation;
+		this.primaryIdentifierColumnNames = primaryIdentifierColumnNames;
+		this.modifiedFlagColumnNamesByColumnName = modifiedFlagColumnNamesByColumnName;
+	}
+
+	/**
+	 * Only the audit tables with at least one modified flag column are validated.
+	 */
+	@Parameterized(name = "{index}: auditTableName: {1}", uniqueIdentifier = "{1}")
+	public static List<Object[]> generateTestData(@Nonnull @ConnectionProvider ConnectionProviderInstance connectionProvider, @Nonnull @AuditTableInformationMap Map<String, AuditTableInformation> auditTableInformationMap) throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final String modifiedFlagSuffix = databaseQueries.getModifiedFlagSuffix();
+
+		final List<Object[]> testData = new ArrayList<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			final Set<String> auditTableColumnNames = new TreeSet<>(databaseQueries.getAllColumns(auditTableInformation.getValue().getAuditTableName()));
+			final Set<String> nonComparableColumnNames = databaseQueries.getNonComparableColumnNames(auditTableInformation.getValue().getAuditTableName());
+			final Map<String, String> modifiedFlagColumnNamesByColumnName = new LinkedHashMap<>();
+			for (String columnName : auditTableColumnNames)
+			{
+				if (auditTableColumnNames.contains(columnName + modifiedFlagSuffix) && !nonComparableColumnNames.contains(columnName.toUpperCase()))
+				{
+					modifiedFlagColumnNamesByColumnName.put(columnName, columnName + modifiedFlagSuffix);
+				}
+			}
+
+			if (!modifiedFlagColumnNamesByColumnName.isEmpty())
+			{
+				final List<String> primaryIdentifierColumnNames = databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getValue().getContentTableName());
+				testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), primaryIdentifierColumnNames, modifiedFlagColumnNamesByColumnName });
+			}
+		}
+
+		return testData;
+	}
+
+	/**
+	 * Validates that each modified flag is set if and only if the value of its column differs from the value in the previous revision of the same record.
+	 * The values of the first revision of a record, and of a revision following a remove revision, are compared to null.
+	 */
+	@Validate
+	public void validateModifiedFlagsMatchChangedColumns() throws SQLException, DataSetException
+	{
+		final Map<String, TableRow> violations = connectionProvider.getQueries().getModifiedFlagViolations(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames, modifiedFlagColumnNamesByColumnName);
+
+		final ViolationCollector<Void> revisionsWithInvalidModifiedFlags = new ViolationCollector<>(validationReport);
+		for (Map.Entry<String, TableRow> violation : violations.entrySet())
+		{
+			revisionsWithInvalidModifiedFlags.add(violation.getKey(), () -> "Modified flags " + getInvalidModifiedFlagColumnNames(violation.getValue()) + " do not match the changed columns in " + auditTableInformation.getAuditTableName() + ".");
+		}
+
+		if (!revisionsWithInvalidModifiedFlags.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsWithInvalidModifiedFlags.getExampleIdentifiers() + " in " + auditTableInformation.getAuditTableName() + " have modified flags which do not match the columns changed since the previous revision." + revisionsWithInvalidModifiedFlags.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * @return The modified flags the database reported as invalid, as comparing the values in Java may disagree with the comparison by the database.
+	 */
+	@Nonnull
+	private List<String> getInvalidModifiedFlagColumnNames(@Nonnull TableRow tableRow)
+	{
+		final List<String> invalidModifiedFlagColumnNames = new ArrayList<>();
+		int columnIndex = 0;
+		for (String modifiedFlagColumnName : modifiedFlagColumnNamesByColumnName.values())
+		{
+			if (isSet(getColumnValue(tableRow, DatabaseQueries.INVALID_MODIFIED_FLAG_COLUMN_NAME_PREFIX + columnIndex++)))
+			{
+				invalidModifiedFlagColumnNames.add(modifiedFlagColumnName);
+			}
+		}
+		return invalidModifiedFlagColumnNames;
+	}
+
+	@CheckForNull
+	private static Object getColumnValue(@Nonnull TableRow tableRow, @Nonnull String columnName)
+	{
+		final int columnIndex = tableRow.getTableColumns().getIndexIgnoringCase(columnName);
+		return columnIndex < 0 ? null : tableRow.getColumnValue(columnIndex);
+	}
+
+	/**
+	 * Envers maps the modified flags to a numeric column if the database has no boolean type.
+	 */
+	private static boolean isSet(@Nullable Object modifiedFlag)
+	{
+		if (modifiedFlag instanceof Number)
+		{
+			return ((Number) modifiedFlag).intValue() == 1;
+		}
+		return Boolean.TRUE.equals(modifiedFlag);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Detects Modify revisions which do not change any data column, such revisions only take up storage.
+ * The data columns are all columns of the audit table and its parent audit tables except for the primary identifier, the revision columns and the modified flags.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class NoOpModifyRevisionValidator
+{
+	private final ConnectionProviderInstance connectionProvider;
+	private final AuditTableInformation auditTableInformation;
+	private final List<String> primaryIdentifierColumnNames;
+	private final List<String> dataColumnNames;
+	private final Map<String, String> auditTableGroups;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	public NoOpModifyRevisionValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull List<String> dataColumnNames, @Nonnull Map<String, String> auditTableGroups)
+	{
+		this.connectionProvider = connectionProvider;
+		this.auditTableInformation = auditTableInformation;
+		this.primaryIdentifierColumnNames = primaryIdentifierColumnNames;
+		this.dataColumnNames = dataColumnNames;
+		this.auditTableGroups = auditTableGroups;
+	}
+
+	/**
+	 * Audit tables without data columns are not validated, neither are audit tables with a data column which cannot be compared by the database, such as a LOB column.
+	 * Ignoring such a column would report a Modify revision changing only that column as a no-op revision.
+	 */
+	@Parameterized(name = "{index}: auditTableName: {1}", uniqueIdentifier = "{1}")
+	public static List<Object[]> generateTestData(@Nonnull @ConnectionProvider ConnectionProviderInstance connectionProvider, @Nonnull @AuditTableInformationMap Map<String, AuditTableInformation> auditTableInformationMap) throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final Map<String, String> auditTableGroups = getAuditTableGroups(databaseQueries, auditTableInformationMap);
+
+		final List<Object[]> testData = new ArrayList<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			final List<String> primaryIdentifierColumnNames = databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getValue().getContentTableName());
+
+			final Set<String> excludedColumnNames = new HashSet<>();
+			excludedColumnNames.add(databaseQueries.getRevisionTableIdentifierColumnName().toUpperCase());
+			excludedColumnNames.add(databaseQueries.getRevTypeColumnName().toUpperCase());
+			excludedColumnNames.add(databaseQueries.getRevisionEndColumnName().toUpperCase());
+			excludedColumnNames.add(databaseQueries.getRevisionEndTimestampColumnName().toUpperCase());
+			for (String primaryIdentifierColumnName : primaryIdentifierColumnNames)
+			{
+				excludedColumnNames.add(primaryIdentifierColumnName.toUpperCase());
+			}
+
+			final String modifiedFlagSuffix = databaseQueries.getModifiedFlagSuffix().toUpperCase();
+			final List<String> dataColumnNames = new ArrayList<>();
+			boolean comparable = true;
+			for (AuditTableInformation auditTable = auditTableInformation.getValue(); auditTable != null; auditTable = auditTable.getAuditTableParent())
+			{
+				final String auditTableName = auditTable.getAuditTableName();
+
+				final Set<String> nonComparableColumnNames = databaseQueries.getNonComparableColumnNames(auditTableName);
+				for (String columnName : new TreeSet<>(databaseQueries.getAllColumns(auditTableName)))
+				{
+					if (!excludedColumnNames.contains(columnName.toUpperCase()) && !columnName.toUpperCase().endsWith(modifiedFlagSuffix))
+					{
+						comparable &= !nonComparableColumnNames.contains(columnName.toUpperCase());
+						dataColumnNames.add(auditTableName + "." + columnName);
+					}
+				}
+			}
+
+			if (comparable && !dataColumnNames.isEmpty())
+			{
+				testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), primaryIdentifierColumnNames, dataColumnNames, auditTableGroups });
+			}
+		}
+
+		return testData;
+	}
+
+	/**
+	 * Determined once for all audit tables, the audit tables of an inheritance hierarchy form a single group named after the root of the hierarchy.
+	 * Each other table with a foreign key to the revision table, such as the audit table of a collection, forms a group of its own.
+	 */
+	@Nonnull
+	private static Map<String, String> getAuditTableGroups(@Nonnull DatabaseQueries databaseQueries, @Nonnull Map<String, AuditTableInformation> auditTableInformationMap) throws SQLException, DataSetException
+	{
+		final Map<String, String> auditTableGroups = new TreeMap<>();
+		final Set<String> groupedAuditTableNames = new HashSet<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			AuditTableInformation root = auditTableInformation.getValue();
+			while (root.getAuditTableParent() != null)
+			{
+				root = root.getAuditTableParent();
+			}
+
+			for (AuditTableInformation auditTable = auditTableInformation.getValue(); auditTable != null; auditTable = auditTable.getAuditTableParent())
+			{
+				if (groupedAuditTableNames.add(auditTable.getAuditTableName().toUpperCase()))
+				{
+					auditTableGroups.put(auditTable.getAuditTableName(), root.getAuditTableName().toUpperCase());
+				}
+			}
+		}
+
+		for (String tableWithRevisions : databaseQueries.getListOfTablesWithForeignKeysToRevisionTable())
+		{
+			if (groupedAuditTableNames.add(tableWithRevisions.toUpperCase()))
+			{
+				auditTableGroups.put(tableWithRevisions, tableWithRevisions.toUpperCase());
+			}
+		}
+		return auditTableGroups;
+	}
+
+	/**
+	 * Validates that each Modify revision changes at least one data column compared to the previous Add/Modify revision of the same record.
+	 * A Modify revision of which the revision also changed another audit table is not validated, Envers writes such a revision for a changed collection or relation of the record.
+	 * The no-op revisions are only reported to estimate the storage a cleanup would free up, they do not fail the validation as Envers writes them in regular use, for example when a property excluded from auditing changes.
+	 * The number of no-op revisions is logged as a warning, only the first revisions are fetched as example.
+	 */
+	@Validate
+	public void validateModifyRevisionsChangeData() throws SQLException, DataSetException
+	{
+		final TableRowSample noOpRevisions = connectionProvider.getQueries().getNoOpModifyRevisions(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames, dataColumnNames, auditTableGroups, validationReport.getMaximumExamplesPerValidation());
+
+		final ViolationCollector<Void> noOpModifyRevisions = new ViolationCollector<>(validationReport);
+		for (String revision : noOpRevisions.getRows().keySet())
+		{
+			noOpModifyRevisions.add(revision, () -> "Modify revision is identical to the previous revision in " + auditTableInformation.getAuditTableName() + ".");
+		}
+		noOpModifyRevisions.addUnfetched(noOpRevisions.getCount() - noOpRevisions.getRows().size());
+
+		if (!noOpModifyRevisions.isEmpty())
+		{
+			connectionProvider.getLog().warn(noOpModifyRevisions.getCount() + " Modify revisions in " + auditTableInformation.getAuditTableName() + " do not change any data column, for example " + noOpModifyRevisions.getExampleIdentifiers() + ".");
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Validates that the audit table of an entity extending another entity matches the audit table of its parent entity, revision by revision.
+ * Revisions without a counterpart are dropped by the joins on the parent audit tables, and would therefore not be noticed by the other validators.
+ * Each level of an inheritance hierarchy is validated separately, all matching is executed by the database.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class ParentAuditTableValidator
+{
+	private final ConnectionProviderInstance connectionProvider;
+	private final AuditTableInformation auditTableInformation;
+	private final List<String> primaryIdentifierColumnNames;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	public ParentAuditTableValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames)
+	{
+		this.connectionProvider = connectionProvider;
+		this.auditTableInformation = auditTableInformation;
+		this.primaryIdentifierColumnNames = primaryIdentifierColumnNames;
+	}
+
+	/**
+	 * Only the audit tables with a parent audit table are validated.
+	 */
+	@Parameterized(name = "{index}: auditTableName: {1}", uniqueIdentifier = "{1}")
+	public static List<Object[]> generateTestData(@Nonnull @ConnectionProvider ConnectionProviderInstance connectionProvider, @Nonnull @AuditTableInformationMap Map<String, AuditTableInformation> auditTableInformationMap) throws SQLException, DataSetException
+	{
+		final List<Object[]> testData = new ArrayList<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			if (auditTableInformation.getValue().getAuditTableParent() != null)
+			{
+				final List<String> primaryIdentifierColumnNames = connectionProvider.getQueries().getPrimaryKeyColumnNames(auditTableInformation.getValue().getContentTableName());
+				testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), primaryIdentifierColumnNames });
+			}
+		}
+
+		return testData;
+	}
+
+	/**
+	 * Validates that each revision in the audit table has a revision of the same record in the audit table of the parent entity.
+	 */
+	@Validate
+	public void validateAllRevisionsHaveAParentRevision() throws SQLException, DataSetException
+	{
+		final AuditTableInformation auditTableParent = getAuditTableParent();
+		final Map<String, TableRow> orphanedRevisions = connectionProvider.getQueries().getRevisionsWithoutParentRevision(connectionProvider.getScanConnection(), auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+
+		final ViolationCollector<Void> revisionsWithoutParentRevision = new ViolationCollector<>(validationReport);
+		for (String revision : orphanedRevisions.keySet())
+		{
+			revisionsWithoutParentRevision.add(revision, () -> "No revision present in parent audit table " + auditTableParent.getAuditTableName() + ".");
+		}
+
+		if (!revisionsWithoutParentRevision.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsWithoutParentRevision.getExampleIdentifiers() + " in " + auditTableInformation.getAuditTableName() + " do not have a revision of the same record in parent audit table " + auditTableParent.getAuditTableName() + "." + revisionsWithoutParentRevision.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * Validates that each revision in the audit table of the parent entity of a record present in the audit table, has a revision of the same record in the audit table.
+	 * Revisions in the parent audit table of records which are not present in the audit table belong to the parent entity itself or to another child entity.
+	 */
+	@Validate
+	public void validateAllParentRevisionsHaveAChildRevision() throws SQLException, DataSetException
+	{
+		final AuditTableInformation auditTableParent = getAuditTableParent();
+		final Map<String, TableRow> orphanedRevisions = connectionProvider.getQueries().getParentRevisionsWithoutChildRevision(connectionProvider.getScanConnection(), auditTableInformation, auditTableParent, primaryIdentifierColumnNames);
+
+		final ViolationCollector<Void> parentRevisionsWithoutChildRevision = new ViolationCollector<>(validationReport);
+		for (String revision : orphanedRevisions.keySet())
+		{
+			parentRevisionsWithoutChildRevision.add(revision, () -> "No revision present in child audit table " + auditTableInformation.getAuditTableName() + ".");
+		}
+
+		if (!parentRevisionsWithoutChildRevision.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + parentRevisionsWithoutChildRevision.getExampleIdentifiers() + " in parent audit table " + auditTableParent.getAuditTableName() + " do not have a revision of the same record in " + auditTableInformation.getAuditTableName() + "." + parentRevisionsWithoutChildRevision.getOmittedViolationsRemark());
+		}
+	}
+
+	@Nonnull
+	private AuditTableInformation getAuditTableParent()
+	{
+		final AuditTableInformation auditTableParent = auditTableInformation.getAuditTableParent();
+		if (auditTableParent == null)
+		{
+			throw new IllegalStateException(auditTableInformation + " does not have a parent audit table.");
+		}
+		return auditTableParent;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Validates the references between the audit tables and the revision table, regardless of whether these are enforced by foreign keys.
+ * The revisions of all audit tables are combined in a single query, instead of querying each audit table separately.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class RevisionTableReferenceValidator
+{
+	@AuditTableInformationMap
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@ConnectionProvider
+	private ConnectionProviderInstance connectionProvider;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	/**
+	 * Validates that all revisions referenced by the audit tables are present in the revision table.
+	 */
+	@Validate
+	public void validateAllRevisionsArePresentInRevisionTable() throws SQLException, DataSetException
+	{
+		final Set<String> auditTableNames = getAuditTableNames();
+		if (auditTableNames.isEmpty())
+		{
+			return;
+		}
+
+		final RevisionSample missingRevisions = connectionProvider.getQueries().getRevisionsMissingFromRevisionTable(connectionProvider.getScanConnection(), auditTableNames, validationReport.getMaximumExamplesPerValidation());
+		final ViolationCollector<Void> revisionsMissingFromRevisionTable = new ViolationCollector<>(validationReport);
+		for (String revision : missingRevisions.getRevisions())
+		{
+			revisionsMissingFromRevisionTable.add(revision, () -> "Revision is referenced by an audit table but not present in the revision table.");
+		}
+		revisionsMissingFromRevisionTable.addUnfetched(missingRevisions.getCount() - missingRevisions.getRevisions().size());
+
+		if (!revisionsMissingFromRevisionTable.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsMissingFromRevisionTable.getExampleIdentifiers() + " are referenced by audit tables but are not present in the revision table " + connectionProvider.getQueries().getRevisionTableName() + "." + revisionsMissingFromRevisionTable.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * Validates that all revisions in the revision table are referenced by at least one audit table.
+	 * Besides the configured audit tables, all tables with a foreign key to the revision table are taken into account, as a revision may only change audit tables which are not configured, such as the audit table of a collection.
+	 */
+	@Validate
+	public void validateAllRevisionsInRevisionTableAreReferenced() throws SQLException, DataSetException
+	{
+		final Set<String> auditTableNames = getAuditTableNames();
+		if (auditTableNames.isEmpty())
+		{
+			return;
+		}
+		addTablesWithForeignKeysToRevisionTable(auditTableNames);
+
+		final RevisionSample unreferencedRevisions = connectionProvider.getQueries().getRevisionsNotReferencedByAuditTables(connectionProvider.getScanConnection(), auditTableNames, validationReport.getMaximumExamplesPerValidation());
+		final ViolationCollector<Void> revisionsNotReferenced = new ViolationCollector<>(validationReport);
+		for (String revision : unreferencedRevisions.getRevisions())
+		{
+			revisionsNotReferenced.add(revision, () -> "Revision is present in the revision table but not referenced by any audit table.");
+		}
+		revisionsNotReferenced.addUnfetched(unreferencedRevisions.getCount() - unreferencedRevisions.getRevisions().size());
+
+		if (!revisionsNotReferenced.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsNotReferenced.getExampleIdentifiers() + " in the revision table " + connectionProvider.getQueries().getRevisionTableName() + " are not referenced by any audit table." + revisionsNotReferenced.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * @return The names of the audit tables, including those of the parent entities.
+	 */
+	@Nonnull
+	private Set<String> getAuditTableNames()
+	{
+		final Set<String> auditTableNames = new TreeSet<>();
+		for (AuditTableInformation auditTableInformation : auditTableInformationMap.values())
+		{
+			for (AuditTableInformation auditTable = auditTableInformation; auditTable != null; auditTable = auditTable.getAuditTableParent())
+			{
+				auditTableNames.add(auditTable.getAuditTableName());
+			}
+		}
+		return auditTableNames;
+	}
+
+	/**
+	 * Adds the tables with a foreign key to the revision table which are not present yet, the names of the tables are compared case insensitive.
+	 */
+	private void addTablesWithForeignKeysToRevisionTable(@Nonnull Set<String> auditTableNames) throws SQLException, DataSetException
+	{
+		final Set<String> upperCaseAuditTableNames = new HashSet<>();
+		for (String auditTableName : auditTableNames)
+		{
+			upperCaseAuditTableNames.add(auditTableName.toUpperCase());
+		}
+
+		for (String tableName : connectionProvider.getQueries().getListOfTablesWithForeignKeysToRevisionTable())
+		{
+			if (upperCaseAuditTableNames.add(tableName.toUpperCase()))
+			{
+				auditTableNames.add(tableName);
+			}
+		}
+	}
+}
\ No newline at end of file
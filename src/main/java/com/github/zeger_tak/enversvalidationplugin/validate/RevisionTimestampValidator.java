@@ -0,0 +1,76 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Validates the content of the revision table.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class RevisionTimestampValidator
+{
+	@ConnectionProvider
+	private ConnectionProviderInstance connectionProvider;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	/**
+	 * Validates that the timestamps of the revisions do not decrease when the revisions increase, as Envers relies on this when querying by date.
+	 * Decreasing timestamps are typically caused by clock skew between application servers or by manually inserted revisions.
+	 * The timestamps are compared by the database, consecutive revisions of which the timestamp precedes that of the previous revision are reported as a single range (E.g. 5-9), of which only the first revision is fetched.
+	 */
+	@Validate
+	public void validateRevisionTimestampsIncreaseWithRevisions() throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final TableRowSample violations = databaseQueries.getRevisionsWithDecreasingTimestamp(connectionProvider.getScanConnection(), validationReport.getMaximumExamplesPerValidation());
+
+		final ViolationCollector<Void> revisionsWithDecreasingTimestamp = new ViolationCollector<>(validationReport);
+		for (Map.Entry<String, TableRow> violation : violations.getRows().entrySet())
+		{
+			final TableRow tableRow = violation.getValue();
+			final Object lastRevision = getColumnValue(tableRow, DatabaseQueries.LAST_REVISION_COLUMN_NAME);
+			if (lastRevision == null || violation.getKey().equals(String.valueOf(lastRevision)))
+			{
+				revisionsWithDecreasingTimestamp.add(violation.getKey(), () -> "Timestamp " + getColumnValue(tableRow, databaseQueries.getRevisionTableTimestampColumnName()) + " precedes timestamp " + getColumnValue(tableRow, DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1) + " of previous revision " + getColumnValue(tableRow, DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0) + ".");
+			}
+			else
+			{
+				revisionsWithDecreasingTimestamp.add(violation.getKey() + "-" + lastRevision, () -> "Each of the " + getColumnValue(tableRow, DatabaseQueries.REVISION_COUNT_COLUMN_NAME) + " consecutive revisions has a timestamp preceding that of its previous revision, starting with timestamp " + getColumnValue(tableRow, databaseQueries.getRevisionTableTimestampColumnName()) + " of revision " + violation.getKey() + " preceding timestamp " + getColumnValue(tableRow, DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1) + " of previous revision " + getColumnValue(tableRow, DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0) + ".");
+			}
+		}
+		revisionsWithDecreasingTimestamp.addUnfetched(violations.getCount() - violations.getRows().size());
+
+		if (!revisionsWithDecreasingTimestamp.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsWithDecreasingTimestamp.getExampleIdentifiers() + " in " + databaseQueries.getRevisionTableName() + " have a timestamp preceding the timestamp of the previous revision." + revisionsWithDecreasingTimestamp.getOmittedViolationsRemark());
+		}
+	}
+
+	@CheckForNull
+	private static Object getColumnValue(@Nonnull TableRow tableRow, @Nonnull String columnName)
+	{
+		final int columnIndex = tableRow.getTableColumns().getIndexIgnoringCase(columnName);
+		return columnIndex < 0 ? null : tableRow.getColumnValue(columnIndex);
+	}
+}
\ No newline at end of file
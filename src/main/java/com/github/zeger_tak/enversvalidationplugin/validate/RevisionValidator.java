@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,15 +15,24 @@ import javax.annotation.Nullable;
 import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
 import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
 import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
 import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
 import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
 import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
 import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.connection.SnapshotSavepoint;
+import com.github.zeger_tak.enversvalidationplugin.connection.TimeLimit;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
 import com.github.zeger_tak.enversvalidationplugin.entities.RevisionConstants;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
 import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationTimeoutException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import com.github.zeger_tak.enversvalidationplugin.utils.ColumnValueComparator;
 import org.dbunit.dataset.DataSetException;
 
 /**
@@ -34,14 +44,24 @@ public class RevisionValidator
 	private final ConnectionProviderInstance connectionProvider;
 	private final AuditTableInformation auditTableInformation;
 	private final Map<String, List<TableRow>> recordsInAuditTable;
-	private final Map<String, TableRow> recordsInContentTableIdentifiedByPK;
+	private final ContentKeyIndex contentKeyIndex;
+	private final Map<TableColumns, ColumnComparisonPlan> columnComparisonPlans = new HashMap<>();
+	private Set<String> columnNamesPresentInContentTableButNotInAuditTable;
+	private Set<String> fixedWidthCharacterColumnNames;
 
-	public RevisionValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nonnull Map<String, List<TableRow>> recordsInAuditTable, @Nonnull Map<String, TableRow> recordsInContentTableIdentifiedByPK)
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	/**
+	 * @param recordsInAuditTable The audit records grouped by identifier, null if loading the records exceeded the time limit.
+	 * @param contentKeyIndex The identifiers of the records in the content table, the content itself is only retrieved while validating the latest revisions. Null if loading the identifiers exceeded the time limit.
+	 */
+	public RevisionValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nullable Map<String, List<TableRow>> recordsInAuditTable, @Nullable ContentKeyIndex contentKeyIndex)
 	{
 		this.connectionProvider = connectionProvider;
 		this.auditTableInformation = auditTableInformation;
 		this.recordsInAuditTable = recordsInAuditTable;
-		this.recordsInContentTableIdentifiedByPK = recordsInContentTableIdentifiedByPK;
+		this.contentKeyIndex = contentKeyIndex;
 	}
 
 	@Parameterized(name = "{index}: auditTableName: {1}", uniqueIdentifier = "{1}")
@@ -53,9 +73,25 @@ public class RevisionValidator
 		{
 			final List<String> primaryIdentifierColumnNames = databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getValue().getContentTableName());
 
-			final Map<String, TableRow> recordsInContentTableById = databaseQueries.getContentRecords(connectionProvider.getDatabaseConnection(), auditTableInformation.getValue(), primaryIdentifierColumnNames);
-			final Map<String, List<TableRow>> auditRecordsGroupedByContentPrimaryKey = databaseQueries.getAuditRecordsGroupedByContentPrimaryKey(connectionProvider.getDatabaseConnection(), auditTableInformation.getValue(), primaryIdentifierColumnNames);
-			testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), auditRecordsGroupedByContentPrimaryKey, recordsInContentTableById });
+			try (TimeLimit timeLimit = connectionProvider.startTimeLimit("loading " + auditTableInformation.getKey()); SnapshotSavepoint savepoint = connectionProvider.startSnapshotSavepoint())
+			{
+				try
+				{
+					final ContentKeyIndex contentKeyIndex = databaseQueries.getContentKeyIndex(connectionProvider.getScanConnection(), auditTableInformation.getValue(), primaryIdentifierColumnNames);
+					final Map<String, List<TableRow>> auditRecordsGroupedByContentPrimaryKey = databaseQueries.getAuditRecordsGroupedByContentPrimaryKey(connectionProvider.getScanConnection(), auditTableInformation.getValue(), primaryIdentifierColumnNames);
+					testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), auditRecordsGroupedByContentPrimaryKey, contentKeyIndex });
+				}
+				catch (SQLException | DataSetException e)
+				{
+					if (!timeLimit.isExpired())
+					{
+						throw e;
+					}
+					savepoint.rollback();
+					// The validations of this audit table report the timeout, the remaining audit tables are loaded regardless.
+					testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), null, null });
+				}
+			}
 		}
 
 		return testData;
@@ -77,7 +113,8 @@ public class RevisionValidator
 	@Validate
 	public void validateHistoryIsAValidFlow()
 	{
-		final List<String> identifiersWithInvalidHistory = new ArrayList<>(recordsInAuditTable.size());
+		verifyTableDataLoaded();
+		final ViolationCollector<Void> identifiersWithInvalidHistory = new ViolationCollector<>(validationReport);
 		for (Map.Entry<String, List<TableRow>> auditHistoryPerIdentifier : recordsInAuditTable.entrySet())
 		{
 			boolean existingRecord = false;
@@ -92,13 +129,13 @@ public class RevisionValidator
 				final int revType = ((BigDecimal) columnValue).intValue();
 				if (!existingRecord && revType != RevisionConstants.ADD_REVISION)
 				{
-					identifiersWithInvalidHistory.add(auditHistoryPerIdentifier.getKey());
+					identifiersWithInvalidHistory.add(auditHistoryPerIdentifier.getKey(), () -> "History does not start with an Add revision, or has a Modify/Remove revision after a Remove revision.");
 					break;
 				}
 
 				if (existingRecord && revType == RevisionConstants.ADD_REVISION)
 				{
-					identifiersWithInvalidHistory.add(auditHistoryPerIdentifier.getKey());
+					identifiersWithInvalidHistory.add(auditHistoryPerIdentifier.getKey(), () -> "History has an Add revision following an Add or Modify revision.");
 					break;
 				}
 
@@ -108,17 +145,24 @@ public class RevisionValidator
 
 		if (!identifiersWithInvalidHistory.isEmpty())
 		{
-			throw new ValidationException("The following identifiers " + identifiersWithInvalidHistory + " have an invalid audit history in " + auditTableInformation.getAuditTableName() + " for the table " + auditTableInformation.getContentTableName());
+			throw new ValidationException("The following identifiers " + identifiersWithInvalidHistory.getExampleIdentifiers() + " have an invalid audit history in " + auditTableInformation.getAuditTableName() + " for the table " + auditTableInformation.getContentTableName() + identifiersWithInvalidHistory.getOmittedViolationsRemark());
 		}
 	}
 
 	/**
 	 * Validates that the latest revision for each primary key is not an Add/Modify revision if there is no corresponding record in the content table.
+	 * Skipped for audit tables with a revision end column, these are validated by the {@link ValidityAuditStrategyValidator}.
 	 */
 	@Validate
-	public void validateLatestAddOrModifyRevisionRefersToExistingContent()
+	public void validateLatestAddOrModifyRevisionRefersToExistingContent() throws SQLException, DataSetException
 	{
-		final List<String> recordsWithAnAddOrModifyLatestRevisionButNoExistingContent = new ArrayList<>(recordsInAuditTable.size());
+		verifyTableDataLoaded();
+		if (isValidatedByValidityAuditStrategyValidator())
+		{
+			return;
+		}
+
+		final ViolationCollector<Void> recordsWithAnAddOrModifyLatestRevisionButNoExistingContent = new ViolationCollector<>(validationReport);
 		for (Map.Entry<String, List<TableRow>> auditHistoryPerIdentifier : recordsInAuditTable.entrySet())
 		{
 			final List<TableRow> historyFlow = auditHistoryPerIdentifier.getValue();
@@ -140,38 +184,53 @@ public class RevisionValidator
 				continue;
 			}
 
-			final TableRow contentTableRow = recordsInContentTableIdentifiedByPK.get(auditHistoryPerIdentifier.getKey());
-			if (contentTableRow == null)
+			if (!contentKeyIndex.contains(auditHistoryPerIdentifier.getKey()))
 			{
-				recordsWithAnAddOrModifyLatestRevisionButNoExistingContent.add(auditHistoryPerIdentifier.getKey());
+				recordsWithAnAddOrModifyLatestRevisionButNoExistingContent.add(auditHistoryPerIdentifier.getKey(), () -> "Latest revision is of type Add/Modify but no record is present in content table " + auditTableInformation.getContentTableName() + ".");
 			}
 		}
 
 		if (!recordsWithAnAddOrModifyLatestRevisionButNoExistingContent.isEmpty())
 		{
-			throw new ValidationException("The following identifiers " + recordsWithAnAddOrModifyLatestRevisionButNoExistingContent + " have a latest revision of type Add/Modify but have no record present in content table " + auditTableInformation.getContentTableName() + ".");
+			throw new ValidationException("The following identifiers " + recordsWithAnAddOrModifyLatestRevisionButNoExistingContent.getExampleIdentifiers() + " have a latest revision of type Add/Modify but have no record present in content table " + auditTableInformation.getContentTableName() + "." + recordsWithAnAddOrModifyLatestRevisionButNoExistingContent.getOmittedViolationsRemark());
 		}
 	}
 
 	/**
 	 * Validates all records in content table have a valid latest revision, meaning:
-	 * - Record is of type Add/Modify.
+	 * - Record is of type Add/Modify, not validated for audit tables with a revision end column as these are validated by the {@link ValidityAuditStrategyValidator}.
 	 * - Record values in audit table fully match the record values in the content table.
 	 * - The audit table may have columns which are not present in the content table.
 	 * - The content table may not have columns which are not present in the audit table.
 	 */
 	@Validate
-	public void validateAllRecordsInContentTableHaveAValidLatestRevision()
+	public void validateAllRecordsInContentTableHaveAValidLatestRevision() throws SQLException, DataSetException
 	{
-		final List<String> identifiersWhichShouldHaveAnAddOrModifyRevision = new ArrayList<>(recordsInContentTableIdentifiedByPK.size());
-		final Map<String, Map<String, TableRow>> rowsWithDifferentValues = new HashMap<>();
+		verifyTableDataLoaded();
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final List<String> primaryIdentifierColumnNames = databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getContentTableName());
+		final Map<String, TableRow> recordsInContentTableIdentifiedByPK = databaseQueries.getContentRecords(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames);
+		final boolean validatedByValidityAuditStrategyValidator = isValidatedByValidityAuditStrategyValidator();
+
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(validationReport);
+		if (!validatedByValidityAuditStrategyValidator)
+		{
+			contentKeyIndex.forEach(primaryKeyIdentifier -> {
+				if (!recordsInAuditTable.containsKey(primaryKeyIdentifier))
+				{
+					identifiersWhichShouldHaveAnAddOrModifyRevision.add(primaryKeyIdentifier, () -> "Record in content table " + auditTableInformation.getContentTableName() + " has no revision at all.");
+				}
+			});
+		}
+
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(validationReport);
 		for (Map.Entry<String, TableRow> contentRow : recordsInContentTableIdentifiedByPK.entrySet())
 		{
 			final String primaryKeyIdentifier = contentRow.getKey();
 			final List<TableRow> auditHistoryValue = recordsInAuditTable.get(primaryKeyIdentifier);
 			if (auditHistoryValue == null)
 			{
-				identifiersWhichShouldHaveAnAddOrModifyRevision.add(primaryKeyIdentifier);
+				// Reported using the content key index above.
 				continue;
 			}
 
@@ -184,14 +243,18 @@ public class RevisionValidator
 			final int revType = ((BigDecimal) columnValue).intValue();
 			if (revType == RevisionConstants.REMOVE_REVISION)
 			{
-				identifiersWhichShouldHaveAnAddOrModifyRevision.add(primaryKeyIdentifier);
+				if (validatedByValidityAuditStrategyValidator)
+				{
+					continue;
+				}
+				identifiersWhichShouldHaveAnAddOrModifyRevision.add(primaryKeyIdentifier, () -> "Record in content table " + auditTableInformation.getContentTableName() + " has a Remove revision as its latest revision.");
 				continue;
 			}
 
 			final Map<String, TableRow> incorrectColumns = determineIncorrectColumns(contentRow.getValue(), lastRecord);
 			if (!incorrectColumns.isEmpty())
 			{
-				rowsWithDifferentValues.put(primaryKeyIdentifier, incorrectColumns);
+				rowsWithDifferentValues.add(primaryKeyIdentifier, incorrectColumns, () -> describeIncorrectColumns(incorrectColumns));
 			}
 		}
 
@@ -201,10 +264,14 @@ public class RevisionValidator
 	@Validate
 	public void validateRemoveRevisions() throws SQLException, DataSetException
 	{
-		final Map<String, List<Object>> identifiersWithNonPrimaryKeyColumnsFilled = new HashMap<>();
+		verifyTableDataLoaded();
+		final ViolationCollector<List<Object>> identifiersWithNonPrimaryKeyColumnsFilled = new ViolationCollector<>(validationReport);
 		final String revTypeColumnName = connectionProvider.getQueries().getRevTypeColumnName();
 		final String revisionTableIdentifierColumnName = connectionProvider.getQueries().getRevisionTableIdentifierColumnName();
 		final Set<String> nonnullColumns = connectionProvider.getQueries().getAllNonnullColumns(auditTableInformation.getAuditTableName());
+		// The validity audit strategy fills the revision end of a remove revision once the record is added again.
+		final String revisionEndColumnName = connectionProvider.getQueries().getRevisionEndColumnName();
+		final String revisionEndTimestampColumnName = connectionProvider.getQueries().getRevisionEndTimestampColumnName();
 		for (Map.Entry<String, List<TableRow>> auditHistoryPerIdentifier : recordsInAuditTable.entrySet())
 		{
 			final List<Object> revisionsWithNullableColumnsWithNonnullValues = new ArrayList<>();
@@ -224,7 +291,7 @@ public class RevisionValidator
 				boolean hasNullableColumnsWithNonnullValues = false;
 				for (String columnName : tableRow.getColumnNames())
 				{
-					if (!nonnullColumns.contains(columnName) && tableRow.getColumnValue(columnName) != null)
+					if (!nonnullColumns.contains(columnName) && !columnName.equals(revisionEndColumnName) && !columnName.equals(revisionEndTimestampColumnName) && tableRow.getColumnValue(columnName) != null)
 					{
 						hasNullableColumnsWithNonnullValues = true;
 						break;
@@ -238,7 +305,7 @@ public class RevisionValidator
 
 			if (!revisionsWithNullableColumnsWithNonnullValues.isEmpty())
 			{
-				identifiersWithNonPrimaryKeyColumnsFilled.put(auditHistoryPerIdentifier.getKey(), revisionsWithNullableColumnsWithNonnullValues);
+				identifiersWithNonPrimaryKeyColumnsFilled.add(auditHistoryPerIdentifier.getKey(), revisionsWithNullableColumnsWithNonnullValues, () -> "Remove revisions " + revisionsWithNullableColumnsWithNonnullValues + " have nonnull values in nullable columns.");
 			}
 		}
 
@@ -246,7 +313,7 @@ public class RevisionValidator
 		{
 			final StringBuilder errorMessage = new StringBuilder();
 			errorMessage.append("Identifiers found with nonnull values in nullable columns for Remove revisions: \n");
-			for (Map.Entry<String, List<Object>> identifierWithNonPrimaryKeyColumnsFilled : identifiersWithNonPrimaryKeyColumnsFilled.entrySet())
+			for (Map.Entry<String, List<Object>> identifierWithNonPrimaryKeyColumnsFilled : identifiersWithNonPrimaryKeyColumnsFilled.getExamples().entrySet())
 			{
 				errorMessage.append("Identifier ");
 				errorMessage.append(identifierWithNonPrimaryKeyColumnsFilled.getKey());
@@ -254,28 +321,29 @@ public class RevisionValidator
 				errorMessage.append(identifierWithNonPrimaryKeyColumnsFilled.getValue());
 				errorMessage.append("\n");
 			}
+			errorMessage.append(identifiersWithNonPrimaryKeyColumnsFilled.getOmittedViolationsRemark());
 
 			throw new ValidationException(errorMessage.toString());
 		}
 	}
 
 	@Nonnull
-	Map<String, TableRow> determineIncorrectColumns(@Nonnull TableRow actualRecord, @Nonnull TableRow lastRevision)
+	Map<String, TableRow> determineIncorrectColumns(@Nonnull TableRow actualRecord, @Nonnull TableRow lastRevision) throws SQLException, DataSetException
 	{
-		final Set<String> columnNames = actualRecord.getColumnNames();
+		final ColumnComparisonPlan columnComparisonPlan = getColumnComparisonPlan(actualRecord.getTableColumns(), lastRevision.getTableColumns());
 		final Map<String, TableRow> incorrectColumns = new HashMap<>();
-		for (String columnName : columnNames)
+		for (int i = 0; i < columnComparisonPlan.contentColumnIndexes.length; i++)
 		{
-			final Object auditValue = lastRevision.getColumnValue(columnName);
-			final Object actualColumnValue = actualRecord.getColumnValue(columnName);
+			final int auditColumnIndex = columnComparisonPlan.auditColumnIndexes[i];
+			final Object auditValue = auditColumnIndex < 0 ? null : lastRevision.getColumnValue(auditColumnIndex);
+			final Object actualColumnValue = actualRecord.getColumnValue(columnComparisonPlan.contentColumnIndexes[i]);
 
-			if (auditValue == null && auditTableInformation.getColumnNamesPresentInContentTableButNotInAuditTable().contains(columnName.toUpperCase()))
+			if (auditValue == null && columnComparisonPlan.notAudited[i])
 			{
 				continue;
 			}
 
-			final int compare = compare((Comparable) actualColumnValue, (Comparable) auditValue);
-			if (compare != 0)
+			if (!columnComparisonPlan.isEqual(i, actualColumnValue, auditValue))
 			{
 				if (incorrectColumns.isEmpty())
 				{
@@ -283,6 +351,7 @@ public class RevisionValidator
 					incorrectColumns.put("audit", new TableRow());
 				}
 
+				final String columnName = columnComparisonPlan.columnNames[i];
 				incorrectColumns.get("actual").addColumn(columnName, actualColumnValue);
 				incorrectColumns.get("audit").addColumn(columnName, auditValue);
 			}
@@ -290,44 +359,78 @@ public class RevisionValidator
 		return incorrectColumns;
 	}
 
-	public static <T extends Comparable<? super T>> int compare(@Nullable final Comparable c1, @Nullable final Comparable c2)
+	private boolean isValidatedByValidityAuditStrategyValidator() throws SQLException, DataSetException
 	{
-		if (c1 == c2)
-		{
-			return 0;
-		}
-		else if (c1 == null)
-		{
-			return -1;
-		}
-		else if (c2 == null)
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		return databaseQueries.getAllColumns(auditTableInformation.getAuditTableName()).contains(databaseQueries.getRevisionEndColumnName());
+	}
+
+	private void verifyTableDataLoaded()
+	{
+		if (recordsInAuditTable == null || contentKeyIndex == null)
 		{
-			return 1;
+			throw new ValidationTimeoutException("Loading the records of " + auditTableInformation.getAuditTableName() + " and " + auditTableInformation.getContentTableName() + " exceeded the time limit, the queries were cancelled.");
 		}
-		else if (!c1.getClass().isAssignableFrom(c2.getClass()))
+	}
+
+	/**
+	 * @return The comparison plan for rows with the given columns, a plan is created once per distinct combination of content and audit columns.
+	 */
+	@Nonnull
+	private ColumnComparisonPlan getColumnComparisonPlan(@Nonnull TableColumns contentColumns, @Nonnull TableColumns auditColumns) throws SQLException, DataSetException
+	{
+		ColumnComparisonPlan columnComparisonPlan = columnComparisonPlans.get(auditColumns);
+		if (columnComparisonPlan == null || !columnComparisonPlan.contentColumns.equals(contentColumns))
 		{
-			return -1;
+			if (columnNamesPresentInContentTableButNotInAuditTable == null)
+			{
+				columnNamesPresentInContentTableButNotInAuditTable = auditTableInformation.getColumnNamesPresentInContentTableButNotInAuditTable();
+			}
+			if (fixedWidthCharacterColumnNames == null)
+			{
+				final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+				fixedWidthCharacterColumnNames = new HashSet<>(databaseQueries.getFixedWidthCharacterColumnNames(auditTableInformation.getContentTableName()));
+				fixedWidthCharacterColumnNames.addAll(databaseQueries.getFixedWidthCharacterColumnNames(auditTableInformation.getAuditTableName()));
+			}
+			columnComparisonPlan = new ColumnComparisonPlan(contentColumns, auditColumns, columnNamesPresentInContentTableButNotInAuditTable, fixedWidthCharacterColumnNames);
+			columnComparisonPlans.put(auditColumns, columnComparisonPlan);
 		}
-		else if (!c2.getClass().isAssignableFrom(c1.getClass()))
+		return columnComparisonPlan;
+	}
+
+	@Nonnull
+	private String describeIncorrectColumns(@Nonnull Map<String, TableRow> incorrectColumns)
+	{
+		final TableRow actualColumnValues = incorrectColumns.get("actual");
+		final TableRow auditColumnValues = incorrectColumns.get("audit");
+
+		final StringBuilder description = new StringBuilder();
+		for (String columnName : actualColumnValues.getColumnNames())
 		{
-			return 1;
+			description.append("	Actual value for column ");
+			description.append(columnName);
+			description.append(": ");
+			description.append(actualColumnValues.getColumnValue(columnName));
+			description.append(", audit value: ");
+			description.append(auditColumnValues.getColumnValue(columnName));
+			description.append(".\n");
 		}
-
-		return c1.compareTo(c2);
+		return description.toString();
 	}
 
-	void validateLatestRevisionComparisonResult(@Nonnull List<String> identifiersWhichShouldHaveAnAddOrModifyRevision, @Nonnull Map<String, Map<String, TableRow>> rowsWithDifferentValues)
+	void validateLatestRevisionComparisonResult(@Nonnull ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision, @Nonnull ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues)
 	{
 		final StringBuilder errorMessage = new StringBuilder();
 		if (!identifiersWhichShouldHaveAnAddOrModifyRevision.isEmpty())
 		{
 			errorMessage.append("The following identifiers ");
-			errorMessage.append(identifiersWhichShouldHaveAnAddOrModifyRevision);
+			errorMessage.append(identifiersWhichShouldHaveAnAddOrModifyRevision.getExampleIdentifiers());
 			errorMessage.append(" in table ");
 			errorMessage.append(auditTableInformation.getContentTableName());
 			errorMessage.append(" do not have an Add/Modify revision in table ");
 			errorMessage.append(auditTableInformation.getAuditTableName());
 			errorMessage.append(" as their last revision or do not have a revision at all.");
+			errorMessage.append(identifiersWhichShouldHaveAnAddOrModifyRevision.getOmittedViolationsRemark());
 
 			if (!rowsWithDifferentValues.isEmpty())
 			{
@@ -335,31 +438,77 @@ public class RevisionValidator
 			}
 		}
 
-		for (Map.Entry<String, Map<String, TableRow>> identifierWithDifferentRowValues : rowsWithDifferentValues.entrySet())
+		for (Map.Entry<String, Map<String, TableRow>> identifierWithDifferentRowValues : rowsWithDifferentValues.getExamples().entrySet())
 		{
 			errorMessage.append("Row with identifier ");
 			errorMessage.append(identifierWithDifferentRowValues.getKey());
 			errorMessage.append(" has a different audit row than the actual value in the content table, the following columns differ: \n");
+			errorMessage.append(describeIncorrectColumns(identifierWithDifferentRowValues.getValue()));
+		}
+		errorMessage.append(rowsWithDifferentValues.getOmittedViolationsRemark());
 
-			final Map<String, TableRow> records = identifierWithDifferentRowValues.getValue();
-			final TableRow actualColumnValues = records.get("actual");
-			final TableRow auditColumnValues = records.get("audit");
+		if (errorMessage.length() > 0)
+		{
+			throw new ValidationException(errorMessage.toString());
+		}
+	}
 
-			for (String columnName : actualColumnValues.getColumnNames())
+	/**
+	 * Pairs the content columns with the audit columns once per table, so rows are compared by index without any column name lookups.
+	 * The comparator of each column is resolved once for the first pair of nonnull values.
+	 */
+	private static class ColumnComparisonPlan
+	{
+		private final TableColumns contentColumns;
+		private final String[] columnNames;
+		private final int[] contentColumnIndexes;
+		private final int[] auditColumnIndexes;
+		private final boolean[] notAudited;
+		private final boolean[] fixedWidthCharacter;
+		private final ColumnValueComparator[] columnValueComparators;
+
+		private ColumnComparisonPlan(@Nonnull TableColumns contentColumns, @Nonnull TableColumns auditColumns, @Nonnull Set<String> columnNamesPresentInContentTableButNotInAuditTable, @Nonnull Set<String> fixedWidthCharacterColumnNames)
+		{
+			this.contentColumns = contentColumns;
+
+			final List<Integer> uniqueContentColumnIndexes = new ArrayList<>(contentColumns.size());
+			for (int index = 0; index < contentColumns.size(); index++)
 			{
-				errorMessage.append("	Actual value for column ");
-				errorMessage.append(columnName);
-				errorMessage.append(": ");
-				errorMessage.append(actualColumnValues.getColumnValue(columnName));
-				errorMessage.append(", audit value: ");
-				errorMessage.append(auditColumnValues.getColumnValue(columnName));
-				errorMessage.append(".\n");
+				if (contentColumns.getIndex(contentColumns.getColumnName(index)) == index)
+				{
+					uniqueContentColumnIndexes.add(index);
+				}
+			}
+
+			final int columnCount = uniqueContentColumnIndexes.size();
+			columnNames = new String[columnCount];
+			contentColumnIndexes = new int[columnCount];
+			auditColumnIndexes = new int[columnCount];
+			notAudited = new boolean[columnCount];
+			fixedWidthCharacter = new boolean[columnCount];
+			columnValueComparators = new ColumnValueComparator[columnCount];
+			for (int i = 0; i < columnCount; i++)
+			{
+				contentColumnIndexes[i] = uniqueContentColumnIndexes.get(i);
+				columnNames[i] = contentColumns.getColumnName(contentColumnIndexes[i]);
+				auditColumnIndexes[i] = auditColumns.getIndex(columnNames[i]);
+				notAudited[i] = columnNamesPresentInContentTableButNotInAuditTable.contains(columnNames[i].toUpperCase());
+				fixedWidthCharacter[i] = fixedWidthCharacterColumnNames.contains(columnNames[i].toUpperCase());
 			}
 		}
 
-		if (errorMessage.length() > 0)
+		private boolean isEqual(int i, @Nullable Object actualColumnValue, @Nullable Object auditValue)
 		{
-			throw new ValidationException(errorMessage.toString());
+			if (actualColumnValue == null || auditValue == null)
+			{
+				return actualColumnValue == auditValue;
+			}
+
+			if (columnValueComparators[i] == null)
+			{
+				columnValueComparators[i] = ColumnValueComparator.forValues(actualColumnValue, auditValue, fixedWidthCharacter[i]);
+			}
+			return columnValueComparators[i].isEqual(actualColumnValue, auditValue);
 		}
 	}
 }
\ No newline at end of file
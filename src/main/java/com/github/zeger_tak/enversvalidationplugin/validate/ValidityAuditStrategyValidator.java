@@ -0,0 +1,161 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Validates the audit tables audited using the validity audit strategy, which stores the revision replacing each revision in the revision end column.
+ * The latest revision of each record is the only revision without a revision end, so the latest revisions are selected using the revision end instead of reading the complete history.
+ * All comparisons are executed by the database, only the violations are fetched.
+ *
+ * The goal of this validator is described in its {@link Validate} methods:
+ */
+@ValidationType(TargetPhase.CONTENT)
+public class ValidityAuditStrategyValidator
+{
+	private final ConnectionProviderInstance connectionProvider;
+	private final AuditTableInformation auditTableInformation;
+	private final List<String> primaryIdentifierColumnNames;
+	private final Set<String> auditTableColumnNames;
+
+	@Report
+	private ValidationReport validationReport = ValidationReport.NONE;
+
+	public ValidityAuditStrategyValidator(@Nonnull ConnectionProviderInstance connectionProvider, @Nonnull AuditTableInformation auditTableInformation, @Nonnull List<String> primaryIdentifierColumnNames, @Nonnull Set<String> auditTableColumnNames)
+	{
+		this.connectionProvider = connectionProvider;
+		this.auditTableInformation = auditTableInformation;
+		this.primaryIdentifierColumnNames = primaryIdentifierColumnNames;
+		this.auditTableColumnNames = auditTableColumnNames;
+	}
+
+	/**
+	 * Only the audit tables with a revision end column are validated.
+	 */
+	@Parameterized(name = "{index}: auditTableName: {1}", uniqueIdentifier = "{1}")
+	public static List<Object[]> generateTestData(@Nonnull @ConnectionProvider ConnectionProviderInstance connectionProvider, @Nonnull @AuditTableInformationMap Map<String, AuditTableInformation> auditTableInformationMap) throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final List<Object[]> testData = new ArrayList<>();
+		for (Map.Entry<String, AuditTableInformation> auditTableInformation : auditTableInformationMap.entrySet())
+		{
+			final Set<String> auditTableColumnNames = databaseQueries.getAllColumns(auditTableInformation.getValue().getAuditTableName());
+			if (auditTableColumnNames.contains(databaseQueries.getRevisionEndColumnName()))
+			{
+				final List<String> primaryIdentifierColumnNames = databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getValue().getContentTableName());
+				testData.add(new Object[] { connectionProvider, auditTableInformation.getValue(), primaryIdentifierColumnNames, auditTableColumnNames });
+			}
+		}
+
+		return testData;
+	}
+
+	/**
+	 * Validates that the revision end of each revision is the next revision of the same record, and that only the latest revision of each record has no revision end.
+	 * A Remove revision followed by an Add revision may have no revision end, as Envers only fills it when identifier reuse is allowed.
+	 */
+	@Validate
+	public void validateRevisionEndRefersToNextRevision() throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		final Map<String, TableRow> violations = databaseQueries.getRevisionEndChainViolations(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames);
+
+		final ViolationCollector<Void> revisionsWithInvalidRevisionEnd = new ViolationCollector<>(validationReport);
+		for (Map.Entry<String, TableRow> violation : violations.entrySet())
+		{
+			final TableRow tableRow = violation.getValue();
+			final int nextRevisionColumnIndex = tableRow.getTableColumns().getIndexIgnoringCase(DatabaseQueries.NEXT_REVISION_COLUMN_NAME);
+			final Object nextRevision = nextRevisionColumnIndex < 0 ? null : tableRow.getColumnValue(nextRevisionColumnIndex);
+			revisionsWithInvalidRevisionEnd.add(violation.getKey(), () -> "Revision end " + tableRow.getColumnValue(databaseQueries.getRevisionEndColumnName()) + " does not match the next revision " + nextRevision + " in " + auditTableInformation.getAuditTableName() + ".");
+		}
+
+		if (!revisionsWithInvalidRevisionEnd.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsWithInvalidRevisionEnd.getExampleIdentifiers() + " in " + auditTableInformation.getAuditTableName() + " have a revision end which does not refer to the next revision of the same record." + revisionsWithInvalidRevisionEnd.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * Validates that the revision end timestamp, if present, is filled if and only if the revision end is filled.
+	 */
+	@Validate
+	public void validateRevisionEndTimestampIsFilledWithRevisionEnd() throws SQLException, DataSetException
+	{
+		final DatabaseQueries databaseQueries = connectionProvider.getQueries();
+		if (!auditTableColumnNames.contains(databaseQueries.getRevisionEndTimestampColumnName()))
+		{
+			return;
+		}
+
+		final Map<String, TableRow> violations = databaseQueries.getRevisionEndTimestampViolations(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames);
+		final ViolationCollector<Void> revisionsWithInvalidRevisionEndTimestamp = new ViolationCollector<>(validationReport);
+		for (String revision : violations.keySet())
+		{
+			revisionsWithInvalidRevisionEndTimestamp.add(revision, () -> "Only one of the revision end and the revision end timestamp is filled in " + auditTableInformation.getAuditTableName() + ".");
+		}
+
+		if (!revisionsWithInvalidRevisionEndTimestamp.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + revisionsWithInvalidRevisionEndTimestamp.getExampleIdentifiers() + " in " + auditTableInformation.getAuditTableName() + " have only one of the revision end and the revision end timestamp filled." + revisionsWithInvalidRevisionEndTimestamp.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * Validates that the latest revision of each record, if it is an Add/Modify revision, refers to a record in the content table.
+	 */
+	@Validate
+	public void validateOpenRevisionsReferToExistingContent() throws SQLException, DataSetException
+	{
+		final Map<String, TableRow> violations = connectionProvider.getQueries().getOpenRevisionsWithoutContent(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames);
+		final ViolationCollector<Void> openRevisionsWithoutContent = new ViolationCollector<>(validationReport);
+		for (String revision : violations.keySet())
+		{
+			openRevisionsWithoutContent.add(revision, () -> "Latest revision is of type Add/Modify but no record is present in content table " + auditTableInformation.getContentTableName() + ".");
+		}
+
+		if (!openRevisionsWithoutContent.isEmpty())
+		{
+			throw new ValidationException("The following revisions " + openRevisionsWithoutContent.getExampleIdentifiers() + " in " + auditTableInformation.getAuditTableName() + " are the latest revision of type Add/Modify but have no record present in content table " + auditTableInformation.getContentTableName() + "." + openRevisionsWithoutContent.getOmittedViolationsRemark());
+		}
+	}
+
+	/**
+	 * Validates that each record in the content table has a latest revision of type Add/Modify.
+	 */
+	@Validate
+	public void validateAllRecordsInContentTableHaveAnOpenRevision() throws SQLException, DataSetException
+	{
+		final Set<String> violations = connectionProvider.getQueries().getContentWithoutOpenRevision(connectionProvider.getScanConnection(), auditTableInformation, primaryIdentifierColumnNames);
+		final ViolationCollector<Void> contentWithoutOpenRevision = new ViolationCollector<>(validationReport);
+		for (String identifier : violations)
+		{
+			contentWithoutOpenRevision.add(identifier, () -> "Record in content table " + auditTableInformation.getContentTableName() + " has no latest revision of type Add/Modify.");
+		}
+
+		if (!contentWithoutOpenRevision.isEmpty())
+		{
+			throw new ValidationException("The following identifiers " + contentWithoutOpenRevision.getExampleIdentifiers() + " in table " + auditTableInformation.getContentTableName() + " do not have a latest revision of type Add/Modify without revision end in table " + auditTableInformation.getAuditTableName() + "." + contentWithoutOpenRevision.getOmittedViolationsRemark());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.github.zeger_tak.enversvalidationplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ValidationDaemonTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private Log log;
+
+	private final Properties properties = new Properties();
+	private ValidationDaemon validationDaemon;
+
+	@Before
+	public void init()
+	{
+		properties.setProperty(EnversValidationMojo.AUDIT_TABLE_INFORMATION_FILE_PROPERTY_KEY, "audit_tables.xml");
+		properties.setProperty(EnversValidationMojo.REPORT_DIRECTORY_PROPERTY_KEY, temporaryFolder.getRoot().getAbsolutePath());
+	}
+
+	@After
+	public void stop()
+	{
+		if (validationDaemon != null)
+		{
+			validationDaemon.stop();
+		}
+	}
+
+	@Test
+	public void testValidateReconnectsAfterFailedRun() throws Exception
+	{
+		// Given
+		final IllegalStateException failure = new IllegalStateException("Connection reset");
+		when(connectionProvider.getQueries()).thenThrow(failure);
+		validationDaemon = new ValidationDaemon(properties, log, connectionProvider);
+
+		// When
+		validationDaemon.validate();
+
+		// Then
+		verify(log).error(anyString(), eq(failure));
+		final InOrder inOrder = inOrder(connectionProvider);
+		inOrder.verify(connectionProvider).closeBrokenConnections();
+		inOrder.verify(connectionProvider).clearCatalogCache();
+		inOrder.verify(connectionProvider).getQueries();
+		inOrder.verify(connectionProvider).close();
+	}
+
+	@Test
+	public void testValidateIfTriggeredRemovesTriggerFile() throws Exception
+	{
+		// Given
+		final File triggerFile = temporaryFolder.newFile("trigger");
+		properties.setProperty(ValidationDaemon.TRIGGER_FILE_PROPERTY_KEY, triggerFile.getAbsolutePath());
+		when(connectionProvider.getQueries()).thenThrow(new IllegalStateException("Connection reset"));
+		validationDaemon = new ValidationDaemon(properties, log, connectionProvider);
+
+		// When
+		validationDaemon.validateIfTriggered();
+
+		// Then
+		assertFalse(triggerFile.exists());
+		verify(connectionProvider).getQueries();
+	}
+
+	@Test
+	public void testScheduledRunsContinueAfterUnexpectedFailure() throws IOException, MojoFailureException
+	{
+		// Given
+		final File triggerFile = new File(temporaryFolder.getRoot(), "trigger");
+		properties.setProperty(ValidationDaemon.TRIGGER_FILE_PROPERTY_KEY, triggerFile.getAbsolutePath());
+		when(connectionProvider.getQueries()).thenThrow(new AssertionError("Unexpected"));
+		validationDaemon = new ValidationDaemon(properties, log, connectionProvider);
+
+		// When
+		validationDaemon.start();
+		verify(connectionProvider, timeout(5000)).getQueries();
+		assertTrue(triggerFile.createNewFile());
+
+		// Then
+		verify(connectionProvider, timeout(5000).times(2)).getQueries();
+		verify(log, atLeast(1)).error(anyString(), any(AssertionError.class));
+	}
+}
\ No newline at end of file
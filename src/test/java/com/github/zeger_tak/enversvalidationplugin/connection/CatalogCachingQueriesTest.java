@@ -0,0 +1,63 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.dbunit.dataset.DataSetException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class CatalogCachingQueriesTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private DatabaseQueries delegate;
+
+	@Test
+	public void testGetAllColumnsIsCached() throws SQLException, DataSetException
+	{
+		// Given
+		when(delegate.getAllColumns("TABLE_AUD")).thenReturn(Collections.singleton("ID"));
+		final CatalogCachingQueries catalogCachingQueries = new CatalogCachingQueries(delegate);
+
+		// When
+		catalogCachingQueries.getAllColumns("TABLE_AUD");
+		catalogCachingQueries.getAllColumns("TABLE_AUD");
+
+		// Then
+		verify(delegate, times(1)).getAllColumns("TABLE_AUD");
+	}
+
+	@Test
+	public void testClearRetrievesCatalogAgain() throws SQLException, DataSetException
+	{
+		// Given
+		final Set<String> columnsAfterMigration = new HashSet<>(Arrays.asList("ID", "NAME"));
+		when(delegate.getAllColumns("TABLE_AUD")).thenReturn(Collections.singleton("ID"), columnsAfterMigration);
+		when(delegate.getListOfTablesWithForeignKeysToRevisionTable()).thenReturn(Collections.singleton("TABLE_AUD"));
+		final CatalogCachingQueries catalogCachingQueries = new CatalogCachingQueries(delegate);
+		catalogCachingQueries.getAllColumns("TABLE_AUD");
+		catalogCachingQueries.getListOfTablesWithForeignKeysToRevisionTable();
+
+		// When
+		catalogCachingQueries.clear();
+
+		// Then
+		assertEquals(columnsAfterMigration, catalogCachingQueries.getAllColumns("TABLE_AUD"));
+		catalogCachingQueries.getListOfTablesWithForeignKeysToRevisionTable();
+		verify(delegate, times(2)).getListOfTablesWithForeignKeysToRevisionTable();
+	}
+}
\ No newline at end of file
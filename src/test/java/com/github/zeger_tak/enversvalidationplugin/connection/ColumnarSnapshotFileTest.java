@@ -0,0 +1,74 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class ColumnarSnapshotFileTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void testReadReturnsWrittenRows() throws IOException
+	{
+		// Given
+		final ColumnarSnapshotFile snapshotFile = new ColumnarSnapshotFile(new File(temporaryFolder.getRoot(), "table.snapshot"));
+		snapshotFile.write("fingerprint", Arrays.asList("1", "2"), Arrays.asList(createRow(1, "first"), createRow(2, null)));
+
+		// When
+		final ColumnarSnapshotFile.Snapshot snapshot = snapshotFile.read("fingerprint");
+
+		// Then
+		assertEquals(Arrays.asList("1", "2"), snapshot.getIdentifiers());
+		final List<TableRow> rows = snapshot.getRows();
+		assertEquals(BigDecimal.valueOf(1), rows.get(0).getColumnValue(0));
+		assertEquals("first", rows.get(0).getColumnValue(1));
+		assertNull(rows.get(1).getColumnValue(1));
+		assertNull(snapshotFile.read("otherFingerprint"));
+	}
+
+	@Test
+	public void testWriteRejectsBlocksWhichCanNotBeMapped() throws IOException
+	{
+		// Given
+		final File file = new File(temporaryFolder.getRoot(), "table.snapshot");
+		final ColumnarSnapshotFile snapshotFile = new ColumnarSnapshotFile(file, 20);
+
+		expectedException.expect(IOException.class);
+		expectedException.expectMessage("The column NAME block requires 21 bytes, which exceeds the maximum of 20 bytes that can be mapped. The records are not cached.");
+
+		try
+		{
+			// When
+			snapshotFile.write("fingerprint", Arrays.asList("1", "2"), Arrays.asList(createRow(1, "first"), createRow(2, "second")));
+		}
+		finally
+		{
+			assertFalse(file.exists());
+		}
+	}
+
+	private static TableRow createRow(long id, String name)
+	{
+		final TableRow row = new TableRow();
+		row.addColumn("ID", BigDecimal.valueOf(id));
+		row.addColumn("NAME", name);
+		return row;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import org.junit.After;
+import org.junit.Test;
+
+public class ConnectionProviderRegistryTest
+{
+	@After
+	public void closeAll() throws SQLException
+	{
+		ConnectionProviderRegistry.closeAll();
+	}
+
+	@Test
+	public void testCreateKeyContainsAllSettings()
+	{
+		// When
+		final String key = ConnectionProviderRegistry.createKey("url", "user", null, RevisionWindow.UNBOUNDED, SessionProfile.BULK_SCAN);
+
+		// Then
+		assertEquals("url|user|null|" + RevisionWindow.UNBOUNDED + "|BULK_SCAN|", key);
+		assertFalse(key.equals(ConnectionProviderRegistry.createKey("url", "user", null, RevisionWindow.UNBOUNDED, SessionProfile.DEFAULT)));
+	}
+
+	@Test
+	public void testAcquireReusesConnectionProviderForSameKey() throws SQLException
+	{
+		// Given
+		final AtomicInteger created = new AtomicInteger();
+		final ConnectionProviderInstance first = ConnectionProviderRegistry.acquire("key", () -> {
+			created.incrementAndGet();
+			return mock(ConnectionProviderInstance.class);
+		});
+		ConnectionProviderRegistry.release(first);
+
+		// When
+		final ConnectionProviderInstance second = ConnectionProviderRegistry.acquire("key", () -> {
+			created.incrementAndGet();
+			return mock(ConnectionProviderInstance.class);
+		});
+		ConnectionProviderRegistry.release(second);
+
+		// Then
+		assertSame(first, second);
+		assertEquals(1, created.get());
+		verify(first, never()).close();
+	}
+
+	@Test
+	public void testAcquireCreatesConnectionProviderForOtherKey() throws SQLException
+	{
+		// Given
+		final ConnectionProviderInstance first = ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+
+		// When
+		final ConnectionProviderInstance second = ConnectionProviderRegistry.acquire("otherKey", () -> mock(ConnectionProviderInstance.class));
+
+		// Then
+		assertNotSame(first, second);
+		ConnectionProviderRegistry.release(first);
+		ConnectionProviderRegistry.release(second);
+	}
+
+	@Test
+	public void testAcquireWaitsUntilConnectionProviderIsReleased() throws Exception
+	{
+		// Given
+		final ConnectionProviderInstance connectionProvider = ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+		final CountDownLatch waiting = new CountDownLatch(1);
+		final ExecutorService executorService = Executors.newSingleThreadExecutor();
+		try
+		{
+			final Future<ConnectionProviderInstance> otherModule = executorService.submit(() -> {
+				waiting.countDown();
+				return ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+			});
+			waiting.await();
+			Thread.sleep(100);
+			assertFalse(otherModule.isDone());
+
+			// When
+			ConnectionProviderRegistry.release(connectionProvider);
+
+			// Then
+			assertSame(connectionProvider, otherModule.get(5, TimeUnit.SECONDS));
+			ConnectionProviderRegistry.release(connectionProvider);
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCloseAllClosesConnectionProvidersOnceReleased() throws SQLException
+	{
+		// Given
+		final ConnectionProviderInstance unused = ConnectionProviderRegistry.acquire("unused", () -> mock(ConnectionProviderInstance.class));
+		ConnectionProviderRegistry.release(unused);
+		final ConnectionProviderInstance inUse = ConnectionProviderRegistry.acquire("inUse", () -> mock(ConnectionProviderInstance.class));
+
+		// When
+		ConnectionProviderRegistry.closeAll();
+
+		// Then
+		verify(unused).close();
+		verify(inUse, never()).close();
+
+		// When
+		ConnectionProviderRegistry.release(inUse);
+
+		// Then
+		verify(inUse).close();
+	}
+
+	@Test
+	public void testAcquireAfterCloseAllCreatesNewConnectionProvider() throws SQLException
+	{
+		// Given
+		final ConnectionProviderInstance first = ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+		ConnectionProviderRegistry.release(first);
+		ConnectionProviderRegistry.closeAll();
+
+		// When
+		final ConnectionProviderInstance second = ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+		ConnectionProviderRegistry.release(second);
+
+		// Then
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void testAcquireDiscardsConnectionProviderIfConfigurationFails() throws SQLException
+	{
+		// Given
+		final ConnectionProviderInstance failed = mock(ConnectionProviderInstance.class);
+		final IllegalStateException failure = new IllegalStateException("Unable to initialise session");
+		try
+		{
+			ConnectionProviderRegistry.acquire("key", () -> failed, connectionProvider -> {
+				throw failure;
+			});
+			fail("The configuration failure should be rethrown");
+		}
+		catch (IllegalStateException e)
+		{
+			assertSame(failure, e);
+		}
+
+		// When
+		final ConnectionProviderInstance second = ConnectionProviderRegistry.acquire("key", () -> mock(ConnectionProviderInstance.class));
+		ConnectionProviderRegistry.release(second);
+
+		// Then
+		verify(failed).close();
+		assertNotSame(failed, second);
+	}
+}
\ No newline at end of file
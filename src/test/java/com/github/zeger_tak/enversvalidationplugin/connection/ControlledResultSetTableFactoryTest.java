@@ -0,0 +1,123 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ControlledResultSetTableFactoryTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private IDatabaseConnection databaseConnection;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private Statement statement;
+
+	private final FetchThrottle fetchThrottle = new FetchThrottle(FetchLimits.UNLIMITED, null, null);
+
+	@Before
+	public void init() throws SQLException
+	{
+		when(databaseConnection.getConfig()).thenReturn(new DatabaseConfig());
+		when(databaseConnection.getConnection()).thenReturn(connection);
+		when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+		when(statement.executeQuery(anyString())).thenThrow(new SQLException("query failed"));
+	}
+
+	@Test
+	public void testCreateTableExecutesThrottledQueryWithinReadOnlyTransaction() throws SQLException, DataSetException
+	{
+		// Given
+		when(connection.getAutoCommit()).thenReturn(true);
+		final ControlledResultSetTableFactory factory = new ControlledResultSetTableFactory(connectionProvider, fetchThrottle, true);
+		expectedException.expect(SQLException.class);
+
+		try
+		{
+			// When
+			factory.createTable("table", "select 1", databaseConnection);
+		}
+		finally
+		{
+			// Then
+			final InOrder inOrder = inOrder(connection, statement);
+			inOrder.verify(connection).setReadOnly(true);
+			inOrder.verify(connection).setAutoCommit(false);
+			inOrder.verify(statement).executeQuery("select 1");
+			inOrder.verify(connection).rollback();
+			inOrder.verify(connection).setAutoCommit(true);
+			inOrder.verify(connection).setReadOnly(false);
+		}
+	}
+
+	@Test
+	public void testCreateTableUsesActiveTransaction() throws SQLException, DataSetException
+	{
+		// Given
+		when(connection.getAutoCommit()).thenReturn(false);
+		final ControlledResultSetTableFactory factory = new ControlledResultSetTableFactory(connectionProvider, fetchThrottle, true);
+		expectedException.expect(SQLException.class);
+
+		try
+		{
+			// When
+			factory.createTable("table", "select 1", databaseConnection);
+		}
+		finally
+		{
+			// Then
+			verify(connection, never()).setAutoCommit(false);
+			verify(connection, never()).rollback();
+		}
+	}
+
+	@Test
+	public void testCreateTableWithoutThrottleDoesNotStartTransaction() throws SQLException, DataSetException
+	{
+		// Given
+		final ControlledResultSetTableFactory factory = new ControlledResultSetTableFactory(connectionProvider, null, true);
+		expectedException.expect(SQLException.class);
+
+		try
+		{
+			// When
+			factory.createTable("table", "select 1", databaseConnection);
+		}
+		finally
+		{
+			// Then
+			verify(connection, never()).setAutoCommit(false);
+		}
+	}
+}
\ No newline at end of file
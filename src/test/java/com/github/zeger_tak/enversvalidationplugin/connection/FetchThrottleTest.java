@@ -0,0 +1,110 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.FetchLimits;
+import org.junit.Test;
+
+public class FetchThrottleTest
+{
+	@Test
+	public void testRateLimiterReservesPermitsAtFixedRate()
+	{
+		// Given
+		final FetchThrottle.RateLimiter rateLimiter = FetchThrottle.RateLimiter.create(100.0);
+
+		// When
+		final long firstWaitNanos = rateLimiter.reserve(10);
+		final long secondWaitNanos = rateLimiter.reserve(10);
+
+		// Then
+		assertEquals(0, firstWaitNanos);
+		assertTrue(secondWaitNanos > TimeUnit.MILLISECONDS.toNanos(90));
+		assertTrue(secondWaitNanos <= TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void testRateLimiterDoesNotSaveUpUnusedPermits() throws InterruptedException
+	{
+		// Given
+		final FetchThrottle.RateLimiter rateLimiter = FetchThrottle.RateLimiter.create(1000.0);
+		Thread.sleep(50);
+
+		// When
+		rateLimiter.reserve(100);
+		final long waitNanos = rateLimiter.reserve(1);
+
+		// Then
+		assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(90));
+	}
+
+	@Test
+	public void testRateLimiterWithoutLimit()
+	{
+		// Then
+		assertNull(FetchThrottle.RateLimiter.create(null));
+		assertNull(FetchThrottle.RateLimiter.create(0.0));
+	}
+
+	@Test
+	public void testAcquireWaitsForConnectionLimit() throws Exception
+	{
+		// Given
+		final FetchThrottle fetchThrottle = new FetchThrottle(new FetchLimits(100.0, null), null, null);
+		fetchThrottle.acquire(5, 0);
+		final long start = System.nanoTime();
+
+		// When
+		fetchThrottle.acquire(5, 0);
+
+		// Then
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+	}
+
+	@Test
+	public void testAcquireWaitsForSharedLimit() throws Exception
+	{
+		// Given
+		final FetchThrottle sharedThrottle = new FetchThrottle(new FetchLimits(100.0, null), null, null);
+		final FetchThrottle firstConnection = new FetchThrottle(FetchLimits.UNLIMITED, sharedThrottle, null);
+		final FetchThrottle secondConnection = new FetchThrottle(FetchLimits.UNLIMITED, sharedThrottle, null);
+		firstConnection.acquire(5, 0);
+		final long start = System.nanoTime();
+
+		// When
+		secondConnection.acquire(5, 0);
+
+		// Then
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+	}
+
+	@Test
+	public void testSharedReturnsSameThrottleForSameDatabaseAndLimits()
+	{
+		// When
+		final FetchThrottle first = FetchThrottle.shared("jdbc:postgresql://localhost/shared", new FetchLimits(100.0, 1.0));
+		final FetchThrottle second = FetchThrottle.shared("jdbc:postgresql://localhost/shared", new FetchLimits(100.0, 1.0));
+
+		// Then
+		assertSame(first, second);
+	}
+
+	@Test
+	public void testSharedReturnsOtherThrottleForOtherLimits()
+	{
+		// When
+		final FetchThrottle first = FetchThrottle.shared("jdbc:postgresql://localhost/shared", new FetchLimits(100.0, null));
+		final FetchThrottle second = FetchThrottle.shared("jdbc:postgresql://localhost/shared", new FetchLimits(200.0, null));
+		final FetchThrottle otherDatabase = FetchThrottle.shared("jdbc:postgresql://localhost/other", new FetchLimits(100.0, null));
+
+		// Then
+		assertNotSame(first, second);
+		assertNotSame(first, otherDatabase);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.maven.plugin.logging.Log;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class OracleQueriesTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Test
+	public void testGetSessionInitialisationStatementsForBulkScan()
+	{
+		// Given
+		final OracleQueries queries = new OracleQueries(connectionProvider);
+
+		// When
+		final List<String> statements = queries.getSessionInitialisationStatements(SessionProfile.BULK_SCAN, 8);
+
+		// Then
+		assertEquals(Collections.singletonList("alter session force parallel query parallel 8"), statements);
+	}
+
+	@Test
+	public void testGetSessionInitialisationStatementsForDefaultResetsBulkScanSettings()
+	{
+		// Given
+		final OracleQueries queries = new OracleQueries(connectionProvider);
+
+		// When
+		final List<String> statements = queries.getSessionInitialisationStatements(SessionProfile.DEFAULT, 8);
+
+		// Then
+		assertEquals(Collections.singletonList("alter session enable parallel query"), statements);
+	}
+
+	@Test
+	public void testToUpperCaseInConditionSplitsInLists()
+	{
+		// Given
+		final HashSet<String> tableNames = new HashSet<>(Arrays.asList("c", "a", "b"));
+
+		// When
+		final String condition = AbstractQueries.toUpperCaseInCondition("t.TABLE_NAME", tableNames, 2);
+
+		// Then
+		assertEquals("(t.TABLE_NAME in ('A', 'B') or t.TABLE_NAME in ('C'))", condition);
+	}
+
+	@Test
+	public void testGetChangeCountersReturnsNoCountersIfFlushFails() throws SQLException, DataSetException
+	{
+		// Given
+		final OracleQueries queries = new OracleQueries(connectionProvider);
+		final IDatabaseConnection databaseConnection = mock(IDatabaseConnection.class);
+		final Connection connection = mock(Connection.class);
+		final Statement statement = mock(Statement.class);
+		final Log log = mock(Log.class);
+		when(databaseConnection.getConnection()).thenReturn(connection);
+		when(connection.createStatement()).thenReturn(statement);
+		when(statement.execute(anyString())).thenThrow(new SQLException("insufficient privileges"));
+		when(connectionProvider.getLog()).thenReturn(log);
+
+		// When
+		final Map<String, String> changeCounters = queries.getChangeCounters(databaseConnection, Collections.singleton("TABLE"));
+
+		// Then
+		assertTrue(changeCounters.isEmpty());
+		verify(log).warn("Unable to flush the database monitoring info, the change counters are not used during this run: insufficient privileges");
+	}
+}
\ No newline at end of file
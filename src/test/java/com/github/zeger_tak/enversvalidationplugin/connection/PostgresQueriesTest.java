@@ -0,0 +1,321 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import org.dbunit.database.CachedResultSetTable;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class PostgresQueriesTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private IDatabaseConnection databaseConnection;
+
+	@Mock
+	private IDatabaseConnection scanConnection;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private Statement statement;
+
+	@Mock
+	private CachedResultSetTable partitions;
+
+	@Mock
+	private CachedResultSetTable changeCounters;
+
+	@Mock
+	private CachedResultSetTable violations;
+
+	@Mock
+	private ITableMetaData violationsMetaData;
+
+	private final AuditTableInformation auditTableInformation = new AuditTableInformation("table_aud", "table");
+	private PostgresQueries queries;
+
+	@Before
+	public void init() throws Exception
+	{
+		when(connectionProvider.getRevisionWindow()).thenReturn(RevisionWindow.UNBOUNDED);
+		when(connectionProvider.getDatabaseConnection()).thenReturn(databaseConnection);
+		when(violations.getTableMetaData()).thenReturn(violationsMetaData);
+		when(violationsMetaData.getColumns()).thenReturn(new Column[] {new Column("id", DataType.BIGINT), new Column("rev", DataType.BIGINT)});
+		when(databaseConnection.createQueryTable(eq("pg_inherits"), startsWith("select i.inhrelid::regclass::text partition_name"))).thenReturn(partitions);
+		queries = new PostgresQueries(connectionProvider);
+	}
+
+	@Test
+	public void testCreateContentTableSelectQueryWithoutRevisionWindow()
+	{
+		// When
+		final String query = queries.createContentTableSelectQuery(auditTableInformation, Collections.singletonList("id"), "*", null);
+
+		// Then
+		assertEquals("select * from table table ", query);
+	}
+
+	@Test
+	public void testCreateContentTableSelectQueryWithRevisionWindowKeepsRecordsWithoutRevisions()
+	{
+		// Given
+		when(connectionProvider.getRevisionWindow()).thenReturn(new RevisionWindow(10L, 20L, null));
+
+		// When
+		final String query = queries.createContentTableSelectQuery(auditTableInformation, Collections.singletonList("id"), "*", null);
+
+		// Then
+		//@formatter:off
+		assertEquals("select * from table table  where ("
+				+ "exists (select 1 from table_aud window_aud inner join revinfo window_revinfo on window_revinfo.rev = window_aud.rev and window_aud.id = table.id and window_revinfo.rev >= 10 and window_revinfo.rev <= 20)"
+				+ " or not exists (select 1 from table_aud window_aud where window_aud.id = table.id))", query);
+		//@formatter:on
+	}
+
+	@Test
+	public void testGetOpenRevisionsWithoutContentWithoutRevisionWindow() throws Exception
+	{
+		// Given
+		when(databaseConnection.createQueryTable(eq("table_aud"), anyString())).thenReturn(violations);
+
+		// When
+		queries.getOpenRevisionsWithoutContent(databaseConnection, auditTableInformation, Collections.singletonList("id"));
+
+		// Then
+		verify(databaseConnection).createQueryTable("table_aud", "select * from table_aud table_aud where table_aud.revend is null and table_aud.revtype <> 2 and not exists (select 1 from table content where content.id = table_aud.id)");
+	}
+
+	@Test
+	public void testGetOpenRevisionsWithoutContentCombinesRevisionWindowCondition() throws Exception
+	{
+		// Given
+		when(connectionProvider.getRevisionWindow()).thenReturn(new RevisionWindow(10L, 20L, null));
+		when(databaseConnection.createQueryTable(eq("table_aud"), anyString())).thenReturn(violations);
+
+		// When
+		queries.getOpenRevisionsWithoutContent(databaseConnection, auditTableInformation, Collections.singletonList("id"));
+
+		// Then
+		verify(databaseConnection).createQueryTable(eq("table_aud"), contains(" where exists (select 1 from table_aud window_aud "));
+		verify(databaseConnection).createQueryTable(eq("table_aud"), contains("window_revinfo.rev <= 20) and table_aud.revend is null and table_aud.revtype <> 2 and not exists "));
+	}
+
+	@Test
+	public void testGetRevisionEndChainViolationsAllowsRemoveRevisionWithoutRevisionEndFollowedByAddRevision() throws Exception
+	{
+		// Given
+		when(databaseConnection.createQueryTable(eq("table_aud"), anyString())).thenReturn(violations);
+
+		// When
+		queries.getRevisionEndChainViolations(databaseConnection, auditTableInformation, Collections.singletonList("id"));
+
+		// Then
+		verify(databaseConnection).createQueryTable(eq("table_aud"), contains("lead(table_aud.revtype) over (partition by table_aud.id order by table_aud.rev) NEXT_REVTYPE"));
+		verify(databaseConnection).createQueryTable(eq("table_aud"), contains("chained.revend is null and chained.NEXT_REV is not null and not (chained.revtype = 2 and chained.NEXT_REVTYPE = 0)"));
+	}
+
+	@Test
+	public void testGetPartitionTableReferencesOfPartitionedTable() throws Exception
+	{
+		// Given
+		givenChildTables("p", "table_aud_2017", "table_aud_2018");
+
+		// When
+		final List<String> partitionTableReferences = queries.getPartitionTableReferences("table_aud");
+
+		// Then
+		assertEquals(Arrays.asList("table_aud_2017", "table_aud_2018"), partitionTableReferences);
+	}
+
+	@Test
+	public void testGetPartitionTableReferencesOfInheritanceParentIncludesParentRecords() throws Exception
+	{
+		// Given
+		givenChildTables("r", "archive.table_aud_2017", "table_aud_2018");
+
+		// When
+		final List<String> partitionTableReferences = queries.getPartitionTableReferences("table_aud");
+
+		// Then
+		assertEquals(Arrays.asList("only table_aud", "archive.table_aud_2017", "table_aud_2018"), partitionTableReferences);
+	}
+
+	@Test
+	public void testGetPartitionTableReferencesOfTableWithoutChildren() throws Exception
+	{
+		// Given
+		givenChildTables("r");
+
+		// When
+		final List<String> partitionTableReferences = queries.getPartitionTableReferences("table_aud");
+
+		// Then
+		assertTrue(partitionTableReferences.isEmpty());
+	}
+
+	private void givenChildTables(String parentKind, String... childTableReferences) throws Exception
+	{
+		when(partitions.getRowCount()).thenReturn(childTableReferences.length);
+		for (int i = 0; i < childTableReferences.length; i++)
+		{
+			when(partitions.getValue(i, "partition_name")).thenReturn(childTableReferences[i]);
+			when(partitions.getValue(i, "parent_kind")).thenReturn(parentKind);
+		}
+	}
+
+	@Test
+	public void testGetSessionInitialisationStatementsForBulkScan()
+	{
+		// When
+		final List<String> statements = queries.getSessionInitialisationStatements(SessionProfile.BULK_SCAN, 8);
+
+		// Then
+		assertEquals(Arrays.asList("set work_mem = '256MB'", "set max_parallel_workers_per_gather = 8"), statements);
+	}
+
+	@Test
+	public void testGetSessionInitialisationStatementsForDefaultResetsBulkScanSettings()
+	{
+		// When
+		final List<String> statements = queries.getSessionInitialisationStatements(SessionProfile.DEFAULT, 8);
+
+		// Then
+		assertEquals(Arrays.asList("reset work_mem", "reset max_parallel_workers_per_gather"), statements);
+	}
+
+	@Test
+	public void testGetChangeCountersResolvesTablesThroughSearchPathOnGivenConnection() throws Exception
+	{
+		// Given
+		when(scanConnection.createQueryTable(eq("change_counters"), anyString())).thenReturn(changeCounters);
+		when(changeCounters.getRowCount()).thenReturn(1);
+		when(changeCounters.getValue(0, "TABLE_NAME")).thenReturn("TABLE");
+		when(changeCounters.getValue(0, "relid")).thenReturn(16384L);
+		when(changeCounters.getValue(0, "file_node")).thenReturn(16390L);
+		when(changeCounters.getValue(0, "n_tup_ins")).thenReturn(3L);
+		when(changeCounters.getValue(0, "n_tup_upd")).thenReturn(2L);
+		when(changeCounters.getValue(0, "n_tup_del")).thenReturn(1L);
+
+		// When
+		final Map<String, String> result = queries.getChangeCounters(scanConnection, Collections.singleton("table"));
+
+		// Then
+		assertEquals(Collections.singletonMap("TABLE", "16384/16390/3/2/1/"), result);
+		verify(scanConnection).createQueryTable(eq("change_counters"), contains("where relid in (to_regclass('table')) and not pg_is_in_recovery() "));
+		verify(databaseConnection, never()).createQueryTable(eq("change_counters"), anyString());
+	}
+
+	@Test
+	public void testImportSnapshotReadsSnapshotInRepeatableReadTransaction() throws Exception
+	{
+		// Given
+		when(connection.createStatement()).thenReturn(statement);
+
+		// When
+		queries.importSnapshot(connection, "00000003-0000001B-1");
+
+		// Then
+		final InOrder inOrder = inOrder(connection, statement);
+		inOrder.verify(connection).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		inOrder.verify(connection).setAutoCommit(false);
+		inOrder.verify(statement).execute("set transaction snapshot '00000003-0000001B-1'");
+	}
+
+	@Test
+	public void testReleaseSnapshotRestoresSessionSettings() throws Exception
+	{
+		// When
+		queries.releaseSnapshot(connection);
+
+		// Then
+		final InOrder inOrder = inOrder(connection);
+		inOrder.verify(connection).rollback();
+		inOrder.verify(connection).setAutoCommit(true);
+		inOrder.verify(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	@Test
+	public void testDetermineReplicationLagSecondsOfPrimaryDatabase()
+	{
+		// When
+		final Long replicationLagSeconds = PostgresQueries.determineReplicationLagSeconds(false, false, false, null);
+
+		// Then
+		assertEquals(Long.valueOf(0L), replicationLagSeconds);
+	}
+
+	@Test
+	public void testDetermineReplicationLagSecondsOfStreamingStandbyWhichReplayedAllChanges()
+	{
+		// When
+		final Long replicationLagSeconds = PostgresQueries.determineReplicationLagSeconds(true, true, true, 3600L);
+
+		// Then
+		assertEquals(Long.valueOf(0L), replicationLagSeconds);
+	}
+
+	@Test
+	public void testDetermineReplicationLagSecondsOfStreamingStandbyReplayingChanges()
+	{
+		// When
+		final Long replicationLagSeconds = PostgresQueries.determineReplicationLagSeconds(true, true, false, 12L);
+
+		// Then
+		assertEquals(Long.valueOf(12L), replicationLagSeconds);
+	}
+
+	@Test
+	public void testDetermineReplicationLagSecondsOfDisconnectedStandby()
+	{
+		// When
+		final Long replicationLagSeconds = PostgresQueries.determineReplicationLagSeconds(true, false, true, 3600L);
+
+		// Then
+		assertEquals(Long.valueOf(3600L), replicationLagSeconds);
+	}
+
+	@Test
+	public void testDetermineReplicationLagSecondsOfDisconnectedStandbyWithoutReplayedTransactions()
+	{
+		// When
+		final Long replicationLagSeconds = PostgresQueries.determineReplicationLagSeconds(true, false, true, null);
+
+		// Then
+		assertNull(replicationLagSeconds);
+	}
+}
\ No newline at end of file
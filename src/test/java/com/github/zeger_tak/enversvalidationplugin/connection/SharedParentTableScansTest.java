@@ -0,0 +1,173 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import org.junit.Test;
+
+public class SharedParentTableScansTest
+{
+	private final AuditTableInformation root = new AuditTableInformation("ROOT_AUD", "ROOT");
+	private final AuditTableInformation parent = createChild("PARENT_AUD", "PARENT", root);
+	private final AuditTableInformation child = createChild("CHILD_AUD", "CHILD", parent);
+	private final AuditTableInformation otherChild = createChild("OTHER_CHILD_AUD", "OTHER_CHILD", parent);
+
+	@Test
+	public void testOnlyParentsWithSeveralDescendantsAreShared()
+	{
+		// Given
+		final AuditTableInformation onlyChild = createChild("ONLY_CHILD_AUD", "ONLY_CHILD", new AuditTableInformation("SINGLE_PARENT_AUD", "SINGLE_PARENT"));
+
+		// When
+		final SharedParentTableScans sharedParentTableScans = new SharedParentTableScans(Arrays.asList(parent, child, otherChild, onlyChild));
+
+		// Then
+		assertTrue(sharedParentTableScans.isShared(root));
+		assertTrue(sharedParentTableScans.isShared(parent));
+		assertFalse(sharedParentTableScans.isShared(onlyChild.getAuditTableParent()));
+		assertEquals(Arrays.asList(parent, root), sharedParentTableScans.getSharedParents(child));
+		assertEquals(Collections.emptyList(), sharedParentTableScans.getSharedParents(onlyChild));
+	}
+
+	@Test
+	public void testParentTableIsScannedOnceForAllChildren() throws Exception
+	{
+		// Given
+		final SharedParentTableScans sharedParentTableScans = new SharedParentTableScans(Arrays.asList(child, otherChild));
+		final AtomicInteger scans = new AtomicInteger();
+		final SharedParentTableScans.ParentTableScan parentTableScan = () -> {
+			scans.incrementAndGet();
+			return createParentTableRows();
+		};
+
+		// When
+		sharedParentTableScans.getContentRows(parent, parentTableScan);
+		sharedParentTableScans.getContentRows(parent, parentTableScan);
+
+		// Then
+		assertEquals(1, scans.get());
+	}
+
+	@Test
+	public void testParentRowsAreReleasedAfterLastChild() throws Exception
+	{
+		// Given
+		final SharedParentTableScans sharedParentTableScans = new SharedParentTableScans(Arrays.asList(child, otherChild));
+		final AtomicInteger scans = new AtomicInteger();
+		final SharedParentTableScans.ParentTableScan parentTableScan = () -> {
+			scans.incrementAndGet();
+			return createParentTableRows();
+		};
+		sharedParentTableScans.getAuditRows(parent, parentTableScan);
+		sharedParentTableScans.auditRowsStitched(child);
+		sharedParentTableScans.getAuditRows(parent, parentTableScan);
+
+		// When
+		sharedParentTableScans.auditRowsStitched(otherChild);
+		sharedParentTableScans.getAuditRows(parent, parentTableScan);
+
+		// Then
+		assertEquals(2, scans.get());
+	}
+
+	@Test
+	public void testContentAndAuditRowsAreReleasedSeparately() throws Exception
+	{
+		// Given
+		final SharedParentTableScans sharedParentTableScans = new SharedParentTableScans(Arrays.asList(child, otherChild));
+		final AtomicInteger scans = new AtomicInteger();
+		final SharedParentTableScans.ParentTableScan parentTableScan = () -> {
+			scans.incrementAndGet();
+			return createParentTableRows();
+		};
+		sharedParentTableScans.getAuditRows(parent, parentTableScan);
+
+		// When
+		sharedParentTableScans.contentRowsStitched(child);
+		sharedParentTableScans.contentRowsStitched(otherChild);
+		sharedParentTableScans.getAuditRows(parent, parentTableScan);
+
+		// Then
+		assertEquals(1, scans.get());
+	}
+
+	@Test
+	public void testStitchAddsParentColumns()
+	{
+		// Given
+		final TableColumns childColumns = new TableColumns(Arrays.asList("ID", "CHILD_VALUE"));
+		final SharedParentTableScans.Stitcher stitcher = new SharedParentTableScans.Stitcher(childColumns, Collections.singletonList(createParentTableRows()), new int[] {0});
+
+		// When
+		final TableRow stitchedRow = stitcher.stitch(createRow(childColumns, 1, "child"));
+
+		// Then
+		assertEquals(new TableColumns(Arrays.asList("ID", "CHILD_VALUE", "PARENT_VALUE")), stitchedRow.getTableColumns());
+		assertEquals(1, stitchedRow.getColumnValue("ID"));
+		assertEquals("child", stitchedRow.getColumnValue("CHILD_VALUE"));
+		assertEquals("parent", stitchedRow.getColumnValue("PARENT_VALUE"));
+	}
+
+	@Test
+	public void testStitchTakesValueOfParentForDuplicateColumn()
+	{
+		// Given
+		final TableColumns childColumns = new TableColumns(Arrays.asList("ID", "PARENT_VALUE"));
+		final SharedParentTableScans.Stitcher stitcher = new SharedParentTableScans.Stitcher(childColumns, Collections.singletonList(createParentTableRows()), new int[] {0});
+
+		// When
+		final TableRow stitchedRow = stitcher.stitch(createRow(childColumns, 1, "child"));
+
+		// Then
+		assertEquals(childColumns, stitchedRow.getTableColumns());
+		assertEquals("parent", stitchedRow.getColumnValue("PARENT_VALUE"));
+	}
+
+	@Test
+	public void testStitchWithoutParentRow()
+	{
+		// Given
+		final TableColumns childColumns = new TableColumns(Arrays.asList("ID", "CHILD_VALUE"));
+		final SharedParentTableScans.Stitcher stitcher = new SharedParentTableScans.Stitcher(childColumns, Collections.singletonList(createParentTableRows()), new int[] {0});
+
+		// When
+		final TableRow stitchedRow = stitcher.stitch(createRow(childColumns, 2, "child"));
+
+		// Then
+		assertNull(stitchedRow);
+	}
+
+	private static AuditTableInformation createChild(String auditTableName, String contentTableName, AuditTableInformation parent)
+	{
+		final AuditTableInformation child = new AuditTableInformation(auditTableName, contentTableName);
+		child.setAuditTableParent(parent);
+		return child;
+	}
+
+	private static SharedParentTableScans.ParentTableRows createParentTableRows()
+	{
+		final TableColumns parentColumns = new TableColumns(Arrays.asList("ID", "PARENT_VALUE"));
+		final Map<String, TableRow> rowsByIdentifier = new HashMap<>();
+		rowsByIdentifier.put("1", createRow(parentColumns, 1, "parent"));
+		return new SharedParentTableScans.ParentTableRows(parentColumns, rowsByIdentifier);
+	}
+
+	private static TableRow createRow(TableColumns tableColumns, Object identifier, Object value)
+	{
+		final TableRow tableRow = new TableRow(tableColumns);
+		tableRow.setColumnValue(0, identifier);
+		tableRow.setColumnValue(1, value);
+		return tableRow;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionWindow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import org.apache.maven.plugin.logging.Log;
+import org.dbunit.database.IDatabaseConnection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class SnapshotCachingQueriesTest
+{
+	private static final List<String> PRIMARY_IDENTIFIER_COLUMN_NAMES = Collections.singletonList("ID");
+
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Mock
+	private DatabaseQueries delegate;
+
+	@Mock
+	private IDatabaseConnection databaseConnection;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private Statement statement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private ResultSetMetaData resultSetMetaData;
+
+	@Mock
+	private Log log;
+
+	private final AuditTableInformation parent = new AuditTableInformation("PARENT_AUD", "PARENT");
+	private final AuditTableInformation child = new AuditTableInformation("CHILD_AUD", "CHILD");
+	private SnapshotCachingQueries snapshotCachingQueries;
+
+	@Before
+	public void init() throws Exception
+	{
+		child.setAuditTableParent(parent);
+		when(databaseConnection.getConnection()).thenReturn(connection);
+		when(connection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(anyString())).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true);
+		when(resultSet.getMetaData()).thenReturn(resultSetMetaData);
+		when(resultSetMetaData.getColumnCount()).thenReturn(1);
+		when(resultSet.getString(1)).thenReturn("1");
+		when(delegate.getRevisionTableIdentifierColumnName()).thenReturn("REV");
+		when(delegate.getChangeCounters(databaseConnection, new HashSet<>(Arrays.asList("CHILD_AUD", "CHILD", "PARENT_AUD", "PARENT")))).thenReturn(Collections.singletonMap("PARENT", "1/1/0/0/"));
+
+		final TableRow tableRow = new TableRow();
+		tableRow.addColumn("ID", "1");
+		tableRow.addColumn("NAME", "name");
+		when(delegate.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES)).thenReturn(Collections.singletonMap("1", tableRow));
+
+		snapshotCachingQueries = new SnapshotCachingQueries(delegate, temporaryFolder.getRoot(), RevisionWindow.UNBOUNDED, log);
+	}
+
+	@Test
+	public void testGetContentRecordsReadsUnchangedTablesFromSnapshot() throws Exception
+	{
+		// Given
+		snapshotCachingQueries.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// When
+		final Map<String, TableRow> contentRecords = snapshotCachingQueries.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// Then
+		verify(delegate, times(1)).getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		assertEquals(Collections.singleton("1"), contentRecords.keySet());
+		assertEquals("name", contentRecords.get("1").getColumnValue("NAME"));
+	}
+
+	@Test
+	public void testGetContentRecordsReloadsAfterParentTableChanged() throws Exception
+	{
+		// Given
+		snapshotCachingQueries.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		when(delegate.getChangeCounters(databaseConnection, new HashSet<>(Arrays.asList("CHILD_AUD", "CHILD", "PARENT_AUD", "PARENT")))).thenReturn(Collections.singletonMap("PARENT", "1/1/0/1/"));
+
+		// When
+		snapshotCachingQueries.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// Then
+		verify(delegate, times(2)).getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+	}
+
+	@Test
+	public void testDetermineFingerprintContainsChangeCountersOfParentTables() throws Exception
+	{
+		// Given
+		final String fingerprint = snapshotCachingQueries.determineFingerprint(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		when(delegate.getChangeCounters(databaseConnection, new HashSet<>(Arrays.asList("CHILD_AUD", "CHILD", "PARENT_AUD", "PARENT")))).thenReturn(Collections.singletonMap("PARENT", "1/1/1/0/"));
+
+		// When
+		final String changedFingerprint = snapshotCachingQueries.determineFingerprint(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// Then
+		assertNotEquals(fingerprint, changedFingerprint);
+	}
+
+	@Test
+	public void testGetContentKeyIndexReadsIdentifiersFromContentSnapshot() throws Exception
+	{
+		// Given
+		snapshotCachingQueries.getContentRecords(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// When
+		final ContentKeyIndex contentKeyIndex = snapshotCachingQueries.getContentKeyIndex(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// Then
+		verify(delegate, never()).getContentKeyIndex(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		assertTrue(contentKeyIndex.contains("1"));
+		assertFalse(contentKeyIndex.contains("2"));
+	}
+
+	@Test
+	public void testGetContentKeyIndexWithoutValidSnapshotUsesDatabase() throws Exception
+	{
+		// Given
+		final ContentKeyIndex contentKeyIndex = ContentKeyIndex.of(Collections.singleton("2"));
+		when(delegate.getContentKeyIndex(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES)).thenReturn(contentKeyIndex);
+
+		// When
+		final ContentKeyIndex result = snapshotCachingQueries.getContentKeyIndex(databaseConnection, child, PRIMARY_IDENTIFIER_COLUMN_NAMES);
+
+		// Then
+		assertSame(contentKeyIndex, result);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class SnapshotSavepointTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private Savepoint savepoint;
+
+	@Test
+	public void testRollbackRecoversTransactionBeforeReleasingSavepoint() throws Exception
+	{
+		// Given
+		final SnapshotSavepoint snapshotSavepoint = new SnapshotSavepoint(connection, savepoint);
+
+		// When
+		snapshotSavepoint.rollback();
+		snapshotSavepoint.close();
+
+		// Then
+		final InOrder inOrder = inOrder(connection);
+		inOrder.verify(connection).rollback(savepoint);
+		inOrder.verify(connection).releaseSavepoint(savepoint);
+	}
+
+	@Test
+	public void testCloseWithoutFailureOnlyReleasesSavepoint() throws Exception
+	{
+		// Given
+		final SnapshotSavepoint snapshotSavepoint = new SnapshotSavepoint(connection, savepoint);
+
+		// When
+		snapshotSavepoint.close();
+
+		// Then
+		verify(connection, never()).rollback(savepoint);
+		verify(connection).releaseSavepoint(savepoint);
+	}
+
+	@Test
+	public void testNoneDoesNothing() throws Exception
+	{
+		// When
+		SnapshotSavepoint.NONE.rollback();
+		SnapshotSavepoint.NONE.close();
+	}
+}
\ No newline at end of file
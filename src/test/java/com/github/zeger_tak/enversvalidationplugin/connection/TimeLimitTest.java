@@ -0,0 +1,119 @@
+package com.github.zeger_tak.enversvalidationplugin.connection;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class TimeLimitTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private ScheduledExecutorService scheduler;
+
+	@Mock
+	private ScheduledFuture<?> expiry;
+
+	@Mock
+	private Statement statement;
+
+	@Mock
+	private Statement otherStatement;
+
+	@Test
+	public void testExpireCancelsOnlyOwnStatements() throws SQLException
+	{
+		// Given
+		final TimeLimit timeLimit = new TimeLimit(connectionProvider, "validation", null, null, scheduler);
+		final TimeLimit otherTimeLimit = new TimeLimit(connectionProvider, "other validation", null, null, scheduler);
+		timeLimit.statementStarted(statement);
+		otherTimeLimit.statementStarted(otherStatement);
+
+		// When
+		timeLimit.expire();
+
+		// Then
+		assertTrue(timeLimit.isExpired());
+		assertFalse(otherTimeLimit.isExpired());
+		verify(statement).cancel();
+		verify(otherStatement, never()).cancel();
+	}
+
+	@Test
+	public void testExpireDoesNotCancelFinishedStatements() throws SQLException
+	{
+		// Given
+		final TimeLimit timeLimit = new TimeLimit(connectionProvider, "validation", null, null, scheduler);
+		timeLimit.statementStarted(statement);
+		timeLimit.statementFinished(statement);
+
+		// When
+		timeLimit.expire();
+
+		// Then
+		verify(statement, never()).cancel();
+	}
+
+	@Test
+	public void testExpireCancelsRemainingStatementsIfCancellationFails() throws SQLException
+	{
+		// Given
+		final TimeLimit timeLimit = new TimeLimit(connectionProvider, "validation", null, null, scheduler);
+		doThrow(new SQLException("Not supported")).when(statement).cancel();
+		timeLimit.statementStarted(statement);
+		timeLimit.statementStarted(otherStatement);
+
+		// When
+		timeLimit.expire();
+
+		// Then
+		verify(otherStatement).cancel();
+	}
+
+	@Test
+	public void testCloseCancelsScheduledExpiry()
+	{
+		// Given
+		doReturn(expiry).when(scheduler).schedule(any(Runnable.class), eq(5L), eq(TimeUnit.SECONDS));
+		final TimeLimit timeLimit = new TimeLimit(connectionProvider, "validation", 5L, null, scheduler);
+
+		// When
+		timeLimit.close();
+
+		// Then
+		verify(expiry).cancel(false);
+		verify(connectionProvider).timeLimitClosed(timeLimit);
+	}
+
+	@Test
+	public void testWithoutLimitNoExpiryIsScheduled()
+	{
+		// When
+		new TimeLimit(connectionProvider, "validation", null, null, scheduler).close();
+
+		// Then
+		verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.github.zeger_tak.enversvalidationplugin.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ContentKeyIndexTest
+{
+	@Test
+	public void testContainsIntegerIdentifiers()
+	{
+		// Given
+		final ContentKeyIndex.Builder builder = new ContentKeyIndex.Builder();
+		for (long identifier = -5; identifier < 100000; identifier += 3)
+		{
+			builder.add(Long.toString(identifier));
+		}
+
+		// When
+		final ContentKeyIndex contentKeyIndex = builder.build();
+
+		// Then
+		assertTrue(contentKeyIndex.contains("-5"));
+		assertTrue(contentKeyIndex.contains("99997"));
+		assertFalse(contentKeyIndex.contains("99998"));
+		assertFalse(contentKeyIndex.contains("007"));
+		assertEquals(33335, contentKeyIndex.size());
+	}
+
+	@Test
+	public void testContainsCompositeIdentifiersExactly()
+	{
+		// Given
+		final ContentKeyIndex.Builder builder = new ContentKeyIndex.Builder();
+		for (int identifier = 0; identifier < 10000; identifier++)
+		{
+			builder.add(identifier + "-" + identifier);
+		}
+
+		// When
+		final ContentKeyIndex contentKeyIndex = builder.build();
+
+		// Then
+		for (int identifier = 0; identifier < 10000; identifier++)
+		{
+			assertTrue(contentKeyIndex.contains(identifier + "-" + identifier));
+			assertFalse(contentKeyIndex.contains(identifier + "-" + (identifier + 1)));
+		}
+		assertEquals(10000, contentKeyIndex.size());
+	}
+
+	@Test
+	public void testContainsIntegerIdentifiersAddedBeforeOtherIdentifiers()
+	{
+		// When
+		final ContentKeyIndex contentKeyIndex = ContentKeyIndex.of(Arrays.asList("1", "70000", "abc", "1"));
+
+		// Then
+		assertTrue(contentKeyIndex.contains("1"));
+		assertTrue(contentKeyIndex.contains("70000"));
+		assertTrue(contentKeyIndex.contains("abc"));
+		assertFalse(contentKeyIndex.contains("2"));
+		assertEquals(3, contentKeyIndex.size());
+	}
+
+	@Test
+	public void testContainsWithoutIdentifiers()
+	{
+		// When
+		final ContentKeyIndex contentKeyIndex = ContentKeyIndex.of(Collections.emptyList());
+
+		// Then
+		assertFalse(contentKeyIndex.contains("1"));
+		assertFalse(contentKeyIndex.contains("a"));
+		assertEquals(0, contentKeyIndex.size());
+	}
+
+	@Test
+	public void testForEachPassesIdentifiersInOrder()
+	{
+		// Given
+		final ContentKeyIndex integerIndex = ContentKeyIndex.of(Arrays.asList("70000", "-3", "2", "2"));
+		final ContentKeyIndex compositeIndex = ContentKeyIndex.of(Arrays.asList("b-1", "a-2", "a-1"));
+		final List<String> integerIdentifiers = new ArrayList<>();
+		final List<String> compositeIdentifiers = new ArrayList<>();
+
+		// When
+		integerIndex.forEach(integerIdentifiers::add);
+		compositeIndex.forEach(compositeIdentifiers::add);
+
+		// Then
+		assertEquals(Arrays.asList("-3", "2", "70000"), integerIdentifiers);
+		assertEquals(Arrays.asList("a-1", "a-2", "b-1"), compositeIdentifiers);
+	}
+}
\ No newline at end of file
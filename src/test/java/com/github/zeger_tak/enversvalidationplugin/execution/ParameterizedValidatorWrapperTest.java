@@ -0,0 +1,97 @@
+package com.github.zeger_tak.enversvalidationplugin.execution;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import org.junit.Test;
+
+public class ParameterizedValidatorWrapperTest
+{
+	@Test
+	public void testValidationNameAndUniqueIdentifierAreFormatted() throws Exception
+	{
+		// Given
+		final Method method = TestValidator.class.getMethod("validate");
+		final List<ValidateMethod> validateMethods = Collections.singletonList(new ValidateMethod(method));
+		final Object[] constructorArguments = {"ADDRESS_AUD", 42};
+
+		// When
+		final ParameterizedValidatorWrapper wrapper = new ParameterizedValidatorWrapper(new TestValidator(), constructorArguments, validateMethods, parameterized("{0} ({index})", "{index}-{1}"), 3);
+
+		// Then
+		assertEquals("TestValidator.validate.ADDRESS_AUD (3)", wrapper.getValidationName(method));
+		assertEquals("TestValidator.validate.3-42", wrapper.getUniqueIdentifier(method));
+		assertEquals(validateMethods, wrapper.getValidateMethods());
+	}
+
+	@Test
+	public void testValidationNameOfMethodNotKnownBeforehand() throws Exception
+	{
+		// Given
+		final Method otherMethod = TestValidator.class.getMethod("otherValidate");
+
+		// When
+		final ParameterizedValidatorWrapper wrapper = new ParameterizedValidatorWrapper(new TestValidator(), new Object[0], Collections.emptyList(), parameterized("{index}", "{index}"), 0);
+
+		// Then
+		assertEquals("TestValidator.otherValidate.0", wrapper.getValidationName(otherMethod));
+		assertEquals("TestValidator.otherValidate.0", wrapper.getUniqueIdentifier(otherMethod));
+	}
+
+	@Test
+	public void testAuditTableNamesAreTakenFromConstructorArguments()
+	{
+		// Given
+		final AuditTableInformation auditTableInformation = new AuditTableInformation("ADDRESS_AUD", "ADDRESS");
+
+		// When
+		final ParameterizedValidatorWrapper wrapper = new ParameterizedValidatorWrapper(new TestValidator(), new Object[] {auditTableInformation, "ADDRESS"}, Collections.emptyList(), parameterized("{index}", "{index}"), 0);
+
+		// Then
+		assertEquals(Collections.singleton("ADDRESS_AUD"), wrapper.getAuditTableNames());
+	}
+
+	private static Parameterized parameterized(String name, String uniqueIdentifier)
+	{
+		return new Parameterized()
+		{
+			@Override
+			public String name()
+			{
+				return name;
+			}
+
+			@Override
+			public String uniqueIdentifier()
+			{
+				return uniqueIdentifier;
+			}
+
+			@Override
+			public Class<? extends Annotation> annotationType()
+			{
+				return Parameterized.class;
+			}
+		};
+	}
+
+	public static class TestValidator
+	{
+		@Validate
+		public void validate()
+		{
+		}
+
+		@Validate
+		public void otherValidate()
+		{
+		}
+	}
+}
\ No newline at end of file
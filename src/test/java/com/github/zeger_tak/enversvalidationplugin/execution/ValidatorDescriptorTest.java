@@ -0,0 +1,266 @@
+package com.github.zeger_tak.enversvalidationplugin.execution;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.AuditTableInformationMap;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ConnectionProvider;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Report;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.index.ValidatorIndex;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import org.junit.Test;
+
+public class ValidatorDescriptorTest
+{
+	@Test
+	public void testForClassReturnsCachedDescriptor() throws IllegalAccessException
+	{
+		// When
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(SingleValidator.class);
+
+		// Then
+		assertSame(descriptor, ValidatorDescriptor.forClass(SingleValidator.class));
+		assertSame(SingleValidator.class, descriptor.getValidatorClass());
+	}
+
+	@Test
+	public void testForClassDescribesValidatorWithoutParameterizedMethod() throws Exception
+	{
+		// When
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(SingleValidator.class);
+
+		// Then
+		assertNull(descriptor.getParameterizedMethod());
+		assertTrue(descriptor.getParameterizedMethodArguments().isEmpty());
+		assertEquals(1, descriptor.getValidateMethods().size());
+		assertEquals("validate", descriptor.getValidateMethods().get(0).getMethod().getName());
+
+		final Map<Field, Class<?>> expectedFields = Collections.singletonMap(SingleValidator.class.getDeclaredField("validationReport"), Report.class);
+		assertEquals(expectedFields, descriptor.getInjectableFields());
+		assertTrue(descriptor.getInjectableFields().keySet().iterator().next().isAccessible());
+	}
+
+	@Test
+	public void testForClassDescribesParameterizedMethodArgumentsInOrder() throws IllegalAccessException
+	{
+		// When
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(ParameterizedValidator.class);
+
+		// Then
+		assertEquals("generateTestData", descriptor.getParameterizedMethod().getName());
+		assertEquals(Arrays.asList(AuditTableInformationMap.class, ConnectionProvider.class), descriptor.getParameterizedMethodArguments());
+		assertEquals(2, descriptor.getValidateMethods().size());
+		assertTrue(descriptor.getInjectableFields().isEmpty());
+	}
+
+	@Test
+	public void testForClassWithMultipleParameterizedMethods() throws IllegalAccessException
+	{
+		try
+		{
+			// When
+			ValidatorDescriptor.forClass(MultipleParameterizedMethodsValidator.class);
+			fail("Expected a " + ValidationException.class.getSimpleName());
+		}
+		catch (ValidationException e)
+		{
+			// Then
+			assertEquals(MultipleParameterizedMethodsValidator.class.getCanonicalName() + " could not be used for validating, as the class defines more than one Parameterized annotated methods.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testGenerateDataAndNewInstance() throws Exception
+	{
+		// Given
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(ParameterizedValidator.class);
+
+		// When
+		final List<Object[]> generatedData = descriptor.generateData(new Object[] {"map", "provider"});
+		final Object validator = descriptor.newInstance(generatedData.get(0));
+
+		// Then
+		assertEquals(1, generatedData.size());
+		assertEquals("map-provider", ((ParameterizedValidator) validator).value);
+	}
+
+	@Test
+	public void testGenerateDataWithoutParameterizedMethod() throws Exception
+	{
+		// Given
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(SingleValidator.class);
+
+		try
+		{
+			// When
+			descriptor.generateData(new Object[0]);
+			fail("Expected an " + IllegalStateException.class.getSimpleName());
+		}
+		catch (IllegalStateException e)
+		{
+			// Then
+			assertEquals(SingleValidator.class.getCanonicalName() + " does not have a Parameterized method.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testInvocationExceptionsAreWrapped() throws Exception
+	{
+		// Given
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(ParameterizedValidator.class);
+		final Object validator = descriptor.newInstance(new Object[] {"value"});
+		final ValidateMethod failingMethod = descriptor.getValidateMethods().stream().filter(m -> m.getMethod().getName().equals("validateFailing")).findFirst().get();
+
+		try
+		{
+			// When
+			failingMethod.invoke(validator);
+			fail("Expected an " + InvocationTargetException.class.getSimpleName());
+		}
+		catch (InvocationTargetException e)
+		{
+			// Then
+			assertTrue(e.getCause() instanceof ValidationException);
+			assertEquals("value", e.getCause().getMessage());
+		}
+
+		try
+		{
+			// When
+			descriptor.newInstance(new Object[] {null});
+			fail("Expected an " + InvocationTargetException.class.getSimpleName());
+		}
+		catch (InvocationTargetException e)
+		{
+			// Then
+			assertTrue(e.getCause() instanceof NullPointerException);
+		}
+	}
+
+	@Test
+	public void testForClassUsesIndexedMethodNames() throws IllegalAccessException
+	{
+		// Given
+		final ValidatorIndex.Entry indexEntry = new ValidatorIndex.Entry(IndexedValidator.class.getName(), TargetPhase.CONTENT, Collections.singletonList("validate"), "generateTestData", Arrays.asList(Object.class.getName(), Object.class.getName()));
+		ValidatorDescriptor.registerIndexEntry(IndexedValidator.class, indexEntry);
+
+		// When
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(IndexedValidator.class);
+
+		// Then
+		assertEquals(1, descriptor.getValidateMethods().size());
+		assertEquals("validate", descriptor.getValidateMethods().get(0).getMethod().getName());
+		assertEquals("generateTestData", descriptor.getParameterizedMethod().getName());
+		assertEquals(Arrays.asList(AuditTableInformationMap.class, ConnectionProvider.class), descriptor.getParameterizedMethodArguments());
+	}
+
+	@Test
+	public void testForClassScansClassIfIndexIsOutOfDate() throws IllegalAccessException
+	{
+		// Given
+		final ValidatorIndex.Entry indexEntry = new ValidatorIndex.Entry(StaleIndexedValidator.class.getName(), TargetPhase.CONTENT, Collections.singletonList("removedValidate"), null, Collections.emptyList());
+		ValidatorDescriptor.registerIndexEntry(StaleIndexedValidator.class, indexEntry);
+
+		// When
+		final ValidatorDescriptor descriptor = ValidatorDescriptor.forClass(StaleIndexedValidator.class);
+
+		// Then
+		assertEquals(1, descriptor.getValidateMethods().size());
+		assertEquals("validate", descriptor.getValidateMethods().get(0).getMethod().getName());
+	}
+
+	public static class SingleValidator
+	{
+		@Report
+		private ValidationReport validationReport = ValidationReport.NONE;
+
+		@Validate
+		public void validate()
+		{
+		}
+
+		public void notAValidateMethod()
+		{
+		}
+	}
+
+	public static class ParameterizedValidator
+	{
+		private final String value;
+
+		public ParameterizedValidator(String value)
+		{
+			this.value = value.toString();
+		}
+
+		@Parameterized
+		public static List<Object[]> generateTestData(@AuditTableInformationMap Object map, @ConnectionProvider Object provider)
+		{
+			return Collections.singletonList(new Object[] {map + "-" + provider});
+		}
+
+		@Validate
+		public void validate()
+		{
+		}
+
+		@Validate
+		public void validateFailing()
+		{
+			throw new ValidationException(value);
+		}
+	}
+
+	public static class IndexedValidator extends ParameterizedValidator
+	{
+		public IndexedValidator(String value)
+		{
+			super(value);
+		}
+
+		/**
+		 * Not indexed, so not a validate method of this class.
+		 */
+		@Override
+		public void validateFailing()
+		{
+		}
+	}
+
+	public static class StaleIndexedValidator
+	{
+		@Validate
+		public void validate()
+		{
+		}
+	}
+
+	public static class MultipleParameterizedMethodsValidator
+	{
+		@Parameterized
+		public static List<Object[]> generateTestData()
+		{
+			return Collections.emptyList();
+		}
+
+		@Parameterized
+		public static List<Object[]> generateMoreTestData()
+		{
+			return Collections.emptyList();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.github.zeger_tak.enversvalidationplugin.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.annotation.Parameterized;
+import com.github.zeger_tak.enversvalidationplugin.annotation.TargetPhase;
+import com.github.zeger_tak.enversvalidationplugin.annotation.Validate;
+import com.github.zeger_tak.enversvalidationplugin.annotation.ValidationType;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class ValidatorIndexTest
+{
+	private static final String BUILT_IN_VALIDATOR_PACKAGE = "com.github.zeger_tak.enversvalidationplugin.validate";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public final ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void testFormatAndParseRoundTrip() throws IOException
+	{
+		// Given
+		final ValidatorIndex.Entry entry = new ValidatorIndex.Entry("com.example.ExampleValidator", TargetPhase.CONTENT, Arrays.asList("validateA", "validateB"), "generateTestData", Arrays.asList("java.util.Map", "com.example.Outer$Inner"));
+
+		// When
+		final List<ValidatorIndex.Entry> entries = ValidatorIndex.read(new StringReader("# comment\n\n" + entry.format() + "\n"));
+
+		// Then
+		assertEquals(1, entries.size());
+		assertEquals("com.example.ExampleValidator CONTENT validate=validateA,validateB parameterized=generateTestData(java.util.Map,com.example.Outer$Inner)", entries.get(0).format());
+		assertEquals(TargetPhase.CONTENT, entries.get(0).getTargetPhase());
+		assertEquals(Arrays.asList("validateA", "validateB"), entries.get(0).getValidateMethodNames());
+		assertEquals("generateTestData", entries.get(0).getParameterizedMethodName());
+		assertEquals(Arrays.asList("java.util.Map", "com.example.Outer$Inner"), entries.get(0).getParameterizedMethodParameterTypes());
+	}
+
+	@Test
+	public void testParseWithoutParameterizedMethod()
+	{
+		// When
+		final ValidatorIndex.Entry entry = ValidatorIndex.Entry.parse("com.example.ExampleValidator SETUP validate=validateA");
+
+		// Then
+		assertNotNull(entry);
+		assertNull(entry.getParameterizedMethodName());
+		assertTrue(entry.getParameterizedMethodParameterTypes().isEmpty());
+	}
+
+	@Test
+	public void testParseWithUnknownTargetPhase()
+	{
+		// Given
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("Invalid target phase in validator index " + ValidatorIndex.INDEX_RESOURCE_NAME + ": com.example.ExampleValidator UNKNOWN validate=validateA");
+
+		// When
+		ValidatorIndex.Entry.parse("com.example.ExampleValidator UNKNOWN validate=validateA");
+	}
+
+	@Test
+	public void testParseWithoutTargetPhase()
+	{
+		// Given
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("Invalid line in validator index " + ValidatorIndex.INDEX_RESOURCE_NAME + ": com.example.ExampleValidator");
+
+		// When
+		ValidatorIndex.Entry.parse("com.example.ExampleValidator");
+	}
+
+	@Test
+	public void testLoadWithPackageInIndexedRootOnly() throws IOException
+	{
+		// Given
+		final File indexedRoot = createRoot("indexed", "com.example.ExampleValidator CONTENT validate=validateA");
+		final ClassLoader classLoader = classLoaderFor(indexedRoot);
+
+		// When
+		final ValidatorIndex validatorIndex = ValidatorIndex.load(classLoader);
+
+		// Then
+		assertFalse(validatorIndex.isEmpty());
+		assertTrue(validatorIndex.isPackageIndexed("com.example", classLoader));
+		assertFalse(validatorIndex.isPackageIndexed("com.other", classLoader));
+		assertTrue(validatorIndex.getInvalidIndexFiles().isEmpty());
+	}
+
+	@Test
+	public void testLoadWithPackagePartlyIndexed() throws IOException
+	{
+		// Given
+		final File indexedRoot = createRoot("indexed", "com.example.ExampleValidator CONTENT validate=validateA");
+		final File notIndexedRoot = createRoot("notIndexed", null);
+		final ClassLoader classLoader = classLoaderFor(indexedRoot, notIndexedRoot);
+
+		// When
+		final ValidatorIndex validatorIndex = ValidatorIndex.load(classLoader);
+
+		// Then
+		assertEquals(1, validatorIndex.getEntriesInPackage("com.example").size());
+		assertFalse(validatorIndex.isPackageIndexed("com.example", classLoader));
+	}
+
+	@Test
+	public void testLoadIgnoresMalformedIndex() throws IOException
+	{
+		// Given
+		final File malformedRoot = createRoot("malformed", "com.example.ExampleValidator UNKNOWN validate=validateA");
+		final ClassLoader classLoader = classLoaderFor(malformedRoot);
+
+		// When
+		final ValidatorIndex validatorIndex = ValidatorIndex.load(classLoader);
+
+		// Then
+		assertTrue(validatorIndex.isEmpty());
+		assertFalse(validatorIndex.isPackageIndexed("com.example", classLoader));
+		assertEquals(1, validatorIndex.getInvalidIndexFiles().size());
+	}
+
+	/**
+	 * The ValidatorIndexProcessor can not process the sources it is compiled from, so the index of the built-in validators is maintained in the resources.
+	 */
+	@Test
+	public void testBuiltInValidatorIndexIsUpToDate() throws Exception
+	{
+		// Given
+		final ClassLoader classLoader = ValidatorIndexTest.class.getClassLoader();
+		final List<String> expectedEntries = new ArrayList<>();
+		final Enumeration<URL> packageLocations = classLoader.getResources(BUILT_IN_VALIDATOR_PACKAGE.replace('.', '/'));
+		while (packageLocations.hasMoreElements())
+		{
+			final File[] classFiles = new File(packageLocations.nextElement().toURI()).listFiles((dir, name) -> name.endsWith(".class") && !name.contains("$"));
+			for (File classFile : classFiles)
+			{
+				final Class<?> validatorClass = Class.forName(BUILT_IN_VALIDATOR_PACKAGE + "." + classFile.getName().replace(".class", ""), false, classLoader);
+				if (validatorClass.getAnnotation(ValidationType.class) != null)
+				{
+					expectedEntries.add(createEntry(validatorClass).format());
+				}
+			}
+		}
+		Collections.sort(expectedEntries);
+
+		// When
+		final List<String> indexedEntries = new ArrayList<>();
+		for (ValidatorIndex.Entry entry : ValidatorIndex.load(classLoader).getEntriesInPackage(BUILT_IN_VALIDATOR_PACKAGE))
+		{
+			indexedEntries.add(entry.format());
+		}
+		Collections.sort(indexedEntries);
+
+		// Then
+		assertFalse(expectedEntries.isEmpty());
+		assertEquals(expectedEntries, indexedEntries);
+	}
+
+	private static ValidatorIndex.Entry createEntry(Class<?> validatorClass)
+	{
+		final List<String> validateMethodNames = new ArrayList<>();
+		final List<String> parameterizedMethodParameterTypes = new ArrayList<>();
+		String parameterizedMethodName = null;
+		for (Method method : validatorClass.getMethods())
+		{
+			if (method.getAnnotation(Validate.class) != null)
+			{
+				validateMethodNames.add(method.getName());
+			}
+			else if (method.getAnnotation(Parameterized.class) != null && Modifier.isStatic(method.getModifiers()))
+			{
+				parameterizedMethodName = method.getName();
+				for (Class<?> parameterType : method.getParameterTypes())
+				{
+					parameterizedMethodParameterTypes.add(parameterType.getName());
+				}
+			}
+		}
+		Collections.sort(validateMethodNames);
+		return new ValidatorIndex.Entry(validatorClass.getName(), validatorClass.getAnnotation(ValidationType.class).value(), validateMethodNames, parameterizedMethodName, parameterizedMethodParameterTypes);
+	}
+
+	private File createRoot(String name, String indexContent) throws IOException
+	{
+		final File root = temporaryFolder.newFolder(name);
+		final File packageDirectory = new File(root, "com/example");
+		assertTrue(packageDirectory.mkdirs());
+		Files.write(new File(packageDirectory, "ExampleValidator.class").toPath(), new byte[0]);
+		if (indexContent != null)
+		{
+			final File indexFile = new File(root, ValidatorIndex.INDEX_RESOURCE_NAME);
+			assertTrue(indexFile.getParentFile().mkdirs());
+			Files.write(indexFile.toPath(), indexContent.getBytes(StandardCharsets.UTF_8));
+		}
+		return root;
+	}
+
+	private static ClassLoader classLoaderFor(File... roots) throws IOException
+	{
+		final URL[] urls = new URL[roots.length];
+		for (int i = 0; i < roots.length; i++)
+		{
+			urls[i] = roots[i].toURI().toURL();
+		}
+		return new URLClassLoader(urls, null);
+	}
+}
\ No newline at end of file
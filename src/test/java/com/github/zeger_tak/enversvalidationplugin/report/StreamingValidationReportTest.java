@@ -0,0 +1,67 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StreamingValidationReportTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testViolationsAreWrittenAsJsonLines() throws IOException
+	{
+		// Given
+		final File reportDirectory = temporaryFolder.newFolder();
+
+		// When
+		try (StreamingValidationReport validationReport = new StreamingValidationReport(reportDirectory, 10))
+		{
+			validationReport.validationStarted("Validator.validate");
+			validationReport.violationFound("1", "Value \"a\" differs");
+			validationReport.validationFailed("1 violation");
+		}
+
+		// Then
+		final List<String> violations = Files.readAllLines(new File(reportDirectory, StreamingValidationReport.VIOLATIONS_FILE_NAME).toPath(), StandardCharsets.UTF_8);
+		assertEquals(1, violations.size());
+		assertEquals("{\"validation\":\"Validator.validate\",\"identifier\":\"1\",\"message\":\"Value \\\"a\\\" differs\"}", violations.get(0));
+	}
+
+	@Test
+	public void testSummaryContainsTotalsAndTestCases() throws IOException
+	{
+		// Given
+		final File reportDirectory = temporaryFolder.newFolder();
+
+		// When
+		try (StreamingValidationReport validationReport = new StreamingValidationReport(reportDirectory, 10))
+		{
+			validationReport.validationStarted("Validator.validateSucceeds");
+			validationReport.validationSucceeded();
+			validationReport.validationStarted("Validator.validateFails");
+			validationReport.validationFailed("Failure <message>");
+			validationReport.validationIgnored("Validator.validateIgnored");
+		}
+
+		// Then
+		final String summary = new String(Files.readAllBytes(new File(reportDirectory, StreamingValidationReport.SUMMARY_FILE_NAME).toPath()), StandardCharsets.UTF_8);
+		assertTrue(summary.contains("tests=\"3\" failures=\"1\" errors=\"0\" skipped=\"1\""));
+		assertTrue(summary.contains("<testcase classname=\"Validator\" name=\"validateSucceeds\""));
+		assertTrue(summary.contains("<failure message=\"Failure &lt;message&gt;\">"));
+		assertTrue(summary.contains("<testcase classname=\"Validator\" name=\"validateIgnored\" time=\"0\">"));
+		assertTrue(summary.endsWith("</testsuite>\n"));
+		assertFalse(new File(reportDirectory, StreamingValidationReport.SUMMARY_FILE_NAME + ".tmp").exists());
+	}
+}
\ No newline at end of file
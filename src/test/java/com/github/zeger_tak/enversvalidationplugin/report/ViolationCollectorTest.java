@@ -0,0 +1,118 @@
+package com.github.zeger_tak.enversvalidationplugin.report;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ViolationCollectorTest
+{
+	@Test
+	public void testAddKeepsOnlyTheMaximumNumberOfExamples()
+	{
+		// Given
+		final ViolationCollector<Void> violationCollector = new ViolationCollector<>(new NoOpValidationReport(2));
+
+		// When
+		violationCollector.add("1", () -> "first");
+		violationCollector.add("2", () -> "second");
+		violationCollector.add("3", () -> "third");
+
+		// Then
+		assertFalse(violationCollector.isEmpty());
+		assertEquals(3, violationCollector.getCount());
+		assertEquals("[1, 2]", violationCollector.getExampleIdentifiers());
+		assertEquals(" (1 more violations were omitted, 3 in total)", violationCollector.getOmittedViolationsRemark());
+	}
+
+	@Test
+	public void testAddDoesNotEvaluateMessageIfReportDoesNotRecordViolations()
+	{
+		// Given
+		final ViolationCollector<Void> violationCollector = new ViolationCollector<>(ValidationReport.NONE);
+		final AtomicInteger evaluatedMessages = new AtomicInteger();
+
+		// When
+		violationCollector.add("1", () -> "message " + evaluatedMessages.incrementAndGet());
+
+		// Then
+		assertEquals(0, evaluatedMessages.get());
+		assertEquals("", violationCollector.getOmittedViolationsRemark());
+	}
+
+	@Test
+	public void testAddWithDuplicateIdentifierKeepsDetailsOfFirstViolation()
+	{
+		// Given
+		final ViolationCollector<String> violationCollector = new ViolationCollector<>(new NoOpValidationReport(1));
+
+		// When
+		violationCollector.add("1", "first", () -> "first");
+		violationCollector.add("1", "second", () -> "second");
+
+		// Then
+		assertEquals(2, violationCollector.getCount());
+		assertEquals(Collections.singletonMap("1", "first"), violationCollector.getExamples());
+		assertEquals("", violationCollector.getOmittedViolationsRemark());
+	}
+
+	@Test
+	public void testOmittedViolationsRemarkRefersToReportIfReportRecordsViolations()
+	{
+		// Given
+		final RecordingValidationReport validationReport = new RecordingValidationReport();
+		final ViolationCollector<Void> violationCollector = new ViolationCollector<>(validationReport);
+
+		// When
+		violationCollector.add("1", () -> "first");
+		violationCollector.add("2", () -> "second");
+
+		// Then
+		assertEquals(2, validationReport.violations);
+		assertTrue(violationCollector.getOmittedViolationsRemark().endsWith("see the validation report for the complete list)"));
+	}
+
+	@Test
+	public void testOmittedViolationsRemarkWithUnfetchedViolations()
+	{
+		// Given
+		final RecordingValidationReport validationReport = new RecordingValidationReport();
+		final ViolationCollector<Void> violationCollector = new ViolationCollector<>(validationReport);
+
+		// When
+		violationCollector.add("1", () -> "first");
+		violationCollector.addUnfetched(4);
+
+		// Then
+		assertEquals(1, validationReport.violations);
+		assertEquals(5, violationCollector.getCount());
+		assertEquals("[1]", violationCollector.getExampleIdentifiers());
+		assertEquals(" (4 more violations were omitted, 5 in total)", violationCollector.getOmittedViolationsRemark());
+	}
+
+	private static final class RecordingValidationReport extends NoOpValidationReport
+	{
+		private int violations;
+
+		private RecordingValidationReport()
+		{
+			super(1);
+		}
+
+		@Override
+		public boolean isRecordingViolations()
+		{
+			return true;
+		}
+
+		@Override
+		public void violationFound(String identifier, String message)
+		{
+			violations++;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.github.zeger_tak.enversvalidationplugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class AuditTableInformationFileReaderTest
+{
+	private static final String AUDIT_TABLE_POST_FIX = "_AUD";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public final ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void testReadLinksChildConfiguredBeforeParent() throws IOException, MojoFailureException
+	{
+		// Given
+		//@formatter:off
+		final File file = createFile(
+				"<auditTableInformation>" +
+					"<auditTableName>CHILD_AUD</auditTableName>" +
+					"<auditTableParentName>PARENT_AUD</auditTableParentName>" +
+					"<contentTableName>CHILD_TABLE</contentTableName>" +
+				"</auditTableInformation>" +
+				"<auditTableInformation>" +
+					"<auditTableName>PARENT_AUD</auditTableName>" +
+					"<columnNamePresentInContentTableButNotInAuditTable>VERSION</columnNamePresentInContentTableButNotInAuditTable>" +
+				"</auditTableInformation>");
+		//@formatter:on
+
+		// When
+		final Map<String, AuditTableInformation> auditTableInformationMap = AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+
+		// Then
+		assertEquals(2, auditTableInformationMap.size());
+		final AuditTableInformation child = auditTableInformationMap.get("CHILD_AUD");
+		final AuditTableInformation parent = auditTableInformationMap.get("PARENT_AUD");
+		assertEquals("CHILD_TABLE", child.getContentTableName());
+		assertSame(parent, child.getAuditTableParent());
+		assertEquals("PARENT", parent.getContentTableName());
+		assertNull(parent.getAuditTableParent());
+		assertEquals(Collections.singleton("VERSION"), parent.getColumnNamesPresentInContentTableButNotInAuditTable());
+	}
+
+	@Test
+	public void testReadLinksChildConfiguredAfterParent() throws IOException, MojoFailureException
+	{
+		// Given
+		//@formatter:off
+		final File file = createFile(
+				"<auditTableInformation><auditTableName>PARENT_AUD</auditTableName></auditTableInformation>" +
+				"<auditTableInformation>" +
+					"<auditTableName>CHILD_AUD</auditTableName>" +
+					"<auditTableParentName>PARENT_AUD</auditTableParentName>" +
+				"</auditTableInformation>");
+		//@formatter:on
+
+		// When
+		final Map<String, AuditTableInformation> auditTableInformationMap = AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+
+		// Then
+		assertSame(auditTableInformationMap.get("PARENT_AUD"), auditTableInformationMap.get("CHILD_AUD").getAuditTableParent());
+	}
+
+	@Test
+	public void testReadWithoutAuditTableInformation() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("");
+
+		// When
+		final Map<String, AuditTableInformation> auditTableInformationMap = AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+
+		// Then
+		assertEquals(Collections.emptyMap(), auditTableInformationMap);
+	}
+
+	@Test
+	public void testReadRejectsUnknownElement() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("<auditTableInformation><auditTableName>TABLE_AUD</auditTableName><unknownElement>x</unknownElement></auditTableInformation>");
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("Unable to retrieve audit table information, unexpected element unknownElement at line 1.");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsUnknownElementInConfigurationFile() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("<unknownElement/>");
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("expected element {" + AuditTableInformationFileReader.NAMESPACE + "}auditTableInformation but found {" + AuditTableInformationFileReader.NAMESPACE + "}unknownElement");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsOtherNamespace() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = temporaryFolder.newFile("other.xml");
+		Files.write(file.toPath(), "<configurationFile xmlns=\"http://example.com\"/>".getBytes(StandardCharsets.UTF_8));
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("expected element {" + AuditTableInformationFileReader.NAMESPACE + "}configurationFile but found {http://example.com}configurationFile");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsAuditTableInformationWithoutAuditTableName() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("<auditTableInformation><contentTableName>TABLE</contentTableName></auditTableInformation>");
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("Unable to retrieve audit table information, an auditTableInformation element without auditTableName was found at line 1.");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsDuplicateAuditTable() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("<auditTableInformation><auditTableName>TABLE_AUD</auditTableName></auditTableInformation><auditTableInformation><auditTableName>TABLE_AUD</auditTableName></auditTableInformation>");
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("Unable to retrieve audit table information, TABLE_AUD is configured more than once.");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsUnknownParent() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = createFile("<auditTableInformation><auditTableName>CHILD_AUD</auditTableName><auditTableParentName>PARENT_AUD</auditTableParentName></auditTableInformation>");
+
+		expectedException.expect(MojoFailureException.class);
+		expectedException.expectMessage("Unable to construct the audit table information tree as CHILD_AUD has a parent audit table PARENT_AUD for which no auditTableInformation was configured.");
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	@Test
+	public void testReadRejectsDoctype() throws IOException, MojoFailureException
+	{
+		// Given
+		final File file = temporaryFolder.newFile("doctype.xml");
+		Files.write(file.toPath(), ("<!DOCTYPE configurationFile [<!ENTITY secret SYSTEM \"file:///etc/passwd\">]>" + "<configurationFile xmlns=\"" + AuditTableInformationFileReader.NAMESPACE + "\"><auditTableInformation><auditTableName>&secret;</auditTableName></auditTableInformation></configurationFile>").getBytes(StandardCharsets.UTF_8));
+
+		expectedException.expect(MojoFailureException.class);
+
+		// When
+		AuditTableInformationFileReader.read(file, AUDIT_TABLE_POST_FIX);
+	}
+
+	private File createFile(String auditTableInformation) throws IOException
+	{
+		final File file = temporaryFolder.newFile("configuration.xml");
+		final String content = "<configurationFile xmlns=\"" + AuditTableInformationFileReader.NAMESPACE + "\">" + auditTableInformation + "</configurationFile>";
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
\ No newline at end of file
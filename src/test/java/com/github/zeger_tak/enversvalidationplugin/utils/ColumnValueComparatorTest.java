@@ -0,0 +1,106 @@
+package com.github.zeger_tak.enversvalidationplugin.utils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ColumnValueComparatorTest
+{
+	@Test
+	public void testForValues()
+	{
+		assertEquals(ColumnValueComparator.NUMERIC, ColumnValueComparator.forValues(BigDecimal.ONE, 1L, false));
+		assertEquals(ColumnValueComparator.TEMPORAL, ColumnValueComparator.forValues(new Timestamp(0L), new Date(0L), false));
+		assertEquals(ColumnValueComparator.CHARACTER, ColumnValueComparator.forValues("a", "a", false));
+		assertEquals(ColumnValueComparator.FIXED_WIDTH_CHARACTER, ColumnValueComparator.forValues("a", "a", true));
+		assertEquals(ColumnValueComparator.BINARY, ColumnValueComparator.forValues(new byte[0], new byte[0], false));
+		assertEquals(ColumnValueComparator.GENERIC, ColumnValueComparator.forValues("1", 1L, true));
+	}
+
+	@Test
+	public void testNumericComparesByValue()
+	{
+		assertTrue(ColumnValueComparator.NUMERIC.isEqual(new BigDecimal("1.00"), 1L));
+		assertTrue(ColumnValueComparator.NUMERIC.isEqual(1.5d, new BigDecimal("1.50")));
+		assertFalse(ColumnValueComparator.NUMERIC.isEqual(new BigDecimal("1.5"), 1L));
+	}
+
+	@Test
+	public void testTemporalComparesTimestampsByNanosecond()
+	{
+		// Given
+		final Timestamp contentValue = createTimestamp(1500000000123L, 123456789);
+		final Timestamp auditValue = createTimestamp(1500000000123L, 123456000);
+
+		// When
+		final boolean equal = ColumnValueComparator.TEMPORAL.isEqual(contentValue, auditValue);
+
+		// Then
+		assertFalse(equal);
+	}
+
+	@Test
+	public void testTemporalTruncatesTimestampToMilliseconds()
+	{
+		// Given
+		final Timestamp contentValue = createTimestamp(1500000000123L, 123456789);
+
+		// When
+		final boolean equal = ColumnValueComparator.TEMPORAL.isEqual(contentValue, new Date(1500000000123L));
+
+		// Then
+		assertTrue(equal);
+	}
+
+	@Test
+	public void testTemporalTruncatesTimestampToDay()
+	{
+		// Given
+		final java.sql.Date contentValue = java.sql.Date.valueOf("2017-07-14");
+		final Timestamp auditValue = Timestamp.valueOf("2017-07-14 14:40:00.123456789");
+
+		// When
+		final boolean equal = ColumnValueComparator.TEMPORAL.isEqual(contentValue, auditValue);
+
+		// Then
+		assertTrue(equal);
+		assertTrue(ColumnValueComparator.TEMPORAL.isEqual(auditValue, contentValue));
+		assertFalse(ColumnValueComparator.TEMPORAL.isEqual(java.sql.Date.valueOf("2017-07-15"), auditValue));
+	}
+
+	@Test
+	public void testCharacterComparesTrailingSpaces()
+	{
+		assertTrue(ColumnValueComparator.CHARACTER.isEqual("value", "value"));
+		assertFalse(ColumnValueComparator.CHARACTER.isEqual("value ", "value"));
+	}
+
+	@Test
+	public void testFixedWidthCharacterIgnoresPadding()
+	{
+		assertTrue(ColumnValueComparator.FIXED_WIDTH_CHARACTER.isEqual("value    ", "value"));
+		assertTrue(ColumnValueComparator.FIXED_WIDTH_CHARACTER.isEqual("value", "value  "));
+		assertFalse(ColumnValueComparator.FIXED_WIDTH_CHARACTER.isEqual(" value", "value"));
+		assertFalse(ColumnValueComparator.FIXED_WIDTH_CHARACTER.isEqual("value1", "value"));
+	}
+
+	@Test
+	public void testBinaryComparesContent()
+	{
+		assertTrue(ColumnValueComparator.BINARY.isEqual(new byte[] { 1, 2 }, new byte[] { 1, 2 }));
+		assertFalse(ColumnValueComparator.BINARY.isEqual(new byte[] { 1, 2 }, new byte[] { 2, 1 }));
+	}
+
+	private static Timestamp createTimestamp(long time, int nanos)
+	{
+		final Timestamp timestamp = new Timestamp(time);
+		timestamp.setNanos(nanos);
+		return timestamp;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ModifiedFlagValidatorTest
+{
+	private final String auditTableName = "auditTable";
+	private final String contentTableName = "contentTable";
+	private final AuditTableInformation auditTableInformation = new AuditTableInformation(auditTableName, contentTableName);
+	private final List<String> primaryIdentifierColumnNames = Collections.singletonList("ID");
+
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Mock
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Before
+	public void init()
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		when(databaseQueries.getModifiedFlagSuffix()).thenReturn("_MOD");
+	}
+
+	@Test
+	public void testGenerateTestDataWithModifiedFlags() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "NAME", "NAME_MOD", "OWNER_ID", "OWNER_MOD")));
+		when(databaseQueries.getPrimaryKeyColumnNames(contentTableName)).thenReturn(primaryIdentifierColumnNames);
+
+		// When
+		final List<Object[]> testData = ModifiedFlagValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(connectionProvider, testData.get(0)[0]);
+		assertEquals(auditTableInformation, testData.get(0)[1]);
+		assertEquals(primaryIdentifierColumnNames, testData.get(0)[2]);
+		assertEquals(Collections.singletonMap("NAME", "NAME_MOD"), testData.get(0)[3]);
+	}
+
+	@Test
+	public void testGenerateTestDataSkipsNonComparableColumns() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "NAME", "NAME_MOD", "DOCUMENT", "DOCUMENT_MOD")));
+		when(databaseQueries.getNonComparableColumnNames(auditTableName)).thenReturn(Collections.singleton("DOCUMENT"));
+		when(databaseQueries.getPrimaryKeyColumnNames(contentTableName)).thenReturn(primaryIdentifierColumnNames);
+
+		// When
+		final List<Object[]> testData = ModifiedFlagValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(Collections.singletonMap("NAME", "NAME_MOD"), testData.get(0)[3]);
+	}
+
+	@Test
+	public void testGenerateTestDataWithoutModifiedFlags() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "NAME")));
+
+		// When
+		final List<Object[]> testData = ModifiedFlagValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertTrue(testData.isEmpty());
+	}
+
+	@Test
+	public void testValidateModifiedFlagsMatchChangedColumns() throws SQLException, DataSetException
+	{
+		// Given
+		final Map<String, String> modifiedFlagColumnNames = Collections.singletonMap("NAME", "NAME_MOD");
+		when(databaseQueries.getModifiedFlagViolations(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames), eq(modifiedFlagColumnNames))).thenReturn(Collections.emptyMap());
+
+		final ModifiedFlagValidator validator = new ModifiedFlagValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, modifiedFlagColumnNames);
+
+		// When
+		validator.validateModifiedFlagsMatchChangedColumns();
+	}
+
+	@Test
+	public void testValidateModifiedFlagsMatchChangedColumnsWithUnsetFlagOfChangedColumn() throws SQLException, DataSetException
+	{
+		// Given
+		final Map<String, String> modifiedFlagColumnNames = Collections.singletonMap("NAME", "NAME_MOD");
+		final TableRow tableRow = new TableRow();
+		tableRow.addColumn("ID", 1);
+		tableRow.addColumn("REV", 2);
+		tableRow.addColumn("NAME", "new");
+		tableRow.addColumn("NAME_MOD", 0);
+		tableRow.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0, "old");
+		tableRow.addColumn(DatabaseQueries.INVALID_MODIFIED_FLAG_COLUMN_NAME_PREFIX + 0, 1);
+		when(databaseQueries.getModifiedFlagViolations(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames), eq(modifiedFlagColumnNames))).thenReturn(Collections.singletonMap("1, 2", tableRow));
+
+		final ModifiedFlagValidator validator = new ModifiedFlagValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, modifiedFlagColumnNames);
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 2] in " + auditTableName + " have modified flags which do not match the columns changed since the previous revision.");
+
+		// When
+		validator.validateModifiedFlagsMatchChangedColumns();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import org.apache.maven.plugin.logging.Log;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class NoOpModifyRevisionValidatorTest
+{
+	private final String auditTableName = "auditTable";
+	private final String contentTableName = "contentTable";
+	private final AuditTableInformation auditTableInformation = new AuditTableInformation(auditTableName, contentTableName);
+	private final List<String> primaryIdentifierColumnNames = Collections.singletonList("ID");
+
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Mock
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Mock
+	private Log log;
+
+	@Before
+	public void init() throws SQLException, DataSetException
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		when(databaseQueries.getRevisionTableIdentifierColumnName()).thenReturn("REV");
+		when(databaseQueries.getRevTypeColumnName()).thenReturn("REVTYPE");
+		when(databaseQueries.getRevisionEndColumnName()).thenReturn("REVEND");
+		when(databaseQueries.getRevisionEndTimestampColumnName()).thenReturn("REVEND_TSTMP");
+		when(databaseQueries.getModifiedFlagSuffix()).thenReturn("_MOD");
+		when(databaseQueries.getPrimaryKeyColumnNames(contentTableName)).thenReturn(primaryIdentifierColumnNames);
+		when(databaseQueries.getNonComparableColumnNames(any())).thenReturn(Collections.emptySet());
+		when(databaseQueries.getListOfTablesWithForeignKeysToRevisionTable()).thenReturn(new HashSet<>(Arrays.asList("AUDITTABLE", "COLLECTION_AUD")));
+	}
+
+	@Test
+	public void testGenerateTestDataExcludesIdentifierAndRevisionColumns() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "REVEND", "NAME", "NAME_MOD", "AGE")));
+
+		// When
+		final List<Object[]> testData = NoOpModifyRevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(connectionProvider, testData.get(0)[0]);
+		assertEquals(auditTableInformation, testData.get(0)[1]);
+		assertEquals(primaryIdentifierColumnNames, testData.get(0)[2]);
+		assertEquals(Arrays.asList(auditTableName + ".AGE", auditTableName + ".NAME"), testData.get(0)[3]);
+		final Map<String, String> auditTableGroups = new HashMap<>();
+		auditTableGroups.put(auditTableName, "AUDITTABLE");
+		auditTableGroups.put("COLLECTION_AUD", "COLLECTION_AUD");
+		assertEquals(auditTableGroups, testData.get(0)[4]);
+	}
+
+	@Test
+	public void testGenerateTestDataIncludesParentAuditTableColumns() throws SQLException, DataSetException
+	{
+		// Given
+		final AuditTableInformation parentAuditTableInformation = new AuditTableInformation("PARENT_AUD", "PARENT");
+		final AuditTableInformation childAuditTableInformation = new AuditTableInformation(auditTableName, contentTableName);
+		childAuditTableInformation.setAuditTableParent(parentAuditTableInformation);
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, childAuditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "AGE")));
+		when(databaseQueries.getAllColumns("PARENT_AUD")).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "NAME")));
+		when(databaseQueries.getListOfTablesWithForeignKeysToRevisionTable()).thenReturn(new HashSet<>(Arrays.asList("AUDITTABLE", "PARENT_AUD", "COLLECTION_AUD")));
+
+		// When
+		final List<Object[]> testData = NoOpModifyRevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(Arrays.asList(auditTableName + ".AGE", "PARENT_AUD.NAME"), testData.get(0)[3]);
+		final Map<String, String> auditTableGroups = new HashMap<>();
+		auditTableGroups.put(auditTableName, "PARENT_AUD");
+		auditTableGroups.put("PARENT_AUD", "PARENT_AUD");
+		auditTableGroups.put("COLLECTION_AUD", "COLLECTION_AUD");
+		assertEquals(auditTableGroups, testData.get(0)[4]);
+	}
+
+	@Test
+	public void testGenerateTestDataWithNonComparableColumn() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE", "NAME", "DOCUMENT")));
+		when(databaseQueries.getNonComparableColumnNames(auditTableName)).thenReturn(Collections.singleton("DOCUMENT"));
+
+		// When
+		final List<Object[]> testData = NoOpModifyRevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertTrue(testData.isEmpty());
+	}
+
+	@Test
+	public void testGenerateTestDataWithoutDataColumns() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(new HashSet<>(Arrays.asList("ID", "REV", "REVTYPE")));
+
+		// When
+		final List<Object[]> testData = NoOpModifyRevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertTrue(testData.isEmpty());
+	}
+
+	@Test
+	public void testValidateModifyRevisionsChangeData() throws SQLException, DataSetException
+	{
+		// Given
+		final List<String> dataColumnNames = Collections.singletonList(auditTableName + ".NAME");
+		final Map<String, String> auditTableGroups = Collections.singletonMap(auditTableName, "AUDITTABLE");
+		when(databaseQueries.getNoOpModifyRevisions(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames), eq(dataColumnNames), eq(auditTableGroups), anyInt())).thenReturn(new TableRowSample(0, Collections.emptyMap()));
+
+		final NoOpModifyRevisionValidator validator = new NoOpModifyRevisionValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, dataColumnNames, auditTableGroups);
+
+		// When
+		validator.validateModifyRevisionsChangeData();
+
+		// Then
+		verify(connectionProvider, never()).getLog();
+	}
+
+	@Test
+	public void testValidateModifyRevisionsChangeDataLogsNumberOfNoOpRevisions() throws SQLException, DataSetException
+	{
+		// Given
+		final List<String> dataColumnNames = Collections.singletonList(auditTableName + ".NAME");
+		final Map<String, String> auditTableGroups = Collections.singletonMap(auditTableName, "AUDITTABLE");
+		final Map<String, TableRow> noOpRevisions = new LinkedHashMap<>();
+		noOpRevisions.put("1, 2", new TableRow());
+		noOpRevisions.put("1, 3", new TableRow());
+		when(databaseQueries.getNoOpModifyRevisions(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames), eq(dataColumnNames), eq(auditTableGroups), anyInt())).thenReturn(new TableRowSample(250, noOpRevisions));
+		when(connectionProvider.getLog()).thenReturn(log);
+
+		final NoOpModifyRevisionValidator validator = new NoOpModifyRevisionValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, dataColumnNames, auditTableGroups);
+
+		// When
+		validator.validateModifyRevisionsChangeData();
+
+		// Then
+		verify(log).warn("250 Modify revisions in auditTable do not change any data column, for example [1, 2, 1, 3].");
+	}
+}
\ No newline at end of file
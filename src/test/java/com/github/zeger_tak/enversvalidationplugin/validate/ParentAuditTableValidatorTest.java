@@ -0,0 +1,118 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ParentAuditTableValidatorTest
+{
+	private final AuditTableInformation parentAuditTableInformation = new AuditTableInformation("parentAuditTable", "parentContentTable");
+	private final AuditTableInformation auditTableInformation = new AuditTableInformation("auditTable", "contentTable");
+	private final List<String> primaryIdentifierColumnNames = Collections.singletonList("ID");
+
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Mock
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Before
+	public void init()
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		auditTableInformation.setAuditTableParent(parentAuditTableInformation);
+	}
+
+	@Test
+	public void testGenerateTestDataOnlyIncludesAuditTablesWithParent() throws SQLException, DataSetException
+	{
+		// Given
+		final Map<String, AuditTableInformation> auditTables = new HashMap<>();
+		auditTables.put("auditTable", auditTableInformation);
+		auditTables.put("parentAuditTable", parentAuditTableInformation);
+		when(auditTableInformationMap.entrySet()).thenReturn(auditTables.entrySet());
+		when(databaseQueries.getPrimaryKeyColumnNames("contentTable")).thenReturn(primaryIdentifierColumnNames);
+
+		// When
+		final List<Object[]> testData = ParentAuditTableValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(connectionProvider, testData.get(0)[0]);
+		assertEquals(auditTableInformation, testData.get(0)[1]);
+		assertEquals(primaryIdentifierColumnNames, testData.get(0)[2]);
+	}
+
+	@Test
+	public void testValidateAllRevisionsHaveAParentRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getRevisionsWithoutParentRevision(any(), eq(auditTableInformation), eq(parentAuditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.emptyMap());
+
+		final ParentAuditTableValidator validator = new ParentAuditTableValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames);
+
+		// When
+		validator.validateAllRevisionsHaveAParentRevision();
+	}
+
+	@Test
+	public void testValidateAllRevisionsHaveAParentRevisionWithOrphanedRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getRevisionsWithoutParentRevision(any(), eq(auditTableInformation), eq(parentAuditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singletonMap("1, 2", new TableRow()));
+
+		final ParentAuditTableValidator validator = new ParentAuditTableValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames);
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 2] in auditTable do not have a revision of the same record in parent audit table parentAuditTable.");
+
+		// When
+		validator.validateAllRevisionsHaveAParentRevision();
+	}
+
+	@Test
+	public void testValidateAllParentRevisionsHaveAChildRevisionWithOrphanedParentRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getParentRevisionsWithoutChildRevision(any(), eq(auditTableInformation), eq(parentAuditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singletonMap("1, 3", new TableRow()));
+
+		final ParentAuditTableValidator validator = new ParentAuditTableValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames);
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 3] in parent audit table parentAuditTable do not have a revision of the same record in auditTable.");
+
+		// When
+		validator.validateAllParentRevisionsHaveAChildRevision();
+	}
+}
\ No newline at end of file
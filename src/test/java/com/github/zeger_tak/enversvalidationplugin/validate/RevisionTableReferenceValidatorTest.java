@@ -0,0 +1,137 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.RevisionSample;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class RevisionTableReferenceValidatorTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@InjectMocks
+	private RevisionTableReferenceValidator validator;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Mock
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@Before
+	public void init() throws SQLException, DataSetException
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		when(databaseQueries.getRevisionTableName()).thenReturn("REVINFO");
+		when(databaseQueries.getListOfTablesWithForeignKeysToRevisionTable()).thenReturn(Collections.emptySet());
+	}
+
+	@Test
+	public void testValidateAllRevisionsArePresentInRevisionTableIncludesParentAuditTables() throws SQLException, DataSetException
+	{
+		// Given
+		final AuditTableInformation parentAuditTableInformation = new AuditTableInformation("PARENT_AUD", "PARENT");
+		final AuditTableInformation auditTableInformation = new AuditTableInformation("CHILD_AUD", "CHILD");
+		auditTableInformation.setAuditTableParent(parentAuditTableInformation);
+		when(auditTableInformationMap.values()).thenReturn(Collections.singleton(auditTableInformation));
+
+		final Set<String> auditTableNames = new HashSet<>(Arrays.asList("CHILD_AUD", "PARENT_AUD"));
+		when(databaseQueries.getRevisionsMissingFromRevisionTable(any(), eq(auditTableNames), anyInt())).thenReturn(new RevisionSample(0, Collections.emptySet()));
+
+		// When
+		validator.validateAllRevisionsArePresentInRevisionTable();
+
+		// Then
+		verify(databaseQueries).getRevisionsMissingFromRevisionTable(any(), eq(auditTableNames), eq(ValidationReport.DEFAULT_MAXIMUM_EXAMPLES_PER_VALIDATION));
+	}
+
+	@Test
+	public void testValidateAllRevisionsArePresentInRevisionTableWithMissingRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.values()).thenReturn(Collections.singleton(new AuditTableInformation("TABLE_AUD", "TABLE")));
+		when(databaseQueries.getRevisionsMissingFromRevisionTable(any(), eq(Collections.singleton("TABLE_AUD")), anyInt())).thenReturn(new RevisionSample(3, Collections.singleton("12")));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [12] are referenced by audit tables but are not present in the revision table REVINFO. (2 more violations were omitted, 3 in total)");
+
+		// When
+		validator.validateAllRevisionsArePresentInRevisionTable();
+	}
+
+	@Test
+	public void testValidateAllRevisionsInRevisionTableAreReferencedWithUnreferencedRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.values()).thenReturn(Collections.singleton(new AuditTableInformation("TABLE_AUD", "TABLE")));
+		when(databaseQueries.getRevisionsNotReferencedByAuditTables(any(), eq(Collections.singleton("TABLE_AUD")), anyInt())).thenReturn(new RevisionSample(1, Collections.singleton("7")));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [7] in the revision table REVINFO are not referenced by any audit table.");
+
+		// When
+		validator.validateAllRevisionsInRevisionTableAreReferenced();
+	}
+
+	@Test
+	public void testValidateAllRevisionsInRevisionTableAreReferencedWithoutAuditTables() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.values()).thenReturn(Collections.emptySet());
+
+		// When
+		validator.validateAllRevisionsInRevisionTableAreReferenced();
+
+		// Then
+		verify(databaseQueries, never()).getRevisionsNotReferencedByAuditTables(any(), any(), anyInt());
+	}
+
+	@Test
+	public void testValidateAllRevisionsInRevisionTableAreReferencedIncludesTablesWithForeignKeysToRevisionTable() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.values()).thenReturn(Collections.singleton(new AuditTableInformation("table_aud", "table")));
+		when(databaseQueries.getListOfTablesWithForeignKeysToRevisionTable()).thenReturn(new HashSet<>(Arrays.asList("TABLE_AUD", "TABLE_ITEMS_AUD")));
+
+		final Set<String> auditTableNames = new HashSet<>(Arrays.asList("table_aud", "TABLE_ITEMS_AUD"));
+		when(databaseQueries.getRevisionsNotReferencedByAuditTables(any(), eq(auditTableNames), anyInt())).thenReturn(new RevisionSample(0, Collections.emptySet()));
+
+		// When
+		validator.validateAllRevisionsInRevisionTableAreReferenced();
+
+		// Then
+		verify(databaseQueries).getRevisionsNotReferencedByAuditTables(any(), eq(auditTableNames), anyInt());
+	}
+}
\ No newline at end of file
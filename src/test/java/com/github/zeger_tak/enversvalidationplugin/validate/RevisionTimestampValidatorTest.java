@@ -0,0 +1,129 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRowSample;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class RevisionTimestampValidatorTest
+{
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@InjectMocks
+	private RevisionTimestampValidator validator;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Before
+	public void init()
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		when(databaseQueries.getRevisionTableName()).thenReturn("REVINFO");
+		when(databaseQueries.getRevisionTableTimestampColumnName()).thenReturn("REVTSTMP");
+	}
+
+	@Test
+	public void testValidateRevisionTimestampsIncreaseWithRevisions() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getRevisionsWithDecreasingTimestamp(any(), anyInt())).thenReturn(new TableRowSample(0, Collections.emptyMap()));
+
+		// When
+		validator.validateRevisionTimestampsIncreaseWithRevisions();
+	}
+
+	@Test
+	public void testValidateRevisionTimestampsIncreaseWithRevisionsWithDecreasingTimestamp() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow tableRow = new TableRow();
+		tableRow.addColumn("REV", 5);
+		tableRow.addColumn("REVTSTMP", 1000L);
+		tableRow.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0, 4);
+		tableRow.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1, 2000L);
+		when(databaseQueries.getRevisionsWithDecreasingTimestamp(any(), anyInt())).thenReturn(new TableRowSample(1, Collections.singletonMap("5", tableRow)));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [5] in REVINFO have a timestamp preceding the timestamp of the previous revision.");
+
+		// When
+		validator.validateRevisionTimestampsIncreaseWithRevisions();
+	}
+
+	@Test
+	public void testValidateRevisionTimestampsIncreaseWithRevisionsCollapsesConsecutiveRevisions() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow range = new TableRow();
+		range.addColumn("REV", 5);
+		range.addColumn("REVTSTMP", 1000L);
+		range.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0, 4);
+		range.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1, 2000L);
+		range.addColumn(DatabaseQueries.LAST_REVISION_COLUMN_NAME, 9);
+		range.addColumn(DatabaseQueries.REVISION_COUNT_COLUMN_NAME, 5);
+
+		final TableRow single = new TableRow();
+		single.addColumn("REV", 12);
+		single.addColumn("REVTSTMP", 3000L);
+		single.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0, 11);
+		single.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1, 4000L);
+		single.addColumn(DatabaseQueries.LAST_REVISION_COLUMN_NAME, 12);
+		single.addColumn(DatabaseQueries.REVISION_COUNT_COLUMN_NAME, 1);
+
+		final Map<String, TableRow> violations = new LinkedHashMap<>();
+		violations.put("5", range);
+		violations.put("12", single);
+		when(databaseQueries.getRevisionsWithDecreasingTimestamp(any(), anyInt())).thenReturn(new TableRowSample(2, violations));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [5-9, 12] in REVINFO have a timestamp preceding the timestamp of the previous revision.");
+
+		// When
+		validator.validateRevisionTimestampsIncreaseWithRevisions();
+	}
+
+	@Test
+	public void testValidateRevisionTimestampsIncreaseWithRevisionsCountsUnfetchedRanges() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow tableRow = new TableRow();
+		tableRow.addColumn("REV", 5);
+		tableRow.addColumn("REVTSTMP", 1000L);
+		tableRow.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 0, 4);
+		tableRow.addColumn(DatabaseQueries.PREVIOUS_VALUE_COLUMN_NAME_PREFIX + 1, 2000L);
+		when(databaseQueries.getRevisionsWithDecreasingTimestamp(any(), anyInt())).thenReturn(new TableRowSample(150, Collections.singletonMap("5", tableRow)));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [5] in REVINFO have a timestamp preceding the timestamp of the previous revision. (149 more violations were omitted, 150 in total)");
+
+		// When
+		validator.validateRevisionTimestampsIncreaseWithRevisions();
+	}
+}
\ No newline at end of file
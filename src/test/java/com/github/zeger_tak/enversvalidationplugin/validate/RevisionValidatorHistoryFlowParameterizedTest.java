@@ -1,6 +1,7 @@
 package com.github.zeger_tak.enversvalidationplugin.validate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,9 +18,11 @@ import static org.mockito.Mockito.when;
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
 import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
 import com.github.zeger_tak.enversvalidationplugin.entities.RevisionConstants;
 import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.dbunit.dataset.DataSetException;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -43,7 +46,7 @@ public class RevisionValidatorHistoryFlowParameterizedTest
 	public RevisionValidatorHistoryFlowParameterizedTest(@Nonnull String testName, @Nonnull Map<String, List<TableRow>> recordsInAuditTable, @Nonnull Map<String, TableRow> recordsInContentTable, @Nullable String expectedExceptionMessageValidFlow, @Nullable String expectedExceptionMessageAddOrModifyContent)
 	{
 		connectionProvider = mock(ConnectionProviderInstance.class);
-		validator = new RevisionValidator(connectionProvider, new AuditTableInformation("auditTableName", "auditTableName"), recordsInAuditTable, recordsInContentTable);
+		validator = new RevisionValidator(connectionProvider, new AuditTableInformation("auditTableName", "auditTableName"), recordsInAuditTable, ContentKeyIndex.of(recordsInContentTable.keySet()));
 		this.expectedExceptionMessageValidFlow = expectedExceptionMessageValidFlow;
 		this.expectedExceptionMessageAddOrModifyContent = expectedExceptionMessageAddOrModifyContent;
 	}
@@ -203,7 +206,7 @@ public class RevisionValidatorHistoryFlowParameterizedTest
 	}
 
 	@Test
-	public void testValidateLatestAddOrModfyRevisionRefersToExistingContent()
+	public void testValidateLatestAddOrModfyRevisionRefersToExistingContent() throws SQLException, DataSetException
 	{
 		if (expectedExceptionMessageAddOrModifyContent == null)
 		{
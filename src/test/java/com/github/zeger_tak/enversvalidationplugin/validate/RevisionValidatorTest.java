@@ -2,11 +2,18 @@ package com.github.zeger_tak.enversvalidationplugin.validate;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nonnull;
+
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -25,10 +32,17 @@ import static org.junit.Assert.fail;
 
 import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
 import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.connection.TimeLimit;
 import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.ContentKeyIndex;
 import com.github.zeger_tak.enversvalidationplugin.entities.RevisionConstants;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableColumns;
 import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
 import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationTimeoutException;
+import com.github.zeger_tak.enversvalidationplugin.report.NoOpValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ValidationReport;
+import com.github.zeger_tak.enversvalidationplugin.report.ViolationCollector;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.DataSetException;
 import org.junit.Before;
@@ -43,6 +57,7 @@ import org.mockito.junit.MockitoRule;
 public class RevisionValidatorTest
 {
 	private static final String AUDIT_TABLE = "auditTable";
+	private static final List<String> PRIMARY_IDENTIFIER_COLUMN_NAMES = Collections.singletonList("ID");
 
 	@Rule
 	public MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -66,7 +81,7 @@ public class RevisionValidatorTest
 	public void init()
 	{
 		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
-		when(connectionProvider.getDatabaseConnection()).thenReturn(databaseConnection);
+		when(connectionProvider.getScanConnection()).thenReturn(databaseConnection);
 	}
 
 	@Test
@@ -91,11 +106,11 @@ public class RevisionValidatorTest
 		final List<String> primaryIdentifierColumnNames = Collections.singletonList(AUDIT_TABLE);
 
 		final Map<String, List<TableRow>> auditTableRecords = Collections.singletonMap(AUDIT_TABLE, Collections.singletonList(new TableRow()));
-		final Map<String, TableRow> contentTableRecords = Collections.singletonMap(contentTable, new TableRow());
+		final ContentKeyIndex contentKeyIndex = ContentKeyIndex.of(Collections.singleton(contentTable));
 
 		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(AUDIT_TABLE, new AuditTableInformation(AUDIT_TABLE, contentTable))));
 		when(databaseQueries.getPrimaryKeyColumnNames(contentTable)).thenReturn(primaryIdentifierColumnNames);
-		when(databaseQueries.getContentRecords(databaseConnection, auditTableInformation, primaryIdentifierColumnNames)).thenReturn(contentTableRecords);
+		when(databaseQueries.getContentKeyIndex(databaseConnection, auditTableInformation, primaryIdentifierColumnNames)).thenReturn(contentKeyIndex);
 		when(databaseQueries.getAuditRecordsGroupedByContentPrimaryKey(databaseConnection, auditTableInformation, primaryIdentifierColumnNames)).thenReturn(auditTableRecords);
 
 		// When
@@ -106,32 +121,88 @@ public class RevisionValidatorTest
 		assertEquals(connectionProvider, testData.get(0)[0]);
 		assertEquals(contentTable, ((AuditTableInformation) testData.get(0)[1]).getContentTableName());
 		assertEquals(auditTableRecords, testData.get(0)[2]);
-		assertEquals(contentTableRecords, testData.get(0)[3]);
+		assertEquals(contentKeyIndex, testData.get(0)[3]);
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionWithEmptyContentList()
+	public void testGenerateTestDataWithExceededTimeLimit() throws SQLException, DataSetException
+	{
+		// Given
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+		final TimeLimit timeLimit = mock(TimeLimit.class);
+
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(AUDIT_TABLE, auditTableInformation)));
+		when(connectionProvider.startTimeLimit("loading " + AUDIT_TABLE)).thenReturn(timeLimit);
+		when(timeLimit.isExpired()).thenReturn(true);
+		when(databaseQueries.getPrimaryKeyColumnNames(AUDIT_TABLE)).thenReturn(PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		when(databaseQueries.getContentKeyIndex(databaseConnection, auditTableInformation, PRIMARY_IDENTIFIER_COLUMN_NAMES)).thenThrow(new SQLTimeoutException("canceling statement due to user request"));
+
+		// When
+		final List<Object[]> testData = RevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertNull(testData.get(0)[2]);
+		assertNull(testData.get(0)[3]);
+		verify(timeLimit, times(1)).close();
+	}
+
+	@Test
+	public void testGenerateTestDataRethrowsExceptionWithinTimeLimit() throws SQLException, DataSetException
+	{
+		// Given
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+		final TimeLimit timeLimit = mock(TimeLimit.class);
+
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(AUDIT_TABLE, auditTableInformation)));
+		when(connectionProvider.startTimeLimit("loading " + AUDIT_TABLE)).thenReturn(timeLimit);
+		when(databaseQueries.getPrimaryKeyColumnNames(AUDIT_TABLE)).thenReturn(PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		when(databaseQueries.getContentKeyIndex(databaseConnection, auditTableInformation, PRIMARY_IDENTIFIER_COLUMN_NAMES)).thenThrow(new SQLException("relation does not exist"));
+
+		expectedException.expect(SQLException.class);
+		expectedException.expectMessage("relation does not exist");
+
+		// When
+		RevisionValidator.generateTestData(connectionProvider, auditTableInformationMap);
+	}
+
+	@Test
+	public void testValidateHistoryIsAValidFlowWithRecordsNotLoadedWithinTimeLimit()
+	{
+		// Given
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+		final RevisionValidator validator = new RevisionValidator(connectionProvider, auditTableInformation, null, null);
+
+		expectedException.expect(ValidationTimeoutException.class);
+		expectedException.expectMessage("Loading the records of auditTable and auditTable exceeded the time limit, the queries were cancelled.");
+
+		// When
+		validator.validateHistoryIsAValidFlow();
+	}
+
+	@Test
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionWithEmptyContentList() throws SQLException, DataSetException
 	{
 		// Given
 		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.singletonMap(AUDIT_TABLE, Collections.singletonList(new TableRow()));
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable);
+		final RevisionValidator validator = createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable);
 
 		// When
 		validator.validateAllRecordsInContentTableHaveAValidLatestRevision();
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionWithEmptyAuditTable()
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionWithEmptyAuditTable() throws SQLException, DataSetException
 	{
 		// Given
 		final Map<String, TableRow> recordsInContentTable = Collections.singletonMap(AUDIT_TABLE, new TableRow());
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable);
+		final RevisionValidator validator = createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable);
 
 		expectedException.expect(ValidationException.class);
 		expectedException.expectMessage("The following identifiers [auditTable] in table auditTable do not have an Add/Modify revision in table auditTable as their last revision or do not have a revision at all.");
@@ -141,7 +212,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithoutRevColumn()
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithoutRevColumn() throws SQLException, DataSetException
 	{
 		// Given
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
@@ -153,7 +224,7 @@ public class RevisionValidatorTest
 		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
 		when(auditTableRow.getColumnValue(revColumnName)).thenReturn(null);
 
-		final RevisionValidator validator = new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable);
+		final RevisionValidator validator = createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable);
 
 		expectedException.expect(ValidationException.class);
 		expectedException.expectMessage("The audit table auditTable does not have a column referring to the revision table.");
@@ -163,7 +234,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithRemoveRevision()
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithRemoveRevision() throws SQLException, DataSetException
 	{
 		// Given
 		final String revColumnName = "revColumnName";
@@ -175,7 +246,7 @@ public class RevisionValidatorTest
 		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
 		when(auditTableRow.getColumnValue(revColumnName)).thenReturn(BigDecimal.valueOf(RevisionConstants.REMOVE_REVISION));
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		try
 		{
@@ -191,7 +262,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithValidAddRevision()
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithValidAddRevision() throws SQLException, DataSetException
 	{
 		// Given
 		final String revColumnName = "revColumnName";
@@ -201,7 +272,7 @@ public class RevisionValidatorTest
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.singletonMap(AUDIT_TABLE, Collections.singletonList(auditTableRow));
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
 		when(auditTableRow.getColumnValue(revColumnName)).thenReturn(BigDecimal.valueOf(RevisionConstants.ADD_REVISION));
@@ -212,7 +283,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithInvalidModifyRevision()
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionAuditTableWithInvalidModifyRevision() throws SQLException, DataSetException
 	{
 		// Given
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
@@ -224,7 +295,7 @@ public class RevisionValidatorTest
 
 		final Map<String, TableRow> incorrectColumns = mock(Map.class);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
 		when(auditTableRow.getColumnValue(revColumnName)).thenReturn(BigDecimal.valueOf(RevisionConstants.ADD_REVISION));
@@ -236,16 +307,16 @@ public class RevisionValidatorTest
 		validator.validateAllRecordsInContentTableHaveAValidLatestRevision();
 
 		// Then
-		final ArgumentCaptor<Map> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+		final ArgumentCaptor<ViolationCollector> argumentCaptor = ArgumentCaptor.forClass(ViolationCollector.class);
 		verify(validator, times(1)).validateLatestRevisionComparisonResult(any(), argumentCaptor.capture());
 
-		final Map invalidRevision = argumentCaptor.getValue();
-		assertEquals(1, invalidRevision.size());
-		assertEquals(incorrectColumns, invalidRevision.get(AUDIT_TABLE));
+		final ViolationCollector invalidRevision = argumentCaptor.getValue();
+		assertEquals(1, invalidRevision.getCount());
+		assertEquals(incorrectColumns, invalidRevision.getExamples().get(AUDIT_TABLE));
 	}
 
 	@Test
-	public void testDetermineIncorrectColumnsWithAuditTableHavingMoreColumns()
+	public void testDetermineIncorrectColumnsWithAuditTableHavingMoreColumns() throws SQLException, DataSetException
 	{
 		// Given
 		final TableRow actualTableRow = new TableRow();
@@ -257,7 +328,7 @@ public class RevisionValidatorTest
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		// When
 		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
@@ -267,7 +338,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testDetermineIncorrectColumnsWithContentTableHavingMoreColumns()
+	public void testDetermineIncorrectColumnsWithContentTableHavingMoreColumns() throws SQLException, DataSetException
 	{
 		// Given
 		final TableRow actualTableRow = new TableRow();
@@ -279,7 +350,7 @@ public class RevisionValidatorTest
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		// When
 		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
@@ -294,7 +365,7 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testDetermineIncorrectColumnsWithContentTableHavingSameColumnsButWithDifferentValue()
+	public void testDetermineIncorrectColumnsWithContentTableHavingSameColumnsButWithDifferentValue() throws SQLException, DataSetException
 	{
 		// Given
 		final TableRow actualTableRow = new TableRow();
@@ -309,7 +380,7 @@ public class RevisionValidatorTest
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		// When
 		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
@@ -326,7 +397,207 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testDetermineIncorrectColumnsWithBothTablesHavingSameNumberOfColumnsButWithDifferentIds()
+	public void testDetermineIncorrectColumnsNormalisesNumbersTimestampsAndCharacters() throws SQLException, DataSetException
+	{
+		// Given
+		final Timestamp timestamp = new Timestamp(1500000000123L);
+		timestamp.setNanos(123456789);
+		final TableRow actualTableRow = new TableRow();
+		actualTableRow.addColumn("column1", new BigDecimal("1.00"));
+		actualTableRow.addColumn("column2", timestamp);
+		actualTableRow.addColumn("column3", "value1    ");
+		final TableRow auditTableRow = new TableRow();
+		auditTableRow.addColumn("column1", 1L);
+		auditTableRow.addColumn("column2", new Date(1500000000123L));
+		auditTableRow.addColumn("column3", "value1");
+
+		// Method under test is not dependent on the constructor parameters
+		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+		when(databaseQueries.getFixedWidthCharacterColumnNames(AUDIT_TABLE)).thenReturn(Collections.singleton("COLUMN3"));
+
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
+
+		// When
+		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
+
+		// Then
+		assertTrue(incorrectColumns.isEmpty());
+	}
+
+	@Test
+	public void testDetermineIncorrectColumnsComparesTrailingSpacesOfVariableWidthColumns() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow actualTableRow = new TableRow();
+		actualTableRow.addColumn("column1", "value1 ");
+		final TableRow auditTableRow = new TableRow();
+		auditTableRow.addColumn("column1", "value1");
+
+		// Method under test is not dependent on the constructor parameters
+		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+
+		final RevisionValidator validator = createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable);
+
+		// When
+		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
+
+		// Then
+		assertEquals("value1 ", incorrectColumns.get("actual").getColumnValue("column1"));
+		assertEquals("value1", incorrectColumns.get("audit").getColumnValue("column1"));
+	}
+
+	@Test
+	public void testDetermineIncorrectColumnsWithDifferentNumericValues() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow actualTableRow = new TableRow();
+		actualTableRow.addColumn("column1", new BigDecimal("1.5"));
+		final TableRow auditTableRow = new TableRow();
+		auditTableRow.addColumn("column1", 1L);
+
+		// Method under test is not dependent on the constructor parameters
+		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
+
+		// When
+		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
+
+		// Then
+		assertEquals(2, incorrectColumns.size());
+		assertEquals(new BigDecimal("1.5"), incorrectColumns.get("actual").getColumnValue("column1"));
+		assertEquals(1L, incorrectColumns.get("audit").getColumnValue("column1"));
+	}
+
+	@Test
+	public void testDetermineIncorrectColumnsWithRowsSharingTableColumns() throws SQLException, DataSetException
+	{
+		// Given
+		final TableColumns contentColumns = new TableColumns(Arrays.asList("ID", "NAME", "NOT_AUDITED"));
+		final TableColumns auditColumns = new TableColumns(Arrays.asList("ID", "REV", "REVTYPE", "NAME"));
+		final TableRow actualTableRow1 = createTableRow(contentColumns, 1L, "name1", "ignored");
+		final TableRow auditTableRow1 = createTableRow(auditColumns, 1L, 10L, 0L, "name1");
+		final TableRow actualTableRow2 = createTableRow(contentColumns, 2L, "name2", "ignored");
+		final TableRow auditTableRow2 = createTableRow(auditColumns, 2L, 11L, 1L, "other name");
+
+		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE, Collections.singleton("NOT_AUDITED"));
+
+		final RevisionValidator validator = createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable);
+
+		// When
+		final Map<String, TableRow> incorrectColumns1 = validator.determineIncorrectColumns(actualTableRow1, auditTableRow1);
+		final Map<String, TableRow> incorrectColumns2 = validator.determineIncorrectColumns(actualTableRow2, auditTableRow2);
+
+		// Then
+		assertTrue(incorrectColumns1.isEmpty());
+		assertEquals(Collections.singleton("NAME"), incorrectColumns2.get("actual").getColumnNames());
+		assertEquals("name2", incorrectColumns2.get("actual").getColumnValue("NAME"));
+		assertEquals("other name", incorrectColumns2.get("audit").getColumnValue("NAME"));
+	}
+
+	@Test
+	public void testValidateLatestAddOrModifyRevisionRefersToExistingContent() throws SQLException, DataSetException
+	{
+		// Given
+		final String revColumnName = "revColumnName";
+		final TableRow addRevision = new TableRow();
+		addRevision.addColumn(revColumnName, BigDecimal.valueOf(RevisionConstants.ADD_REVISION));
+		final TableRow removeRevision = new TableRow();
+		removeRevision.addColumn(revColumnName, BigDecimal.valueOf(RevisionConstants.REMOVE_REVISION));
+
+		final Map<String, List<TableRow>> recordsInAuditTable = new HashMap<>();
+		recordsInAuditTable.put("1-a", Collections.singletonList(addRevision));
+		recordsInAuditTable.put("2-b", Collections.singletonList(addRevision));
+		recordsInAuditTable.put("3-c", Collections.singletonList(removeRevision));
+		final Map<String, TableRow> recordsInContentTable = Collections.singletonMap("1-a", new TableRow());
+
+		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
+
+		final RevisionValidator validator = createValidator(new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE), recordsInAuditTable, recordsInContentTable);
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following identifiers [2-b] have a latest revision of type Add/Modify but have no record present in content table auditTable.");
+
+		// When
+		validator.validateLatestAddOrModifyRevisionRefersToExistingContent();
+	}
+
+	@Test
+	public void testValidateLatestAddOrModifyRevisionRefersToExistingContentSkipsValidityAuditStrategyTable() throws SQLException, DataSetException
+	{
+		// Given
+		final String revColumnName = "revColumnName";
+		final TableRow addRevision = new TableRow();
+		addRevision.addColumn(revColumnName, BigDecimal.valueOf(RevisionConstants.ADD_REVISION));
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.singletonMap("1-a", Collections.singletonList(addRevision));
+
+		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
+		when(databaseQueries.getRevisionEndColumnName()).thenReturn("REVEND");
+		when(databaseQueries.getAllColumns(AUDIT_TABLE)).thenReturn(new HashSet<>(Arrays.asList("ID", revColumnName, "REVEND")));
+
+		final RevisionValidator validator = createValidator(new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE), recordsInAuditTable, Collections.emptyMap());
+
+		// When
+		validator.validateLatestAddOrModifyRevisionRefersToExistingContent();
+	}
+
+	@Test
+	public void testValidateAllRecordsInContentTableHaveAValidLatestRevisionSkipsRemoveRevisionOfValidityAuditStrategyTable() throws SQLException, DataSetException
+	{
+		// Given
+		final String revColumnName = "revColumnName";
+		final TableRow removeRevision = new TableRow();
+		removeRevision.addColumn(revColumnName, BigDecimal.valueOf(RevisionConstants.REMOVE_REVISION));
+		final Map<String, List<TableRow>> recordsInAuditTable = Collections.singletonMap("1-a", Collections.singletonList(removeRevision));
+		final Map<String, TableRow> recordsInContentTable = new HashMap<>();
+		recordsInContentTable.put("1-a", new TableRow());
+		recordsInContentTable.put("2-b", new TableRow());
+
+		when(databaseQueries.getRevTypeColumnName()).thenReturn(revColumnName);
+		when(databaseQueries.getRevisionEndColumnName()).thenReturn("REVEND");
+		when(databaseQueries.getAllColumns(AUDIT_TABLE)).thenReturn(new HashSet<>(Arrays.asList("ID", revColumnName, "REVEND")));
+
+		final RevisionValidator validator = spy(createValidator(new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE), recordsInAuditTable, recordsInContentTable));
+
+		// When
+		validator.validateAllRecordsInContentTableHaveAValidLatestRevision();
+
+		// Then
+		verify(validator, never()).determineIncorrectColumns(any(TableRow.class), any(TableRow.class));
+	}
+
+	/**
+	 * Creates a validator for which the given content records are returned by the database.
+	 */
+	@Nonnull
+	private RevisionValidator createValidator(@Nonnull AuditTableInformation auditTableInformation, @Nonnull Map<String, List<TableRow>> recordsInAuditTable, @Nonnull Map<String, TableRow> recordsInContentTable) throws SQLException, DataSetException
+	{
+		when(databaseQueries.getPrimaryKeyColumnNames(auditTableInformation.getContentTableName())).thenReturn(PRIMARY_IDENTIFIER_COLUMN_NAMES);
+		when(databaseQueries.getContentRecords(databaseConnection, auditTableInformation, PRIMARY_IDENTIFIER_COLUMN_NAMES)).thenReturn(recordsInContentTable);
+		return new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, ContentKeyIndex.of(recordsInContentTable.keySet()));
+	}
+
+	@Nonnull
+	private static TableRow createTableRow(@Nonnull TableColumns tableColumns, @Nonnull Object... values)
+	{
+		final TableRow tableRow = new TableRow(tableColumns);
+		for (int index = 0; index < values.length; index++)
+		{
+			tableRow.setColumnValue(index, values[index]);
+		}
+		return tableRow;
+	}
+
+	@Test
+	public void testDetermineIncorrectColumnsWithBothTablesHavingSameNumberOfColumnsButWithDifferentIds() throws SQLException, DataSetException
 	{
 		// Given
 		final TableRow actualTableRow = new TableRow();
@@ -339,7 +610,7 @@ public class RevisionValidatorTest
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, recordsInAuditTable, recordsInContentTable));
 
 		// When
 		final Map<String, TableRow> incorrectColumns = validator.determineIncorrectColumns(actualTableRow, auditTableRow);
@@ -357,28 +628,29 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateLatestRevisionComparisonResultWithNomissingAddOrModifyRevisionsAndNoRowsWithDifferentValues()
+	public void testValidateLatestRevisionComparisonResultWithNomissingAddOrModifyRevisionsAndNoRowsWithDifferentValues() throws SQLException, DataSetException
 	{
 		// Given
-		final List<String> identifiersWhichShouldHaveAnAddOrModifyRevision = Collections.emptyList();
-		final Map<String, Map<String, TableRow>> rowsWithDifferentValues = Collections.emptyMap();
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(ValidationReport.NONE);
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(ValidationReport.NONE);
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, mock(Map.class), mock(Map.class)));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, mock(Map.class), mock(Map.class)));
 
 		// When
 		validator.validateLatestRevisionComparisonResult(identifiersWhichShouldHaveAnAddOrModifyRevision, rowsWithDifferentValues);
 	}
 
 	@Test
-	public void testValidateLatestRevisionComparisonResultWithOneIDWithMissingRevisionAndNoRowsWithDifferentValues()
+	public void testValidateLatestRevisionComparisonResultWithOneIDWithMissingRevisionAndNoRowsWithDifferentValues() throws SQLException, DataSetException
 	{
 		// Given
-		final List<String> identifiersWhichShouldHaveAnAddOrModifyRevision = Collections.singletonList("identifierWithMissingRevision");
-		final Map<String, Map<String, TableRow>> rowsWithDifferentValues = Collections.emptyMap();
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(ValidationReport.NONE);
+		identifiersWhichShouldHaveAnAddOrModifyRevision.add("identifierWithMissingRevision", () -> "");
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(ValidationReport.NONE);
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, mock(Map.class), mock(Map.class)));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, mock(Map.class), mock(Map.class)));
 
 		expectedException.expect(ValidationException.class);
 		expectedException.expectMessage("The following identifiers [identifierWithMissingRevision] in table auditTable do not have an Add/Modify revision in table auditTable as their last revision or do not have a revision at all.");
@@ -388,10 +660,11 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateLatestRevisionComparisonResultWithOneIDWithMissingRevisionAndOneRowWithDifferentValues()
+	public void testValidateLatestRevisionComparisonResultWithOneIDWithMissingRevisionAndOneRowWithDifferentValues() throws SQLException, DataSetException
 	{
 		// Given
-		final List<String> identifiersWhichShouldHaveAnAddOrModifyRevision = Collections.singletonList("identifierWithMissingRevision");
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(ValidationReport.NONE);
+		identifiersWhichShouldHaveAnAddOrModifyRevision.add("identifierWithMissingRevision", () -> "");
 
 		final TableRow actualTableRow = new TableRow();
 		actualTableRow.addColumn("column", "actualValue");
@@ -401,10 +674,11 @@ public class RevisionValidatorTest
 		final Map<String, TableRow> differentColumns = new HashMap<>();
 		differentColumns.put("actual", actualTableRow);
 		differentColumns.put("audit", auditTableRow);
-		final Map<String, Map<String, TableRow>> rowsWithDifferentValues = Collections.singletonMap("identifierWithDifferentAudit", differentColumns);
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(ValidationReport.NONE);
+		rowsWithDifferentValues.add("identifierWithDifferentAudit", differentColumns, () -> "");
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, mock(Map.class), mock(Map.class)));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, mock(Map.class), mock(Map.class)));
 
 		//@formatter:off
 		final String expectedMessage = "The following identifiers [identifierWithMissingRevision] in table auditTable do not have an Add/Modify revision in table auditTable as their last revision or do not have a revision at all.\n" +
@@ -420,10 +694,10 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateLatestRevisionComparisonResultWithNoIDWithMissingRevisionAndOneRowWithDifferentValues()
+	public void testValidateLatestRevisionComparisonResultWithNoIDWithMissingRevisionAndOneRowWithDifferentValues() throws SQLException, DataSetException
 	{
 		// Given
-		final List<String> identifiersWhichShouldHaveAnAddOrModifyRevision = Collections.emptyList();
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(ValidationReport.NONE);
 
 		final TableRow actualTableRow = new TableRow();
 		actualTableRow.addColumn("column", "actualValue");
@@ -433,10 +707,11 @@ public class RevisionValidatorTest
 		final Map<String, TableRow> differentColumns = new HashMap<>();
 		differentColumns.put("actual", actualTableRow);
 		differentColumns.put("audit", auditTableRow);
-		final Map<String, Map<String, TableRow>> rowsWithDifferentValues = Collections.singletonMap("identifierWithDifferentAudit", differentColumns);
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(ValidationReport.NONE);
+		rowsWithDifferentValues.add("identifierWithDifferentAudit", differentColumns, () -> "");
 		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
 
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, auditTableInformation, mock(Map.class), mock(Map.class)));
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, mock(Map.class), mock(Map.class)));
 
 		//@formatter:off
 		final String expectedMessage = "Row with identifier identifierWithDifferentAudit has a different audit row than the actual value in the content table, the following columns differ: \n" +
@@ -451,12 +726,33 @@ public class RevisionValidatorTest
 	}
 
 	@Test
-	public void testValidateHistoryIsAValidFlowWithEmptyAuditTable()
+	public void testValidateLatestRevisionComparisonResultOnlyIncludesTheMaximumNumberOfExamples() throws SQLException, DataSetException
+	{
+		// Given
+		final ValidationReport validationReport = new NoOpValidationReport(1);
+		final ViolationCollector<Void> identifiersWhichShouldHaveAnAddOrModifyRevision = new ViolationCollector<>(validationReport);
+		identifiersWhichShouldHaveAnAddOrModifyRevision.add("identifier1", () -> "");
+		identifiersWhichShouldHaveAnAddOrModifyRevision.add("identifier2", () -> "");
+		identifiersWhichShouldHaveAnAddOrModifyRevision.add("identifier3", () -> "");
+		final ViolationCollector<Map<String, TableRow>> rowsWithDifferentValues = new ViolationCollector<>(validationReport);
+		final AuditTableInformation auditTableInformation = new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE);
+
+		final RevisionValidator validator = spy(createValidator(auditTableInformation, mock(Map.class), mock(Map.class)));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following identifiers [identifier1] in table auditTable do not have an Add/Modify revision in table auditTable as their last revision or do not have a revision at all. (2 more violations were omitted, 3 in total)");
+
+		// When
+		validator.validateLatestRevisionComparisonResult(identifiersWhichShouldHaveAnAddOrModifyRevision, rowsWithDifferentValues);
+	}
+
+	@Test
+	public void testValidateHistoryIsAValidFlowWithEmptyAuditTable() throws SQLException, DataSetException
 	{
 		// Given
 		final Map<String, List<TableRow>> recordsInAuditTable = Collections.emptyMap();
 		final Map<String, TableRow> recordsInContentTable = Collections.emptyMap();
-		final RevisionValidator validator = spy(new RevisionValidator(connectionProvider, new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE), recordsInAuditTable, recordsInContentTable));
+		final RevisionValidator validator = spy(createValidator(new AuditTableInformation(AUDIT_TABLE, AUDIT_TABLE), recordsInAuditTable, recordsInContentTable));
 
 		// When
 		validator.validateHistoryIsAValidFlow();
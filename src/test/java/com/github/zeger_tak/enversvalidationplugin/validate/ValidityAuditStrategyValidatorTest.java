@@ -0,0 +1,196 @@
+package com.github.zeger_tak.enversvalidationplugin.validate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.zeger_tak.enversvalidationplugin.connection.ConnectionProviderInstance;
+import com.github.zeger_tak.enversvalidationplugin.connection.DatabaseQueries;
+import com.github.zeger_tak.enversvalidationplugin.entities.AuditTableInformation;
+import com.github.zeger_tak.enversvalidationplugin.entities.TableRow;
+import com.github.zeger_tak.enversvalidationplugin.exceptions.ValidationException;
+import org.dbunit.dataset.DataSetException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ValidityAuditStrategyValidatorTest
+{
+	private final String auditTableName = "auditTable";
+	private final String contentTableName = "contentTable";
+	private final AuditTableInformation auditTableInformation = new AuditTableInformation(auditTableName, contentTableName);
+	private final List<String> primaryIdentifierColumnNames = Collections.singletonList("id");
+
+	@Rule
+	public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Mock
+	private Map<String, AuditTableInformation> auditTableInformationMap;
+
+	@Mock
+	private ConnectionProviderInstance connectionProvider;
+
+	@Mock
+	private DatabaseQueries databaseQueries;
+
+	@Before
+	public void init()
+	{
+		when(connectionProvider.getQueries()).thenReturn(databaseQueries);
+		when(databaseQueries.getRevisionEndColumnName()).thenReturn("REVEND");
+		when(databaseQueries.getRevisionEndTimestampColumnName()).thenReturn("REVEND_TSTMP");
+	}
+
+	@Test
+	public void testGenerateTestDataOnlyIncludesAuditTablesWithRevisionEndColumn() throws SQLException, DataSetException
+	{
+		// Given
+		final AuditTableInformation otherAuditTableInformation = new AuditTableInformation("otherAuditTable", "otherContentTable");
+		final Map<String, AuditTableInformation> auditTables = new HashMap<>();
+		auditTables.put(auditTableName, auditTableInformation);
+		auditTables.put("otherAuditTable", otherAuditTableInformation);
+		final Set<String> auditTableColumnNames = new HashSet<>();
+		auditTableColumnNames.add("id");
+		auditTableColumnNames.add("REVEND");
+
+		when(auditTableInformationMap.entrySet()).thenReturn(auditTables.entrySet());
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(auditTableColumnNames);
+		when(databaseQueries.getAllColumns("otherAuditTable")).thenReturn(Collections.singleton("id"));
+		when(databaseQueries.getPrimaryKeyColumnNames(contentTableName)).thenReturn(primaryIdentifierColumnNames);
+
+		// When
+		final List<Object[]> testData = ValidityAuditStrategyValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertEquals(1, testData.size());
+		assertEquals(connectionProvider, testData.get(0)[0]);
+		assertEquals(auditTableInformation, testData.get(0)[1]);
+		assertEquals(primaryIdentifierColumnNames, testData.get(0)[2]);
+		assertEquals(auditTableColumnNames, testData.get(0)[3]);
+	}
+
+	@Test
+	public void testGenerateTestDataWithoutRevisionEndColumns() throws SQLException, DataSetException
+	{
+		// Given
+		when(auditTableInformationMap.entrySet()).thenReturn(Collections.singleton(new HashMap.SimpleEntry<>(auditTableName, auditTableInformation)));
+		when(databaseQueries.getAllColumns(auditTableName)).thenReturn(Collections.singleton("id"));
+
+		// When
+		final List<Object[]> testData = ValidityAuditStrategyValidator.generateTestData(connectionProvider, auditTableInformationMap);
+
+		// Then
+		assertTrue(testData.isEmpty());
+	}
+
+	@Test
+	public void testValidateRevisionEndRefersToNextRevision() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getRevisionEndChainViolations(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.emptyMap());
+
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, Collections.singleton("REVEND"));
+
+		// When
+		validator.validateRevisionEndRefersToNextRevision();
+	}
+
+	@Test
+	public void testValidateRevisionEndRefersToNextRevisionWithInvalidRevisionEnd() throws SQLException, DataSetException
+	{
+		// Given
+		final TableRow tableRow = new TableRow();
+		tableRow.addColumn("REVEND", 5);
+		tableRow.addColumn(DatabaseQueries.NEXT_REVISION_COLUMN_NAME, 3);
+		when(databaseQueries.getRevisionEndChainViolations(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singletonMap("1, 2", tableRow));
+
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, Collections.singleton("REVEND"));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 2] in " + auditTableName + " have a revision end which does not refer to the next revision of the same record.");
+
+		// When
+		validator.validateRevisionEndRefersToNextRevision();
+	}
+
+	@Test
+	public void testValidateRevisionEndTimestampIsSkippedWithoutRevisionEndTimestampColumn() throws SQLException, DataSetException
+	{
+		// Given
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, Collections.singleton("REVEND"));
+
+		// When
+		validator.validateRevisionEndTimestampIsFilledWithRevisionEnd();
+
+		// Then
+		verify(databaseQueries, never()).getRevisionEndTimestampViolations(any(), any(), any());
+	}
+
+	@Test
+	public void testValidateRevisionEndTimestampIsFilledWithRevisionEndWithViolation() throws SQLException, DataSetException
+	{
+		// Given
+		final Set<String> auditTableColumnNames = new HashSet<>();
+		auditTableColumnNames.add("REVEND");
+		auditTableColumnNames.add("REVEND_TSTMP");
+		when(databaseQueries.getRevisionEndTimestampViolations(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singletonMap("1, 2", new TableRow()));
+
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, auditTableColumnNames);
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 2] in " + auditTableName + " have only one of the revision end and the revision end timestamp filled.");
+
+		// When
+		validator.validateRevisionEndTimestampIsFilledWithRevisionEnd();
+	}
+
+	@Test
+	public void testValidateOpenRevisionsReferToExistingContentWithViolation() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getOpenRevisionsWithoutContent(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singletonMap("1, 2", new TableRow()));
+
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, Collections.singleton("REVEND"));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following revisions [1, 2] in " + auditTableName + " are the latest revision of type Add/Modify but have no record present in content table " + contentTableName + ".");
+
+		// When
+		validator.validateOpenRevisionsReferToExistingContent();
+	}
+
+	@Test
+	public void testValidateAllRecordsInContentTableHaveAnOpenRevisionWithViolation() throws SQLException, DataSetException
+	{
+		// Given
+		when(databaseQueries.getContentWithoutOpenRevision(any(), eq(auditTableInformation), eq(primaryIdentifierColumnNames))).thenReturn(Collections.singleton("1"));
+
+		final ValidityAuditStrategyValidator validator = new ValidityAuditStrategyValidator(connectionProvider, auditTableInformation, primaryIdentifierColumnNames, Collections.singleton("REVEND"));
+
+		expectedException.expect(ValidationException.class);
+		expectedException.expectMessage("The following identifiers [1] in table " + contentTableName + " do not have a latest revision of type Add/Modify without revision end in table " + auditTableName + ".");
+
+		// When
+		validator.validateAllRecordsInContentTableHaveAnOpenRevision();
+	}
+}
\ No newline at end of file